@@ -0,0 +1,186 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Robot names compiled into a trie to match the value of a robots.txt
+ * <code>User-agent</code> line in a single pass, see
+ * {@link SimpleRobotRulesParser#prepare(Collection)}.
+ *
+ * <p>
+ * The result of {@link #match(String)} is the same as that of the exact
+ * user-agent matching ({@link SimpleRobotRulesParser#setExactUserAgentMatching(boolean)}):
+ * the trimmed, lower-cased value matches if it is equal to one of the names,
+ * or, if it is not a valid product token, if it starts with a product token
+ * equal to one of the names (e.g. <code>mybot/1.0</code>). The value is
+ * neither trimmed nor lower-cased into a new string, and no regular expression
+ * is evaluated. Values containing non-ASCII characters are left undecided
+ * and are matched by the parser as usual.
+ * </p>
+ *
+ * <p>
+ * The matcher is also the collection of the names, so that it can be passed
+ * where the names are expected. It is immutable and thread-safe.
+ * </p>
+ */
+final class AgentNameMatcher extends AbstractCollection<String> {
+
+    /** Result of {@link #match(String)}: the value is empty */
+    static final int EMPTY = 0;
+    /** Result of {@link #match(String)}: the value is the wildcard <code>*</code> */
+    static final int WILDCARD = 1;
+    /** Result of {@link #match(String)}: the value matches one of the names */
+    static final int MATCH = 2;
+    /** Result of {@link #match(String)}: the value matches none of the names */
+    static final int NO_MATCH = 3;
+    /**
+     * Result of {@link #match(String)}: the value contains non-ASCII
+     * characters and must be matched by the parser
+     */
+    static final int UNDECIDED = 4;
+
+    private static final class Node {
+        char[] chars = {};
+        Node[] children = {};
+        boolean terminal;
+
+        Node getChild(char c) {
+            for (int i = 0; i < chars.length; i++) {
+                if (chars[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node addChild(char c) {
+            Node child = getChild(c);
+            if (child == null) {
+                child = new Node();
+                chars = Arrays.copyOf(chars, chars.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                chars[chars.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+
+    private final Set<String> _names;
+    private final Node _root = new Node();
+
+    /**
+     * @param names
+     *            lower-case robot names
+     */
+    AgentNameMatcher(Collection<String> names) {
+        _names = new LinkedHashSet<>(names);
+        for (String name : _names) {
+            Node node = _root;
+            for (int i = 0; i < name.length(); i++) {
+                node = node.addChild(name.charAt(i));
+            }
+            node.terminal = true;
+        }
+    }
+
+    /**
+     * Match the value of a <code>User-agent</code> line against the names.
+     *
+     * @param agentName
+     *            value of the user-agent line, not trimmed and in any case
+     * @return {@link #EMPTY}, {@link #WILDCARD}, {@link #MATCH},
+     *         {@link #NO_MATCH} or {@link #UNDECIDED}
+     */
+    int match(String agentName) {
+        // trim as String.trim() does
+        int start = 0;
+        int end = agentName.length();
+        while (start < end && agentName.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && agentName.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return EMPTY;
+        }
+        if ((end - start) == 1 && agentName.charAt(start) == '*') {
+            return WILDCARD;
+        }
+
+        Node node = _root;
+        boolean inToken = true;
+        boolean tokenMatched = false;
+        for (int i = start; i < end; i++) {
+            char c = agentName.charAt(i);
+            if (c >= 128) {
+                return UNDECIDED;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (inToken && !isProductTokenChar(c)) {
+                // end of the leading product token
+                inToken = false;
+                tokenMatched = (i > start) && node != null && node.terminal;
+            }
+            if (node != null) {
+                node = node.getChild(c);
+            }
+            if (node == null && !inToken) {
+                // the value cannot match as a whole
+                return tokenMatched ? MATCH : NO_MATCH;
+            }
+        }
+        if (node != null && node.terminal) {
+            return MATCH;
+        }
+        return tokenMatched ? MATCH : NO_MATCH;
+    }
+
+    /**
+     * @return true if the character is allowed in a product token, see
+     *         {@link SimpleRobotRulesParser#USER_AGENT_PRODUCT_TOKEN_MATCHER}
+     */
+    private static boolean isProductTokenChar(char c) {
+        return (c >= 'a' && c <= 'z') || c == '_' || c == '-';
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return Collections.unmodifiableSet(_names).iterator();
+    }
+
+    @Override
+    public int size() {
+        return _names.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return _names.contains(o);
+    }
+}
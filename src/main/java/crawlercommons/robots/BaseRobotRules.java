@@ -19,11 +19,14 @@ package crawlercommons.robots;
 import java.io.Serializable;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Result from parsing a single robots.txt file – a set of allow/disallow rules
@@ -50,11 +53,66 @@ public abstract class BaseRobotRules implements Serializable {
     private boolean _matchedWildcard = false;
     private LinkedHashSet<String> _sitemaps;
     private EnumMap<RobotsExtension, RobotsExtensionData> _extensions;
+    private boolean _frozen = false;
+
+    /*
+     * Compact form of sitemaps and extension data once the rules are frozen:
+     * the collections above are then set to null. The extension data is
+     * ordered by extension.
+     */
+    private static final String[] NO_SITEMAPS = {};
+    private static final RobotsExtensionData[] NO_EXTENSIONS = {};
+    private String[] _frozenSitemaps;
+
+    /** Extensions whose data is held as {@link ContentSignalPolicy} */
+    private static final RobotsExtension[] CONTENT_SIGNAL_EXTENSIONS = { RobotsExtension.CONTENT_SIGNALS, RobotsExtension.LLM_POLICY };
+    private RobotsExtensionData[] _frozenExtensions;
 
     public BaseRobotRules() {
         _sitemaps = new LinkedHashSet<>();
     }
 
+    /**
+     * Make the rules immutable: any later attempt to modify the rules throws
+     * an {@link UnsupportedOperationException}. Frozen rules can be safely
+     * shared between threads and between hosts, see
+     * {@link RobotRulesInterner}.
+     * 
+     * <p>
+     * Sitemaps and extension data of frozen rules are held in arrays, the
+     * lists and maps returned by {@link #getSitemaps()} and
+     * {@link #getExtensions()} are built on demand.
+     * </p>
+     */
+    public void freeze() {
+        if (_frozen) {
+            return;
+        }
+        _frozenSitemaps = _sitemaps.isEmpty() ? NO_SITEMAPS : _sitemaps.toArray(NO_SITEMAPS);
+        _sitemaps = null;
+        resolveContentSignals();
+        _frozenExtensions = (_extensions == null) ? NO_EXTENSIONS : _extensions.values().toArray(NO_EXTENSIONS);
+        _extensions = null;
+        _frozen = true;
+    }
+
+    /**
+     * @return true if the rules are immutable, see {@link #freeze()}
+     */
+    public boolean isFrozen() {
+        return _frozen;
+    }
+
+    /**
+     * @throws UnsupportedOperationException
+     *             if the rules are frozen
+     */
+    protected void checkNotFrozen() {
+        if (_frozen) {
+            throw new UnsupportedOperationException("Robots rules are frozen and cannot be modified");
+        }
+    }
+
     /**
      * Get Crawl-delay (in milliseconds)
      * 
@@ -70,6 +128,7 @@ public abstract class BaseRobotRules implements Serializable {
      *            Crawl-Delay in milliseconds
      */
     public void setCrawlDelay(long crawlDelay) {
+        checkNotFrozen();
         _crawlDelay = crawlDelay;
     }
 
@@ -85,6 +144,7 @@ public abstract class BaseRobotRules implements Serializable {
      * becomes available.
      */
     public void setDeferVisits(boolean deferVisits) {
+        checkNotFrozen();
         _deferVisits = deferVisits;
     }
 
@@ -105,19 +165,32 @@ public abstract class BaseRobotRules implements Serializable {
      *            true if the wildcard user agent was matched; false otherwise.
      */
     public void setMatchedWildcard(boolean matchedWildcard) {
+        checkNotFrozen();
         this._matchedWildcard = matchedWildcard;
     }
 
     /** Add sitemap URL to rules if not a duplicate */
     public void addSitemap(String sitemap) {
+        checkNotFrozen();
         _sitemaps.add(sitemap);
     }
 
     /** Get URLs of sitemap links found in robots.txt */
     public List<String> getSitemaps() {
+        if (_frozenSitemaps != null) {
+            return new ArrayList<>(Arrays.asList(_frozenSitemaps));
+        }
         return new ArrayList<>(_sitemaps);
     }
 
+    /** @return the set of sitemap URLs, used to compare rules */
+    private Set<String> getSitemapSet() {
+        if (_frozenSitemaps != null) {
+            return new HashSet<>(Arrays.asList(_frozenSitemaps));
+        }
+        return _sitemaps;
+    }
+
     /**
      * Get extension data for a specific robots.txt extension directive.
      *
@@ -127,10 +200,18 @@ public abstract class BaseRobotRules implements Serializable {
      *         this extension
      */
     public RobotsExtensionData getExtensionData(RobotsExtension extension) {
+        if (_frozenExtensions != null) {
+            for (RobotsExtensionData data : _frozenExtensions) {
+                if (data.getExtension() == extension) {
+                    return data;
+                }
+            }
+            return null;
+        }
         if (_extensions == null) {
             return null;
         }
-        return _extensions.get(extension);
+        return resolve(_extensions.get(extension));
     }
 
     /**
@@ -140,15 +221,89 @@ public abstract class BaseRobotRules implements Serializable {
      *         extensions were collected. Never {@code null}.
      */
     public Map<RobotsExtension, RobotsExtensionData> getExtensions() {
+        if (_frozenExtensions != null) {
+            if (_frozenExtensions.length == 0) {
+                return Collections.emptyMap();
+            }
+            EnumMap<RobotsExtension, RobotsExtensionData> extensions = new EnumMap<>(RobotsExtension.class);
+            for (RobotsExtensionData data : _frozenExtensions) {
+                extensions.put(data.getExtension(), data);
+            }
+            return Collections.unmodifiableMap(extensions);
+        }
         if (_extensions == null) {
             return Collections.emptyMap();
         }
-        return Collections.unmodifiableMap(_extensions);
+        return Collections.unmodifiableMap(resolvedExtensions());
+    }
+
+    /** @return extension data, null if there is none, used to compare rules */
+    private Map<RobotsExtension, RobotsExtensionData> getExtensionMap() {
+        if (_frozenExtensions != null) {
+            return (_frozenExtensions.length == 0) ? null : getExtensions();
+        }
+        if (_extensions == null || _extensions.isEmpty()) {
+            return null;
+        }
+        return resolvedExtensions();
+    }
+
+    /**
+     * Parse the collected values of the
+     * {@link RobotsExtension#CONTENT_SIGNALS Content-Signal} and
+     * {@link RobotsExtension#LLM_POLICY LLM-Policy} directives into a
+     * {@link ContentSignalPolicy}. The values are collected as raw strings
+     * while parsing and only parsed once, when the parser has finished or the
+     * rules are frozen. The getters never modify the rules, so that rules can
+     * be read concurrently: values added later are parsed on every access
+     * until this method is called again.
+     */
+    void resolveContentSignals() {
+        if (_extensions == null) {
+            return;
+        }
+        for (RobotsExtension extension : CONTENT_SIGNAL_EXTENSIONS) {
+            RobotsExtensionData data = _extensions.get(extension);
+            if (data instanceof SimpleRobotsExtensionData) {
+                _extensions.put(extension, resolve(data));
+            }
+        }
+    }
+
+    /**
+     * @return the extension data, with raw content signal values parsed into
+     *         a {@link ContentSignalPolicy}
+     */
+    private static RobotsExtensionData resolve(RobotsExtensionData data) {
+        if (data instanceof SimpleRobotsExtensionData
+                        && (data.getExtension() == RobotsExtension.CONTENT_SIGNALS || data.getExtension() == RobotsExtension.LLM_POLICY)) {
+            return ContentSignalPolicy.parse(data.getExtension(), data.getValues());
+        }
+        return data;
+    }
+
+    /**
+     * @return the extension data, a copy if raw content signal values are
+     *         not yet resolved
+     */
+    private Map<RobotsExtension, RobotsExtensionData> resolvedExtensions() {
+        for (RobotsExtension extension : CONTENT_SIGNAL_EXTENSIONS) {
+            if (_extensions.get(extension) instanceof SimpleRobotsExtensionData) {
+                EnumMap<RobotsExtension, RobotsExtensionData> extensions = new EnumMap<>(_extensions);
+                extensions.replaceAll((e, data) -> resolve(data));
+                return extensions;
+            }
+        }
+        return _extensions;
     }
 
     /**
      * Add a value for a robots.txt extension directive. The extension data
-     * container is lazily created on first use.
+     * container is lazily created on first use. The values of the
+     * {@link RobotsExtension#CONTENT_SIGNALS Content-Signal} and
+     * {@link RobotsExtension#LLM_POLICY LLM-Policy} directives are parsed
+     * into an immutable {@link ContentSignalPolicy} once all values are
+     * collected, see {@link #freeze()}.
      *
      * @param extension
      *            the extension directive
@@ -156,12 +311,22 @@ public abstract class BaseRobotRules implements Serializable {
      *            the directive value (text after the colon)
      */
     public void addExtensionValue(RobotsExtension extension, String value) {
+        checkNotFrozen();
         if (_extensions == null) {
             _extensions = new EnumMap<>(RobotsExtension.class);
         }
-        SimpleRobotsExtensionData data = (SimpleRobotsExtensionData) _extensions.get(extension);
-        if (data == null) {
+        RobotsExtensionData existing = _extensions.get(extension);
+        SimpleRobotsExtensionData data;
+        if (existing instanceof SimpleRobotsExtensionData) {
+            data = (SimpleRobotsExtensionData) existing;
+        } else {
+            // new extension, or a policy already resolved: collect raw values
             data = new SimpleRobotsExtensionData(extension);
+            if (existing != null) {
+                for (String v : existing.getValues()) {
+                    data.addValue(v);
+                }
+            }
             _extensions.put(extension, data);
         }
         data.addValue(value);
@@ -174,6 +339,7 @@ public abstract class BaseRobotRules implements Serializable {
      *            the extension to clear
      */
     public void clearExtensionData(RobotsExtension extension) {
+        checkNotFrozen();
         if (_extensions != null) {
             _extensions.remove(extension);
         }
@@ -183,6 +349,7 @@ public abstract class BaseRobotRules implements Serializable {
      * Clear all collected extension data.
      */
     public void clearAllExtensionData() {
+        checkNotFrozen();
         _extensions = null;
     }
 
@@ -192,8 +359,9 @@ public abstract class BaseRobotRules implements Serializable {
         int result = 1;
         result = prime * result + (int) (_crawlDelay ^ (_crawlDelay >>> 32));
         result = prime * result + (_deferVisits ? 1231 : 1237);
-        result = prime * result + ((_sitemaps == null) ? 0 : _sitemaps.hashCode());
-        result = prime * result + ((_extensions == null) ? 0 : _extensions.hashCode());
+        result = prime * result + getSitemapSet().hashCode();
+        Map<RobotsExtension, RobotsExtensionData> extensions = getExtensionMap();
+        result = prime * result + ((extensions == null) ? 0 : extensions.hashCode());
         return result;
     }
 
@@ -210,15 +378,14 @@ public abstract class BaseRobotRules implements Serializable {
             return false;
         if (_deferVisits != other._deferVisits)
             return false;
-        if (_sitemaps == null) {
-            if (other._sitemaps != null)
-                return false;
-        } else if (!_sitemaps.equals(other._sitemaps))
+        if (!getSitemapSet().equals(other.getSitemapSet()))
             return false;
-        if (_extensions == null) {
-            if (other._extensions != null)
+        Map<RobotsExtension, RobotsExtensionData> extensions = getExtensionMap();
+        Map<RobotsExtension, RobotsExtensionData> otherExtensions = other.getExtensionMap();
+        if (extensions == null) {
+            if (otherExtensions != null)
                 return false;
-        } else if (!_extensions.equals(other._extensions))
+        } else if (!extensions.equals(otherExtensions))
             return false;
         return true;
     }
@@ -0,0 +1,336 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import crawlercommons.filters.URLFilter;
+
+/**
+ * Immutable rule compiled from the <a href=
+ * "https://yandex.com/support/webmaster/en/robot-workings/clean-param"
+ * >Clean-param</a> directives of a robots.txt file (see
+ * {@link RobotsExtension#CLEAN_PARAM}), used to remove query parameters which
+ * do not affect the content of a page, e.g., session IDs or tracking
+ * parameters.
+ *
+ * <p>
+ * Every directive holds a list of parameter names separated by
+ * <code>&amp;</code> and an optional path prefix which may contain the
+ * wildcard <code>*</code>:
+ * </p>
+ *
+ * <pre>
+ * Clean-param: utm_source&amp;utm_medium
+ * Clean-param: sid&amp;sort /forum/*.php
+ * </pre>
+ *
+ * <p>
+ * Parameters without a path prefix are removed from all URLs of the host.
+ * Parameter names and path prefixes are case-sensitive. The rule is used as
+ * {@link URLFilter}: {@link #filter(String)} returns the URL with the matching
+ * query parameters removed, the remaining parameters are kept verbatim and
+ * in their original order. URLs are never rejected. Instances are thread-safe.
+ * </p>
+ *
+ * <pre>
+ * SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+ * parser.enableExtension(RobotsExtension.CLEAN_PARAM);
+ * SimpleRobotRules rules = parser.parseContent(url, content, contentType, robotNames);
+ * CleanParamRule cleanParam = CleanParamRule.fromRules(rules);
+ * String cleaned = cleanParam.filter("https://www.example.com/forum/index.php?sid=123&amp;t=42");
+ * // cleaned: "https://www.example.com/forum/index.php?t=42"
+ * </pre>
+ */
+public class CleanParamRule extends URLFilter {
+
+    /** Rule which does not remove any parameters */
+    public static final CleanParamRule EMPTY = new CleanParamRule(Collections.emptySet(), Collections.emptyList());
+
+    /**
+     * Max. length of the path prefix, see <a href=
+     * "https://yandex.com/support/webmaster/en/robot-workings/clean-param"
+     * >Yandex documentation</a>. Longer prefixes are ignored.
+     */
+    public static final int MAX_PATH_PREFIX_LENGTH = 500;
+
+    /** Parameters to be removed from URLs matching a path prefix */
+    private static final class PathParams {
+        final String prefix;
+        /** literal pieces of the prefix between wildcards */
+        final String[] pieces;
+        final Set<String> params;
+
+        PathParams(String prefix, Set<String> params) {
+            this.prefix = prefix;
+            this.pieces = prefix.split("\\*", -1);
+            this.params = params;
+        }
+
+        /**
+         * Match the prefix against the path: the first piece must match at the
+         * start of the path, all other pieces are matched greedily at their
+         * leftmost occurrence.
+         */
+        boolean matches(String url, int pathStart, int pathEnd) {
+            String first = pieces[0];
+            if ((pathEnd - pathStart) < first.length() || !url.startsWith(first, pathStart)) {
+                return false;
+            }
+            int pos = pathStart + first.length();
+            for (int i = 1; i < pieces.length; i++) {
+                int found = url.indexOf(pieces[i], pos);
+                if (found == -1 || (found + pieces[i].length()) > pathEnd) {
+                    return false;
+                }
+                pos = found + pieces[i].length();
+            }
+            return true;
+        }
+    }
+
+    private final Set<String> _globalParams;
+    private final List<PathParams> _pathParams;
+
+    private CleanParamRule(Set<String> globalParams, List<PathParams> pathParams) {
+        _globalParams = globalParams;
+        _pathParams = pathParams;
+    }
+
+    /**
+     * Compile the Clean-param directives collected in the robots rules. The
+     * {@link RobotsExtension#CLEAN_PARAM} extension must be enabled in the
+     * parser, see {@link SimpleRobotRulesParser#enableExtension(RobotsExtension)}.
+     *
+     * @param rules
+     *            robots rules
+     * @return compiled rule, {@link #EMPTY} if there are no Clean-param
+     *         directives
+     */
+    public static CleanParamRule fromRules(BaseRobotRules rules) {
+        RobotsExtensionData data = rules.getExtensionData(RobotsExtension.CLEAN_PARAM);
+        if (data == null) {
+            return EMPTY;
+        }
+        return compile(data.getValues());
+    }
+
+    /**
+     * Compile Clean-param directives.
+     *
+     * @param values
+     *            values of the Clean-param directives: parameter names
+     *            separated by <code>&amp;</code>, optionally followed by white
+     *            space and a path prefix. Invalid values are ignored.
+     * @return compiled rule, {@link #EMPTY} if no parameters are defined
+     */
+    public static CleanParamRule compile(Collection<String> values) {
+        Set<String> globalParams = new HashSet<>();
+        Map<String, Set<String>> pathParams = new LinkedHashMap<>();
+        for (String value : values) {
+            String[] parts = value.trim().split("\\s+", 2);
+            Set<String> params = parseParams(parts[0]);
+            if (params.isEmpty()) {
+                continue;
+            }
+            String prefix = (parts.length > 1) ? parts[1].trim() : "";
+            if (prefix.length() > MAX_PATH_PREFIX_LENGTH) {
+                continue;
+            }
+            if (prefix.isEmpty() || prefix.equals("/") || prefix.equals("*") || prefix.equals("/*")) {
+                globalParams.addAll(params);
+            } else {
+                pathParams.computeIfAbsent(prefix, p -> new HashSet<>()).addAll(params);
+            }
+        }
+        if (globalParams.isEmpty() && pathParams.isEmpty()) {
+            return EMPTY;
+        }
+        List<PathParams> compiled = new ArrayList<>(pathParams.size());
+        for (Map.Entry<String, Set<String>> e : pathParams.entrySet()) {
+            Set<String> params = e.getValue();
+            params.removeAll(globalParams);
+            if (!params.isEmpty()) {
+                compiled.add(new PathParams(e.getKey(), Collections.unmodifiableSet(params)));
+            }
+        }
+        return new CleanParamRule(Collections.unmodifiableSet(globalParams), Collections.unmodifiableList(compiled));
+    }
+
+    private static Set<String> parseParams(String params) {
+        Set<String> result = new HashSet<>();
+        for (String param : params.split("&")) {
+            if (!param.isEmpty()) {
+                result.add(param);
+            }
+        }
+        return result;
+    }
+
+    /** @return true if the rule does not remove any parameters */
+    public boolean isEmpty() {
+        return _globalParams.isEmpty() && _pathParams.isEmpty();
+    }
+
+    /**
+     * Remove the query parameters matching the Clean-param directives.
+     *
+     * @param urlString
+     *            URL to clean
+     * @return the URL without the matching parameters, the unmodified URL if
+     *         no parameter is removed
+     */
+    @Override
+    public String filter(String urlString) {
+        if (urlString == null || isEmpty()) {
+            return urlString;
+        }
+        int fragmentStart = urlString.indexOf('#');
+        int end = (fragmentStart == -1) ? urlString.length() : fragmentStart;
+        int queryStart = urlString.indexOf('?');
+        if (queryStart == -1 || queryStart >= end) {
+            return urlString;
+        }
+        int pathStart = findPathStart(urlString, queryStart);
+
+        Set<String> params;
+        if (pathStart == queryStart) {
+            // empty path
+            params = getParamsToRemove("/", 0, 1);
+        } else {
+            params = getParamsToRemove(urlString, pathStart, queryStart);
+        }
+        if (params.isEmpty() || !containsAnyParam(urlString, queryStart + 1, end, params)) {
+            return urlString;
+        }
+
+        // splice out the removed parameters, keep the text of all others
+        StringBuilder sb = new StringBuilder(urlString.length());
+        sb.append(urlString, 0, queryStart + 1);
+        boolean first = true;
+        int pos = queryStart + 1;
+        while (true) {
+            int paramEnd = urlString.indexOf('&', pos);
+            if (paramEnd == -1 || paramEnd > end) {
+                paramEnd = end;
+            }
+            if (!params.contains(urlString.substring(pos, findNameEnd(urlString, pos, paramEnd)))) {
+                if (!first) {
+                    sb.append('&');
+                }
+                sb.append(urlString, pos, paramEnd);
+                first = false;
+            }
+            if (paramEnd == end) {
+                break;
+            }
+            pos = paramEnd + 1;
+        }
+        if (sb.length() == (queryStart + 1)) {
+            // empty query: remove the '?'
+            sb.setLength(queryStart);
+        }
+        sb.append(urlString, end, urlString.length());
+        return sb.toString();
+    }
+
+    /** @return end of the parameter name: the first '=' or the param end */
+    private static int findNameEnd(String url, int start, int end) {
+        int nameEnd = url.indexOf('=', start);
+        return (nameEnd == -1 || nameEnd > end) ? end : nameEnd;
+    }
+
+    /**
+     * @return start of the path: after the authority if the URL has a scheme,
+     *         otherwise the start of the URL (relative URL). If the path is
+     *         empty, the start of the query is returned.
+     */
+    private static int findPathStart(String url, int queryStart) {
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd == -1 || schemeEnd > queryStart) {
+            return 0;
+        }
+        int pathStart = url.indexOf('/', schemeEnd + 3);
+        if (pathStart == -1 || pathStart > queryStart) {
+            return queryStart;
+        }
+        return pathStart;
+    }
+
+    private Set<String> getParamsToRemove(String url, int pathStart, int pathEnd) {
+        Set<String> params = _globalParams;
+        boolean copied = false;
+        for (PathParams p : _pathParams) {
+            if (!p.matches(url, pathStart, pathEnd)) {
+                continue;
+            }
+            if (!copied) {
+                params = new HashSet<>(params);
+                copied = true;
+            }
+            params.addAll(p.params);
+        }
+        return params;
+    }
+
+    /**
+     * Check whether the query contains any of the parameters, to avoid
+     * rebuilding the URL if nothing is removed.
+     */
+    private static boolean containsAnyParam(String url, int start, int end, Set<String> params) {
+        int pos = start;
+        while (pos < end) {
+            int nameEnd = pos;
+            while (nameEnd < end && url.charAt(nameEnd) != '=' && url.charAt(nameEnd) != '&') {
+                nameEnd++;
+            }
+            if (nameEnd > pos && params.contains(url.substring(pos, nameEnd))) {
+                return true;
+            }
+            int next = url.indexOf('&', nameEnd);
+            if (next == -1 || next >= end) {
+                break;
+            }
+            pos = next + 1;
+        }
+        return false;
+    }
+
+    /** @return the parameters removed from all URLs */
+    public Set<String> getGlobalParams() {
+        return _globalParams;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("CleanParamRule[");
+        sb.append(_globalParams);
+        for (PathParams p : _pathParams) {
+            sb.append(", ").append(p.prefix).append(": ").append(p.params);
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,351 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, typed form of the <a
+ * href="https://contentsignals.org/">Content-Signal</a> directives of a
+ * robots.txt file ({@link RobotsExtension#CONTENT_SIGNALS}), also used for the
+ * {@link RobotsExtension#LLM_POLICY LLM-Policy} directives. The directive
+ * values are parsed once after they are all collected, the policy is returned
+ * by {@link BaseRobotRules#getExtensionData(RobotsExtension)}.
+ *
+ * <p>
+ * Every directive holds a comma-separated list of signals, optionally preceded
+ * by a path prefix the signals are scoped to. A directive consisting of a
+ * single path or URL only is a reference to a policy document (e.g.,
+ * <code>/llms.txt</code>):
+ * </p>
+ *
+ * <pre>
+ * Content-Signal: search=yes, ai-train=no
+ * Content-Signal: /blog/ ai-input=no
+ * LLM-Policy: /llms.txt
+ * </pre>
+ *
+ * <p>
+ * The state of the known signals ({@link Signal}) is held in two bit sets, so
+ * that checking a signal ({@link #allows(Signal)}) takes constant time and
+ * does not allocate any objects. A signal which is not set does not restrict
+ * the use of the content. If a signal is set to both <code>yes</code> and
+ * <code>no</code>, <code>no</code> wins. Unknown signals are kept as strings
+ * ({@link #getUnknownSignals()}), invalid values are ignored. Signals scoped
+ * to a path prefix override the global signals for paths starting with the
+ * prefix, the longest matching prefix is used. Keys and values are
+ * case-insensitive, path prefixes are case-sensitive.
+ * </p>
+ *
+ * <pre>
+ * ContentSignalPolicy policy = ContentSignalPolicy.fromRules(rules);
+ * if (policy.allows(ContentSignalPolicy.Signal.AI_TRAIN)) {
+ *     ...
+ * }
+ * </pre>
+ */
+@SuppressWarnings("serial")
+public final class ContentSignalPolicy implements RobotsExtensionData {
+
+    /** Known content signals */
+    public enum Signal {
+        /** Building a search index and providing search results */
+        SEARCH("search"),
+
+        /**
+         * Input to AI models, e.g. retrieval augmented generation or
+         * grounding
+         */
+        AI_INPUT("ai-input"),
+
+        /** Training or fine-tuning AI models */
+        AI_TRAIN("ai-train");
+
+        private final String _name;
+
+        Signal(String name) {
+            _name = name;
+        }
+
+        /** @return the name of the signal as used in the robots.txt */
+        public String getName() {
+            return _name;
+        }
+
+        private int mask() {
+            return 1 << ordinal();
+        }
+
+        /**
+         * @param name
+         *            signal name, case-insensitive
+         * @return the signal, null if the name is not a known signal
+         */
+        public static Signal forName(String name) {
+            for (Signal signal : values()) {
+                if (signal._name.equalsIgnoreCase(name)) {
+                    return signal;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Signals scoped to a path prefix */
+    private static final class Scope implements Serializable {
+        final String prefix;
+        int granted;
+        int denied;
+
+        Scope(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    private static final Scope[] NO_SCOPES = {};
+
+    /** Empty Content-Signal policy which does not restrict anything */
+    public static final ContentSignalPolicy EMPTY = parse(RobotsExtension.CONTENT_SIGNALS, Collections.emptyList());
+
+    private final RobotsExtension _extension;
+    private final List<String> _values;
+    private final int _granted;
+    private final int _denied;
+    /** sorted by decreasing length of the prefix */
+    private final Scope[] _scopes;
+    private final Map<String, String> _unknownSignals;
+    private final List<String> _references;
+
+    private ContentSignalPolicy(RobotsExtension extension, List<String> values, int granted, int denied, Scope[] scopes, Map<String, String> unknownSignals,
+                    List<String> references) {
+        _extension = extension;
+        _values = values;
+        _granted = granted;
+        _denied = denied;
+        _scopes = scopes;
+        _unknownSignals = unknownSignals;
+        _references = references;
+    }
+
+    /**
+     * Get the Content-Signal policy of robots rules. The
+     * {@link RobotsExtension#CONTENT_SIGNALS} extension must be enabled in the
+     * parser, see {@link SimpleRobotRulesParser#enableExtension(RobotsExtension)}.
+     *
+     * @param rules
+     *            robots rules
+     * @return the policy, {@link #EMPTY} if there are no Content-Signal
+     *         directives
+     */
+    public static ContentSignalPolicy fromRules(BaseRobotRules rules) {
+        RobotsExtensionData data = rules.getExtensionData(RobotsExtension.CONTENT_SIGNALS);
+        if (data == null) {
+            return EMPTY;
+        } else if (data instanceof ContentSignalPolicy) {
+            return (ContentSignalPolicy) data;
+        }
+        return parse(RobotsExtension.CONTENT_SIGNALS, data.getValues());
+    }
+
+    /**
+     * Parse directive values.
+     *
+     * @param extension
+     *            the extension the values belong to
+     * @param values
+     *            values of the directives
+     * @return the policy
+     */
+    public static ContentSignalPolicy parse(RobotsExtension extension, Collection<String> values) {
+        Scope global = new Scope("");
+        Map<String, Scope> scopes = new LinkedHashMap<>();
+        Map<String, String> unknownSignals = new LinkedHashMap<>();
+        List<String> references = new ArrayList<>();
+        for (String value : values) {
+            String signals = value.trim();
+            int ws = indexOfWhitespace(signals);
+            String first = (ws == -1) ? signals : signals.substring(0, ws);
+            if (first.indexOf('=') == -1 && (first.startsWith("/") || first.contains("://"))) {
+                if (ws == -1) {
+                    references.add(first);
+                    continue;
+                }
+                signals = signals.substring(ws + 1);
+            } else {
+                first = null;
+            }
+            Scope scope = (first == null || first.equals("/")) ? global : scopes.computeIfAbsent(first, Scope::new);
+            for (String signal : signals.split(",")) {
+                int eq = signal.indexOf('=');
+                if (eq == -1) {
+                    continue;
+                }
+                String name = signal.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+                String state = signal.substring(eq + 1).trim().toLowerCase(Locale.ROOT);
+                if (name.isEmpty()) {
+                    continue;
+                }
+                Signal known = Signal.forName(name);
+                if (known == null) {
+                    unknownSignals.put(name, state);
+                } else if (state.equals("yes")) {
+                    scope.granted |= known.mask();
+                } else if (state.equals("no")) {
+                    scope.denied |= known.mask();
+                }
+            }
+        }
+        Scope[] scopeArray = scopes.isEmpty() ? NO_SCOPES : scopes.values().toArray(NO_SCOPES);
+        for (Scope scope : scopeArray) {
+            scope.granted &= ~scope.denied;
+        }
+        Arrays.sort(scopeArray, (a, b) -> Integer.compare(b.prefix.length(), a.prefix.length()));
+        return new ContentSignalPolicy(extension, List.copyOf(values), global.granted & ~global.denied, global.denied, scopeArray,
+                        unknownSignals.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(unknownSignals), List.copyOf(references));
+    }
+
+    private static int indexOfWhitespace(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.isWhitespace(s.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param signal
+     *            content signal
+     * @return true if the content may be used for the purpose of the signal,
+     *         i.e. the signal is not set to <code>no</code>
+     */
+    public boolean allows(Signal signal) {
+        return (_denied & signal.mask()) == 0;
+    }
+
+    /**
+     * @param signal
+     *            content signal
+     * @param path
+     *            URL path, used to select signals scoped to a path prefix
+     * @return true if the content of the path may be used for the purpose of
+     *         the signal
+     */
+    public boolean allows(Signal signal, String path) {
+        int mask = signal.mask();
+        for (Scope scope : _scopes) {
+            if (((scope.granted | scope.denied) & mask) != 0 && path.startsWith(scope.prefix)) {
+                return (scope.denied & mask) == 0;
+            }
+        }
+        return (_denied & mask) == 0;
+    }
+
+    /**
+     * @param signal
+     *            content signal
+     * @return true if the signal is explicitly set to <code>yes</code>
+     *         (global scope)
+     */
+    public boolean isGranted(Signal signal) {
+        return (_granted & signal.mask()) != 0;
+    }
+
+    /**
+     * @param signal
+     *            content signal
+     * @return true if the signal is explicitly set to <code>no</code> (global
+     *         scope)
+     */
+    public boolean isDenied(Signal signal) {
+        return (_denied & signal.mask()) != 0;
+    }
+
+    /**
+     * @return true if no signal is set, neither known nor unknown ones, in any
+     *         scope
+     */
+    public boolean isEmpty() {
+        return _granted == 0 && _denied == 0 && _scopes.length == 0 && _unknownSignals.isEmpty();
+    }
+
+    /**
+     * @return signals not known as {@link Signal} (global and scoped ones),
+     *         mapped to their lower-cased values
+     */
+    public Map<String, String> getUnknownSignals() {
+        return _unknownSignals;
+    }
+
+    /**
+     * @return paths or URLs of policy documents referenced by the directives
+     */
+    public List<String> getReferences() {
+        return _references;
+    }
+
+    @Override
+    public RobotsExtension getExtension() {
+        return _extension;
+    }
+
+    @Override
+    public List<String> getValues() {
+        return _values;
+    }
+
+    @Override
+    public Map<String, String[]> asMap() {
+        return Map.of(_extension.getDirectiveName(), _values.toArray(new String[0]));
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + _extension.hashCode();
+        result = prime * result + _values.hashCode();
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        ContentSignalPolicy other = (ContentSignalPolicy) obj;
+        if (_extension != other._extension)
+            return false;
+        return _values.equals(other._values);
+    }
+
+    @Override
+    public String toString() {
+        return _extension.getDirectiveName() + ": " + _values;
+    }
+}
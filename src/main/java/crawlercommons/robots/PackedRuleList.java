@@ -0,0 +1,139 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRule;
+
+/**
+ * Immutable, memory-compact list of allow/disallow rules used by frozen
+ * {@link SimpleRobotRules}.
+ *
+ * <p>
+ * The patterns of all rules are concatenated into a single <code>char[]</code>
+ * with an offset table marking the start of every pattern, the allow flags are
+ * held in a {@link BitSet}. Compared to a list of {@link RobotRule} objects
+ * each holding its own {@link String}, this saves two objects and roughly 50
+ * bytes per rule. {@link RobotRule} objects are created on demand when the
+ * list is accessed, so they should not be used for identity comparisons.
+ * </p>
+ */
+@SuppressWarnings("serial")
+final class PackedRuleList extends AbstractList<RobotRule> implements RandomAccess, Serializable {
+
+    private final char[] _patterns;
+    /** start offsets of the patterns, plus the end offset of the last one */
+    private final int[] _offsets;
+    private final BitSet _allow;
+
+    private PackedRuleList(char[] patterns, int[] offsets, BitSet allow) {
+        _patterns = patterns;
+        _offsets = offsets;
+        _allow = allow;
+    }
+
+    /**
+     * Pack a list of rules, keeping the order of the rules.
+     *
+     * @param rules
+     *            allow/disallow rules
+     * @return packed rules
+     */
+    static PackedRuleList pack(List<RobotRule> rules) {
+        int size = rules.size();
+        int length = 0;
+        for (RobotRule rule : rules) {
+            length += rule._prefix.length();
+        }
+        char[] patterns = new char[length];
+        int[] offsets = new int[size + 1];
+        BitSet allow = new BitSet(size);
+        int pos = 0;
+        for (int i = 0; i < size; i++) {
+            RobotRule rule = rules.get(i);
+            offsets[i] = pos;
+            rule._prefix.getChars(0, rule._prefix.length(), patterns, pos);
+            pos += rule._prefix.length();
+            if (rule._allow) {
+                allow.set(i);
+            }
+        }
+        offsets[size] = pos;
+        return new PackedRuleList(patterns, offsets, allow);
+    }
+
+    @Override
+    public RobotRule get(int index) {
+        return new RobotRule(getPattern(index), isAllow(index));
+    }
+
+    @Override
+    public int size() {
+        return _offsets.length - 1;
+    }
+
+    /**
+     * @param index
+     *            rule index
+     * @return the pattern of the rule
+     */
+    String getPattern(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        return new String(_patterns, _offsets[index], _offsets[index + 1] - _offsets[index]);
+    }
+
+    /**
+     * @param index
+     *            rule index
+     * @return whether the rule is an allow rule
+     */
+    boolean isAllow(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        return _allow.get(index);
+    }
+
+    /**
+     * @return the characters of all patterns, concatenated in the order of the
+     *         rules; the array is shared and must not be modified
+     */
+    char[] getPatternChars() {
+        return _patterns;
+    }
+
+    /**
+     * @param index
+     *            rule index
+     * @return offset of the pattern of the rule in {@link #getPatternChars()}
+     */
+    int getPatternOffset(int index) {
+        return _offsets[index];
+    }
+
+    /** @return approximate number of bytes required to store the rules */
+    long estimateSize() {
+        return 64 + 2L * _patterns.length + 4L * _offsets.length + _allow.size() / 8;
+    }
+}
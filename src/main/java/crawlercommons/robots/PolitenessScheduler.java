@@ -0,0 +1,548 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Scheduler which decides when the next request may be sent to a host,
+ * following the <a href=
+ * "https://en.wikipedia.org/wiki/Robots.txt#Crawl-delay_directive"
+ * >Crawl-delay</a> and the <code>Request-rate</code> directive (see
+ * {@link RobotsExtension#REQUEST_RATE}) found in the robots rules of the
+ * host.
+ *
+ * <p>
+ * Hosts are kept in a binary min-heap ordered by the time the next request is
+ * allowed. Scheduling and polling a host take O(log n) time, looking up the
+ * next due time takes O(1). Per host, a single small object is held, so that
+ * millions of hosts can be scheduled. The scheduler is thread-safe, all
+ * operations are guarded by a single lock which is held only for the heap
+ * operation.
+ * </p>
+ *
+ * <p>
+ * A host passes through the following states:
+ * </p>
+ * <ol>
+ * <li>{@link #schedule(String)}: the host is queued and becomes due when the
+ * delay after the previous request has passed.</li>
+ * <li>{@link #poll()}: the due host with the earliest time is removed from the
+ * queue and returned. The caller sends a request to the host. Until the host
+ * is released, it is leased: it is not returned again by {@link #poll()} and
+ * scheduling it only marks it to be queued again when it is released.</li>
+ * <li>{@link #release(String, boolean)}: after the request is finished, the
+ * next allowed time is set to now plus the delay of the host, and the host is
+ * queued again if there are more URLs to fetch or if it has been scheduled
+ * while leased.</li>
+ * </ol>
+ *
+ * <p>
+ * The delay of a host is the max. of its crawl-delay and the interval implied
+ * by the request rates applicable at the current time, or the default delay if
+ * the rules of the host define neither. Delays are capped by the max. delay.
+ * Time is taken from a {@link Clock}, so that the scheduler can be tested
+ * without waiting.
+ * </p>
+ *
+ * <pre>
+ * PolitenessScheduler scheduler = new PolitenessScheduler(1000L);
+ * scheduler.setRules(host, rules);
+ * scheduler.schedule(host);
+ * ...
+ * String host = scheduler.poll();
+ * if (host != null) {
+ *     fetchNextUrl(host);
+ *     scheduler.release(host, hasMoreUrls(host));
+ * }
+ * </pre>
+ */
+public class PolitenessScheduler {
+
+    /** Default max. delay between two requests to the same host: 5 minutes */
+    public static final long DEFAULT_MAX_DELAY = TimeUnit.MINUTES.toMillis(5);
+
+    private static final RequestRate[] NO_REQUEST_RATES = {};
+
+    /** Heap index of a host which is neither queued nor leased */
+    private static final int NOT_QUEUED = -1;
+
+    /** Heap index of a host returned by {@link #poll()} and not yet released */
+    private static final int LEASED = -2;
+
+    /** Heap index of a leased host which is to be queued again on release */
+    private static final int LEASED_SCHEDULED = -3;
+
+    /**
+     * Request rate as defined by the <code>Request-rate</code> directive:
+     * number of requests per time period, optionally restricted to a time
+     * window in UTC.
+     *
+     * <pre>
+     * Request-rate: 1/10s            # one request every 10 seconds
+     * Request-rate: 1/10s 1800-1900  # but only between 18:00 and 19:00 UTC
+     * </pre>
+     */
+    public static final class RequestRate {
+
+        private static final Pattern REQUEST_RATE_PATTERN = Pattern
+                        .compile("(\\d+)\\s*/\\s*(\\d+)\\s*([smhd]?)(?:\\s+(\\d{1,2}):?(\\d{2})\\s*-\\s*(\\d{1,2}):?(\\d{2}))?", Pattern.CASE_INSENSITIVE);
+
+        private static final long MINUTES_PER_DAY = TimeUnit.DAYS.toMinutes(1);
+
+        private final long _interval;
+        /** start of the time window in minutes of the day, -1 if none */
+        private final int _windowStart;
+        /** end (exclusive) of the time window in minutes of the day */
+        private final int _windowEnd;
+
+        private RequestRate(long interval, int windowStart, int windowEnd) {
+            _interval = interval;
+            _windowStart = windowStart;
+            _windowEnd = windowEnd;
+        }
+
+        /**
+         * Parse the value of a request-rate directive.
+         *
+         * @param value
+         *            value of the directive, e.g. <code>1/10s</code> or
+         *            <code>3/1m 0800-1700</code>. The time unit is one of
+         *            <code>s</code> (default), <code>m</code>,
+         *            <code>h</code> or <code>d</code>.
+         * @return the request rate, or null if the value is not a valid
+         *         request rate
+         */
+        public static RequestRate parse(String value) {
+            Matcher m = REQUEST_RATE_PATTERN.matcher(value.trim());
+            if (!m.matches()) {
+                return null;
+            }
+            try {
+                long requests = Long.parseLong(m.group(1));
+                long period = Long.parseLong(m.group(2));
+                if (requests <= 0) {
+                    return null;
+                }
+                TimeUnit unit;
+                switch (m.group(3).toLowerCase(Locale.ROOT)) {
+                    case "m":
+                        unit = TimeUnit.MINUTES;
+                        break;
+                    case "h":
+                        unit = TimeUnit.HOURS;
+                        break;
+                    case "d":
+                        unit = TimeUnit.DAYS;
+                        break;
+                    default:
+                        unit = TimeUnit.SECONDS;
+                }
+                long interval = unit.toMillis(period) / requests;
+                if (m.group(4) == null) {
+                    return new RequestRate(interval, -1, -1);
+                }
+                int start = minuteOfDay(m.group(4), m.group(5));
+                int end = minuteOfDay(m.group(6), m.group(7));
+                if (start < 0 || end < 0) {
+                    return null;
+                }
+                return new RequestRate(interval, start, end);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static int minuteOfDay(String hours, String minutes) {
+            int h = Integer.parseInt(hours);
+            int m = Integer.parseInt(minutes);
+            if (h > 24 || m > 59 || (h == 24 && m > 0)) {
+                return -1;
+            }
+            return h * 60 + m;
+        }
+
+        /** @return min. interval between two requests in milliseconds */
+        public long getInterval() {
+            return _interval;
+        }
+
+        /** @return true if the request rate is restricted to a time window */
+        public boolean hasTimeWindow() {
+            return _windowStart >= 0;
+        }
+
+        /**
+         * @param epochMillis
+         *            time in milliseconds since the epoch
+         * @return true if the request rate applies at the given time: it has
+         *         no time window or the time is within the window. Windows
+         *         may wrap around midnight, e.g. <code>2200-0600</code>.
+         */
+        public boolean appliesAt(long epochMillis) {
+            if (_windowStart < 0) {
+                return true;
+            }
+            long minute = Math.floorMod(TimeUnit.MILLISECONDS.toMinutes(epochMillis), MINUTES_PER_DAY);
+            if (_windowStart <= _windowEnd) {
+                return minute >= _windowStart && minute < _windowEnd;
+            }
+            return minute >= _windowStart || minute < _windowEnd;
+        }
+    }
+
+    /** Scheduling state of a single host */
+    private static final class Slot {
+        final String host;
+        long crawlDelay = BaseRobotRules.UNSET_CRAWL_DELAY;
+        RequestRate[] requestRates = NO_REQUEST_RATES;
+        /** earliest time the next request is allowed */
+        long nextFetchTime;
+        /**
+         * position in the heap, or one of {@link #NOT_QUEUED},
+         * {@link #LEASED} and {@link #LEASED_SCHEDULED}
+         */
+        int heapIndex = NOT_QUEUED;
+
+        Slot(String host) {
+            this.host = host;
+        }
+    }
+
+    private final Clock _clock;
+    private final long _defaultDelay;
+    private volatile long _maxDelay = DEFAULT_MAX_DELAY;
+
+    private final Map<String, Slot> _slots = new HashMap<>();
+    private Slot[] _heap = new Slot[16];
+    private int _size = 0;
+
+    /**
+     * @param defaultDelay
+     *            delay in milliseconds between requests to the same host if
+     *            the robots rules do not define a crawl-delay or request rate
+     */
+    public PolitenessScheduler(long defaultDelay) {
+        this(defaultDelay, Clock.systemUTC());
+    }
+
+    /**
+     * @param defaultDelay
+     *            delay in milliseconds between requests to the same host if
+     *            the robots rules do not define a crawl-delay or request rate
+     * @param clock
+     *            clock to get the current time
+     */
+    public PolitenessScheduler(long defaultDelay, Clock clock) {
+        if (defaultDelay < 0) {
+            throw new IllegalArgumentException("Default delay must not be negative: " + defaultDelay);
+        }
+        _defaultDelay = defaultDelay;
+        _clock = clock;
+    }
+
+    /** @return max. delay between two requests to the same host */
+    public long getMaxDelay() {
+        return _maxDelay;
+    }
+
+    /**
+     * Set the max. delay between two requests to the same host. Longer
+     * crawl-delays or request intervals are capped.
+     *
+     * @param maxDelay
+     *            max. delay in milliseconds
+     */
+    public synchronized void setMaxDelay(long maxDelay) {
+        if (maxDelay < 0) {
+            throw new IllegalArgumentException("Max. delay must not be negative: " + maxDelay);
+        }
+        _maxDelay = maxDelay;
+    }
+
+    /**
+     * Set the crawl-delay and request rates of a host from its robots rules.
+     * The request rates are only available if the extension
+     * {@link RobotsExtension#REQUEST_RATE} is enabled in the parser. If the
+     * host is already queued, its next fetch time is not changed before the
+     * host is released.
+     *
+     * @param host
+     *            host name
+     * @param rules
+     *            robots rules of the host, null to use the default delay
+     */
+    public void setRules(String host, BaseRobotRules rules) {
+        long crawlDelay = BaseRobotRules.UNSET_CRAWL_DELAY;
+        RequestRate[] requestRates = NO_REQUEST_RATES;
+        if (rules != null) {
+            if (rules.getCrawlDelay() >= 0) {
+                crawlDelay = rules.getCrawlDelay();
+            }
+            RobotsExtensionData data = rules.getExtensionData(RobotsExtension.REQUEST_RATE);
+            if (data != null) {
+                List<RequestRate> rates = new ArrayList<>();
+                for (String value : data.getValues()) {
+                    RequestRate rate = RequestRate.parse(value);
+                    if (rate != null) {
+                        rates.add(rate);
+                    }
+                }
+                requestRates = rates.toArray(NO_REQUEST_RATES);
+            }
+        }
+        synchronized (this) {
+            Slot slot = getSlot(host);
+            slot.crawlDelay = crawlDelay;
+            slot.requestRates = requestRates;
+        }
+    }
+
+    /**
+     * Get the delay between two requests to a host at a given time.
+     *
+     * @param host
+     *            host name
+     * @param time
+     *            time in milliseconds since the epoch, relevant for request
+     *            rates restricted to a time window
+     * @return delay in milliseconds
+     */
+    public synchronized long getDelay(String host, long time) {
+        Slot slot = _slots.get(host);
+        if (slot == null) {
+            return Math.min(_defaultDelay, _maxDelay);
+        }
+        return getDelay(slot, time);
+    }
+
+    private long getDelay(Slot slot, long time) {
+        long delay = -1;
+        if (slot.crawlDelay != BaseRobotRules.UNSET_CRAWL_DELAY) {
+            delay = slot.crawlDelay;
+        }
+        /*
+         * Request rates restricted to a time window take precedence over those
+         * without a window.
+         */
+        long windowInterval = -1;
+        long interval = -1;
+        for (RequestRate rate : slot.requestRates) {
+            if (!rate.appliesAt(time)) {
+                continue;
+            }
+            if (rate.hasTimeWindow()) {
+                windowInterval = Math.max(windowInterval, rate.getInterval());
+            } else {
+                interval = Math.max(interval, rate.getInterval());
+            }
+        }
+        delay = Math.max(delay, (windowInterval >= 0) ? windowInterval : interval);
+        if (delay < 0) {
+            delay = _defaultDelay;
+        }
+        return Math.min(delay, _maxDelay);
+    }
+
+    /**
+     * Queue a host. If the host is already queued, nothing changes. If the
+     * host is leased (polled but not yet released), it is queued again when
+     * it is released.
+     *
+     * @param host
+     *            host name
+     */
+    public synchronized void schedule(String host) {
+        Slot slot = getSlot(host);
+        if (slot.heapIndex == NOT_QUEUED) {
+            offer(slot);
+        } else if (slot.heapIndex == LEASED) {
+            slot.heapIndex = LEASED_SCHEDULED;
+        }
+    }
+
+    /**
+     * Remove the queued host which is due first, if its next fetch time has
+     * passed. The host is leased until it is released.
+     *
+     * @return the host, or null if no host is due
+     */
+    public synchronized String poll() {
+        if (_size == 0 || _heap[0].nextFetchTime > _clock.millis()) {
+            return null;
+        }
+        Slot slot = removeAt(0);
+        slot.heapIndex = LEASED;
+        return slot.host;
+    }
+
+    /**
+     * Release a host after a request has been finished: the next request is
+     * allowed after the delay of the host.
+     *
+     * @param host
+     *            host name
+     * @param reschedule
+     *            whether to queue the host again. A host scheduled while it
+     *            was leased is queued again in any case.
+     */
+    public synchronized void release(String host, boolean reschedule) {
+        Slot slot = getSlot(host);
+        long now = _clock.millis();
+        slot.nextFetchTime = now + getDelay(slot, now);
+        if (slot.heapIndex >= 0) {
+            // the delay may have changed since the host was queued
+            reposition(slot.heapIndex);
+            return;
+        }
+        if (slot.heapIndex == LEASED_SCHEDULED) {
+            reschedule = true;
+        }
+        slot.heapIndex = NOT_QUEUED;
+        if (reschedule) {
+            offer(slot);
+        }
+    }
+
+    /**
+     * Remove a host and all its scheduling state.
+     *
+     * @param host
+     *            host name
+     */
+    public synchronized void remove(String host) {
+        Slot slot = _slots.remove(host);
+        if (slot != null && slot.heapIndex >= 0) {
+            removeAt(slot.heapIndex);
+        }
+    }
+
+    /**
+     * @param host
+     *            host name
+     * @return the earliest time (in milliseconds since the epoch) the next
+     *         request to the host is allowed, 0 if the host is unknown
+     */
+    public synchronized long getNextFetchTime(String host) {
+        Slot slot = _slots.get(host);
+        return (slot == null) ? 0 : slot.nextFetchTime;
+    }
+
+    /**
+     * @return the time when the first queued host becomes due, -1 if no host
+     *         is queued. Callers may sleep until then before polling.
+     */
+    public synchronized long getNextDueTime() {
+        return (_size == 0) ? -1 : _heap[0].nextFetchTime;
+    }
+
+    /** @return number of queued hosts */
+    public synchronized int size() {
+        return _size;
+    }
+
+    /** @return number of known hosts, queued or not */
+    public synchronized int getNumHosts() {
+        return _slots.size();
+    }
+
+    private Slot getSlot(String host) {
+        return _slots.computeIfAbsent(host, Slot::new);
+    }
+
+    private void offer(Slot slot) {
+        if (_size == _heap.length) {
+            _heap = Arrays.copyOf(_heap, _size + (_size >> 1));
+        }
+        _heap[_size] = slot;
+        slot.heapIndex = _size;
+        _size++;
+        siftUp(slot.heapIndex);
+    }
+
+    private Slot removeAt(int index) {
+        Slot slot = _heap[index];
+        _size--;
+        Slot last = _heap[_size];
+        _heap[_size] = null;
+        slot.heapIndex = NOT_QUEUED;
+        if (index < _size) {
+            _heap[index] = last;
+            last.heapIndex = index;
+            reposition(index);
+        }
+        return slot;
+    }
+
+    /**
+     * Restore the heap order after the next fetch time of the host at the
+     * given position has changed, in either direction.
+     */
+    private void reposition(int index) {
+        Slot slot = _heap[index];
+        siftDown(index);
+        if (_heap[index] == slot) {
+            siftUp(index);
+        }
+    }
+
+    private void siftUp(int index) {
+        Slot slot = _heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            Slot p = _heap[parent];
+            if (p.nextFetchTime <= slot.nextFetchTime) {
+                break;
+            }
+            _heap[index] = p;
+            p.heapIndex = index;
+            index = parent;
+        }
+        _heap[index] = slot;
+        slot.heapIndex = index;
+    }
+
+    private void siftDown(int index) {
+        Slot slot = _heap[index];
+        int half = _size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < _size && _heap[right].nextFetchTime < _heap[child].nextFetchTime) {
+                child = right;
+            }
+            Slot c = _heap[child];
+            if (slot.nextFetchTime <= c.nextFetchTime) {
+                break;
+            }
+            _heap[index] = c;
+            c.heapIndex = index;
+            index = child;
+        }
+        _heap[index] = slot;
+        slot.heapIndex = index;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Robots.txt parser prepared for a fixed set of robot names, see
+ * {@link SimpleRobotRulesParser#prepare(Collection)}.
+ *
+ * <p>
+ * Crawlers parse the robots.txt files of many hosts always for the same robot
+ * names. The prepared parser checks the names only once and matches the
+ * <code>User-agent</code> lines against all names in a single pass over a
+ * precompiled trie. The results are the same as those of
+ * {@link SimpleRobotRulesParser#parseContent(String, byte[], String, Collection)}.
+ * </p>
+ *
+ * <p>
+ * The configuration of the underlying parser (e.g. the max. content length or
+ * the enabled extensions) is read whenever a robots.txt file is parsed. If
+ * exact user-agent matching is switched on or off after preparing, the parser
+ * must be prepared again. The prepared parser is immutable and can be shared
+ * between threads.
+ * </p>
+ *
+ * <pre>
+ * PreparedRobotsParser parser = new SimpleRobotRulesParser().prepare(Set.of("mybot"));
+ * SimpleRobotRules rules = parser.parseContent(url, content, contentType);
+ * </pre>
+ */
+public final class PreparedRobotsParser {
+
+    private final SimpleRobotRulesParser _parser;
+    private final Collection<String> _robotNames;
+    private final boolean _exactUserAgentMatching;
+
+    PreparedRobotsParser(SimpleRobotRulesParser parser, Collection<String> robotNames) {
+        _parser = parser;
+        _robotNames = robotNames;
+        _exactUserAgentMatching = parser.isExactUserAgentMatching();
+    }
+
+    /**
+     * Parse the robots.txt file in <i>content</i>, see
+     * {@link SimpleRobotRulesParser#parseContent(String, byte[], String, Collection)}.
+     *
+     * @param url
+     *            URL of the robots.txt file
+     * @param content
+     *            raw bytes of the robots.txt file
+     * @param contentType
+     *            HTTP response header (mime-type)
+     * @return robot rules
+     */
+    public SimpleRobotRules parseContent(String url, byte[] content, String contentType) {
+        checkConfiguration();
+        int length = (content == null) ? 0 : content.length;
+        return _parser.parseContent(url, content, 0, length, contentType, _robotNames, _exactUserAgentMatching);
+    }
+
+    /**
+     * Parse the robots.txt file in <i>content</i> and record statistics, see
+     * {@link SimpleRobotRulesParser#parseContent(String, byte[], String, Collection, RobotsParseStats)}.
+     *
+     * @param url
+     *            URL of the robots.txt file
+     * @param content
+     *            raw bytes of the robots.txt file
+     * @param contentType
+     *            HTTP response header (mime-type)
+     * @param stats
+     *            statistics object, reset and filled during parsing
+     * @return robot rules
+     */
+    public SimpleRobotRules parseContent(String url, byte[] content, String contentType, RobotsParseStats stats) {
+        checkConfiguration();
+        return _parser.parseContent(url, content, contentType, List.of(_robotNames), stats, null);
+    }
+
+    /**
+     * Parse the robots.txt content held in a byte buffer, see
+     * {@link SimpleRobotRulesParser#parseContent(String, ByteBuffer, String, Collection)}.
+     *
+     * @param url
+     *            URL of the robots.txt file
+     * @param content
+     *            raw bytes of the robots.txt file
+     * @param contentType
+     *            HTTP response header (mime-type)
+     * @return robot rules
+     */
+    public SimpleRobotRules parseContent(String url, ByteBuffer content, String contentType) {
+        checkConfiguration();
+        return _parser.parseContentUnchecked(url, content, contentType, _robotNames);
+    }
+
+    /** @return the robot names the parser is prepared for */
+    public Collection<String> getRobotNames() {
+        return _robotNames;
+    }
+
+    /** @return the underlying parser */
+    public SimpleRobotRulesParser getParser() {
+        return _parser;
+    }
+
+    private void checkConfiguration() {
+        if (_parser.isExactUserAgentMatching() != _exactUserAgentMatching) {
+            throw new IllegalStateException("User-agent matching changed after preparing the parser, prepare the parser again");
+        }
+    }
+}
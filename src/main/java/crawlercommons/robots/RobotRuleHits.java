@@ -0,0 +1,158 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRule;
+
+/**
+ * Counters of the decisions taken by the allow/disallow rules of a
+ * {@link SimpleRobotRules} object, see
+ * {@link SimpleRobotRules#enableRuleHits()}.
+ *
+ * <p>
+ * Every URL checked by one of the <code>isAllowed</code> methods of the rules
+ * is counted for the rule which decided whether the URL is allowed, or as
+ * {@link #getNoMatch() no match} if no rule matches and the URL is allowed by
+ * default. URLs decided by the rule mode (allow all or allow none) are not
+ * counted, nor is the robots.txt path which is always allowed. The counters
+ * are {@link LongAdder}s, so that rules shared between crawler threads can be
+ * checked concurrently without contention.
+ * </p>
+ *
+ * <p>
+ * {@link #snapshot()} returns the current counts per rule, e.g. to find the
+ * rule which blocks the most URLs of a host.
+ * </p>
+ */
+public final class RobotRuleHits {
+
+    private final RobotRule[] _rules;
+    private final LongAdder[] _hits;
+    private final LongAdder _noMatch = new LongAdder();
+
+    /**
+     * @param rules
+     *            rules in the order used to compile the rule matcher
+     */
+    RobotRuleHits(List<RobotRule> rules) {
+        _rules = rules.toArray(new RobotRule[0]);
+        _hits = new LongAdder[_rules.length];
+        for (int i = 0; i < _hits.length; i++) {
+            _hits[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Count a decision.
+     *
+     * @param rule
+     *            index of the deciding rule, or
+     *            {@link RobotRulesMatcher#NO_MATCH}
+     */
+    void add(int rule) {
+        if (rule == RobotRulesMatcher.NO_MATCH) {
+            _noMatch.increment();
+        } else {
+            _hits[rule].increment();
+        }
+    }
+
+    /** @return the rules counted, in the order of the rule indexes */
+    public List<RobotRule> getRules() {
+        return List.of(_rules);
+    }
+
+    /**
+     * @param rule
+     *            index of the rule in {@link #getRules()}
+     * @return number of URLs decided by the rule
+     */
+    public long getHits(int rule) {
+        return _hits[rule].sum();
+    }
+
+    /**
+     * @return number of URLs not matched by any rule, allowed by default
+     */
+    public long getNoMatch() {
+        return _noMatch.sum();
+    }
+
+    /** @return the total number of URLs counted */
+    public long getTotal() {
+        long total = _noMatch.sum();
+        for (LongAdder hits : _hits) {
+            total += hits.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Get a snapshot of the counts. Counts updated concurrently may or may not
+     * be included.
+     *
+     * @return the counts per rule, in the order of the rules
+     */
+    public Map<RobotRule, Long> snapshot() {
+        Map<RobotRule, Long> snapshot = new LinkedHashMap<>();
+        for (int i = 0; i < _rules.length; i++) {
+            snapshot.merge(_rules[i], _hits[i].sum(), Long::sum);
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * @return the disallow rule which blocked the most URLs, null if no URL
+     *         was disallowed
+     */
+    public RobotRule getTopDisallowRule() {
+        RobotRule top = null;
+        long topHits = 0;
+        for (Map.Entry<RobotRule, Long> e : snapshot().entrySet()) {
+            if (!e.getKey()._allow && e.getValue() > topHits) {
+                top = e.getKey();
+                topHits = e.getValue();
+            }
+        }
+        return top;
+    }
+
+    /** Reset all counts to zero */
+    public void reset() {
+        for (LongAdder hits : _hits) {
+            hits.reset();
+        }
+        _noMatch.reset();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("noMatch=").append(getNoMatch());
+        for (Map.Entry<RobotRule, Long> e : snapshot().entrySet()) {
+            RobotRule r = e.getKey();
+            sb.append(", ").append(r._allow ? "Allow: " : "Disallow: ").append(r._prefix).append('=').append(e.getValue());
+        }
+        return sb.toString();
+    }
+}
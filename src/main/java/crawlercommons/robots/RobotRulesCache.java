@@ -0,0 +1,491 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of robots rules per host, more precisely per scheme, host and port of
+ * the <code>robots.txt</code> URL.
+ *
+ * <p>
+ * Cached rules expire after a time-to-live depending on the rules:
+ * </p>
+ * <ul>
+ * <li>rules which indicate to defer visits ({@link BaseRobotRules#isDeferVisits()}),
+ * e.g., the result of {@link SimpleRobotRulesParser#failedFetch(int)} for a
+ * server error (HTTP 5xx) are kept only for a short time
+ * ({@link #DEFAULT_DEFER_VISITS_TTL}), to retry fetching the robots.txt
+ * soon</li>
+ * <li>all other rules, including the results of failed fetches with a client
+ * error (HTTP 4xx), are kept for {@link #DEFAULT_TTL} (24 hours) following <a
+ * href="https://www.rfc-editor.org/rfc/rfc9309.html#name-caching">RFC 9309,
+ * section 2.4</a>: &quot;Crawlers SHOULD NOT use the cached version for more
+ * than 24 hours, unless the robots.txt file is unreachable.&quot;</li>
+ * </ul>
+ *
+ * <p>
+ * The time-to-live can be configured, or customized by overriding
+ * {@link #getTimeToLive(BaseRobotRules)}.
+ * </p>
+ *
+ * <p>
+ * The cache is bounded by the number of entries and by the total weight of the
+ * cached rules, an estimation of the memory held by the rules (see
+ * {@link #weigh(BaseRobotRules)}). If one of the bounds is exceeded, expired
+ * entries and then the least recently used entries are evicted.
+ * </p>
+ *
+ * <p>
+ * The cache is thread-safe. Lookups of cached rules do not acquire any lock. If
+ * the rules of a host are not cached, only one thread calls the {@link Loader}
+ * for this host, other threads requesting the rules of the same host wait for
+ * the result.
+ * </p>
+ *
+ * <pre>
+ * RobotRulesCache cache = new RobotRulesCache(100000, 512 * 1024 * 1024);
+ * BaseRobotRules rules = cache.get(url, robotsUrl -&gt; fetchAndParse(robotsUrl));
+ * if (rules.isAllowed(url)) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class RobotRulesCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RobotRulesCache.class);
+
+    /** Default time-to-live of cached rules: 24 hours */
+    public static final long DEFAULT_TTL = TimeUnit.HOURS.toMillis(24);
+
+    /**
+     * Default time-to-live of cached rules which indicate to defer visits:
+     * 15 minutes
+     */
+    public static final long DEFAULT_DEFER_VISITS_TTL = TimeUnit.MINUTES.toMillis(15);
+
+    /**
+     * Fraction of the bounds (number of entries, weight) the cache is reduced
+     * to when entries need to be evicted. Evicting more entries than necessary
+     * avoids that every insertion into a full cache triggers an eviction.
+     */
+    private static final double EVICTION_TARGET = 0.9;
+
+    /**
+     * Load (fetch and parse) the robots rules for a host.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * @param robotsUrl
+         *            URL of the robots.txt file,
+         *            <code>scheme://host:port/robots.txt</code>
+         * @return robots rules for the host
+         * @throws IOException
+         *             if loading the rules failed. The exception is passed to
+         *             all threads waiting for the rules and nothing is cached.
+         */
+        BaseRobotRules load(String robotsUrl) throws IOException;
+    }
+
+    private static final class Entry {
+        private final BaseRobotRules _rules;
+        private final long _expires;
+        private final long _weight;
+        /** last access time, updated without synchronization */
+        private volatile long _lastAccess;
+
+        private Entry(BaseRobotRules rules, long expires, long weight, long now) {
+            _rules = rules;
+            _expires = expires;
+            _weight = weight;
+            _lastAccess = now;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> _cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<BaseRobotRules>> _loading = new ConcurrentHashMap<>();
+    private final AtomicLong _weight = new AtomicLong();
+    private final ReentrantLock _evictionLock = new ReentrantLock();
+
+    private final int _maxEntries;
+    private final long _maxWeight;
+    private final Clock _clock;
+
+    private volatile long _ttl = DEFAULT_TTL;
+    private volatile long _deferVisitsTtl = DEFAULT_DEFER_VISITS_TTL;
+
+    /**
+     * @param maxEntries
+     *            max. number of hosts in the cache
+     * @param maxWeight
+     *            max. total weight of the cached rules, see
+     *            {@link #weigh(BaseRobotRules)}
+     */
+    public RobotRulesCache(int maxEntries, long maxWeight) {
+        this(maxEntries, maxWeight, Clock.systemUTC());
+    }
+
+    /**
+     * @param maxEntries
+     *            max. number of hosts in the cache
+     * @param maxWeight
+     *            max. total weight of the cached rules, see
+     *            {@link #weigh(BaseRobotRules)}
+     * @param clock
+     *            clock used to expire cached rules
+     */
+    public RobotRulesCache(int maxEntries, long maxWeight, Clock clock) {
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("Max. entries and max. weight must be positive");
+        }
+        _maxEntries = maxEntries;
+        _maxWeight = maxWeight;
+        _clock = clock;
+    }
+
+    /**
+     * Get the key of the host of a URL: the URL of the robots.txt file with
+     * lower-cased scheme and host and the port always included.
+     *
+     * @param url
+     *            URL
+     * @return robots.txt URL, <code>scheme://host:port/robots.txt</code>
+     */
+    public static String getRobotsUrl(URL url) {
+        int port = url.getPort();
+        if (port == -1) {
+            port = url.getDefaultPort();
+        }
+        return url.getProtocol().toLowerCase(Locale.ROOT) + "://" + url.getHost().toLowerCase(Locale.ROOT) + ":" + port + "/robots.txt";
+    }
+
+    /**
+     * Get the rules for the host of a URL, load them if they are not cached
+     * or expired.
+     *
+     * @param url
+     *            URL of the host
+     * @param loader
+     *            called to load the rules if they are not cached
+     * @return robots rules of the host
+     * @throws IOException
+     *             if the URL is malformed or loading the rules failed
+     */
+    public BaseRobotRules get(String url, Loader loader) throws IOException {
+        URL u;
+        try {
+            u = new URI(url).toURL();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new MalformedURLException("Invalid URL " + url + ": " + e.getMessage());
+        }
+        return get(u, loader);
+    }
+
+    /**
+     * Get the rules for the host of a URL, load them if they are not cached
+     * or expired.
+     *
+     * @see #get(String, Loader)
+     */
+    public BaseRobotRules get(URL url, Loader loader) throws IOException {
+        String key = getRobotsUrl(url);
+        long now = _clock.millis();
+        Entry entry = _cache.get(key);
+        if (entry != null && entry._expires > now) {
+            entry._lastAccess = now;
+            return entry._rules;
+        }
+
+        CompletableFuture<BaseRobotRules> future = new CompletableFuture<>();
+        CompletableFuture<BaseRobotRules> running = _loading.putIfAbsent(key, future);
+        if (running != null) {
+            // another thread is loading the rules
+            return await(running);
+        }
+
+        try {
+            // the rules may have been loaded in the meantime
+            entry = _cache.get(key);
+            BaseRobotRules rules;
+            if (entry != null && entry._expires > _clock.millis()) {
+                rules = entry._rules;
+            } else {
+                rules = loader.load(key);
+                put(key, rules);
+            }
+            future.complete(rules);
+            return rules;
+        } catch (IOException | RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            _loading.remove(key, future);
+        }
+    }
+
+    private static BaseRobotRules await(CompletableFuture<BaseRobotRules> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for robots rules", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Get cached rules without loading them.
+     *
+     * @param url
+     *            URL of the host
+     * @return the cached rules or null if not cached or expired
+     */
+    public BaseRobotRules getIfPresent(URL url) {
+        Entry entry = _cache.get(getRobotsUrl(url));
+        long now = _clock.millis();
+        if (entry != null && entry._expires > now) {
+            entry._lastAccess = now;
+            return entry._rules;
+        }
+        return null;
+    }
+
+    /**
+     * Add rules to the cache, replacing rules cached for the same host.
+     *
+     * @param url
+     *            URL of the host
+     * @param rules
+     *            robots rules
+     */
+    public void put(URL url, BaseRobotRules rules) {
+        put(getRobotsUrl(url), rules);
+    }
+
+    private void put(String key, BaseRobotRules rules) {
+        long now = _clock.millis();
+        Entry entry = new Entry(rules, now + getTimeToLive(rules), weigh(rules), now);
+        Entry previous = _cache.put(key, entry);
+        _weight.addAndGet(entry._weight - (previous == null ? 0 : previous._weight));
+        if (_cache.size() > _maxEntries || _weight.get() > _maxWeight) {
+            evict();
+        }
+    }
+
+    /**
+     * Remove the rules of a host from the cache.
+     *
+     * @param url
+     *            URL of the host
+     */
+    public void invalidate(URL url) {
+        String key = getRobotsUrl(url);
+        Entry entry = _cache.get(key);
+        if (entry != null) {
+            remove(key, entry);
+        }
+    }
+
+    /** Remove all rules from the cache. */
+    public void clear() {
+        for (Map.Entry<String, Entry> e : _cache.entrySet()) {
+            remove(e.getKey(), e.getValue());
+        }
+    }
+
+    private boolean remove(String key, Entry entry) {
+        if (_cache.remove(key, entry)) {
+            _weight.addAndGet(-entry._weight);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Evict expired entries and, if the cache is still too large, the least
+     * recently used entries. If another thread is already evicting, return
+     * immediately.
+     */
+    private void evict() {
+        if (!_evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = _clock.millis();
+            List<Map.Entry<String, Entry>> entries = new ArrayList<>(_cache.size());
+            for (Map.Entry<String, Entry> e : _cache.entrySet()) {
+                if (e.getValue()._expires <= now) {
+                    remove(e.getKey(), e.getValue());
+                } else {
+                    entries.add(e);
+                }
+            }
+            int targetEntries = (int) (_maxEntries * EVICTION_TARGET);
+            long targetWeight = (long) (_maxWeight * EVICTION_TARGET);
+            if (_cache.size() <= _maxEntries && _weight.get() <= _maxWeight) {
+                return;
+            }
+            entries.sort((a, b) -> Long.compare(a.getValue()._lastAccess, b.getValue()._lastAccess));
+            int evicted = 0;
+            for (Map.Entry<String, Entry> e : entries) {
+                if (_cache.size() <= targetEntries && _weight.get() <= targetWeight) {
+                    break;
+                }
+                if (remove(e.getKey(), e.getValue())) {
+                    evicted++;
+                }
+            }
+            LOGGER.debug("Evicted {} robots rules from cache, {} rules cached", evicted, _cache.size());
+        } finally {
+            _evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Get the time-to-live of rules added to the cache.
+     *
+     * @param rules
+     *            robots rules
+     * @return time-to-live in milliseconds
+     */
+    protected long getTimeToLive(BaseRobotRules rules) {
+        if (rules.isDeferVisits()) {
+            return _deferVisitsTtl;
+        }
+        return _ttl;
+    }
+
+    /**
+     * Estimate the memory held by robots rules. The default implementation
+     * approximates the number of bytes required to store the rules and
+     * sitemap URLs.
+     *
+     * @param rules
+     *            robots rules
+     * @return weight of the rules, must not be negative
+     */
+    protected long weigh(BaseRobotRules rules) {
+        return estimateSize(rules);
+    }
+
+    /**
+     * Approximate the number of bytes required to store the rules, including
+     * the compiled rule matcher, and sitemap URLs. Rules which are checked
+     * one by one compile the matcher on first use, it is compiled here, so
+     * that it is included in the weight.
+     */
+    static long estimateSize(BaseRobotRules rules) {
+        long weight = 64;
+        if (rules instanceof SimpleRobotRules) {
+            SimpleRobotRules simpleRules = (SimpleRobotRules) rules;
+            List<SimpleRobotRules.RobotRule> ruleList = simpleRules.getRobotRules();
+            boolean packed = ruleList instanceof PackedRuleList;
+            if (packed) {
+                weight += ((PackedRuleList) ruleList).estimateSize();
+            } else {
+                for (SimpleRobotRules.RobotRule rule : ruleList) {
+                    weight += 48 + 2L * rule.getPrefix().length();
+                }
+            }
+            if (!simpleRules.isAllowAll() && !simpleRules.isAllowNone()) {
+                weight += simpleRules.getMatcher().estimateSize(packed);
+            }
+        }
+        for (String sitemap : rules.getSitemaps()) {
+            weight += 48 + 2L * sitemap.length();
+        }
+        return weight;
+    }
+
+    /** @return the number of cached entries, including expired ones */
+    public int size() {
+        return _cache.size();
+    }
+
+    /**
+     * @return total weight of all cached rules, see
+     *         {@link #weigh(BaseRobotRules)}
+     */
+    public long getWeight() {
+        return _weight.get();
+    }
+
+    /** @return time-to-live of cached rules in milliseconds */
+    public long getTimeToLive() {
+        return _ttl;
+    }
+
+    /**
+     * Set the time-to-live of cached rules, see {@link #DEFAULT_TTL}. Applies
+     * to rules added to the cache after the call.
+     *
+     * @param ttl
+     *            time-to-live in milliseconds
+     */
+    public void setTimeToLive(long ttl) {
+        _ttl = ttl;
+    }
+
+    /**
+     * @return time-to-live in milliseconds of cached rules which indicate to
+     *         defer visits
+     */
+    public long getDeferVisitsTimeToLive() {
+        return _deferVisitsTtl;
+    }
+
+    /**
+     * Set the time-to-live of cached rules which indicate to defer visits, see
+     * {@link #DEFAULT_DEFER_VISITS_TTL}. Applies to rules added to the cache
+     * after the call.
+     *
+     * @param ttl
+     *            time-to-live in milliseconds
+     */
+    public void setDeferVisitsTimeToLive(long ttl) {
+        _deferVisitsTtl = ttl;
+    }
+}
@@ -0,0 +1,280 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRule;
+import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
+
+/**
+ * Compact binary format of {@link SimpleRobotRules}, see
+ * {@link SimpleRobotRules#writeTo(DataOutput)} and
+ * {@link SimpleRobotRules#readFrom(DataInput)}.
+ *
+ * <p>
+ * Layout (version 1), all integers are unsigned variable-length integers
+ * (7 bits per byte, least significant group first) unless noted otherwise,
+ * strings are stored as UTF-8 bytes preceded by the number of bytes:
+ * </p>
+ *
+ * <pre>
+ * byte    format version
+ * byte    mode (0 = allow all, 1 = allow none, 2 = allow some)
+ * byte    flags (1 = defer visits, 2 = matched wildcard, 4 = crawl delay set)
+ * varint  crawl delay in milliseconds (only if flag 4 is set)
+ * varint  number of rules, for every rule:
+ *   varint  (length of prefix shared with the previous rule &lt;&lt; 1) | allow
+ *   string  remainder of the rule pattern
+ * varint  number of sitemaps, for every sitemap:
+ *   string  sitemap URL
+ * varint  number of extensions, for every extension:
+ *   string  extension name
+ *   varint  number of values, followed by the values as strings
+ * </pre>
+ *
+ * <p>
+ * The rules are stored in the order of the rule list, so that sorted rules
+ * need not be sorted again after reading. In sorted order many rules still
+ * share a prefix with the preceding rule, e.g., <code>/wp-admin/</code> and
+ * <code>/wp-includes/</code>.
+ * </p>
+ */
+final class RobotRulesCodec {
+
+    static final int FORMAT_VERSION = 1;
+
+    static final int MODE_ALLOW_ALL = 0;
+    static final int MODE_ALLOW_NONE = 1;
+    static final int MODE_ALLOW_SOME = 2;
+
+    private static final int FLAG_DEFER_VISITS = 1;
+    private static final int FLAG_MATCHED_WILDCARD = 2;
+    private static final int FLAG_CRAWL_DELAY = 4;
+
+    /** Upper bound of a single length or count, to fail fast on corrupt data */
+    private static final int MAX_LENGTH = 1 << 28;
+
+    private RobotRulesCodec() {
+    }
+
+    static void write(SimpleRobotRules rules, DataOutput out) throws IOException {
+        write(rules, out, true);
+    }
+
+    /**
+     * @param withRules
+     *            if false, the allow/disallow rules are omitted (written as
+     *            empty rule list)
+     */
+    static void write(SimpleRobotRules rules, DataOutput out, boolean withRules) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        out.writeByte(encodeMode(rules._mode));
+
+        int flags = 0;
+        if (rules.isDeferVisits()) {
+            flags |= FLAG_DEFER_VISITS;
+        }
+        if (rules.isMatchedWildcard()) {
+            flags |= FLAG_MATCHED_WILDCARD;
+        }
+        long crawlDelay = rules.getCrawlDelay();
+        if (crawlDelay != BaseRobotRules.UNSET_CRAWL_DELAY) {
+            flags |= FLAG_CRAWL_DELAY;
+        }
+        out.writeByte(flags);
+        if (crawlDelay != BaseRobotRules.UNSET_CRAWL_DELAY) {
+            writeVarLong(out, zigZag(crawlDelay));
+        }
+
+        List<RobotRule> ruleList = withRules ? rules.getRobotRules() : List.of();
+        writeVarInt(out, ruleList.size());
+        String previous = "";
+        for (RobotRule rule : ruleList) {
+            String pattern = rule._prefix;
+            int shared = sharedPrefixLength(previous, pattern);
+            writeVarInt(out, (shared << 1) | (rule._allow ? 1 : 0));
+            writeString(out, pattern.substring(shared));
+            previous = pattern;
+        }
+
+        List<String> sitemaps = rules.getSitemaps();
+        writeVarInt(out, sitemaps.size());
+        for (String sitemap : sitemaps) {
+            writeString(out, sitemap);
+        }
+
+        Map<RobotsExtension, RobotsExtensionData> extensions = rules.getExtensions();
+        writeVarInt(out, extensions.size());
+        for (Map.Entry<RobotsExtension, RobotsExtensionData> e : extensions.entrySet()) {
+            writeString(out, e.getKey().name());
+            List<String> values = e.getValue().getValues();
+            writeVarInt(out, values.size());
+            for (String value : values) {
+                writeString(out, value);
+            }
+        }
+    }
+
+    static SimpleRobotRules read(DataInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported format version of robots rules: " + version);
+        }
+        SimpleRobotRules rules = new SimpleRobotRules(decodeMode(in.readUnsignedByte()));
+
+        int flags = in.readUnsignedByte();
+        rules.setDeferVisits((flags & FLAG_DEFER_VISITS) != 0);
+        rules.setMatchedWildcard((flags & FLAG_MATCHED_WILDCARD) != 0);
+        if ((flags & FLAG_CRAWL_DELAY) != 0) {
+            rules.setCrawlDelay(unZigZag(readVarLong(in)));
+        }
+
+        int numRules = readLength(in);
+        rules._rules.ensureCapacity(numRules);
+        String previous = "";
+        for (int i = 0; i < numRules; i++) {
+            int header = readLength(in);
+            int shared = header >>> 1;
+            if (shared > previous.length()) {
+                throw new IOException("Invalid shared prefix length of robots rule: " + shared);
+            }
+            String pattern = previous.substring(0, shared) + readString(in);
+            rules._rules.add(new RobotRule(pattern, (header & 1) != 0));
+            previous = pattern;
+        }
+
+        int numSitemaps = readLength(in);
+        for (int i = 0; i < numSitemaps; i++) {
+            rules.addSitemap(readString(in));
+        }
+
+        int numExtensions = readLength(in);
+        for (int i = 0; i < numExtensions; i++) {
+            String name = readString(in);
+            RobotsExtension extension;
+            try {
+                extension = RobotsExtension.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown robots.txt extension: " + name);
+            }
+            int numValues = readLength(in);
+            for (int j = 0; j < numValues; j++) {
+                rules.addExtensionValue(extension, readString(in));
+            }
+        }
+        rules.resolveContentSignals();
+
+        return rules;
+    }
+
+    private static int encodeMode(RobotRulesMode mode) {
+        switch (mode) {
+            case ALLOW_ALL:
+                return MODE_ALLOW_ALL;
+            case ALLOW_NONE:
+                return MODE_ALLOW_NONE;
+            default:
+                return MODE_ALLOW_SOME;
+        }
+    }
+
+    private static RobotRulesMode decodeMode(int mode) throws IOException {
+        switch (mode) {
+            case MODE_ALLOW_ALL:
+                return RobotRulesMode.ALLOW_ALL;
+            case MODE_ALLOW_NONE:
+                return RobotRulesMode.ALLOW_NONE;
+            case MODE_ALLOW_SOME:
+                return RobotRulesMode.ALLOW_SOME;
+            default:
+                throw new IOException("Invalid robots rules mode: " + mode);
+        }
+    }
+
+    /**
+     * Length of the common prefix, not splitting a surrogate pair
+     */
+    private static int sharedPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (i > 0 && Character.isHighSurrogate(a.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static void writeString(DataOutput out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    private static int readLength(DataInput in) throws IOException {
+        long length = readVarLong(in);
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IOException("Invalid length in robots rules: " + length);
+        }
+        return (int) length;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,338 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRule;
+import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
+
+/**
+ * Difference between two versions of the robots rules of a host, e.g., before
+ * and after the robots.txt file was fetched again.
+ *
+ * <p>
+ * The diff lists the rules added, removed and flipped (same pattern, but
+ * allow instead of disallow or vice versa). The verdict whether a path is
+ * allowed can only change if one of these changed rules matches the path: if
+ * no changed rule matches, the same set of rules matches in both versions and
+ * the most specific one decides equally. This allows to re-evaluate only the
+ * affected paths of a host instead of all known paths, see
+ * {@link #affectedPaths(Iterator)}.
+ * </p>
+ *
+ * <p>
+ * If the rule mode changed (e.g., the robots.txt could not be fetched and all
+ * URLs are disallowed now) every path may be affected.
+ * </p>
+ *
+ * <pre>
+ * RobotRulesDiff diff = RobotRulesDiff.compare(oldRules, newRules);
+ * if (!diff.isUnchanged()) {
+ *     diff.affectedPaths(sortedPaths).forEach(path -&gt; recheck(path, newRules));
+ * }
+ * </pre>
+ */
+public final class RobotRulesDiff {
+
+    /** Flags of the rules sharing a pattern */
+    private static final int ALLOW = 1;
+    private static final int DISALLOW = 2;
+
+    private final boolean _modeChanged;
+    private final List<RobotRule> _added;
+    private final List<RobotRule> _removed;
+    private final List<String> _flipped;
+
+    /** Matcher compiled from all changed rules, null if no rule changed */
+    private final RobotRulesMatcher _changedMatcher;
+
+    /**
+     * Sorted, non-overlapping literal prefixes of the changed rules: every path
+     * matched by a changed rule starts with one of the prefixes. An empty
+     * prefix matches all paths.
+     */
+    private final String[] _rangePrefixes;
+
+    private RobotRulesDiff(boolean modeChanged, List<RobotRule> added, List<RobotRule> removed, List<String> flipped) {
+        _modeChanged = modeChanged;
+        _added = Collections.unmodifiableList(added);
+        _removed = Collections.unmodifiableList(removed);
+        _flipped = Collections.unmodifiableList(flipped);
+
+        List<RobotRule> changed = new ArrayList<>();
+        for (List<RobotRule> rules : List.of(added, removed)) {
+            for (RobotRule rule : rules) {
+                /*
+                 * An allow rule with an empty pattern decides like no rule at
+                 * all: it is the least specific and allows.
+                 */
+                if (!(rule._allow && rule._prefix.isEmpty())) {
+                    changed.add(rule);
+                }
+            }
+        }
+        for (String pattern : flipped) {
+            changed.add(new RobotRule(pattern, false));
+        }
+        _changedMatcher = changed.isEmpty() ? null : RobotRulesMatcher.compile(changed);
+        _rangePrefixes = rangePrefixes(changed);
+    }
+
+    /**
+     * Compare two versions of robots rules.
+     *
+     * @param oldRules
+     *            previous rules
+     * @param newRules
+     *            current rules
+     * @return the difference
+     */
+    public static RobotRulesDiff compare(SimpleRobotRules oldRules, SimpleRobotRules newRules) {
+        RobotRulesMode oldMode = oldRules._mode;
+        RobotRulesMode newMode = newRules._mode;
+        Map<String, Integer> oldPatterns = patternFlags(oldRules);
+        Map<String, Integer> newPatterns = patternFlags(newRules);
+
+        List<RobotRule> added = new ArrayList<>();
+        List<RobotRule> removed = new ArrayList<>();
+        List<String> flipped = new ArrayList<>();
+        for (Map.Entry<String, Integer> e : oldPatterns.entrySet()) {
+            String pattern = e.getKey();
+            int oldFlags = e.getValue();
+            Integer newFlags = newPatterns.get(pattern);
+            if (newFlags == null) {
+                addRules(removed, pattern, oldFlags);
+            } else if (newFlags == oldFlags) {
+                continue;
+            } else if ((oldFlags & newFlags) == 0) {
+                flipped.add(pattern);
+            } else {
+                // one pattern with both allow and disallow rules
+                addRules(removed, pattern, oldFlags & ~newFlags);
+                addRules(added, pattern, newFlags & ~oldFlags);
+            }
+        }
+        for (Map.Entry<String, Integer> e : newPatterns.entrySet()) {
+            if (!oldPatterns.containsKey(e.getKey())) {
+                addRules(added, e.getKey(), e.getValue());
+            }
+        }
+
+        boolean modeChanged = (oldMode != newMode);
+        if (!modeChanged && oldMode != RobotRulesMode.ALLOW_SOME) {
+            // rules are not used if all or nothing is allowed
+            added.clear();
+            removed.clear();
+            flipped.clear();
+        }
+        return new RobotRulesDiff(modeChanged, added, removed, flipped);
+    }
+
+    private static Map<String, Integer> patternFlags(SimpleRobotRules rules) {
+        Map<String, Integer> patterns = new LinkedHashMap<>();
+        for (RobotRule rule : rules.getRobotRules()) {
+            patterns.merge(rule._prefix, rule._allow ? ALLOW : DISALLOW, (a, b) -> a | b);
+        }
+        return patterns;
+    }
+
+    private static void addRules(List<RobotRule> rules, String pattern, int flags) {
+        if ((flags & ALLOW) != 0) {
+            rules.add(new RobotRule(pattern, true));
+        }
+        if ((flags & DISALLOW) != 0) {
+            rules.add(new RobotRule(pattern, false));
+        }
+    }
+
+    /**
+     * Get the literal prefixes before the first wildcard or end anchor of the
+     * patterns, including the directory of patterns ending in
+     * <code>index.htm</code> which also match the directory index. Prefixes
+     * starting with another prefix in the set are dropped.
+     */
+    private static String[] rangePrefixes(List<RobotRule> rules) {
+        TreeSet<String> prefixes = new TreeSet<>();
+        for (RobotRule rule : rules) {
+            String pattern = rule._prefix;
+            int end = pattern.length();
+            int wildcard = pattern.indexOf('*');
+            if (wildcard >= 0) {
+                end = wildcard;
+            }
+            int index = pattern.indexOf("index.htm");
+            if (index >= 0 && index < end) {
+                end = index;
+            }
+            if (end > 0 && pattern.charAt(end - 1) == '$') {
+                end--;
+            }
+            prefixes.add(pattern.substring(0, end));
+        }
+        List<String> result = new ArrayList<>();
+        for (String prefix : prefixes) {
+            if (result.isEmpty() || !prefix.startsWith(result.get(result.size() - 1))) {
+                result.add(prefix);
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
+    /** @return true if the rule mode changed, then all paths may be affected */
+    public boolean isModeChanged() {
+        return _modeChanged;
+    }
+
+    /**
+     * @return true if no path changes its verdict. Note: crawl-delay, sitemaps
+     *         and extension data are not compared.
+     */
+    public boolean isUnchanged() {
+        return !_modeChanged && _changedMatcher == null;
+    }
+
+    /** @return rules added in the new version */
+    public List<RobotRule> getAddedRules() {
+        return _added;
+    }
+
+    /** @return rules removed from the old version */
+    public List<RobotRule> getRemovedRules() {
+        return _removed;
+    }
+
+    /**
+     * @return patterns which were allowed in the old version and are
+     *         disallowed in the new version, or vice versa
+     */
+    public List<String> getFlippedPatterns() {
+        return _flipped;
+    }
+
+    /**
+     * Check whether the verdict for a path may have changed.
+     *
+     * @param path
+     *            percent-encoded path and query of a URL, normalized the same
+     *            way as for {@link SimpleRobotRules#isAllowed(String)}
+     * @return true if a changed rule matches the path or the rule mode
+     *         changed
+     */
+    public boolean isAffected(String path) {
+        if (_modeChanged) {
+            return true;
+        }
+        if (_changedMatcher == null) {
+            return false;
+        }
+        return _changedMatcher.match(path, 0, path.length()) != RobotRulesMatcher.NO_MATCH;
+    }
+
+    /**
+     * Filter the paths of a host for those whose verdict may have changed, see
+     * {@link #isAffected(String)}.
+     *
+     * <p>
+     * The paths must be sorted in ascending order of
+     * {@link String#compareTo(String)}. Paths outside the ranges of the
+     * literal prefixes of the changed rules are skipped by a single comparison,
+     * only paths within the ranges are matched against the changed rules.
+     * </p>
+     *
+     * @param sortedPaths
+     *            sorted paths (percent-encoded path and query)
+     * @return iterator over the affected paths
+     */
+    public Iterator<String> affectedPaths(Iterator<String> sortedPaths) {
+        if (_modeChanged) {
+            return sortedPaths;
+        }
+        if (_changedMatcher == null) {
+            return Collections.emptyIterator();
+        }
+        return new Iterator<String>() {
+            private int _range = 0;
+            private String _next = null;
+
+            @Override
+            public boolean hasNext() {
+                while (_next == null && _range < _rangePrefixes.length && sortedPaths.hasNext()) {
+                    String path = sortedPaths.next();
+                    // skip ranges entirely before the path
+                    while (_range < _rangePrefixes.length && _rangePrefixes[_range].compareTo(path) < 0 && !path.startsWith(_rangePrefixes[_range])) {
+                        _range++;
+                    }
+                    if (_range < _rangePrefixes.length && path.startsWith(_rangePrefixes[_range])
+                                    && _changedMatcher.match(path, 0, path.length()) != RobotRulesMatcher.NO_MATCH) {
+                        _next = path;
+                    }
+                }
+                return _next != null;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String path = _next;
+                _next = null;
+                return path;
+            }
+        };
+    }
+
+    /**
+     * @see #affectedPaths(Iterator)
+     * @param sortedPaths
+     *            sorted stream of paths (percent-encoded path and query)
+     * @return stream of the affected paths
+     */
+    public Stream<String> affectedPaths(Stream<String> sortedPaths) {
+        if (_modeChanged) {
+            return sortedPaths;
+        }
+        Iterator<String> paths = affectedPaths(sortedPaths.iterator());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(paths, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(sortedPaths::close);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("RobotRulesDiff[");
+        if (_modeChanged) {
+            sb.append("mode changed, ");
+        }
+        sb.append("added=").append(_added.size());
+        sb.append(", removed=").append(_removed.size());
+        sb.append(", flipped=").append(_flipped.size());
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
+
+/**
+ * Interning layer around
+ * {@link SimpleRobotRulesParser#parseContent(String, byte[], String, Collection)}
+ * which returns one shared instance of {@link SimpleRobotRules} for identical
+ * robots.txt files.
+ *
+ * <p>
+ * Many hosts serve byte-identical robots.txt files (defaults of content
+ * management systems, parked domains, shared hosting templates). The interner
+ * keys the parsed rules on a SHA-256 hash of the content, the robot names and
+ * the content type. If the parsed rules contain sitemaps, the URL of the
+ * robots.txt is also part of the key because relative sitemap URLs are
+ * resolved against it. Rules which allow or disallow everything without any
+ * further data are mapped to shared singletons.
+ * </p>
+ *
+ * <p>
+ * All returned rules are frozen (see {@link BaseRobotRules#freeze()}), any
+ * attempt to modify them throws an {@link UnsupportedOperationException}.
+ * The number of interned rule sets is bounded, the least recently used rule
+ * sets are dropped first. The interner is thread-safe, the content is parsed
+ * outside of any lock.
+ * </p>
+ *
+ * <p>
+ * Note: the parser's count of warnings ({@link SimpleRobotRulesParser#getNumWarnings()})
+ * is not updated if interned rules are returned without parsing.
+ * </p>
+ */
+public class RobotRulesInterner {
+
+    private static final SimpleRobotRules ALLOW_ALL = frozen(RobotRulesMode.ALLOW_ALL, false);
+    private static final SimpleRobotRules ALLOW_NONE = frozen(RobotRulesMode.ALLOW_NONE, false);
+    private static final SimpleRobotRules ALLOW_NONE_DEFER_VISITS = frozen(RobotRulesMode.ALLOW_NONE, true);
+
+    /**
+     * Placeholder interned for content whose rules depend on the robots.txt
+     * URL: the rules are interned under a key including the URL
+     */
+    private static final SimpleRobotRules URL_DEPENDENT = frozen(RobotRulesMode.ALLOW_SOME, false);
+
+    private static SimpleRobotRules frozen(RobotRulesMode mode, boolean deferVisits) {
+        SimpleRobotRules rules = new SimpleRobotRules(mode);
+        rules.setDeferVisits(deferVisits);
+        rules.freeze();
+        return rules;
+    }
+
+    private static final class Key {
+        private final byte[] _digest;
+        private final List<String> _robotNames;
+        private final String _contentType;
+        /** URL of the robots.txt, only set if required to resolve sitemaps */
+        private final String _url;
+        private final int _hashCode;
+
+        private Key(byte[] digest, List<String> robotNames, String contentType, String url) {
+            _digest = digest;
+            _robotNames = robotNames;
+            _contentType = contentType;
+            _url = url;
+            _hashCode = Objects.hash(Arrays.hashCode(digest), robotNames, contentType, url);
+        }
+
+        @Override
+        public int hashCode() {
+            return _hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            Key other = (Key) obj;
+            return _hashCode == other._hashCode && Arrays.equals(_digest, other._digest) && _robotNames.equals(other._robotNames) && Objects.equals(_contentType, other._contentType)
+                            && Objects.equals(_url, other._url);
+        }
+    }
+
+    private final SimpleRobotRulesParser _parser;
+    private final Map<Key, SimpleRobotRules> _interned;
+
+    private final AtomicLong _requests = new AtomicLong();
+    private final AtomicLong _hits = new AtomicLong();
+    private final AtomicLong _memorySaved = new AtomicLong();
+
+    /**
+     * @param parser
+     *            parser used to parse robots.txt content. The configuration
+     *            of the parser must not be changed while the interner is in
+     *            use.
+     * @param maxEntries
+     *            max. number of interned rule sets
+     */
+    public RobotRulesInterner(SimpleRobotRulesParser parser, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max. number of entries must be positive: " + maxEntries);
+        }
+        _parser = parser;
+        _interned = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SimpleRobotRules> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Parse the robots.txt content or return the interned rules if the same
+     * content has been parsed before.
+     *
+     * @see SimpleRobotRulesParser#parseContent(String, byte[], String,
+     *      Collection)
+     *
+     * @return frozen robot rules, possibly shared with other hosts
+     */
+    public SimpleRobotRules parseContent(String url, byte[] content, String contentType, Collection<String> robotNames) {
+        _requests.incrementAndGet();
+        if (content == null) {
+            return canonicalize(_parser.parseContent(url, content, contentType, robotNames));
+        }
+
+        byte[] digest = digest(content);
+        List<String> names = new ArrayList<>(robotNames);
+        Key contentKey = new Key(digest, names, contentType, null);
+        Key urlKey = null;
+        SimpleRobotRules rules;
+        synchronized (_interned) {
+            rules = _interned.get(contentKey);
+            if (rules == URL_DEPENDENT) {
+                urlKey = new Key(digest, names, contentType, url);
+                rules = _interned.get(urlKey);
+            }
+        }
+        if (rules != null) {
+            _hits.incrementAndGet();
+            _memorySaved.addAndGet(RobotRulesCache.estimateSize(rules));
+            return rules;
+        }
+
+        SimpleRobotRules parsed = _parser.parseContent(url, content, contentType, robotNames);
+        if (urlKey == null && !parsed.getSitemaps().isEmpty()) {
+            /*
+             * Relative sitemap URLs are resolved against the robots.txt URL.
+             * Decided on the parsed rules, not on the raw content which may be
+             * encoded in UTF-16.
+             */
+            urlKey = new Key(digest, names, contentType, url);
+        }
+        rules = canonicalize(parsed);
+        if (rules != parsed) {
+            _memorySaved.addAndGet(RobotRulesCache.estimateSize(parsed));
+        }
+        SimpleRobotRules previous;
+        synchronized (_interned) {
+            if (urlKey != null) {
+                _interned.put(contentKey, URL_DEPENDENT);
+                previous = _interned.putIfAbsent(urlKey, rules);
+            } else {
+                previous = _interned.putIfAbsent(contentKey, rules);
+            }
+        }
+        if (previous != null) {
+            // parsed concurrently by another thread
+            return previous;
+        }
+        return rules;
+    }
+
+    /**
+     * Get the rules for a failed fetch of the robots.txt, see
+     * {@link SimpleRobotRulesParser#failedFetch(int)}.
+     *
+     * @return shared frozen rules
+     */
+    public SimpleRobotRules failedFetch(int httpStatusCode) {
+        _requests.incrementAndGet();
+        _hits.incrementAndGet();
+        SimpleRobotRules rules = _parser.failedFetch(httpStatusCode);
+        _memorySaved.addAndGet(RobotRulesCache.estimateSize(rules));
+        return canonicalize(rules);
+    }
+
+    /**
+     * Replace rules which allow or disallow everything without carrying any
+     * other data by a shared singleton, freeze all other rules.
+     */
+    private static SimpleRobotRules canonicalize(SimpleRobotRules rules) {
+        if (!rules.isMatchedWildcard()) {
+            for (SimpleRobotRules singleton : Arrays.asList(ALLOW_ALL, ALLOW_NONE, ALLOW_NONE_DEFER_VISITS)) {
+                if (singleton.equals(rules)) {
+                    return singleton;
+                }
+            }
+        }
+        rules.freeze();
+        return rules;
+    }
+
+    private static byte[] digest(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** @return number of rule sets requested from the interner */
+    public long getRequestCount() {
+        return _requests.get();
+    }
+
+    /** @return number of requests served by shared rules without parsing */
+    public long getHitCount() {
+        return _hits.get();
+    }
+
+    /** @return ratio of hits to requests, 0.0 if there were no requests */
+    public double getHitRate() {
+        long requests = _requests.get();
+        return requests == 0 ? 0.0 : (double) _hits.get() / requests;
+    }
+
+    /**
+     * @return estimation of the memory (in bytes) saved by sharing rules,
+     *         using the same estimation as
+     *         {@link RobotRulesCache#weigh(BaseRobotRules)}
+     */
+    public long getMemorySaved() {
+        return _memorySaved.get();
+    }
+
+    /** @return number of interned rule sets */
+    public int size() {
+        synchronized (_interned) {
+            int size = 0;
+            for (SimpleRobotRules rules : _interned.values()) {
+                if (rules != URL_DEPENDENT) {
+                    size++;
+                }
+            }
+            return size;
+        }
+    }
+
+    /** Remove all interned rule sets, counters are not reset */
+    public void clear() {
+        synchronized (_interned) {
+            _interned.clear();
+        }
+    }
+}
@@ -0,0 +1,544 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRule;
+
+/**
+ * Immutable matcher compiled from the allow/disallow rules of a
+ * {@link SimpleRobotRules} object.
+ *
+ * <p>
+ * Literal rules (patterns without a wildcard <code>*</code>) are stored in a
+ * compressed prefix trie. A single walk along the URL path yields the longest
+ * matching literal prefix, and also the exact matches of literal patterns
+ * anchored by a trailing <code>$</code>. Rules containing wildcards are kept in
+ * a list ordered by decreasing pattern length and are only evaluated as long as
+ * they could still result in a match at least as specific as the best match
+ * found so far.
+ * </p>
+ *
+ * <p>
+ * The precedence of rules follows <a
+ * href="https://www.rfc-editor.org/rfc/rfc9309.html#section-2.2.2">RFC 9309,
+ * section 2.2.2</a>: the most specific (longest) match is used and, if an allow
+ * and a disallow rule are equally specific, the allow rule wins. Rules ending
+ * in <code>index.htm</code> or <code>index.html</code> also match the path of
+ * the directory index.
+ * </p>
+ *
+ * <p>
+ * The trie is flattened into a few arrays indexed by node number, and the
+ * labels of the trie edges are held as ranges in the pattern characters of
+ * a {@link PackedRuleList}, which are shared with frozen rules. Compiled
+ * matchers are therefore only a little larger than the rules.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ */
+final class RobotRulesMatcher {
+
+    /** Returned by {@link #match(CharSequence, int, int)} if no rule matches */
+    static final int NO_MATCH = -1;
+
+    /**
+     * Node of the compressed prefix trie, only used while the matcher is
+     * compiled. The label is the sequence of characters on the edge leading
+     * from the parent to this node. It is not copied but held as range in the
+     * pattern characters: it ends where the pattern which added the node
+     * passes the node.
+     */
+    private static final class Node {
+        /** end offset (exclusive) of the label in the pattern characters */
+        final int labelEnd;
+        /** length of the label */
+        int labelLength;
+        /** sorted list of first characters of the children's labels */
+        char[] chars = {};
+        Node[] children = {};
+        /** index of the rule matching all paths starting with this prefix */
+        int prefixRule = NO_MATCH;
+        /** index of the rule matching exactly this path */
+        int exactRule = NO_MATCH;
+
+        Node(int labelEnd, int labelLength) {
+            this.labelEnd = labelEnd;
+            this.labelLength = labelLength;
+        }
+
+        Node addChild(char c, int labelEnd) {
+            int pos = Arrays.binarySearch(chars, c);
+            if (pos >= 0) {
+                return children[pos];
+            }
+            pos = -pos - 1;
+            Node child = new Node(labelEnd, 1);
+            char[] newChars = new char[chars.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(chars, 0, newChars, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            newChars[pos] = c;
+            newChildren[pos] = child;
+            System.arraycopy(chars, pos, newChars, pos + 1, chars.length - pos);
+            System.arraycopy(children, pos, newChildren, pos + 1, children.length - pos);
+            chars = newChars;
+            children = newChildren;
+            return child;
+        }
+
+        /**
+         * Merge chains of nodes which have a single child and no rule
+         * attached. The label of the merged node still ends where the pattern
+         * which added the last node passes it.
+         */
+        void compress() {
+            for (int i = 0; i < children.length; i++) {
+                Node child = children[i];
+                while (child.children.length == 1 && child.prefixRule == NO_MATCH && child.exactRule == NO_MATCH) {
+                    Node grandChild = child.children[0];
+                    grandChild.labelLength += child.labelLength;
+                    child = grandChild;
+                }
+                children[i] = child;
+                child.compress();
+            }
+        }
+    }
+
+    /**
+     * A rule pattern containing wildcards. Rules ending in
+     * <code>index.htm</code> may add a second entry for the directory index
+     * pattern.
+     *
+     * <p>
+     * The pattern is split at the wildcards into literal pieces. The first
+     * piece must match at the start of the path, the last piece at the end of
+     * the path if the pattern ends with <code>$</code>. All other pieces are
+     * matched greedily at their leftmost occurrence, which is always correct
+     * for <code>*</code> wildcards and does not require backtracking. Pieces
+     * are located using the Knuth-Morris-Pratt algorithm, so that a path is
+     * matched in time linear to the length of the path and the pattern.
+     * </p>
+     */
+    private static final class WildcardRule {
+        final int rule;
+        final int length;
+        /** literal pieces between the wildcards, at least two */
+        final char[][] pieces;
+        /** KMP failure function of every piece */
+        final int[][] failure;
+        /** whether the pattern ends with <code>$</code> */
+        final boolean anchoredEnd;
+
+        WildcardRule(String pattern, int rule) {
+            this.rule = rule;
+            this.length = pattern.length();
+            anchoredEnd = pattern.endsWith("$");
+            String body = anchoredEnd ? pattern.substring(0, pattern.length() - 1) : pattern;
+            String[] parts = body.split("\\*", -1);
+            pieces = new char[parts.length][];
+            failure = new int[parts.length][];
+            for (int i = 0; i < parts.length; i++) {
+                pieces[i] = parts[i].toCharArray();
+                failure[i] = failureFunction(pieces[i]);
+            }
+        }
+
+        /**
+         * Match the pattern against a path.
+         *
+         * @return true if the pattern matches the path
+         */
+        boolean matches(CharSequence text, int start, int end) {
+            char[] first = pieces[0];
+            if (!regionMatches(text, start, end, first)) {
+                return false;
+            }
+            int pos = start + first.length;
+            int last = pieces.length - 1;
+            for (int i = 1; i < last; i++) {
+                int found = indexOf(text, pos, end, pieces[i], failure[i]);
+                if (found == -1) {
+                    return false;
+                }
+                pos = found + pieces[i].length;
+            }
+            char[] lastPiece = pieces[last];
+            if (anchoredEnd) {
+                int lastStart = end - lastPiece.length;
+                return lastStart >= pos && regionMatches(text, lastStart, end, lastPiece);
+            }
+            return indexOf(text, pos, end, lastPiece, failure[last]) != -1;
+        }
+
+        private static boolean regionMatches(CharSequence text, int start, int end, char[] piece) {
+            if ((end - start) < piece.length) {
+                return false;
+            }
+            for (int i = 0; i < piece.length; i++) {
+                if (text.charAt(start + i) != piece[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int[] failureFunction(char[] piece) {
+            int[] failure = new int[piece.length];
+            int k = 0;
+            for (int i = 1; i < piece.length; i++) {
+                while (k > 0 && piece[i] != piece[k]) {
+                    k = failure[k - 1];
+                }
+                if (piece[i] == piece[k]) {
+                    k++;
+                }
+                failure[i] = k;
+            }
+            return failure;
+        }
+
+        /**
+         * @return start offset of the leftmost occurrence of the piece in the
+         *         text range, -1 if not found
+         */
+        private static int indexOf(CharSequence text, int start, int end, char[] piece, int[] failure) {
+            if (piece.length == 0) {
+                return start;
+            }
+            int k = 0;
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                while (k > 0 && c != piece[k]) {
+                    k = failure[k - 1];
+                }
+                if (c == piece[k]) {
+                    k++;
+                    if (k == piece.length) {
+                        return i - k + 1;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+
+    /*
+     * The trie is flattened into arrays indexed by node number. Nodes are
+     * numbered in breadth-first order, so that the children of a node are
+     * numbered consecutively, in the order of the first character of their
+     * labels. The root node is number 0.
+     */
+
+    /** pattern characters, the labels of the nodes point into this array */
+    private final char[] _chars;
+    /** start offset of the label of every node in the pattern characters */
+    private final int[] _labelStart;
+    /** end offset (exclusive) of the label of every node */
+    private final int[] _labelEnd;
+    /**
+     * number of the first child of every node, plus one entry after the last
+     * node: the children of node <i>n</i> are numbered
+     * <code>_firstChild[n]</code> to <code>_firstChild[n + 1] - 1</code>
+     */
+    private final int[] _firstChild;
+    /** index of the rule matching all paths starting with the node's prefix */
+    private final int[] _prefixRule;
+    /** index of the rule matching exactly the node's path */
+    private final int[] _exactRule;
+    private final WildcardRule[] _wildcardRules;
+    private final boolean[] _allow;
+
+    private RobotRulesMatcher(char[] chars, Node root, WildcardRule[] wildcardRules, boolean[] allow) {
+        _chars = chars;
+        _wildcardRules = wildcardRules;
+        _allow = allow;
+
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(root);
+        for (int i = 0; i < nodes.size(); i++) {
+            nodes.addAll(Arrays.asList(nodes.get(i).children));
+        }
+        int numNodes = nodes.size();
+        _labelStart = new int[numNodes];
+        _labelEnd = new int[numNodes];
+        _firstChild = new int[numNodes + 1];
+        _prefixRule = new int[numNodes];
+        _exactRule = new int[numNodes];
+        _firstChild[0] = 1;
+        for (int i = 0; i < numNodes; i++) {
+            Node node = nodes.get(i);
+            _labelStart[i] = node.labelEnd - node.labelLength;
+            _labelEnd[i] = node.labelEnd;
+            _firstChild[i + 1] = _firstChild[i] + node.children.length;
+            _prefixRule[i] = node.prefixRule;
+            _exactRule[i] = node.exactRule;
+        }
+    }
+
+    /**
+     * Compile a list of allow/disallow rules. The rules do not need to be
+     * sorted, but the rule indexes returned by
+     * {@link #match(CharSequence, int, int)} refer to the position of the rule
+     * in the list.
+     *
+     * <p>
+     * The patterns are held in the packed form of {@link PackedRuleList}. If
+     * the rules are already packed, the pattern characters are shared with
+     * the rules and not copied.
+     * </p>
+     *
+     * @param rules
+     *            allow/disallow rules
+     * @return compiled matcher
+     */
+    static RobotRulesMatcher compile(List<RobotRule> rules) {
+        PackedRuleList packed = (rules instanceof PackedRuleList) ? (PackedRuleList) rules : PackedRuleList.pack(rules);
+        char[] chars = packed.getPatternChars();
+        int numRules = packed.size();
+        boolean[] allow = new boolean[numRules];
+        Node root = new Node(0, 0);
+        List<WildcardRule> wildcardRules = new ArrayList<>();
+
+        for (int i = 0; i < numRules; i++) {
+            String pattern = packed.getPattern(i);
+            int offset = packed.getPatternOffset(i);
+            allow[i] = packed.isAllow(i);
+            addPattern(root, wildcardRules, allow, chars, offset, pattern, i);
+
+            /*
+             * A rule ending in index.htm or index.html also matches the
+             * directory index, as if the rule "/path/$" was given. See
+             * precedence-of-rules test case for an example.
+             *
+             * Some webmasters expect behavior close to Google's, and this is
+             * equivalent to:
+             * https://github.com/google/robotstxt/blob/
+             * 02bc6cdfa32db50d42563180c42aeb47042b4f0c/robots.cc#L605-L618
+             *
+             * There are example robots.txt in the wild that benefit from this.
+             * As of 2/7/2022, https://venmo.com/robots.txt for instance.
+             *
+             * The directory index pattern is shorter than the original one,
+             * so it is used only if the original pattern does not match:
+             * RFC 9309 requires that "The most specific match found MUST be
+             * used. The most specific match is the match that has the most
+             * octets."
+             */
+            if (pattern.endsWith("index.htm") || pattern.endsWith("index.html")) {
+                addPattern(root, wildcardRules, allow, chars, offset, pattern.substring(0, pattern.indexOf("index.htm")) + "$", i);
+            }
+        }
+        root.compress();
+
+        // most specific wildcard patterns first
+        wildcardRules.sort((a, b) -> {
+            if (a.length != b.length) {
+                return Integer.compare(b.length, a.length);
+            }
+            return Integer.compare(a.rule, b.rule);
+        });
+
+        return new RobotRulesMatcher(chars, root, wildcardRules.toArray(new WildcardRule[0]), allow);
+    }
+
+    /**
+     * Add a pattern to the trie or the list of wildcard patterns.
+     *
+     * @param chars
+     *            pattern characters
+     * @param offset
+     *            offset of the pattern in the pattern characters, literal
+     *            patterns must be a prefix of the characters at this offset
+     *            (except for a trailing <code>$</code>)
+     */
+    private static void addPattern(Node root, List<WildcardRule> wildcardRules, boolean[] allow, char[] chars, int offset, String pattern, int rule) {
+        if (pattern.indexOf('*') >= 0) {
+            wildcardRules.add(new WildcardRule(pattern, rule));
+            return;
+        }
+        boolean exact = pattern.endsWith("$");
+        int end = exact ? pattern.length() - 1 : pattern.length();
+        Node node = root;
+        for (int i = 0; i < end; i++) {
+            node = node.addChild(chars[offset + i], offset + i + 1);
+        }
+        if (exact) {
+            node.exactRule = preferredRule(allow, node.exactRule, rule);
+        } else {
+            node.prefixRule = preferredRule(allow, node.prefixRule, rule);
+        }
+    }
+
+    /**
+     * Select one of two equally specific rules: allow rules take precedence
+     * over disallow rules, otherwise the rule with the lower index is chosen.
+     */
+    private static int preferredRule(boolean[] allow, int rule, int other) {
+        if (rule == NO_MATCH) {
+            return other;
+        } else if (allow[rule] != allow[other]) {
+            return allow[rule] ? rule : other;
+        }
+        return Math.min(rule, other);
+    }
+
+    /**
+     * Find the rule deciding whether a URL path is allowed.
+     *
+     * @param path
+     *            character sequence holding the percent-encoded URL path and
+     *            query
+     * @param start
+     *            start offset of the path
+     * @param end
+     *            end offset (exclusive) of the path
+     * @return index of the most specific matching rule, or {@link #NO_MATCH}
+     *         if no rule matches
+     */
+    int match(CharSequence path, int start, int end) {
+        int best = NO_MATCH;
+        int bestLength = -1;
+
+        // longest literal match: walk the trie along the path
+        int node = 0;
+        int pos = start;
+        while (true) {
+            if (_prefixRule[node] != NO_MATCH) {
+                best = _prefixRule[node];
+                bestLength = pos - start;
+            }
+            if (pos == end) {
+                if (_exactRule[node] != NO_MATCH) {
+                    best = _exactRule[node];
+                    bestLength = pos - start + 1;
+                }
+                break;
+            }
+            int child = getChild(node, path.charAt(pos));
+            if (child == -1) {
+                break;
+            }
+            int labelStart = _labelStart[child];
+            int labelLength = _labelEnd[child] - labelStart;
+            if ((end - pos) < labelLength) {
+                break;
+            }
+            int i = 1;
+            while (i < labelLength && _chars[labelStart + i] == path.charAt(pos + i)) {
+                i++;
+            }
+            if (i < labelLength) {
+                break;
+            }
+            pos += labelLength;
+            node = child;
+        }
+
+        // wildcard patterns, as long as they could be more specific
+        for (WildcardRule w : _wildcardRules) {
+            if (w.length < bestLength) {
+                break;
+            }
+            if (w.length == bestLength && preferredRule(_allow, best, w.rule) == best) {
+                continue;
+            }
+            if (w.matches(path, start, end)) {
+                best = (w.length == bestLength) ? preferredRule(_allow, best, w.rule) : w.rule;
+                bestLength = w.length;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Approximate the number of bytes held by the matcher.
+     *
+     * @param sharedPatterns
+     *            whether the pattern characters are shared with the packed
+     *            rules of frozen {@link SimpleRobotRules} and are not counted
+     * @return approximate number of bytes
+     */
+    long estimateSize(boolean sharedPatterns) {
+        long size = 64 + 6 * 16 + 4L * (5 * _labelStart.length + 1) + _allow.length;
+        if (!sharedPatterns) {
+            size += 16 + 2L * _chars.length;
+        }
+        size += 16 + 4L * _wildcardRules.length;
+        for (WildcardRule w : _wildcardRules) {
+            size += 32 + 2 * (16 + 4L * w.pieces.length);
+            for (char[] piece : w.pieces) {
+                // piece and failure function
+                size += 32 + 6L * piece.length;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Find the child of a node by the first character of its label.
+     *
+     * @return number of the child node, -1 if there is no such child
+     */
+    private int getChild(int node, char c) {
+        int low = _firstChild[node];
+        int high = _firstChild[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = _chars[_labelStart[mid]];
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param path
+     *            character sequence holding the percent-encoded URL path and
+     *            query
+     * @param start
+     *            start offset of the path
+     * @param end
+     *            end offset (exclusive) of the path
+     * @return true if the path is allowed
+     */
+    boolean isAllowed(CharSequence path, int start, int end) {
+        int rule = match(path, start, end);
+        return rule == NO_MATCH || _allow[rule];
+    }
+
+    /**
+     * @param rule
+     *            rule index
+     * @return whether the rule is an allow rule
+     */
+    boolean isAllow(int rule) {
+        return _allow[rule];
+    }
+}
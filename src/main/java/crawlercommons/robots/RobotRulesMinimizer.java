@@ -0,0 +1,180 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRule;
+
+/**
+ * Removes allow/disallow rules which never change the verdict for any path,
+ * see {@link SimpleRobotRules#sortRules(boolean)}.
+ *
+ * <p>
+ * A rule is removed if
+ * </p>
+ * <ul>
+ * <li>it is a disallow rule and there is an allow rule with the same pattern:
+ * the allow rule is equally specific and always takes precedence, or</li>
+ * <li>it is a literal prefix rule (no wildcard, no end anchor) which is
+ * covered by a shorter literal prefix rule of the same kind (allow or
+ * disallow), and no rule of the opposite kind with a length between both
+ * rules may match any path the longer rule matches. Allow rules are also
+ * covered by the implicit default: a path not matched by any rule is
+ * allowed.</li>
+ * </ul>
+ *
+ * <p>
+ * In both cases, every path matched by the removed rule is decided by a rule
+ * of the same kind after the removal, so the longest-match semantics of RFC
+ * 9309 are preserved. Rules are removed one by one and every removal is
+ * checked against the remaining rules. Wildcard rules of the opposite kind
+ * are considered if the literal prefix before the first wildcard is
+ * compatible with the rule, which is conservative. Rules ending in
+ * <code>index.htm</code> or <code>index.html</code>, which also match the
+ * directory index, are never removed by the second condition.
+ * </p>
+ */
+final class RobotRulesMinimizer {
+
+    /** Flags of the literal prefix rules sharing a pattern */
+    private static final int ALLOW = 1;
+    private static final int DISALLOW = 2;
+
+    private RobotRulesMinimizer() {
+    }
+
+    /**
+     * @param rules
+     *            deduplicated rules, sorted by decreasing length
+     * @return the rules without shadowed rules, in the same order
+     */
+    static List<RobotRule> minimize(List<RobotRule> rules) {
+        Set<String> allowPatterns = new HashSet<>();
+        Map<String, Integer> literalFlags = new HashMap<>();
+        List<RobotRule> wildcardRules = new ArrayList<>();
+        for (RobotRule rule : rules) {
+            if (rule._allow) {
+                allowPatterns.add(rule._prefix);
+            }
+            if (isLiteralPrefix(rule._prefix)) {
+                literalFlags.merge(rule._prefix, flag(rule._allow), (a, b) -> a | b);
+            } else if (rule._prefix.indexOf('*') >= 0) {
+                wildcardRules.add(rule);
+            }
+        }
+
+        boolean[] removed = new boolean[rules.size()];
+        int numRemoved = 0;
+
+        // disallow rules overridden by an allow rule with the same pattern
+        for (int i = 0; i < rules.size(); i++) {
+            RobotRule rule = rules.get(i);
+            if (!rule._allow && allowPatterns.contains(rule._prefix)) {
+                removed[i] = true;
+                numRemoved++;
+                if (isLiteralPrefix(rule._prefix)) {
+                    literalFlags.computeIfPresent(rule._prefix, (p, f) -> f & ~DISALLOW);
+                } else {
+                    wildcardRules.remove(rule);
+                }
+            }
+        }
+
+        // literal prefix rules covered by a shorter rule of the same kind
+        for (int i = 0; i < rules.size(); i++) {
+            RobotRule rule = rules.get(i);
+            String pattern = rule._prefix;
+            if (removed[i] || !isLiteralPrefix(pattern) || pattern.endsWith("index.htm") || pattern.endsWith("index.html")) {
+                continue;
+            }
+            if (isCovered(pattern, rule._allow, literalFlags, wildcardRules)) {
+                removed[i] = true;
+                numRemoved++;
+                literalFlags.computeIfPresent(pattern, (p, f) -> {
+                    f &= ~flag(rule._allow);
+                    return f == 0 ? null : f;
+                });
+            }
+        }
+
+        if (numRemoved == 0) {
+            return rules;
+        }
+        List<RobotRule> result = new ArrayList<>(rules.size() - numRemoved);
+        for (int i = 0; i < rules.size(); i++) {
+            if (!removed[i]) {
+                result.add(rules.get(i));
+            }
+        }
+        return result;
+    }
+
+    private static boolean isCovered(String pattern, boolean allow, Map<String, Integer> literalFlags, List<RobotRule> wildcardRules) {
+        int same = flag(allow);
+        int opposite = flag(!allow);
+
+        // longest shorter rule of the same kind matching all paths of the rule
+        int coverLength = -1;
+        for (int k = pattern.length() - 1; k >= 0; k--) {
+            Integer flags = literalFlags.get(pattern.substring(0, k));
+            if (flags != null && (flags & same) != 0) {
+                coverLength = k;
+                break;
+            }
+        }
+        if (coverLength == -1 && !allow) {
+            return false;
+        }
+
+        // no rule of the opposite kind may decide in between
+        int minLength = Math.max(0, coverLength);
+        for (int k = minLength; k <= pattern.length(); k++) {
+            Integer flags = literalFlags.get(pattern.substring(0, k));
+            if (flags != null && (flags & opposite) != 0) {
+                return false;
+            }
+        }
+        for (RobotRule w : wildcardRules) {
+            if (w._allow == allow) {
+                continue;
+            }
+            int length = w._prefix.length();
+            if (length < minLength || length > pattern.length()) {
+                continue;
+            }
+            String literal = w._prefix.substring(0, w._prefix.indexOf('*'));
+            if (literal.startsWith(pattern) || pattern.startsWith(literal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLiteralPrefix(String pattern) {
+        return pattern.indexOf('*') == -1 && !pattern.endsWith("$");
+    }
+
+    private static int flag(boolean allow) {
+        return allow ? ALLOW : DISALLOW;
+    }
+}
@@ -0,0 +1,395 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRule;
+import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
+
+/**
+ * Robots rules turned into lexicographic ranges of paths, to decide on sorted
+ * sets of paths run by run instead of path by path.
+ *
+ * <p>
+ * A literal rule (a pattern without wildcard and end anchor) matches exactly
+ * the paths starting with its pattern, and these paths form a contiguous
+ * range in the lexicographic order. The boundaries of the ranges of all
+ * literal rules split the space of paths into consecutive ranges, within each
+ * range the same set of literal rules matches and the verdict is the same for
+ * all paths. Rules with wildcards <code>*</code> or end anchors
+ * <code>$</code> (including the directory index pattern derived from rules
+ * ending in <code>index.htm</code>) may only match the paths starting with the
+ * literal part before the first wildcard. Where such a rule could override
+ * the verdict of the literal rules, paths are matched one by one against all
+ * rules, as done by {@link SimpleRobotRules#isAllowed(String)}.
+ * </p>
+ *
+ * <p>
+ * For a sorted array of paths ({@link #isAllowed(String[])}) the end of the run
+ * of paths within a range is found by binary search, whole runs are accepted
+ * or dropped at once. Sorted iterators ({@link #allowedPaths(Iterator)},
+ * {@link #disallowedPaths(Iterator)}) are consumed in a single pass, requiring
+ * a single comparison per path outside of the ranges which need to be
+ * matched.
+ * </p>
+ *
+ * <p>
+ * Paths are the percent-encoded path and query of URLs, normalized the same
+ * way as for {@link SimpleRobotRules#isAllowed(String)}, and sorted in
+ * ascending order of {@link String#compareTo(String)}. Instances are immutable
+ * and can be shared between threads.
+ * </p>
+ *
+ * <pre>
+ * RobotRulesRanges ranges = RobotRulesRanges.compile(newRules);
+ * BitSet allowed = ranges.isAllowed(sortedPaths);
+ * </pre>
+ */
+public final class RobotRulesRanges {
+
+    /** Verdicts of a range */
+    private static final byte ALLOWED = 0;
+    private static final byte DISALLOWED = 1;
+    private static final byte MATCH = 2;
+
+    /** Start of the range covering the path "/robots.txt" only */
+    private static final String ROBOTS_TXT_PATH = "/robots.txt";
+
+    /** Inclusive lower bounds of the ranges, the first bound is "" */
+    private final String[] _starts;
+    private final byte[] _verdicts;
+    private final RobotRulesMatcher _matcher;
+
+    private RobotRulesRanges(String[] starts, byte[] verdicts, RobotRulesMatcher matcher) {
+        _starts = starts;
+        _verdicts = verdicts;
+        _matcher = matcher;
+    }
+
+    /** A literal range of paths covering all paths a rule may match */
+    private static final class RangeRule {
+        final String prefix;
+        final int length;
+        final boolean allow;
+
+        RangeRule(String prefix, int length, boolean allow) {
+            this.prefix = prefix;
+            this.length = length;
+            this.allow = allow;
+        }
+    }
+
+    /**
+     * Compile the ranges of robots rules.
+     *
+     * @param rules
+     *            robots rules
+     * @return the ranges
+     */
+    public static RobotRulesRanges compile(SimpleRobotRules rules) {
+        if (rules._mode == RobotRulesMode.ALLOW_ALL) {
+            return new RobotRulesRanges(new String[] { "" }, new byte[] { ALLOWED }, null);
+        } else if (rules._mode == RobotRulesMode.ALLOW_NONE) {
+            return new RobotRulesRanges(new String[] { "" }, new byte[] { DISALLOWED }, null);
+        }
+
+        List<RangeRule> literal = new ArrayList<>();
+        List<RangeRule> other = new ArrayList<>();
+        TreeSet<String> bounds = new TreeSet<>();
+        bounds.add("");
+        for (RobotRule rule : rules.getRobotRules()) {
+            addRule(rule._prefix, rule._allow, literal, other, bounds);
+            if (rule._prefix.endsWith("index.htm") || rule._prefix.endsWith("index.html")) {
+                // directory index, see RobotRulesMatcher
+                addRule(rule._prefix.substring(0, rule._prefix.indexOf("index.htm")) + "$", rule._allow, literal, other, bounds);
+            }
+        }
+        // robots.txt is always allowed
+        bounds.add(ROBOTS_TXT_PATH);
+        bounds.add(ROBOTS_TXT_PATH + '\0');
+
+        List<String> starts = new ArrayList<>();
+        List<Byte> verdicts = new ArrayList<>();
+        for (String start : bounds) {
+            byte verdict;
+            if (start.equals(ROBOTS_TXT_PATH)) {
+                verdict = ALLOWED;
+            } else {
+                verdict = verdict(start, literal, other);
+            }
+            if (verdicts.isEmpty() || verdicts.get(verdicts.size() - 1) != verdict) {
+                starts.add(start);
+                verdicts.add(verdict);
+            }
+        }
+        byte[] verdictArray = new byte[verdicts.size()];
+        boolean needsMatcher = false;
+        for (int i = 0; i < verdictArray.length; i++) {
+            verdictArray[i] = verdicts.get(i);
+            needsMatcher |= (verdictArray[i] == MATCH);
+        }
+        return new RobotRulesRanges(starts.toArray(new String[0]), verdictArray, needsMatcher ? rules.getMatcher() : null);
+    }
+
+    private static void addRule(String pattern, boolean allow, List<RangeRule> literal, List<RangeRule> other, TreeSet<String> bounds) {
+        int end = pattern.indexOf('*');
+        boolean isLiteral = (end == -1 && !pattern.endsWith("$"));
+        if (end == -1) {
+            end = isLiteral ? pattern.length() : pattern.length() - 1;
+        }
+        String prefix = pattern.substring(0, end);
+        (isLiteral ? literal : other).add(new RangeRule(prefix, pattern.length(), allow));
+        bounds.add(prefix);
+        String upper = upperBound(prefix);
+        if (upper != null) {
+            bounds.add(upper);
+        }
+    }
+
+    /**
+     * @return the least string greater than all strings starting with the
+     *         prefix, null if there is no such string
+     */
+    private static String upperBound(String prefix) {
+        int end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == Character.MAX_VALUE) {
+            end--;
+        }
+        if (end == 0) {
+            return null;
+        }
+        return prefix.substring(0, end - 1) + (char) (prefix.charAt(end - 1) + 1);
+    }
+
+    /**
+     * Determine the verdict of the range starting at <code>start</code>. The
+     * range does not cross the boundaries of the rule ranges, a rule covers
+     * the whole range if the start of the range starts with the rule prefix.
+     */
+    private static byte verdict(String start, List<RangeRule> literal, List<RangeRule> other) {
+        int bestLength = -1;
+        boolean allow = true;
+        for (RangeRule rule : literal) {
+            if (start.startsWith(rule.prefix)) {
+                if (rule.length > bestLength) {
+                    bestLength = rule.length;
+                    allow = rule.allow;
+                } else if (rule.length == bestLength) {
+                    allow |= rule.allow;
+                }
+            }
+        }
+        for (RangeRule rule : other) {
+            /*
+             * Only rules with the opposite verdict which are at least as
+             * specific (and win if equally specific) could change the verdict.
+             */
+            if (rule.allow != allow && (rule.length > bestLength || (rule.length == bestLength && rule.allow)) && start.startsWith(rule.prefix)) {
+                return MATCH;
+            }
+        }
+        return allow ? ALLOWED : DISALLOWED;
+    }
+
+    /** @return number of ranges */
+    int size() {
+        return _starts.length;
+    }
+
+    /** @return index of the range containing the path */
+    private int findRange(String path) {
+        int low = 0;
+        int high = _starts.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (_starts[mid].compareTo(path) <= 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return index of the range containing the path, searching forward from
+     *         the range of the previous (smaller) path
+     */
+    private int findRange(String path, int range) {
+        if (_starts[range].compareTo(path) > 0) {
+            // not sorted
+            return findRange(path);
+        }
+        while ((range + 1) < _starts.length && _starts[range + 1].compareTo(path) <= 0) {
+            range++;
+        }
+        return range;
+    }
+
+    private boolean isAllowed(String path, int range) {
+        byte verdict = _verdicts[range];
+        if (verdict == MATCH) {
+            return _matcher.isAllowed(path, 0, path.length());
+        }
+        return verdict == ALLOWED;
+    }
+
+    /**
+     * Check whether a path is allowed.
+     *
+     * @param path
+     *            percent-encoded path and query
+     * @return true if the path is allowed
+     */
+    public boolean isAllowed(String path) {
+        return isAllowed(path, findRange(path));
+    }
+
+    /**
+     * Check a sorted array of paths.
+     *
+     * @param sortedPaths
+     *            paths (percent-encoded path and query) sorted in ascending
+     *            order
+     * @return bit set with the bit at index <i>i</i> set if the path
+     *         <code>sortedPaths[i]</code> is allowed
+     */
+    public BitSet isAllowed(String[] sortedPaths) {
+        BitSet allowed = new BitSet(sortedPaths.length);
+        int i = 0;
+        while (i < sortedPaths.length) {
+            int range = findRange(sortedPaths[i]);
+            // end of the run of paths within the range
+            int end = sortedPaths.length;
+            if ((range + 1) < _starts.length) {
+                end = lowerBound(sortedPaths, i + 1, _starts[range + 1]);
+            }
+            byte verdict = _verdicts[range];
+            if (verdict == ALLOWED) {
+                allowed.set(i, end);
+            } else if (verdict == MATCH) {
+                for (int j = i; j < end; j++) {
+                    if (_matcher.isAllowed(sortedPaths[j], 0, sortedPaths[j].length())) {
+                        allowed.set(j);
+                    }
+                }
+            }
+            i = end;
+        }
+        return allowed;
+    }
+
+    /**
+     * @return index of the first path not less than the key, searched in the
+     *         sorted array between <code>from</code> (inclusive) and the end
+     */
+    private static int lowerBound(String[] sortedPaths, int from, String key) {
+        int low = from;
+        int high = sortedPaths.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPaths[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Filter sorted paths for allowed ones.
+     *
+     * @param sortedPaths
+     *            paths (percent-encoded path and query) sorted in ascending
+     *            order
+     * @return iterator over the allowed paths
+     */
+    public Iterator<String> allowedPaths(Iterator<String> sortedPaths) {
+        return filter(sortedPaths, true);
+    }
+
+    /**
+     * Filter sorted paths for disallowed ones, e.g. to drop the paths of a
+     * host from the crawl frontier after the robots.txt has changed.
+     *
+     * @param sortedPaths
+     *            paths (percent-encoded path and query) sorted in ascending
+     *            order
+     * @return iterator over the disallowed paths
+     */
+    public Iterator<String> disallowedPaths(Iterator<String> sortedPaths) {
+        return filter(sortedPaths, false);
+    }
+
+    private Iterator<String> filter(Iterator<String> sortedPaths, boolean allowed) {
+        if (_starts.length == 1 && _verdicts[0] != MATCH) {
+            if ((_verdicts[0] == ALLOWED) == allowed) {
+                return sortedPaths;
+            }
+            return Collections.emptyIterator();
+        }
+        return new Iterator<String>() {
+            private int _range = 0;
+            private String _next = null;
+
+            @Override
+            public boolean hasNext() {
+                while (_next == null && sortedPaths.hasNext()) {
+                    String path = sortedPaths.next();
+                    _range = findRange(path, _range);
+                    if (isAllowed(path, _range) == allowed) {
+                        _next = path;
+                    }
+                }
+                return _next != null;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String path = _next;
+                _next = null;
+                return path;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("RobotRulesRanges[");
+        for (int i = 0; i < _starts.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('"').append(_starts[i]).append("\": ");
+            sb.append(_verdicts[i] == ALLOWED ? "allowed" : (_verdicts[i] == DISALLOWED ? "disallowed" : "match"));
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,354 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
+
+/**
+ * Tracks hosts whose robots.txt could not be fetched because of a server
+ * error, HTTP 429 or too many redirects, i.e. the robots rules indicate to
+ * defer visits ({@link BaseRobotRules#isDeferVisits()}, see
+ * {@link SimpleRobotRulesParser#failedFetch(int)}).
+ *
+ * <p>
+ * After every failed fetch the next attempt is delayed by an exponential
+ * backoff: the initial backoff is doubled with every consecutive failure up to
+ * the max. backoff. A random jitter spreads the attempts of hosts which
+ * started failing at the same time. A <code>Retry-After</code> delay sent by
+ * the server is respected if it is longer, also beyond the max. backoff, but
+ * never longer than the {@link #getUnreachablePeriod() unreachable period}. A
+ * successful fetch resets the state of the host.
+ * </p>
+ *
+ * <p>
+ * While a host is failing, the last rules successfully fetched for the host
+ * are used if available, otherwise all URLs are disallowed. Following <a href=
+ * "https://www.rfc-editor.org/rfc/rfc9309.html#name-unreachable-status">RFC
+ * 9309, section 2.3.1.4</a>, if the robots.txt is unreachable for a
+ * reasonably long period of time ({@link #DEFAULT_UNREACHABLE_PERIOD}, 30
+ * days), the robots.txt is considered unavailable and all URLs are allowed,
+ * unless the last successfully fetched rules are available.
+ * </p>
+ *
+ * <p>
+ * Only failing hosts are tracked, using a small immutable object holding
+ * three numbers per host, so that millions of hosts can be tracked. The
+ * tracker is thread-safe, the state of a host is updated atomically. Time is
+ * taken from a {@link Clock}.
+ * </p>
+ *
+ * <pre>
+ * RobotsAvailabilityTracker tracker = new RobotsAvailabilityTracker();
+ * if (!tracker.isDeferred(robotsUrl)) {
+ *     RobotsFetcher.Result result = fetcher.fetch(robotsUrl);
+ *     rules = tracker.update(robotsUrl, result, lastKnownRules);
+ * }
+ * </pre>
+ */
+public class RobotsAvailabilityTracker {
+
+    /** Default backoff after the first failure: 1 minute */
+    public static final long DEFAULT_INITIAL_BACKOFF = TimeUnit.MINUTES.toMillis(1);
+
+    /** Default max. backoff: 24 hours */
+    public static final long DEFAULT_MAX_BACKOFF = TimeUnit.HOURS.toMillis(24);
+
+    /**
+     * Default jitter: the backoff is randomly shortened by up to 20%
+     */
+    public static final double DEFAULT_JITTER = 0.2;
+
+    /**
+     * Default period after which an unreachable robots.txt is considered
+     * unavailable: 30 days
+     */
+    public static final long DEFAULT_UNREACHABLE_PERIOD = TimeUnit.DAYS.toMillis(30);
+
+    /** Shared rules returned if the robots.txt is considered unavailable */
+    private static final SimpleRobotRules ALLOW_ALL = new SimpleRobotRules(RobotRulesMode.ALLOW_ALL);
+    static {
+        ALLOW_ALL.freeze();
+    }
+
+    /** Failure state of a host */
+    private static final class State {
+        /** time of the first failure in a row */
+        private final long _firstFailure;
+        /** time when the next fetch may be attempted */
+        private final long _nextAttempt;
+        /** number of consecutive failures */
+        private final int _failures;
+
+        private State(long firstFailure, long nextAttempt, int failures) {
+            _firstFailure = firstFailure;
+            _nextAttempt = nextAttempt;
+            _failures = failures;
+        }
+    }
+
+    private final ConcurrentHashMap<String, State> _hosts = new ConcurrentHashMap<>();
+    private final Clock _clock;
+
+    private volatile long _initialBackoff = DEFAULT_INITIAL_BACKOFF;
+    private volatile long _maxBackoff = DEFAULT_MAX_BACKOFF;
+    private volatile double _jitter = DEFAULT_JITTER;
+    private volatile long _unreachablePeriod = DEFAULT_UNREACHABLE_PERIOD;
+
+    public RobotsAvailabilityTracker() {
+        this(Clock.systemUTC());
+    }
+
+    /**
+     * @param clock
+     *            clock used to compute the backoff
+     */
+    public RobotsAvailabilityTracker(Clock clock) {
+        _clock = clock;
+    }
+
+    /**
+     * @param initialBackoff
+     *            backoff in milliseconds after the first failure
+     * @param maxBackoff
+     *            max. backoff in milliseconds
+     */
+    public void setBackoff(long initialBackoff, long maxBackoff) {
+        if (initialBackoff <= 0 || maxBackoff < initialBackoff) {
+            throw new IllegalArgumentException("Backoff must be positive and the max. backoff not less than the initial backoff");
+        }
+        _initialBackoff = initialBackoff;
+        _maxBackoff = maxBackoff;
+    }
+
+    /** @return backoff in milliseconds after the first failure */
+    public long getInitialBackoff() {
+        return _initialBackoff;
+    }
+
+    /** @return max. backoff in milliseconds */
+    public long getMaxBackoff() {
+        return _maxBackoff;
+    }
+
+    /**
+     * @param jitter
+     *            max. fraction (0.0 - 1.0) by which the backoff is randomly
+     *            shortened, 0.0 to disable the jitter
+     */
+    public void setJitter(double jitter) {
+        if (jitter < 0.0 || jitter > 1.0) {
+            throw new IllegalArgumentException("Jitter must be between 0.0 and 1.0");
+        }
+        _jitter = jitter;
+    }
+
+    /** @return the jitter, see {@link #setJitter(double)} */
+    public double getJitter() {
+        return _jitter;
+    }
+
+    /**
+     * @param unreachablePeriod
+     *            period in milliseconds after which an unreachable robots.txt
+     *            is considered unavailable
+     */
+    public void setUnreachablePeriod(long unreachablePeriod) {
+        if (unreachablePeriod <= 0) {
+            throw new IllegalArgumentException("Unreachable period must be positive");
+        }
+        _unreachablePeriod = unreachablePeriod;
+    }
+
+    /** @return period after which an unreachable robots.txt is unavailable */
+    public long getUnreachablePeriod() {
+        return _unreachablePeriod;
+    }
+
+    /**
+     * Record a failed fetch of the robots.txt of a host.
+     *
+     * @param host
+     *            host key, e.g. the robots.txt URL (see
+     *            {@link RobotRulesCache#getRobotsUrl(java.net.URL)})
+     * @param retryAfter
+     *            delay in milliseconds requested by the server, -1 if none.
+     *            Used if longer than the backoff, up to the
+     *            {@link #getUnreachablePeriod() unreachable period}.
+     * @return time (epoch milliseconds) when the next fetch may be attempted
+     */
+    public long recordFailure(String host, long retryAfter) {
+        long now = _clock.millis();
+        State state = _hosts.compute(host, (h, s) -> {
+            int failures = (s == null) ? 1 : s._failures + 1;
+            long firstFailure = (s == null) ? now : s._firstFailure;
+            return new State(firstFailure, now + getBackoff(failures, retryAfter), failures);
+        });
+        return state._nextAttempt;
+    }
+
+    private long getBackoff(int failures, long retryAfter) {
+        long maxBackoff = _maxBackoff;
+        long backoff = _initialBackoff;
+        for (int i = 1; i < failures && backoff < maxBackoff && backoff <= (Long.MAX_VALUE >> 1); i++) {
+            backoff <<= 1;
+        }
+        backoff = Math.min(backoff, maxBackoff);
+        double jitter = _jitter;
+        if (jitter > 0.0) {
+            backoff -= (long) (backoff * jitter * ThreadLocalRandom.current().nextDouble());
+        }
+        if (retryAfter > backoff) {
+            backoff = Math.min(retryAfter, Math.max(_unreachablePeriod, maxBackoff));
+        }
+        return backoff;
+    }
+
+    /**
+     * Record a successful fetch of the robots.txt of a host (including a
+     * client error, HTTP 4xx, which means there is no robots.txt), and reset
+     * its failure state.
+     *
+     * @param host
+     *            host key
+     */
+    public void recordSuccess(String host) {
+        _hosts.remove(host);
+    }
+
+    /**
+     * Record the result of a fetch and select the rules to be used.
+     *
+     * @param host
+     *            host key
+     * @param fetched
+     *            rules resulting from the fetch, failures indicated by
+     *            {@link BaseRobotRules#isDeferVisits()}
+     * @param retryAfter
+     *            delay in milliseconds requested by the server, -1 if none
+     * @param lastKnown
+     *            last rules successfully fetched for the host, may be null
+     * @return the rules to be used: the fetched rules if the fetch was
+     *         successful, otherwise the last known rules, and if not given,
+     *         the fetched rules (disallow all and defer visits) or, if the
+     *         robots.txt is unreachable for longer than the
+     *         {@link #getUnreachablePeriod() unreachable period}, rules which
+     *         allow all URLs
+     */
+    public BaseRobotRules update(String host, BaseRobotRules fetched, long retryAfter, BaseRobotRules lastKnown) {
+        if (!fetched.isDeferVisits()) {
+            recordSuccess(host);
+            return fetched;
+        }
+        recordFailure(host, retryAfter);
+        if (lastKnown != null && !lastKnown.isDeferVisits()) {
+            return lastKnown;
+        }
+        if (isUnavailable(host)) {
+            return ALLOW_ALL;
+        }
+        return fetched;
+    }
+
+    /**
+     * Record the result of a fetch and select the rules to be used, see
+     * {@link #update(String, BaseRobotRules, long, BaseRobotRules)}.
+     *
+     * @param host
+     *            host key
+     * @param result
+     *            result of the fetch
+     * @param lastKnown
+     *            last rules successfully fetched for the host, may be null
+     * @return the rules to be used
+     */
+    public BaseRobotRules update(String host, RobotsFetcher.Result result, BaseRobotRules lastKnown) {
+        return update(host, result.getRules(), result.getRetryAfter(), lastKnown);
+    }
+
+    /**
+     * @param host
+     *            host key
+     * @return true if the host is failing and the backoff has not yet passed
+     */
+    public boolean isDeferred(String host) {
+        State state = _hosts.get(host);
+        return state != null && state._nextAttempt > _clock.millis();
+    }
+
+    /**
+     * @param host
+     *            host key
+     * @return true if fetching the robots.txt has been failing for longer than
+     *         the unreachable period
+     */
+    public boolean isUnavailable(String host) {
+        State state = _hosts.get(host);
+        return state != null && (_clock.millis() - state._firstFailure) >= _unreachablePeriod;
+    }
+
+    /**
+     * @param host
+     *            host key
+     * @return time (epoch milliseconds) when the next fetch may be attempted,
+     *         0 if the host is not failing
+     */
+    public long getNextAttemptTime(String host) {
+        State state = _hosts.get(host);
+        return state == null ? 0 : state._nextAttempt;
+    }
+
+    /**
+     * @param host
+     *            host key
+     * @return time (epoch milliseconds) of the first of the consecutive
+     *         failures, -1 if the host is not failing
+     */
+    public long getFailingSince(String host) {
+        State state = _hosts.get(host);
+        return state == null ? -1 : state._firstFailure;
+    }
+
+    /**
+     * @param host
+     *            host key
+     * @return number of consecutive failures
+     */
+    public int getFailures(String host) {
+        State state = _hosts.get(host);
+        return state == null ? 0 : state._failures;
+    }
+
+    /**
+     * Stop tracking a host.
+     *
+     * @param host
+     *            host key
+     */
+    public void remove(String host) {
+        _hosts.remove(host);
+    }
+
+    /** @return number of failing hosts */
+    public int getNumHosts() {
+        return _hosts.size();
+    }
+}
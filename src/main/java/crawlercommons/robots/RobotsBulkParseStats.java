@@ -0,0 +1,188 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import crawlercommons.robots.RobotsParseStats.WarningType;
+
+/**
+ * Aggregated statistics of parsing many robots.txt files, see
+ * {@link SimpleRobotRulesParser#parseAll(java.util.stream.Stream, java.util.Collection, java.util.concurrent.Executor, boolean, java.util.function.BiConsumer)}.
+ * The statistics of single files ({@link RobotsParseStats}) are summed up,
+ * concurrent updates from multiple threads are supported.
+ */
+public class RobotsBulkParseStats {
+
+    private final LongAdder _documents = new LongAdder();
+    private final LongAdder _failures = new LongAdder();
+    private final LongAdder _bytes = new LongAdder();
+    private final LongAdder _lines = new LongAdder();
+    private final LongAdder _groups = new LongAdder();
+    private final LongAdder _matchedGroups = new LongAdder();
+    private final LongAdder _rulesKept = new LongAdder();
+    private final LongAdder _rulesShadowed = new LongAdder();
+    private final LongAdder _rulesDropped = new LongAdder();
+    private final LongAdder _htmlDocuments = new LongAdder();
+    private final LongAdder _truncatedDocuments = new LongAdder();
+    private final LongAdder _parseNanos = new LongAdder();
+    private final EnumMap<WarningType, LongAdder> _warnings = new EnumMap<>(WarningType.class);
+    private volatile long _elapsedNanos;
+
+    public RobotsBulkParseStats() {
+        for (WarningType type : WarningType.values()) {
+            _warnings.put(type, new LongAdder());
+        }
+    }
+
+    /** Add the statistics of a single robots.txt file */
+    void add(RobotsParseStats stats) {
+        _documents.increment();
+        _bytes.add(stats.getBytes());
+        _lines.add(stats.getLines());
+        _groups.add(stats.getGroups());
+        _matchedGroups.add(stats.getMatchedGroups());
+        _rulesKept.add(stats.getRulesKept());
+        _rulesShadowed.add(stats.getRulesShadowed());
+        _rulesDropped.add(stats.getRulesDropped());
+        if (stats.isHtml()) {
+            _htmlDocuments.increment();
+        }
+        if (stats.isTruncated()) {
+            _truncatedDocuments.increment();
+        }
+        _parseNanos.add(stats.getNanos());
+        for (Map.Entry<WarningType, Integer> e : stats.getWarnings().entrySet()) {
+            _warnings.get(e.getKey()).add(e.getValue());
+        }
+    }
+
+    /** Count a robots.txt file which failed to parse */
+    void addFailure() {
+        _documents.increment();
+        _failures.increment();
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        _elapsedNanos = elapsedNanos;
+    }
+
+    /** @return number of robots.txt files, including failures */
+    public long getDocuments() {
+        return _documents.sum();
+    }
+
+    /** @return number of robots.txt files which failed to parse */
+    public long getFailures() {
+        return _failures.sum();
+    }
+
+    /** @return total size of the robots.txt files in bytes */
+    public long getBytes() {
+        return _bytes.sum();
+    }
+
+    /** @return total number of lines, see {@link RobotsParseStats#getLines()} */
+    public long getLines() {
+        return _lines.sum();
+    }
+
+    /** @return total number of user-agent groups */
+    public long getGroups() {
+        return _groups.sum();
+    }
+
+    /** @return total number of user-agent groups addressed to the robot names */
+    public long getMatchedGroups() {
+        return _matchedGroups.sum();
+    }
+
+    /** @return total number of rules kept */
+    public long getRulesKept() {
+        return _rulesKept.sum();
+    }
+
+    /** @return total number of shadowed rules removed */
+    public long getRulesShadowed() {
+        return _rulesShadowed.sum();
+    }
+
+    /** @return total number of rules dropped */
+    public long getRulesDropped() {
+        return _rulesDropped.sum();
+    }
+
+    /** @return total number of warnings */
+    public long getNumWarnings() {
+        long sum = 0;
+        for (LongAdder count : _warnings.values()) {
+            sum += count.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * @param type
+     *            category of warnings
+     * @return total number of warnings of the given category
+     */
+    public long getNumWarnings(WarningType type) {
+        return _warnings.get(type).sum();
+    }
+
+    /** @return number of robots.txt files detected as HTML */
+    public long getHtmlDocuments() {
+        return _htmlDocuments.sum();
+    }
+
+    /** @return number of truncated robots.txt files */
+    public long getTruncatedDocuments() {
+        return _truncatedDocuments.sum();
+    }
+
+    /** @return time spent parsing, summed over all threads, in nanoseconds */
+    public long getParseNanos() {
+        return _parseNanos.sum();
+    }
+
+    /** @return wall-clock time of the bulk parse in nanoseconds */
+    public long getElapsedNanos() {
+        return _elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("documents=").append(getDocuments());
+        sb.append(", failures=").append(getFailures());
+        sb.append(", bytes=").append(getBytes());
+        sb.append(", lines=").append(getLines());
+        sb.append(", groups=").append(getGroups());
+        sb.append(", matchedGroups=").append(getMatchedGroups());
+        sb.append(", rulesKept=").append(getRulesKept());
+        sb.append(", rulesShadowed=").append(getRulesShadowed());
+        sb.append(", rulesDropped=").append(getRulesDropped());
+        sb.append(", warnings=").append(getNumWarnings());
+        sb.append(", html=").append(getHtmlDocuments());
+        sb.append(", truncated=").append(getTruncatedDocuments());
+        sb.append(", parseNanos=").append(getParseNanos());
+        sb.append(", elapsedNanos=").append(getElapsedNanos());
+        return sb.toString();
+    }
+}
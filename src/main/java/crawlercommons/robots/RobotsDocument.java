@@ -0,0 +1,62 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+/**
+ * A robots.txt file to be parsed in bulk, see
+ * {@link SimpleRobotRulesParser#parseAll(java.util.stream.Stream, java.util.Collection, java.util.concurrent.Executor, boolean, java.util.function.BiConsumer)}.
+ */
+public class RobotsDocument {
+
+    private final String _url;
+    private final byte[] _content;
+    private final String _contentType;
+
+    /**
+     * @param url
+     *            URL of the robots.txt file
+     * @param content
+     *            content of the robots.txt file, not copied
+     * @param contentType
+     *            content type (MIME type) of the robots.txt file, may be null
+     */
+    public RobotsDocument(String url, byte[] content, String contentType) {
+        _url = url;
+        _content = content;
+        _contentType = contentType;
+    }
+
+    /** @return URL of the robots.txt file */
+    public String getUrl() {
+        return _url;
+    }
+
+    /** @return content of the robots.txt file */
+    public byte[] getContent() {
+        return _content;
+    }
+
+    /** @return content type of the robots.txt file */
+    public String getContentType() {
+        return _contentType;
+    }
+
+    @Override
+    public String toString() {
+        return _url;
+    }
+}
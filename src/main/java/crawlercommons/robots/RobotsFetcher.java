@@ -0,0 +1,517 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetch and parse robots.txt files following <a href=
+ * "https://www.rfc-editor.org/rfc/rfc9309.html#name-access-method">RFC 9309,
+ * section 2.3</a>:
+ * <ul>
+ * <li>up to {@value #MAX_REDIRECTS} consecutive redirects are followed, also
+ * across hosts. If the limit is exceeded, visits are deferred.</li>
+ * <li>a client error (HTTP 4xx) means that there is no robots.txt file and
+ * all URLs are allowed, except for HTTP 429 &quot;Too Many Requests&quot;
+ * which is handled as a server error</li>
+ * <li>server errors (HTTP 5xx) result in rules which disallow all URLs and
+ * indicate to defer visits, see
+ * {@link SimpleRobotRulesParser#failedFetch(int)}</li>
+ * <li>the content is streamed into the parser, reading no more than the max.
+ * content length ({@link SimpleRobotRulesParser#getMaxContentLength()})</li>
+ * </ul>
+ *
+ * <p>
+ * The HTTP requests are sent by a {@link Transport}, a minimal interface
+ * which can be implemented on top of any HTTP client, or by a local stand-in
+ * in tests. {@link UrlConnectionTransport} is a simple implementation using
+ * {@link HttpURLConnection}.
+ * </p>
+ *
+ * <p>
+ * If the result of a previous fetch is passed to
+ * {@link #fetch(String, Result)}, a conditional request is sent using the
+ * <code>ETag</code> and <code>Last-Modified</code> response headers of the
+ * previous fetch. If the server responds with HTTP 304 &quot;Not
+ * Modified&quot;, the previous rules are returned without parsing the
+ * robots.txt again.
+ * </p>
+ *
+ * <p>
+ * The number of concurrent fetches per host (scheme, host and port of the
+ * robots.txt URL) is limited, by default to a single fetch. Further threads
+ * fetching from the same host wait. The fetcher is thread-safe and can be
+ * used as {@link RobotRulesCache.Loader}:
+ * </p>
+ *
+ * <pre>
+ * RobotsFetcher fetcher = new RobotsFetcher(parser, new RobotsFetcher.UrlConnectionTransport(10000, 30000), "mybot/1.0", List.of("mybot"));
+ * BaseRobotRules rules = cache.get(url, fetcher);
+ * </pre>
+ */
+public class RobotsFetcher implements RobotRulesCache.Loader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RobotsFetcher.class);
+
+    /**
+     * Max. number of consecutive redirects followed: &quot;crawlers SHOULD
+     * follow at least five consecutive redirects&quot; (RFC 9309)
+     */
+    public static final int MAX_REDIRECTS = 5;
+
+    /** HTTP status code 429 &quot;Too Many Requests&quot; */
+    public static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Sends HTTP GET requests. Implementations must not follow redirects.
+     */
+    @FunctionalInterface
+    public interface Transport {
+
+        /**
+         * @param url
+         *            URL to fetch
+         * @param requestHeaders
+         *            HTTP request headers, e.g., <code>User-Agent</code> or
+         *            <code>If-None-Match</code>
+         * @return the response, closed by the caller
+         * @throws IOException
+         *             if the server is not reachable or the request failed
+         */
+        Response fetch(String url, Map<String, String> requestHeaders) throws IOException;
+    }
+
+    /**
+     * HTTP response returned by a {@link Transport}
+     */
+    public interface Response extends Closeable {
+
+        /** @return HTTP status code */
+        int getStatusCode() throws IOException;
+
+        /**
+         * @param name
+         *            response header name, case-insensitive
+         * @return the value of the response header, null if not present
+         */
+        String getHeader(String name);
+
+        /** @return stream to read the response body from */
+        InputStream getBody() throws IOException;
+    }
+
+    /**
+     * {@link Transport} using {@link URLConnection}, for HTTP(S) and other URL
+     * schemes supported by the JDK, e.g., <code>file:</code> (always
+     * successful with status 200 if the file can be read)
+     */
+    public static class UrlConnectionTransport implements Transport {
+
+        private final int _connectTimeout;
+        private final int _readTimeout;
+
+        /**
+         * @param connectTimeout
+         *            connect timeout in milliseconds
+         * @param readTimeout
+         *            read timeout in milliseconds
+         */
+        public UrlConnectionTransport(int connectTimeout, int readTimeout) {
+            _connectTimeout = connectTimeout;
+            _readTimeout = readTimeout;
+        }
+
+        @Override
+        public Response fetch(String url, Map<String, String> requestHeaders) throws IOException {
+            URLConnection connection = toURL(url).openConnection();
+            connection.setConnectTimeout(_connectTimeout);
+            connection.setReadTimeout(_readTimeout);
+            for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+            if (connection instanceof HttpURLConnection) {
+                ((HttpURLConnection) connection).setInstanceFollowRedirects(false);
+            }
+            connection.connect();
+            return new Response() {
+                private InputStream _body;
+
+                @Override
+                public int getStatusCode() throws IOException {
+                    if (connection instanceof HttpURLConnection) {
+                        return ((HttpURLConnection) connection).getResponseCode();
+                    }
+                    return HttpURLConnection.HTTP_OK;
+                }
+
+                @Override
+                public String getHeader(String name) {
+                    return connection.getHeaderField(name);
+                }
+
+                @Override
+                public InputStream getBody() throws IOException {
+                    if (_body == null) {
+                        if (connection instanceof HttpURLConnection && getStatusCode() >= 400) {
+                            _body = ((HttpURLConnection) connection).getErrorStream();
+                        } else {
+                            _body = connection.getInputStream();
+                        }
+                        if (_body == null) {
+                            _body = InputStream.nullInputStream();
+                        }
+                    }
+                    return _body;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (_body != null) {
+                        _body.close();
+                    } else if (connection instanceof HttpURLConnection) {
+                        ((HttpURLConnection) connection).disconnect();
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Result of fetching a robots.txt file
+     */
+    public static final class Result {
+        private final SimpleRobotRules _rules;
+        private final String _url;
+        private final int _statusCode;
+        private final boolean _notModified;
+        private final String _etag;
+        private final String _lastModified;
+        private final long _retryAfter;
+
+        private Result(SimpleRobotRules rules, String url, int statusCode, boolean notModified, String etag, String lastModified, long retryAfter) {
+            _rules = rules;
+            _url = url;
+            _statusCode = statusCode;
+            _notModified = notModified;
+            _etag = etag;
+            _lastModified = lastModified;
+            _retryAfter = retryAfter;
+        }
+
+        /** @return the robots rules */
+        public SimpleRobotRules getRules() {
+            return _rules;
+        }
+
+        /** @return URL of the last request, after following redirects */
+        public String getUrl() {
+            return _url;
+        }
+
+        /** @return HTTP status code of the last response */
+        public int getStatusCode() {
+            return _statusCode;
+        }
+
+        /**
+         * @return true if the robots.txt file was not modified since the
+         *         previous fetch and the previous rules are returned
+         */
+        public boolean isNotModified() {
+            return _notModified;
+        }
+
+        /** @return the <code>ETag</code> response header, may be null */
+        public String getETag() {
+            return _etag;
+        }
+
+        /** @return the <code>Last-Modified</code> response header, may be null */
+        public String getLastModified() {
+            return _lastModified;
+        }
+
+        /**
+         * @return delay in milliseconds requested by the server using the
+         *         <code>Retry-After</code> response header (delay in seconds),
+         *         -1 if not given
+         */
+        public long getRetryAfter() {
+            return _retryAfter;
+        }
+
+        @Override
+        public String toString() {
+            return "Result[" + _url + ", status=" + _statusCode + (_notModified ? ", not modified" : "") + "]";
+        }
+    }
+
+    /** Semaphore limiting concurrent fetches from one host */
+    private static final class HostPermits {
+        private final Semaphore _semaphore;
+        /** number of threads holding or waiting for a permit */
+        private int _users;
+
+        private HostPermits(int permits) {
+            _semaphore = new Semaphore(permits, true);
+        }
+    }
+
+    private final SimpleRobotRulesParser _parser;
+    private final Transport _transport;
+    private final String _userAgent;
+    private final Collection<String> _robotNames;
+    private final ConcurrentHashMap<String, HostPermits> _hostPermits = new ConcurrentHashMap<>();
+    private volatile int _maxConcurrentFetchesPerHost = 1;
+
+    /**
+     * @param parser
+     *            parser for the robots.txt content and failed fetches
+     * @param transport
+     *            transport to send HTTP requests
+     * @param userAgent
+     *            value of the <code>User-Agent</code> request header, may be
+     *            null
+     * @param robotNames
+     *            crawler (user-agent) name(s), see
+     *            {@link SimpleRobotRulesParser#parseContent(String, byte[], String, Collection)}
+     */
+    public RobotsFetcher(SimpleRobotRulesParser parser, Transport transport, String userAgent, Collection<String> robotNames) {
+        _parser = parser;
+        _transport = transport;
+        _userAgent = userAgent;
+        _robotNames = List.copyOf(robotNames);
+    }
+
+    /**
+     * @param maxConcurrentFetchesPerHost
+     *            max. number of robots.txt fetches from a single host running
+     *            at the same time, default: 1
+     */
+    public void setMaxConcurrentFetchesPerHost(int maxConcurrentFetchesPerHost) {
+        if (maxConcurrentFetchesPerHost <= 0) {
+            throw new IllegalArgumentException("Max. concurrent fetches per host must be positive");
+        }
+        _maxConcurrentFetchesPerHost = maxConcurrentFetchesPerHost;
+    }
+
+    /**
+     * @return max. number of concurrent fetches from a single host
+     */
+    public int getMaxConcurrentFetchesPerHost() {
+        return _maxConcurrentFetchesPerHost;
+    }
+
+    /**
+     * Fetch and parse a robots.txt file, see {@link #fetch(String, Result)}.
+     *
+     * @return robots rules
+     */
+    @Override
+    public BaseRobotRules load(String robotsUrl) throws IOException {
+        return fetch(robotsUrl, null).getRules();
+    }
+
+    /**
+     * Fetch and parse a robots.txt file.
+     *
+     * @param robotsUrl
+     *            URL of the robots.txt file
+     * @return the result
+     * @throws IOException
+     *             if the server is not reachable, the URL is invalid or the
+     *             fetch is interrupted
+     */
+    public Result fetch(String robotsUrl) throws IOException {
+        return fetch(robotsUrl, null);
+    }
+
+    /**
+     * Fetch and parse a robots.txt file, sending a conditional request if the
+     * result of a previous successful fetch is given.
+     *
+     * @param robotsUrl
+     *            URL of the robots.txt file
+     * @param previous
+     *            result of the previous fetch of the same robots.txt URL, may
+     *            be null
+     * @return the result. If the robots.txt file was not modified, the rules
+     *         of the previous result.
+     * @throws IOException
+     *             if the server is not reachable, the URL is invalid or the
+     *             fetch is interrupted
+     */
+    public Result fetch(String robotsUrl, Result previous) throws IOException {
+        String hostKey = RobotRulesCache.getRobotsUrl(toURL(robotsUrl));
+        HostPermits permits = acquire(hostKey);
+        try {
+            return fetchFollowRedirects(robotsUrl, previous);
+        } finally {
+            release(hostKey, permits);
+        }
+    }
+
+    private Result fetchFollowRedirects(String robotsUrl, Result previous) throws IOException {
+        if (previous != null && previous.getStatusCode() != HttpURLConnection.HTTP_OK) {
+            // only successfully fetched robots.txt files can be validated
+            previous = null;
+        }
+        String url = robotsUrl;
+        for (int redirects = 0; true; redirects++) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            if (_userAgent != null) {
+                headers.put("User-Agent", _userAgent);
+            }
+            if (previous != null && redirects == 0) {
+                if (previous.getETag() != null) {
+                    headers.put("If-None-Match", previous.getETag());
+                }
+                if (previous.getLastModified() != null) {
+                    headers.put("If-Modified-Since", previous.getLastModified());
+                }
+            }
+
+            try (Response response = _transport.fetch(url, headers)) {
+                int code = response.getStatusCode();
+                String etag = response.getHeader("ETag");
+                String lastModified = response.getHeader("Last-Modified");
+
+                if (code >= 200 && code < 300) {
+                    SimpleRobotRules rules = _parser.parseContent(url, response.getBody(), response.getHeader("Content-Type"), _robotNames);
+                    return new Result(rules, url, code, false, etag, lastModified, -1);
+                }
+
+                if (code == HttpURLConnection.HTTP_NOT_MODIFIED && previous != null && redirects == 0) {
+                    LOGGER.debug("Robots.txt not modified: {}", url);
+                    return new Result(previous.getRules(), url, HttpURLConnection.HTTP_OK, true, //
+                                    etag != null ? etag : previous.getETag(), //
+                                    lastModified != null ? lastModified : previous.getLastModified(), -1);
+                }
+
+                if (isRedirect(code)) {
+                    String location = response.getHeader("Location");
+                    if (location == null) {
+                        LOGGER.debug("Redirect without Location header: {}", url);
+                    } else if (redirects >= MAX_REDIRECTS) {
+                        LOGGER.debug("Reached maximum of {} redirects fetching {}", MAX_REDIRECTS, robotsUrl);
+                    } else {
+                        url = resolve(url, location);
+                        LOGGER.debug("Following redirect to {}", url);
+                        continue;
+                    }
+                }
+
+                long retryAfter = -1;
+                if (code == HTTP_TOO_MANY_REQUESTS || code >= 500) {
+                    retryAfter = parseRetryAfter(response.getHeader("Retry-After"));
+                }
+                return new Result(_parser.failedFetch(code), url, code, false, null, null, retryAfter);
+            }
+        }
+    }
+
+    private static boolean isRedirect(int code) {
+        switch (code) {
+            case HttpURLConnection.HTTP_MOVED_PERM:
+            case HttpURLConnection.HTTP_MOVED_TEMP:
+            case HttpURLConnection.HTTP_SEE_OTHER:
+            case 307: // Temporary Redirect
+            case 308: // Permanent Redirect
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static String resolve(String url, String location) throws IOException {
+        try {
+            return new URI(url).resolve(location.trim()).toURL().toString();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new MalformedURLException("Invalid redirect location " + location + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the delay in milliseconds, -1 if the value is not a number of
+     *         seconds (HTTP dates are not supported)
+     */
+    private static long parseRetryAfter(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            long seconds = Long.parseLong(value.trim());
+            return seconds < 0 ? -1 : TimeUnit.SECONDS.toMillis(seconds);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static URL toURL(String url) throws MalformedURLException {
+        try {
+            return new URI(url).toURL();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new MalformedURLException("Invalid URL " + url + ": " + e.getMessage());
+        }
+    }
+
+    private HostPermits acquire(String hostKey) throws IOException {
+        HostPermits permits = _hostPermits.compute(hostKey, (k, p) -> {
+            if (p == null) {
+                p = new HostPermits(_maxConcurrentFetchesPerHost);
+            }
+            p._users++;
+            return p;
+        });
+        try {
+            permits._semaphore.acquire();
+        } catch (InterruptedException e) {
+            unregister(hostKey);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to fetch " + hostKey);
+        }
+        return permits;
+    }
+
+    private void release(String hostKey, HostPermits permits) {
+        permits._semaphore.release();
+        unregister(hostKey);
+    }
+
+    private void unregister(String hostKey) {
+        _hostPermits.computeIfPresent(hostKey, (k, p) -> (--p._users == 0) ? null : p);
+    }
+}
@@ -0,0 +1,283 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Statistics about parsing a single robots.txt file: size, number of lines,
+ * user-agent groups and rules, warnings by category and the time spent.
+ *
+ * <p>
+ * The statistics object is passed by the caller to
+ * {@link SimpleRobotRulesParser#parseContent(String, byte[], String, java.util.Collection, RobotsParseStats)}
+ * and filled during parsing. Unlike
+ * {@link SimpleRobotRulesParser#getNumWarnings()}, it does not rely on
+ * thread-local state. An object should be used for one parse at a time, it
+ * is reset at the beginning of every parse.
+ * </p>
+ *
+ * <pre>
+ * RobotsParseStats stats = new RobotsParseStats();
+ * SimpleRobotRules rules = parser.parseContent(url, content, contentType, robotNames, stats);
+ * if (stats.getNanos() &gt; 10_000_000L) {
+ *     LOG.info("Expensive robots.txt {}: {}", url, stats);
+ * }
+ * </pre>
+ */
+public class RobotsParseStats {
+
+    /** Categories of warnings reported while parsing a robots.txt file */
+    public enum WarningType {
+        /** the content exceeds the max. content length and was truncated */
+        CONTENT_TRUNCATED,
+        /** a line starts with an unknown directive */
+        UNKNOWN_DIRECTIVE,
+        /** a line without a directive */
+        UNKNOWN_LINE,
+        /** the value of a crawl-delay directive is not a number */
+        INVALID_CRAWL_DELAY,
+        /** the URL of a sitemap directive is invalid */
+        INVALID_SITEMAP,
+        /** a line holding a URL which is not a sitemap URL */
+        RAW_URL,
+        /**
+         * a rule exceeds the max. length or number of wildcards and was
+         * shortened (disallow rules) or ignored (allow rules)
+         */
+        RULE_DEGRADED
+    }
+
+    private long _bytes;
+    private long _parsedBytes;
+    private int _lines;
+    private int _skippedLines;
+    private int _groups;
+    private int _matchedGroups;
+    private int _ruleDirectives;
+    private int _rulesKept;
+    private int _rulesShadowed;
+    private final EnumMap<WarningType, Integer> _warnings = new EnumMap<>(WarningType.class);
+    private int _numWarnings;
+    private boolean _html;
+    private boolean _truncated;
+    private long _nanos;
+
+    /** Reset all statistics */
+    public void reset() {
+        _bytes = 0;
+        _parsedBytes = 0;
+        _lines = 0;
+        _skippedLines = 0;
+        _groups = 0;
+        _matchedGroups = 0;
+        _ruleDirectives = 0;
+        _rulesKept = 0;
+        _rulesShadowed = 0;
+        _warnings.clear();
+        _numWarnings = 0;
+        _html = false;
+        _truncated = false;
+        _nanos = 0;
+    }
+
+    /** @return size of the robots.txt content in bytes */
+    public long getBytes() {
+        return _bytes;
+    }
+
+    void setBytes(long bytes) {
+        _bytes = bytes;
+    }
+
+    /**
+     * @return number of bytes parsed, less than {@link #getBytes()} if the
+     *         content was truncated or a byte order mark was skipped
+     */
+    public long getParsedBytes() {
+        return _parsedBytes;
+    }
+
+    void setParsedBytes(long parsedBytes) {
+        _parsedBytes = parsedBytes;
+    }
+
+    /**
+     * @return number of lines holding a directive or other content after
+     *         removal of comments, plus the lines skipped in lazy group mode
+     *         (see {@link #getSkippedLines()})
+     */
+    public int getLines() {
+        return _lines;
+    }
+
+    void incrementLines() {
+        _lines++;
+    }
+
+    /**
+     * @return number of lines skipped without tokenization in lazy group
+     *         mode, see {@link SimpleRobotRulesParser#setLazyGroupParsing(boolean)}
+     */
+    public int getSkippedLines() {
+        return _skippedLines;
+    }
+
+    void incrementSkippedLines() {
+        _skippedLines++;
+    }
+
+    /** @return number of user-agent groups */
+    public int getGroups() {
+        return _groups;
+    }
+
+    void incrementGroups() {
+        _groups++;
+    }
+
+    /**
+     * @return number of user-agent groups addressed to the robot names,
+     *         including groups of the wildcard user-agent
+     */
+    public int getMatchedGroups() {
+        return _matchedGroups;
+    }
+
+    void incrementMatchedGroups() {
+        _matchedGroups++;
+    }
+
+    /**
+     * @return number of allow and disallow directives, not including those in
+     *         skipped lines
+     */
+    public int getRuleDirectives() {
+        return _ruleDirectives;
+    }
+
+    void incrementRuleDirectives() {
+        _ruleDirectives++;
+    }
+
+    /** @return number of rules in the resulting robot rules */
+    public int getRulesKept() {
+        return _rulesKept;
+    }
+
+    void setRulesKept(int rulesKept) {
+        _rulesKept = rulesKept;
+    }
+
+    /**
+     * @return number of rules removed because they never decide the verdict
+     *         for any path, see
+     *         {@link SimpleRobotRulesParser#setRemoveShadowedRules(boolean)}
+     */
+    public int getRulesShadowed() {
+        return _rulesShadowed;
+    }
+
+    void setRulesShadowed(int rulesShadowed) {
+        _rulesShadowed = rulesShadowed;
+    }
+
+    /**
+     * @return number of allow and disallow directives not resulting in a rule:
+     *         directives in groups not addressed to the robot names, empty,
+     *         duplicated or shadowed rules, and rules of the wildcard
+     *         user-agent overridden by a group addressed to the robot names
+     */
+    public int getRulesDropped() {
+        return Math.max(0, _ruleDirectives - _rulesKept);
+    }
+
+    /** @return total number of warnings */
+    public int getNumWarnings() {
+        return _numWarnings;
+    }
+
+    /**
+     * @param type
+     *            category of warnings
+     * @return number of warnings of the given category
+     */
+    public int getNumWarnings(WarningType type) {
+        return _warnings.getOrDefault(type, 0);
+    }
+
+    /** @return unmodifiable map of the number of warnings by category */
+    public Map<WarningType, Integer> getWarnings() {
+        return Collections.unmodifiableMap(_warnings);
+    }
+
+    void addWarning(WarningType type) {
+        _warnings.merge(type, 1, Integer::sum);
+        _numWarnings++;
+    }
+
+    /** @return whether the content was detected as HTML */
+    public boolean isHtml() {
+        return _html;
+    }
+
+    void setHtml(boolean html) {
+        _html = html;
+    }
+
+    /**
+     * @return whether the content was truncated, see
+     *         {@link SimpleRobotRulesParser#setMaxContentLength(int)}
+     */
+    public boolean isTruncated() {
+        return _truncated;
+    }
+
+    void setTruncated(boolean truncated) {
+        _truncated = truncated;
+    }
+
+    /** @return time spent parsing in nanoseconds */
+    public long getNanos() {
+        return _nanos;
+    }
+
+    void setNanos(long nanos) {
+        _nanos = nanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("bytes=").append(_bytes);
+        sb.append(", parsedBytes=").append(_parsedBytes);
+        sb.append(", lines=").append(_lines);
+        sb.append(", skippedLines=").append(_skippedLines);
+        sb.append(", groups=").append(_groups);
+        sb.append(", matchedGroups=").append(_matchedGroups);
+        sb.append(", rulesKept=").append(_rulesKept);
+        sb.append(", rulesShadowed=").append(_rulesShadowed);
+        sb.append(", rulesDropped=").append(getRulesDropped());
+        sb.append(", warnings=").append(_warnings);
+        sb.append(", html=").append(_html);
+        sb.append(", truncated=").append(_truncated);
+        sb.append(", nanos=").append(_nanos);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,326 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import crawlercommons.filters.basic.BasicURLNormalizer;
+
+/**
+ * Single-pass extraction of the path and query of a URL for robots.txt rule
+ * matching.
+ *
+ * <p>
+ * The result is the same as parsing the URL via {@link java.net.URI} and
+ * {@link java.net.URL}, concatenating path and query and passing the result
+ * through {@link SimpleRobotRules#escapePath(String, boolean[])}. However,
+ * instead of creating several objects and rebuilding the path string twice,
+ * the URL string is scanned once to locate the path and query. Only if the
+ * path requires to be rewritten (percent-encoding to be changed, empty path) a
+ * new string is built.
+ * </p>
+ *
+ * <p>
+ * Only URLs with the scheme <code>http</code> or <code>https</code>, a plain
+ * host name and port and a path and query consisting of printable ASCII
+ * characters allowed in URIs are handled. For all other URLs,
+ * {@link #findPathAndQuery(CharSequence)} returns {@link #NOT_HANDLED} and the
+ * caller needs to fall back to parsing the URL.
+ * </p>
+ */
+final class RobotsPathExtractor {
+
+    /**
+     * Returned by {@link #findPathAndQuery(CharSequence)} if the URL cannot be
+     * handled
+     */
+    static final long NOT_HANDLED = -1L;
+
+    /**
+     * Characters allowed in the URL path, query and fragment besides the
+     * percent sign, following <a
+     * href="https://www.rfc-editor.org/rfc/rfc2396.html#section-2">RFC 2396</a>
+     * as implemented by {@link java.net.URI}
+     */
+    private static final boolean[] PATH_CHARACTERS = new boolean[128];
+
+    /**
+     * Characters allowed in the host name. Host names including other
+     * characters (IPv6 addresses, percent-encoded or internationalized domain
+     * names, user info) are left to {@link java.net.URI}.
+     */
+    private static final boolean[] HOST_CHARACTERS = new boolean[128];
+
+    /**
+     * Unreserved characters following <a
+     * href="https://www.rfc-editor.org/rfc/rfc3986#section-2.3">RFC 3986</a>
+     * which are decoded if percent-encoded, see
+     * {@link BasicURLNormalizer#unescapePath(String)}
+     */
+    private static final boolean[] UNRESERVED_CHARACTERS = new boolean[128];
+
+    static {
+        for (int c = 0; c < 128; c++) {
+            boolean alphaNumeric = ('A' <= c && c <= 'Z') || ('a' <= c && c <= 'z') || ('0' <= c && c <= '9');
+            UNRESERVED_CHARACTERS[c] = alphaNumeric || c == '-' || c == '.' || c == '_' || c == '~';
+            HOST_CHARACTERS[c] = alphaNumeric || c == '-' || c == '.';
+            PATH_CHARACTERS[c] = UNRESERVED_CHARACTERS[c] || "!$&'()*+,;=:@/?".indexOf(c) >= 0;
+        }
+    }
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private RobotsPathExtractor() {
+    }
+
+    /**
+     * Locate path and query in a URL string.
+     *
+     * @param url
+     *            URL string
+     * @return the start and end offset of path and query encoded as
+     *         <code>start &lt;&lt; 32 | end</code>, see {@link #start(long)}
+     *         and {@link #end(long)}, or {@link #NOT_HANDLED} if the URL must
+     *         be parsed by {@link java.net.URI}. Note that the path may be
+     *         empty and the range may start with the query delimiter
+     *         <code>?</code>.
+     */
+    static long findPathAndQuery(CharSequence url) {
+        int length = url.length();
+        int pos;
+        if (startsWithIgnoreCase(url, "http://")) {
+            pos = 7;
+        } else if (startsWithIgnoreCase(url, "https://")) {
+            pos = 8;
+        } else {
+            return NOT_HANDLED;
+        }
+
+        // host name and optional port
+        int hostStart = pos;
+        while (pos < length && isHostCharacter(url.charAt(pos))) {
+            pos++;
+        }
+        if (pos == hostStart) {
+            return NOT_HANDLED;
+        }
+        if (pos < length && url.charAt(pos) == ':') {
+            int portStart = ++pos;
+            while (pos < length && '0' <= url.charAt(pos) && url.charAt(pos) <= '9') {
+                pos++;
+            }
+            if (pos == portStart || (pos - portStart) > 5) {
+                return NOT_HANDLED;
+            }
+        }
+
+        int pathStart = pos;
+        if (pos < length && url.charAt(pos) != '/' && url.charAt(pos) != '?' && url.charAt(pos) != '#') {
+            // no delimiter after the host name
+            return NOT_HANDLED;
+        }
+        int pathEnd = -1;
+        boolean inFragment = false;
+        while (pos < length) {
+            char c = url.charAt(pos);
+            if (c == '%') {
+                if ((pos + 2) >= length || !isHexCharacter(url.charAt(pos + 1)) || !isHexCharacter(url.charAt(pos + 2))) {
+                    return NOT_HANDLED;
+                }
+                pos += 3;
+                continue;
+            } else if (c == '#') {
+                if (inFragment) {
+                    return NOT_HANDLED;
+                }
+                inFragment = true;
+                pathEnd = pos;
+            } else if (c >= 128 || !PATH_CHARACTERS[c]) {
+                return NOT_HANDLED;
+            }
+            pos++;
+        }
+        if (pathEnd == -1) {
+            pathEnd = length;
+        }
+
+        return ((long) pathStart << 32) | pathEnd;
+    }
+
+    /** @return start offset of the range returned by {@link #findPathAndQuery(CharSequence)} */
+    static int start(long range) {
+        return (int) (range >>> 32);
+    }
+
+    /** @return end offset of the range returned by {@link #findPathAndQuery(CharSequence)} */
+    static int end(long range) {
+        return (int) range;
+    }
+
+    /**
+     * Check whether a path (and query) consists only of characters handled
+     * by {@link #normalize(CharSequence, int, int, StringBuilder)}.
+     *
+     * @param path
+     *            path and query
+     * @return true if the path can be normalized in a single pass
+     */
+    static boolean isValid(CharSequence path) {
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '%') {
+                if ((i + 2) >= length || !isHexCharacter(path.charAt(i + 1)) || !isHexCharacter(path.charAt(i + 2))) {
+                    return false;
+                }
+                i += 2;
+            } else if (c >= 128 || !PATH_CHARACTERS[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a path (and query) is already normalized for rule
+     * matching. The range must have been checked by
+     * {@link #findPathAndQuery(CharSequence)} or {@link #isValid(CharSequence)}.
+     *
+     * @param url
+     *            character sequence holding the path and query
+     * @param start
+     *            start offset of the path
+     * @param end
+     *            end offset (exclusive) of the query
+     * @return true if the range can be matched without modifications
+     */
+    static boolean isNormalized(CharSequence url, int start, int end) {
+        if (start == end || url.charAt(start) != '/') {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (c == '%') {
+                char h1 = url.charAt(i + 1);
+                char h2 = url.charAt(i + 2);
+                if (isLowerCaseHex(h1) || isLowerCaseHex(h2)) {
+                    return false;
+                }
+                int decoded = (hexValue(h1) << 4) + hexValue(h2);
+                if (decoded < 128 && UNRESERVED_CHARACTERS[decoded]) {
+                    return false;
+                }
+                i += 2;
+            } else if (SimpleRobotRules.specialCharactersPathMatching[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Normalize path and query for rule matching in a single pass: decode
+     * percent-encoded unreserved characters, upper-case the hexadecimal digits
+     * of other percent-encoded characters, percent-encode characters with
+     * special meaning in robots.txt patterns (<code>*</code>, <code>$</code>)
+     * and make sure that the path starts with a slash. The range must have
+     * been checked by {@link #findPathAndQuery(CharSequence)} or
+     * {@link #isValid(CharSequence)}.
+     *
+     * @param url
+     *            character sequence holding the path and query
+     * @param start
+     *            start offset of the path
+     * @param end
+     *            end offset (exclusive) of the query
+     * @param sb
+     *            buffer the normalized path is appended to
+     */
+    static void normalize(CharSequence url, int start, int end, StringBuilder sb) {
+        if (start == end || url.charAt(start) != '/') {
+            sb.append('/');
+        }
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (c == '%') {
+                char h1 = url.charAt(i + 1);
+                char h2 = url.charAt(i + 2);
+                int decoded = (hexValue(h1) << 4) + hexValue(h2);
+                if (decoded < 128 && UNRESERVED_CHARACTERS[decoded]) {
+                    sb.append((char) decoded);
+                } else {
+                    sb.append('%').append(HEX_DIGITS[decoded >> 4]).append(HEX_DIGITS[decoded & 0xF]);
+                }
+                i += 2;
+            } else if (SimpleRobotRules.specialCharactersPathMatching[c]) {
+                sb.append('%').append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+            } else {
+                sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * Normalize path and query for rule matching.
+     *
+     * @see #normalize(CharSequence, int, int, StringBuilder)
+     * @return the normalized path, the input string if it is already
+     *         normalized
+     */
+    static String normalize(String path) {
+        if (!isValid(path)) {
+            return SimpleRobotRules.escapePath(path, SimpleRobotRules.specialCharactersPathMatching);
+        }
+        if (isNormalized(path, 0, path.length())) {
+            return path;
+        }
+        StringBuilder sb = new StringBuilder(path.length() + 8);
+        normalize(path, 0, path.length(), sb);
+        return sb.toString();
+    }
+
+    private static boolean startsWithIgnoreCase(CharSequence s, String prefix) {
+        if (s.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.toLowerCase(s.charAt(i)) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHostCharacter(char c) {
+        return c < 128 && HOST_CHARACTERS[c];
+    }
+
+    private static boolean isHexCharacter(char c) {
+        return ('0' <= c && c <= '9') || ('A' <= c && c <= 'F') || ('a' <= c && c <= 'f');
+    }
+
+    private static boolean isLowerCaseHex(char c) {
+        return 'a' <= c && c <= 'f';
+    }
+
+    private static int hexValue(char c) {
+        if (c <= '9') {
+            return c - '0';
+        } else if (c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return c - 'a' + 10;
+    }
+}
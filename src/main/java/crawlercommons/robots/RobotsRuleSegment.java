@@ -0,0 +1,668 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRule;
+
+/**
+ * Read-only, memory-mapped file holding the robots rules of many hosts, see
+ * {@link RobotsRuleStore}.
+ *
+ * <p>
+ * File layout, all numbers in big-endian byte order:
+ * </p>
+ *
+ * <pre>
+ * header (64 bytes)
+ *   long    magic
+ *   int     format version
+ *   int     region size (log2)
+ *   long    number of hosts
+ *   long    number of slots (power of two)
+ *   long    offset of the slot table
+ * records (appended one after the other, never crossing a region boundary)
+ *   int     length of the record (following bytes)
+ *   varint  length of the host key, followed by the UTF-8 encoded host key
+ *   varint  length of the metadata, followed by the metadata: the rules
+ *           without allow/disallow rules in {@link RobotRulesCodec} format
+ *           (mode, flags, crawl delay, sitemaps, extensions)
+ *   varint  number of patterns, for every pattern:
+ *     varint  (length &lt;&lt; 2) | (derived &lt;&lt; 1) | allow
+ *     bytes   UTF-8 encoded pattern
+ * slot table (16 bytes per slot, open addressing with linear probing)
+ *   long    hash of the host key
+ *   long    offset of the record, 0 if the slot is empty
+ * </pre>
+ *
+ * <p>
+ * The patterns are stored in order of precedence: longer patterns first and
+ * allow before disallow patterns of the same length. The first pattern
+ * matching a path decides whether it is allowed, which is the same verdict as
+ * returned by {@link SimpleRobotRules#isAllowed(String)}. Patterns ending in
+ * <code>index.htm</code> or <code>index.html</code> add a derived pattern
+ * matching the directory index (see {@link RobotRulesMatcher}), derived
+ * patterns are skipped when the rules are read back.
+ * </p>
+ *
+ * <p>
+ * The file is mapped in regions (1 GiB by default) because a single
+ * {@link MappedByteBuffer} is limited to 2 GiB. Records are padded so that
+ * they never cross a region boundary, slots are aligned and never cross a
+ * boundary either, so that every lookup reads from a single buffer. Reading
+ * is thread-safe, lookups only use absolute reads on the shared buffers.
+ * </p>
+ */
+final class RobotsRuleSegment {
+
+    private static final long MAGIC = 0x524f424f54535253L; // "ROBOTSRS"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 16;
+
+    /** Default region size: 1 GiB */
+    static final int DEFAULT_REGION_BITS = 30;
+
+    private static final int FLAG_ALLOW = 1;
+    private static final int FLAG_DERIVED = 2;
+
+    private final Path _file;
+    private final ByteBuffer[] _regions;
+    private final int _regionBits;
+    private final long _regionMask;
+    private final long _numHosts;
+    private final long _slotMask;
+    private final long _slotsOffset;
+
+    private RobotsRuleSegment(Path file, ByteBuffer[] regions, int regionBits, long numHosts, long numSlots, long slotsOffset) {
+        _file = file;
+        _regions = regions;
+        _regionBits = regionBits;
+        _regionMask = (1L << regionBits) - 1;
+        _numHosts = numHosts;
+        _slotMask = numSlots - 1;
+        _slotsOffset = slotsOffset;
+    }
+
+    /**
+     * Map a segment file into memory (read-only).
+     *
+     * @param file
+     *            segment file written by {@link Writer}
+     * @return segment
+     * @throws IOException
+     *             if the file cannot be read or is not a valid segment
+     */
+    static RobotsRuleSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not a robots rules store: " + file);
+            }
+            ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getLong(0) != MAGIC) {
+                throw new IOException("Not a robots rules store: " + file);
+            }
+            int version = header.getInt(8);
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported format version of robots rules store: " + version);
+            }
+            int regionBits = header.getInt(12);
+            long numHosts = header.getLong(16);
+            long numSlots = header.getLong(24);
+            long slotsOffset = header.getLong(32);
+            if (regionBits < 12 || regionBits > 30 || Long.bitCount(numSlots) != 1 || slotsOffset < HEADER_SIZE || (slotsOffset % SLOT_SIZE) != 0
+                            || slotsOffset + numSlots * SLOT_SIZE != size) {
+                throw new IOException("Corrupt robots rules store: " + file);
+            }
+            return new RobotsRuleSegment(file, map(channel, MapMode.READ_ONLY, size, regionBits), regionBits, numHosts, numSlots, slotsOffset);
+        }
+    }
+
+    private static ByteBuffer[] map(FileChannel channel, MapMode mode, long size, int regionBits) throws IOException {
+        long regionSize = 1L << regionBits;
+        int numRegions = (int) ((size + regionSize - 1) >>> regionBits);
+        ByteBuffer[] regions = new ByteBuffer[numRegions];
+        for (int i = 0; i < numRegions; i++) {
+            long start = (long) i << regionBits;
+            regions[i] = channel.map(mode, start, Math.min(regionSize, size - start));
+        }
+        return regions;
+    }
+
+    /** @return path of the segment file */
+    Path getFile() {
+        return _file;
+    }
+
+    /** @return number of hosts in the segment */
+    long size() {
+        return _numHosts;
+    }
+
+    private ByteBuffer region(long offset) {
+        return _regions[(int) (offset >>> _regionBits)];
+    }
+
+    private int offsetInRegion(long offset) {
+        return (int) (offset & _regionMask);
+    }
+
+    /**
+     * Find the record of a host.
+     *
+     * @return offset of the record, -1 if the host is not contained
+     */
+    long find(byte[] key) {
+        long hash = hash(key);
+        long slot = hash & _slotMask;
+        while (true) {
+            long pos = _slotsOffset + slot * SLOT_SIZE;
+            ByteBuffer region = region(pos);
+            int p = offsetInRegion(pos);
+            long offset = region.getLong(p + 8);
+            if (offset == 0) {
+                return -1;
+            }
+            if (region.getLong(p) == hash && keyEquals(region(offset), offsetInRegion(offset) + 4, key)) {
+                return offset;
+            }
+            slot = (slot + 1) & _slotMask;
+        }
+    }
+
+    /**
+     * Check whether a URL is allowed by the rules of a host, without
+     * materializing the rules.
+     *
+     * @return {@link RobotsRuleStore#ALLOWED},
+     *         {@link RobotsRuleStore#DISALLOWED} or
+     *         {@link RobotsRuleStore#UNKNOWN_HOST}
+     */
+    int isAllowed(byte[] key, String url) {
+        long offset = find(key);
+        if (offset == -1) {
+            return RobotsRuleStore.UNKNOWN_HOST;
+        }
+        ByteBuffer buf = region(offset);
+        long v = skipBytes(buf, offsetInRegion(offset) + 4); // host key
+        int meta = position(readVarInt(buf, position(v)));
+        int mode = buf.get(meta + 1);
+        if (mode == RobotRulesCodec.MODE_ALLOW_NONE) {
+            return RobotsRuleStore.DISALLOWED;
+        } else if (mode == RobotRulesCodec.MODE_ALLOW_ALL) {
+            return RobotsRuleStore.ALLOWED;
+        }
+        v = skipBytes(buf, position(v)); // metadata
+
+        SimpleRobotRules.PathRange path = new SimpleRobotRules.PathRange().set(url);
+        if (path.isRobotsTxtPath()) {
+            return RobotsRuleStore.ALLOWED;
+        }
+        return isAllowed(buf, position(v), path._path, path._start, path._end) ? RobotsRuleStore.ALLOWED : RobotsRuleStore.DISALLOWED;
+    }
+
+    /**
+     * Match the path against the patterns of a record, the first matching
+     * pattern decides.
+     */
+    private static boolean isAllowed(ByteBuffer buf, int pos, CharSequence path, int start, int end) {
+        long v = readVarInt(buf, pos);
+        int numPatterns = value(v);
+        pos = position(v);
+        for (int i = 0; i < numPatterns; i++) {
+            v = readVarInt(buf, pos);
+            int flags = value(v);
+            pos = position(v);
+            int length = flags >>> 2;
+            if (matches(buf, pos, pos + length, path, start, end)) {
+                return (flags & FLAG_ALLOW) != 0;
+            }
+            pos += length;
+        }
+        return true;
+    }
+
+    /**
+     * Match a pattern against a path. The pattern is split at the wildcards
+     * into literal pieces: the first piece must match at the start of the
+     * path, the last piece at the end of the path if the pattern ends with
+     * <code>$</code>, all other pieces are matched at their leftmost
+     * occurrence (cf. {@link RobotRulesMatcher}).
+     */
+    static boolean matches(ByteBuffer buf, int pStart, int pEnd, CharSequence path, int start, int end) {
+        boolean anchoredEnd = pEnd > pStart && buf.get(pEnd - 1) == '$';
+        if (anchoredEnd) {
+            pEnd--;
+        }
+        int star = indexOfWildcard(buf, pStart, pEnd);
+        if (star == -1) {
+            int length = pEnd - pStart;
+            if (anchoredEnd && length != (end - start)) {
+                return false;
+            }
+            return regionMatches(buf, pStart, pEnd, path, start, end);
+        }
+        if (!regionMatches(buf, pStart, star, path, start, end)) {
+            return false;
+        }
+        int pos = start + (star - pStart);
+        int pieceStart = star + 1;
+        int pieceEnd;
+        while ((pieceEnd = indexOfWildcard(buf, pieceStart, pEnd)) != -1) {
+            int found = indexOf(buf, pieceStart, pieceEnd, path, pos, end);
+            if (found == -1) {
+                return false;
+            }
+            pos = found + (pieceEnd - pieceStart);
+            pieceStart = pieceEnd + 1;
+        }
+        if (anchoredEnd) {
+            int lastStart = end - (pEnd - pieceStart);
+            return lastStart >= pos && regionMatches(buf, pieceStart, pEnd, path, lastStart, end);
+        }
+        return indexOf(buf, pieceStart, pEnd, path, pos, end) != -1;
+    }
+
+    private static int indexOfWildcard(ByteBuffer buf, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buf.get(i) == '*') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** @return true if the path range starts with the piece */
+    private static boolean regionMatches(ByteBuffer buf, int pStart, int pEnd, CharSequence path, int start, int end) {
+        if ((pEnd - pStart) > (end - start)) {
+            return false;
+        }
+        for (int i = pStart; i < pEnd; i++) {
+            if ((buf.get(i) & 0xFF) != path.charAt(start++)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return start offset of the leftmost occurrence of the piece in the
+     *         path range, -1 if not found
+     */
+    private static int indexOf(ByteBuffer buf, int pStart, int pEnd, CharSequence path, int start, int end) {
+        int length = pEnd - pStart;
+        for (int i = start; i <= end - length; i++) {
+            if (regionMatches(buf, pStart, pEnd, path, i, end)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Materialize the rules of a host.
+     *
+     * @return the rules, null if the host is not contained
+     */
+    SimpleRobotRules get(byte[] key) throws IOException {
+        long offset = find(key);
+        if (offset == -1) {
+            return null;
+        }
+        ByteBuffer buf = region(offset);
+        long v = skipBytes(buf, offsetInRegion(offset) + 4);
+        v = readVarInt(buf, position(v));
+        byte[] meta = new byte[value(v)];
+        buf.duplicate().position(position(v)).get(meta);
+        SimpleRobotRules rules = RobotRulesCodec.read(new DataInputStream(new ByteArrayInputStream(meta)));
+
+        v = readVarInt(buf, position(v) + meta.length);
+        int numPatterns = value(v);
+        int pos = position(v);
+        for (int i = 0; i < numPatterns; i++) {
+            v = readVarInt(buf, pos);
+            int flags = value(v);
+            pos = position(v);
+            int length = flags >>> 2;
+            if ((flags & FLAG_DERIVED) == 0) {
+                byte[] pattern = new byte[length];
+                buf.duplicate().position(pos).get(pattern);
+                rules._rules.add(new RobotRule(new String(pattern, StandardCharsets.UTF_8), (flags & FLAG_ALLOW) != 0));
+            }
+            pos += length;
+        }
+        return rules;
+    }
+
+    /**
+     * Copy the records of all hosts accepted by the filter to a writer. The
+     * records are copied as they are, without decoding the rules.
+     *
+     * @param keep
+     *            filter on the host keys
+     */
+    void copyTo(Writer writer, Predicate<String> keep) throws IOException {
+        for (long slot = 0; slot <= _slotMask; slot++) {
+            long pos = _slotsOffset + slot * SLOT_SIZE;
+            ByteBuffer region = region(pos);
+            int p = offsetInRegion(pos);
+            long offset = region.getLong(p + 8);
+            if (offset == 0) {
+                continue;
+            }
+            ByteBuffer buf = region(offset);
+            int start = offsetInRegion(offset);
+            int length = buf.getInt(start);
+            if (keep.test(new String(readKey(buf, start + 4), StandardCharsets.UTF_8))) {
+                ByteBuffer record = buf.duplicate();
+                record.limit(start + 4 + length).position(start + 4);
+                writer.addRecord(region.getLong(p), record);
+            }
+        }
+    }
+
+    private static byte[] readKey(ByteBuffer buf, int pos) {
+        long v = readVarInt(buf, pos);
+        byte[] key = new byte[value(v)];
+        buf.duplicate().position(position(v)).get(key);
+        return key;
+    }
+
+    private static boolean keyEquals(ByteBuffer buf, int pos, byte[] key) {
+        long v = readVarInt(buf, pos);
+        if (value(v) != key.length) {
+            return false;
+        }
+        pos = position(v);
+        for (int i = 0; i < key.length; i++) {
+            if (buf.get(pos + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read a variable-length integer, see {@link RobotRulesCodec}.
+     *
+     * @return the value in the upper and the position after the integer in
+     *         the lower 32 bits
+     */
+    private static long readVarInt(ByteBuffer buf, int pos) {
+        int value = 0;
+        for (int shift = 0;; shift += 7) {
+            int b = buf.get(pos++);
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return ((long) value << 32) | pos;
+            }
+        }
+    }
+
+    /** Skip a byte sequence preceded by its length */
+    private static long skipBytes(ByteBuffer buf, int pos) {
+        long v = readVarInt(buf, pos);
+        return position(v) + value(v);
+    }
+
+    private static int value(long v) {
+        return (int) (v >>> 32);
+    }
+
+    private static int position(long v) {
+        return (int) v;
+    }
+
+    /** 64-bit hash of the UTF-8 encoded host key (FNV-1a with a final mix) */
+    static long hash(byte[] key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h ^= (b & 0xFF);
+            h *= 0x100000001b3L;
+        }
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        return h;
+    }
+
+    /**
+     * Writes a segment file: the records are appended sequentially, the slot
+     * table is built when the writer is {@link #finish() finished}. Only the
+     * hash and offset of every record are kept, in a temporary file, so that
+     * the memory used is independent of the number of hosts.
+     */
+    static final class Writer implements Closeable {
+
+        private final Path _file;
+        private final int _regionBits;
+        private final Path _slotsFile;
+        private final DataOutputStream _out;
+        private final DataOutputStream _slots;
+        private final ByteArrayOutputStream _record = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream _meta = new ByteArrayOutputStream();
+        private long _position = HEADER_SIZE;
+        private long _numRecords = 0;
+        private boolean _finished = false;
+
+        /**
+         * @param file
+         *            segment file to write
+         * @param regionBits
+         *            log2 of the region size
+         */
+        Writer(Path file, int regionBits) throws IOException {
+            _file = file;
+            _regionBits = regionBits;
+            _slotsFile = file.resolveSibling(file.getFileName() + ".slots");
+            _out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            _out.write(new byte[HEADER_SIZE]);
+            _slots = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(_slotsFile)));
+        }
+
+        /**
+         * Add the rules of a host. If a host is added multiple times, the
+         * rules added last are kept.
+         */
+        void add(String host, SimpleRobotRules rules) throws IOException {
+            byte[] key = host.getBytes(StandardCharsets.UTF_8);
+            _record.reset();
+            DataOutputStream out = new DataOutputStream(_record);
+            RobotRulesCodec.writeVarInt(out, key.length);
+            out.write(key);
+
+            _meta.reset();
+            RobotRulesCodec.write(rules, new DataOutputStream(_meta), false);
+            RobotRulesCodec.writeVarInt(out, _meta.size());
+            _meta.writeTo(out);
+
+            List<Pattern> patterns = new ArrayList<>();
+            for (RobotRule rule : rules.getRobotRules()) {
+                String prefix = rule._prefix;
+                patterns.add(new Pattern(prefix, rule._allow, false));
+                if (prefix.endsWith("index.htm") || prefix.endsWith("index.html")) {
+                    patterns.add(new Pattern(prefix.substring(0, prefix.indexOf("index.htm")) + "$", rule._allow, true));
+                }
+            }
+            patterns.sort(null);
+            RobotRulesCodec.writeVarInt(out, patterns.size());
+            for (Pattern pattern : patterns) {
+                RobotRulesCodec.writeVarInt(out, (pattern._bytes.length << 2) | (pattern._derived ? FLAG_DERIVED : 0) | (pattern._allow ? FLAG_ALLOW : 0));
+                out.write(pattern._bytes);
+            }
+            out.flush();
+            addRecord(hash(key), ByteBuffer.wrap(_record.toByteArray()));
+        }
+
+        /**
+         * Append a record.
+         *
+         * @param hash
+         *            hash of the host key
+         * @param record
+         *            record content (without the length)
+         */
+        void addRecord(long hash, ByteBuffer record) throws IOException {
+            int length = record.remaining();
+            long regionSize = 1L << _regionBits;
+            if (4L + length > regionSize - HEADER_SIZE) {
+                throw new IllegalArgumentException("Robots rules too large to be stored: " + length + " bytes");
+            }
+            long regionEnd = ((_position >>> _regionBits) + 1) << _regionBits;
+            if (_position + 4 + length > regionEnd) {
+                // pad to not cross the region boundary
+                byte[] zeros = new byte[8192];
+                while (_position < regionEnd) {
+                    int n = (int) Math.min(zeros.length, regionEnd - _position);
+                    _out.write(zeros, 0, n);
+                    _position += n;
+                }
+            }
+            _slots.writeLong(hash);
+            _slots.writeLong(_position);
+            _out.writeInt(length);
+            if (record.hasArray()) {
+                _out.write(record.array(), record.arrayOffset() + record.position(), length);
+            } else {
+                byte[] bytes = new byte[length];
+                record.duplicate().get(bytes);
+                _out.write(bytes);
+            }
+            _position += 4 + length;
+            _numRecords++;
+        }
+
+        /**
+         * Build the slot table and write the header.
+         *
+         * @return number of hosts in the segment
+         */
+        long finish() throws IOException {
+            _out.close();
+            _slots.close();
+            long numSlots = 16;
+            while (numSlots < 2 * _numRecords) {
+                numSlots <<= 1;
+            }
+            long slotMask = numSlots - 1;
+            long slotsOffset = (_position + SLOT_SIZE - 1) / SLOT_SIZE * SLOT_SIZE;
+            long size = slotsOffset + numSlots * SLOT_SIZE;
+            long numHosts = 0;
+            try (FileChannel channel = FileChannel.open(_file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer[] regions = map(channel, MapMode.READ_WRITE, size, _regionBits);
+                RobotsRuleSegment segment = new RobotsRuleSegment(_file, regions, _regionBits, 0, numSlots, slotsOffset);
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(_slotsFile)))) {
+                    for (long i = 0; i < _numRecords; i++) {
+                        long hash = in.readLong();
+                        long offset = in.readLong();
+                        byte[] key = readKey(segment.region(offset), segment.offsetInRegion(offset) + 4);
+                        long slot = hash & slotMask;
+                        while (true) {
+                            long pos = slotsOffset + slot * SLOT_SIZE;
+                            ByteBuffer region = segment.region(pos);
+                            int p = segment.offsetInRegion(pos);
+                            long existing = region.getLong(p + 8);
+                            if (existing == 0) {
+                                region.putLong(p, hash);
+                                region.putLong(p + 8, offset);
+                                numHosts++;
+                                break;
+                            }
+                            if (region.getLong(p) == hash && keyEquals(segment.region(existing), segment.offsetInRegion(existing) + 4, key)) {
+                                // host added again: the last record wins
+                                region.putLong(p + 8, offset);
+                                break;
+                            }
+                            slot = (slot + 1) & slotMask;
+                        }
+                    }
+                } catch (EOFException e) {
+                    throw new IOException("Truncated slots file: " + _slotsFile, e);
+                }
+                ByteBuffer header = regions[0];
+                header.putLong(0, MAGIC);
+                header.putInt(8, FORMAT_VERSION);
+                header.putInt(12, _regionBits);
+                header.putLong(16, numHosts);
+                header.putLong(24, numSlots);
+                header.putLong(32, slotsOffset);
+                for (ByteBuffer region : regions) {
+                    ((MappedByteBuffer) region).force();
+                }
+            } finally {
+                Files.deleteIfExists(_slotsFile);
+            }
+            // only now, if finishing fails close() deletes the segment file
+            _finished = true;
+            return numHosts;
+        }
+
+        /** Close the writer, if not finished the segment file is deleted */
+        @Override
+        public void close() throws IOException {
+            if (!_finished) {
+                _finished = true;
+                _out.close();
+                _slots.close();
+                Files.deleteIfExists(_slotsFile);
+                Files.deleteIfExists(_file);
+            }
+        }
+    }
+
+    /** Pattern of a record, sorted in order of precedence */
+    private static final class Pattern implements Comparable<Pattern> {
+        private final byte[] _bytes;
+        private final boolean _allow;
+        private final boolean _derived;
+
+        private Pattern(String pattern, boolean allow, boolean derived) {
+            _bytes = pattern.getBytes(StandardCharsets.UTF_8);
+            _allow = allow;
+            _derived = derived;
+        }
+
+        @Override
+        public int compareTo(Pattern o) {
+            if (_bytes.length != o._bytes.length) {
+                return Integer.compare(o._bytes.length, _bytes.length);
+            }
+            return Boolean.compare(o._allow, _allow);
+        }
+    }
+}
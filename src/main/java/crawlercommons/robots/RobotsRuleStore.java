@@ -0,0 +1,360 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Off-heap store of the robots rules of a large number of hosts, held in a
+ * memory-mapped file.
+ *
+ * <p>
+ * Hosts are identified by a key, e.g. the robots.txt URL as returned by
+ * {@link RobotRulesCache#getRobotsUrl(java.net.URL)}. The rules of every host
+ * are encoded compactly in a record, records are located by a hash table
+ * indexed by a 64-bit hash of the host key. Allow/disallow rules are matched
+ * directly on the mapped bytes ({@link #isAllowed(String, String)}), no
+ * objects are created except if the URL path needs to be normalized. The
+ * rules can also be materialized as {@link SimpleRobotRules} object
+ * ({@link #get(String)}), e.g. to access the crawl-delay or the sitemaps.
+ * Because the data is held outside of the Java heap and paged in by the
+ * operating system on demand, the heap stays small independent of the number
+ * of hosts.
+ * </p>
+ *
+ * <p>
+ * The store file is immutable. Updates are applied by writing a new
+ * generation of the store file: the records of unchanged hosts are copied
+ * byte by byte, updated hosts are appended ({@link #update(Map, Collection)}).
+ * Alternatively, the store is rebuilt from scratch ({@link #rebuild(Iterator)}).
+ * Once written, the new file replaces the current one atomically: lookups
+ * running concurrently still see the previous generation, all subsequent
+ * lookups see the new one. Updates and rebuilds can run in the background, see
+ * {@link #updateAsync(Map, Collection, Executor)}. Only one update or rebuild
+ * runs at a time.
+ * </p>
+ *
+ * <p>
+ * Lookups are thread-safe and do not acquire any lock.
+ * </p>
+ *
+ * <pre>
+ * RobotsRuleStore store = new RobotsRuleStore(Paths.get("robots-store"));
+ * switch (store.isAllowed(RobotRulesCache.getRobotsUrl(url), url.toString())) {
+ *     case RobotsRuleStore.ALLOWED:
+ *         ...
+ *     case RobotsRuleStore.UNKNOWN_HOST:
+ *         // fetch and parse the robots.txt, collect for the next update
+ * }
+ * </pre>
+ */
+public class RobotsRuleStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RobotsRuleStore.class);
+
+    /** Returned by {@link #isAllowed(String, String)} if the URL is allowed */
+    public static final int ALLOWED = 1;
+
+    /**
+     * Returned by {@link #isAllowed(String, String)} if the URL is disallowed
+     */
+    public static final int DISALLOWED = 0;
+
+    /**
+     * Returned by {@link #isAllowed(String, String)} if the host is not
+     * contained in the store
+     */
+    public static final int UNKNOWN_HOST = -1;
+
+    private static final String FILE_PREFIX = "robots-rules-";
+    private static final String FILE_SUFFIX = ".store";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final Path _directory;
+    private final int _regionBits;
+    private final ReentrantLock _writeLock = new ReentrantLock();
+
+    /** Current segment, null if the store is empty */
+    private volatile RobotsRuleSegment _segment;
+    private volatile long _generation;
+
+    /**
+     * Open the store in a directory, or create an empty store if the directory
+     * does not contain a store. Left-overs of updates which did not complete
+     * and previous generations of the store file are removed.
+     *
+     * @param directory
+     *            directory holding the store file
+     * @throws IOException
+     *             if the store cannot be opened
+     */
+    public RobotsRuleStore(Path directory) throws IOException {
+        this(directory, RobotsRuleSegment.DEFAULT_REGION_BITS);
+    }
+
+    /**
+     * @param regionBits
+     *            log2 of the size of memory-mapped regions
+     */
+    RobotsRuleStore(Path directory, int regionBits) throws IOException {
+        _directory = directory;
+        _regionBits = regionBits;
+        Files.createDirectories(directory);
+
+        Path latest = null;
+        long latestGeneration = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(FILE_SUFFIX)) {
+                    Files.delete(file);
+                    continue;
+                }
+                long generation;
+                try {
+                    generation = Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (latest == null || generation > latestGeneration) {
+                    if (latest != null) {
+                        Files.delete(latest);
+                    }
+                    latest = file;
+                    latestGeneration = generation;
+                } else {
+                    Files.delete(file);
+                }
+            }
+        }
+        if (latest != null) {
+            _segment = RobotsRuleSegment.open(latest);
+            _generation = latestGeneration;
+        }
+    }
+
+    /**
+     * Check whether a URL is allowed by the stored rules of its host. The
+     * result is the same as for {@link SimpleRobotRules#isAllowed(String)},
+     * but the rules are matched directly on the memory-mapped data.
+     *
+     * @param host
+     *            host key
+     * @param url
+     *            URL string to be checked
+     * @return {@link #ALLOWED}, {@link #DISALLOWED} or {@link #UNKNOWN_HOST}
+     *         if there are no rules stored for the host
+     */
+    public int isAllowed(String host, String url) {
+        RobotsRuleSegment segment = _segment;
+        if (segment == null) {
+            return UNKNOWN_HOST;
+        }
+        return segment.isAllowed(host.getBytes(StandardCharsets.UTF_8), url);
+    }
+
+    /**
+     * @param host
+     *            host key
+     * @return true if rules are stored for the host
+     */
+    public boolean contains(String host) {
+        RobotsRuleSegment segment = _segment;
+        return segment != null && segment.find(host.getBytes(StandardCharsets.UTF_8)) != -1;
+    }
+
+    /**
+     * Materialize the stored rules of a host.
+     *
+     * @param host
+     *            host key
+     * @return the rules of the host, null if no rules are stored for the host
+     * @throws UncheckedIOException
+     *             if the stored rules are corrupt
+     */
+    public SimpleRobotRules get(String host) {
+        RobotsRuleSegment segment = _segment;
+        if (segment == null) {
+            return null;
+        }
+        try {
+            return segment.get(host.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read robots rules of " + host + " from " + segment.getFile(), e);
+        }
+    }
+
+    /** @return number of hosts in the store */
+    public long size() {
+        RobotsRuleSegment segment = _segment;
+        return segment == null ? 0 : segment.size();
+    }
+
+    /**
+     * @return generation of the store file, incremented with every update or
+     *         rebuild, 0 if the store is empty and was never updated
+     */
+    public long getGeneration() {
+        return _generation;
+    }
+
+    /**
+     * Write a new generation of the store, holding the stored rules of all
+     * hosts which are neither updated nor removed and the updated rules, and
+     * replace the current store file.
+     *
+     * @param updates
+     *            hosts (host keys) and their new rules
+     * @param removals
+     *            hosts (host keys) to be removed from the store
+     * @throws IOException
+     *             if writing the new store file fails, the current store is
+     *             then left unchanged
+     */
+    public void update(Map<String, SimpleRobotRules> updates, Collection<String> removals) throws IOException {
+        _writeLock.lock();
+        try {
+            RobotsRuleSegment current = _segment;
+            long generation = _generation + 1;
+            Path tmp = _directory.resolve(FILE_PREFIX + generation + TMP_SUFFIX);
+            try (RobotsRuleSegment.Writer writer = new RobotsRuleSegment.Writer(tmp, _regionBits)) {
+                if (current != null) {
+                    Set<String> removed = new HashSet<>(removals);
+                    current.copyTo(writer, host -> !updates.containsKey(host) && !removed.contains(host));
+                }
+                for (Map.Entry<String, SimpleRobotRules> e : updates.entrySet()) {
+                    writer.add(e.getKey(), e.getValue());
+                }
+                writer.finish();
+            }
+            swap(tmp, generation);
+        } finally {
+            _writeLock.unlock();
+        }
+    }
+
+    /**
+     * Write a new generation of the store holding only the given rules and
+     * replace the current store file. The rules are consumed one by one, so
+     * that the store can be rebuilt from a stream of any size. If a host
+     * occurs multiple times, the rules seen last are kept.
+     *
+     * @param rules
+     *            hosts (host keys) and their rules
+     * @throws IOException
+     *             if writing the new store file fails, the current store is
+     *             then left unchanged
+     */
+    public void rebuild(Iterator<Map.Entry<String, SimpleRobotRules>> rules) throws IOException {
+        _writeLock.lock();
+        try {
+            long generation = _generation + 1;
+            Path tmp = _directory.resolve(FILE_PREFIX + generation + TMP_SUFFIX);
+            try (RobotsRuleSegment.Writer writer = new RobotsRuleSegment.Writer(tmp, _regionBits)) {
+                while (rules.hasNext()) {
+                    Map.Entry<String, SimpleRobotRules> e = rules.next();
+                    writer.add(e.getKey(), e.getValue());
+                }
+                writer.finish();
+            }
+            swap(tmp, generation);
+        } finally {
+            _writeLock.unlock();
+        }
+    }
+
+    /**
+     * Run {@link #update(Map, Collection)} in the background.
+     *
+     * @param updates
+     *            hosts (host keys) and their new rules, must not be modified
+     *            until the update is completed
+     * @param removals
+     *            hosts (host keys) to be removed from the store
+     * @param executor
+     *            executor to run the update
+     * @return future completed when the new store file is in use, or
+     *         exceptionally if the update failed
+     */
+    public CompletableFuture<Void> updateAsync(Map<String, SimpleRobotRules> updates, Collection<String> removals, Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                update(updates, removals);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Run {@link #rebuild(Iterator)} in the background.
+     *
+     * @param rules
+     *            hosts (host keys) and their rules
+     * @param executor
+     *            executor to run the rebuild
+     * @return future completed when the new store file is in use, or
+     *         exceptionally if the rebuild failed
+     */
+    public CompletableFuture<Void> rebuildAsync(Iterator<Map.Entry<String, SimpleRobotRules>> rules, Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                rebuild(rules);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Move a new store file into place and switch lookups to it. The previous
+     * file is deleted: lookups still running on it are not affected because
+     * the mapping stays valid until the buffers are garbage-collected.
+     */
+    private void swap(Path tmp, long generation) throws IOException {
+        Path file = _directory.resolve(FILE_PREFIX + generation + FILE_SUFFIX);
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        RobotsRuleSegment previous = _segment;
+        _segment = RobotsRuleSegment.open(file);
+        _generation = generation;
+        if (previous != null) {
+            try {
+                Files.delete(previous.getFile());
+            } catch (IOException e) {
+                LOGGER.warn("Failed to delete previous robots rules store {}: {}", previous.getFile(), e.getMessage());
+            }
+        }
+    }
+}
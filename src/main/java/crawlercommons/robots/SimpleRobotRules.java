@@ -16,10 +16,18 @@
 
 package crawlercommons.robots;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -126,9 +134,38 @@ public class SimpleRobotRules extends BaseRobotRules {
 
     }
 
+    /**
+     * Rules while the rule set is mutable, set to null when the rules are
+     * frozen and packed into {@link #_packedRules}.
+     */
     protected ArrayList<RobotRule> _rules;
     protected RobotRulesMode _mode;
 
+    /** Memory-compact form of the rules, only set if the rules are frozen */
+    private PackedRuleList _packedRules;
+
+    /**
+     * Matcher compiled from the rules lazily on first use, and compiled again
+     * if the rules have been changed since. The matcher is immutable, a race
+     * between threads compiling it concurrently is benign.
+     */
+    private transient volatile RobotRulesMatcher _matcher;
+
+    /**
+     * Modification count of the rule list the matcher has been compiled
+     * from, see {@link RuleList#getModCount()}
+     */
+    private transient int _matcherModCount;
+
+    /**
+     * Counters of the decisions per rule, null (the default) if counting is
+     * disabled, see {@link #enableRuleHits()}
+     */
+    private transient volatile RobotRuleHits _ruleHits;
+
+    /** Path of the robots.txt file which is always allowed */
+    private static final String ROBOTS_TXT_PATH = "/robots.txt";
+
     /** Special characters which require percent-encoding for path matching */
     protected final static boolean[] specialCharactersPathMatching = new boolean[128];
     static {
@@ -144,11 +181,56 @@ public class SimpleRobotRules extends BaseRobotRules {
         super();
 
         _mode = mode;
-        _rules = new ArrayList<>();
+        _rules = new RuleList();
+    }
+
+    /**
+     * List of allow/disallow rules which counts all modifications, so that a
+     * compiled matcher is not used after the rules have been modified, e.g.,
+     * directly in the list returned by {@link #getRobotRules()}. It is
+     * serialized as a plain {@link ArrayList}.
+     */
+    @SuppressWarnings("serial")
+    private static final class RuleList extends ArrayList<RobotRule> {
+
+        private RuleList() {
+        }
+
+        private RuleList(Collection<RobotRule> rules) {
+            super(rules);
+        }
+
+        /**
+         * @return number of modifications, including replaced elements which
+         *         are not counted by {@link ArrayList}
+         */
+        private int getModCount() {
+            return modCount;
+        }
+
+        @Override
+        public RobotRule set(int index, RobotRule element) {
+            modCount++;
+            return super.set(index, element);
+        }
+
+        private Object writeReplace() {
+            return new ArrayList<>(this);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (_rules != null) {
+            _rules = new RuleList(_rules);
+        }
     }
 
     public void clearRules() {
+        checkNotFrozen();
         _rules.clear();
+        _matcher = null;
+        _ruleHits = null;
     }
 
     /**
@@ -160,6 +242,7 @@ public class SimpleRobotRules extends BaseRobotRules {
      *            whether to allow the URLs matching the prefix or pattern
      */
     public void addRule(String prefix, boolean allow) {
+        checkNotFrozen();
         // Convert old-style case of disallow: <nothing>
         // into new allow: <nothing>.
         if (!allow && (prefix.length() == 0)) {
@@ -167,15 +250,75 @@ public class SimpleRobotRules extends BaseRobotRules {
         }
 
         _rules.add(new RobotRule(prefix, allow));
+        _matcher = null;
+        _ruleHits = null;
     }
 
     /**
-     * @return the list of allow/disallow rules
+     * @return the list of allow/disallow rules, unmodifiable if the rules are
+     *         frozen
      */
     public List<RobotRule> getRobotRules() {
+        if (_packedRules != null) {
+            return _packedRules;
+        }
         return this._rules;
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * The rules are packed into a memory-compact form: all patterns are held
+     * in a single character array, the allow flags in a bit set. The
+     * {@link RobotRule rule objects} returned by {@link #getRobotRules()} are
+     * then created on demand. The rule matcher is compiled on first use over
+     * the packed patterns, frozen rules which are never checked do not hold
+     * a matcher. The rules should be sorted ({@link #sortRules()}) before
+     * they are frozen.
+     * </p>
+     */
+    @Override
+    public void freeze() {
+        if (isFrozen()) {
+            return;
+        }
+        _packedRules = PackedRuleList.pack(_rules);
+        _rules = null;
+        // compiled again over the packed patterns if required
+        _matcher = null;
+        super.freeze();
+    }
+
+    /**
+     * Write the rules in a compact, versioned binary format. Compared to Java
+     * serialization, no class descriptors are written, numbers are stored as
+     * variable-length integers and rule patterns share the prefix with the
+     * preceding rule. The rules can be restored using
+     * {@link #readFrom(DataInput)}.
+     * 
+     * @param out
+     *            output to write the rules to
+     * @throws IOException
+     *             if writing to the output fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        RobotRulesCodec.write(this, out);
+    }
+
+    /**
+     * Read rules written by {@link #writeTo(DataOutput)}.
+     * 
+     * @param in
+     *            input to read the rules from
+     * @return the rules
+     * @throws IOException
+     *             if reading fails or the input is not in the expected format
+     */
+    public static SimpleRobotRules readFrom(DataInput in) throws IOException {
+        return RobotRulesCodec.read(in);
+    }
+
     /**
      * Check whether a URL is allowed to be fetched according to the robots
      * rules.
@@ -201,7 +344,7 @@ public class SimpleRobotRules extends BaseRobotRules {
         } else if (_mode == RobotRulesMode.ALLOW_ALL) {
             return true;
         }
-        return isAllowedPath(getPath(url, true));
+        return isAllowedPath(getMatcher(), _ruleHits, new PathRange().set(url));
     }
 
     /**
@@ -275,59 +418,410 @@ public class SimpleRobotRules extends BaseRobotRules {
         } else if (_mode == RobotRulesMode.ALLOW_ALL) {
             return true;
         }
-        return isAllowedPath(getPath(url, true));
+        long range = RobotsPathExtractor.findPathAndQuery(url.toStringURL());
+        if (range == RobotsPathExtractor.NOT_HANDLED) {
+            return isAllowedPath(getPath(url, true));
+        }
+        return isAllowedPath(url.toStringURL(), range);
+    }
+
+    /**
+     * Check whether a URL held as UTF-8 encoded bytes is allowed to be fetched
+     * according to the robots rules.
+     *
+     * <p>
+     * The result is the same as for {@link #isAllowed(String)} with the
+     * decoded URL. URLs consisting of ASCII characters only (e.g., properly
+     * percent-encoded URLs) are not decoded: path and query are located,
+     * normalized and matched against the rule patterns (which are held in
+     * percent-encoded form) directly on the bytes. Other URLs are decoded and
+     * checked by {@link #isAllowed(String)}.
+     * </p>
+     *
+     * @param utf8Url
+     *            array holding the UTF-8 encoded URL
+     * @param off
+     *            offset of the URL in the array
+     * @param len
+     *            length of the URL in bytes
+     * @return true if the URL is allowed
+     */
+    public boolean isAllowed(byte[] utf8Url, int off, int len) {
+        if (_mode == RobotRulesMode.ALLOW_NONE) {
+            return false;
+        } else if (_mode == RobotRulesMode.ALLOW_ALL) {
+            return true;
+        }
+        return isAllowed(new ByteSequence(utf8Url, null, off, len));
+    }
+
+    /**
+     * Check whether a URL held as UTF-8 encoded bytes in a buffer is allowed
+     * to be fetched according to the robots rules, see
+     * {@link #isAllowed(byte[], int, int)}. The URL is read from the buffer's
+     * position up to its limit, the position of the buffer is not changed.
+     *
+     * @param utf8Url
+     *            buffer holding the UTF-8 encoded URL
+     * @return true if the URL is allowed
+     */
+    public boolean isAllowed(ByteBuffer utf8Url) {
+        if (_mode == RobotRulesMode.ALLOW_NONE) {
+            return false;
+        } else if (_mode == RobotRulesMode.ALLOW_ALL) {
+            return true;
+        }
+        if (utf8Url.hasArray()) {
+            return isAllowed(new ByteSequence(utf8Url.array(), null, utf8Url.arrayOffset() + utf8Url.position(), utf8Url.remaining()));
+        }
+        return isAllowed(new ByteSequence(null, utf8Url, utf8Url.position(), utf8Url.remaining()));
+    }
+
+    private boolean isAllowed(ByteSequence url) {
+        long range = RobotsPathExtractor.findPathAndQuery(url);
+        if (range == RobotsPathExtractor.NOT_HANDLED) {
+            // non-ASCII characters or URL not handled by the path extractor
+            return isAllowedPath(getPath(url.decode(), true));
+        }
+        return isAllowedPath(url, range);
+    }
+
+    /**
+     * View of UTF-8 encoded bytes as character sequence: every byte is mapped
+     * to one character, which is the same as decoding for ASCII characters.
+     * Non-ASCII bytes are mapped to characters &gt;= 128, which are rejected
+     * by {@link RobotsPathExtractor#findPathAndQuery(CharSequence)}.
+     */
+    private static final class ByteSequence implements CharSequence {
+        private final byte[] _bytes;
+        private final ByteBuffer _buffer;
+        private final int _offset;
+        private final int _length;
+
+        private ByteSequence(byte[] bytes, ByteBuffer buffer, int offset, int length) {
+            if (bytes != null && (offset < 0 || length < 0 || offset > bytes.length - length)) {
+                throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + bytes.length);
+            }
+            _bytes = bytes;
+            _buffer = buffer;
+            _offset = offset;
+            _length = length;
+        }
+
+        @Override
+        public int length() {
+            return _length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (_bytes != null) {
+                return (char) (_bytes[_offset + index] & 0xFF);
+            }
+            return (char) (_buffer.get(_offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new ByteSequence(_bytes, _buffer, _offset + start, end - start);
+        }
+
+        /** @return the bytes decoded as UTF-8 */
+        private String decode() {
+            if (_bytes != null) {
+                return new String(_bytes, _offset, _length, StandardCharsets.UTF_8);
+            }
+            ByteBuffer slice = _buffer.duplicate();
+            slice.limit(_offset + _length).position(_offset);
+            return StandardCharsets.UTF_8.decode(slice).toString();
+        }
+
+        @Override
+        public String toString() {
+            return decode();
+        }
+    }
+
+    /**
+     * Normalized path and query of a URL string, located by
+     * {@link RobotsPathExtractor#findPathAndQuery(CharSequence)}. The path is
+     * held in place in the URL string and is only copied into a buffer if it
+     * requires normalization. URLs not handled by the path extractor are
+     * parsed. A path range can be reused for multiple URLs.
+     */
+    static final class PathRange {
+        private StringBuilder _buffer;
+        CharSequence _path;
+        int _start;
+        int _end;
+
+        /**
+         * Locate the path and query of a URL string.
+         * 
+         * @param url
+         *            URL string
+         * @return this path range
+         */
+        PathRange set(CharSequence url) {
+            long range = RobotsPathExtractor.findPathAndQuery(url);
+            if (range == RobotsPathExtractor.NOT_HANDLED) {
+                _path = getPath(url.toString(), true);
+                _start = 0;
+                _end = _path.length();
+                return this;
+            }
+            return set(url, range);
+        }
+
+        /**
+         * Set the path and query of a URL string.
+         * 
+         * @param url
+         *            URL string
+         * @param range
+         *            range of path and query in the URL string, as returned by
+         *            {@link RobotsPathExtractor#findPathAndQuery(CharSequence)}
+         * @return this path range
+         */
+        PathRange set(CharSequence url, long range) {
+            _start = RobotsPathExtractor.start(range);
+            _end = RobotsPathExtractor.end(range);
+            if (RobotsPathExtractor.isNormalized(url, _start, _end)) {
+                _path = url;
+                return this;
+            }
+            if (_buffer == null) {
+                _buffer = new StringBuilder(_end - _start + 8);
+            } else {
+                _buffer.setLength(0);
+            }
+            RobotsPathExtractor.normalize(url, _start, _end, _buffer);
+            _path = _buffer;
+            _start = 0;
+            _end = _buffer.length();
+            return this;
+        }
+
+        /** @return true if the path is the robots.txt path, always allowed */
+        boolean isRobotsTxtPath() {
+            return SimpleRobotRules.isRobotsTxtPath(_path, _start, _end);
+        }
+    }
+
+    /**
+     * Check a batch of URLs, e.g., all outlinks of a page or the URLs queued
+     * for one host, whether they are allowed to be fetched according to the
+     * robots rules.
+     *
+     * <p>
+     * The result is the same as calling {@link #isAllowed(CrawlerURL)} for
+     * every URL, but the rule mode is checked only once and the buffer used
+     * to normalize URL paths is shared by all URLs in the batch.
+     * </p>
+     *
+     * @param urls
+     *            list of URLs to be checked
+     * @return bit set with the bit at index <i>i</i> set if the URL at
+     *         position <i>i</i> in the list is allowed
+     */
+    public BitSet isAllowed(List<CrawlerURL> urls) {
+        BitSet allowed = new BitSet(urls.size());
+        if (_mode == RobotRulesMode.ALLOW_NONE) {
+            return allowed;
+        } else if (_mode == RobotRulesMode.ALLOW_ALL) {
+            allowed.set(0, urls.size());
+            return allowed;
+        }
+        RobotRulesMatcher matcher = getMatcher();
+        RobotRuleHits hits = _ruleHits;
+        PathRange path = new PathRange();
+        int i = 0;
+        for (CrawlerURL url : urls) {
+            String urlString = url.toStringURL();
+            long range = RobotsPathExtractor.findPathAndQuery(urlString);
+            boolean isAllowed;
+            if (range == RobotsPathExtractor.NOT_HANDLED) {
+                isAllowed = isAllowedPath(matcher, hits, getPath(url, true));
+            } else {
+                isAllowed = isAllowedPath(matcher, hits, path.set(urlString, range));
+            }
+            if (isAllowed) {
+                allowed.set(i);
+            }
+            i++;
+        }
+        return allowed;
+    }
+
+    /**
+     * Check a batch of URL strings whether they are allowed to be fetched
+     * according to the robots rules.
+     *
+     * @see #isAllowed(List)
+     * @see #isAllowed(String)
+     *
+     * @param urls
+     *            array of URL strings to be checked
+     * @return bit set with the bit at index <i>i</i> set if the URL
+     *         <code>urls[i]</code> is allowed
+     */
+    public BitSet isAllowed(CharSequence[] urls) {
+        BitSet allowed = new BitSet(urls.length);
+        if (_mode == RobotRulesMode.ALLOW_NONE) {
+            return allowed;
+        } else if (_mode == RobotRulesMode.ALLOW_ALL) {
+            allowed.set(0, urls.length);
+            return allowed;
+        }
+        RobotRulesMatcher matcher = getMatcher();
+        RobotRuleHits hits = _ruleHits;
+        PathRange path = new PathRange();
+        for (int i = 0; i < urls.length; i++) {
+            if (isAllowedPath(matcher, hits, path.set(urls[i]))) {
+                allowed.set(i);
+            }
+        }
+        return allowed;
     }
 
     private boolean isAllowedPath(String pathWithQuery) {
+        return isAllowedPath(getMatcher(), _ruleHits, pathWithQuery, 0, pathWithQuery.length());
+    }
+
+    private static boolean isAllowedPath(RobotRulesMatcher matcher, RobotRuleHits hits, String pathWithQuery) {
+        return isAllowedPath(matcher, hits, pathWithQuery, 0, pathWithQuery.length());
+    }
+
+    private boolean isAllowedPath(CharSequence url, long range) {
+        return isAllowedPath(getMatcher(), _ruleHits, new PathRange().set(url, range));
+    }
+
+    /**
+     * Match path and query located in a URL string by
+     * {@link RobotsPathExtractor#findPathAndQuery(CharSequence)}.
+     *
+     * @param hits
+     *            counters of the decisions per rule, null if disabled
+     */
+    private static boolean isAllowedPath(RobotRulesMatcher matcher, RobotRuleHits hits, PathRange path) {
+        return isAllowedPath(matcher, hits, path._path, path._start, path._end);
+    }
+
+    private static boolean isAllowedPath(RobotRulesMatcher matcher, RobotRuleHits hits, CharSequence path, int start, int end) {
         // Always allow robots.txt
-        if (pathWithQuery.equals("/robots.txt")) {
+        if (isRobotsTxtPath(path, start, end)) {
             return true;
         }
 
-        boolean isAllowed = true;
-        int longestRuleMatch = Integer.MIN_VALUE;
-        for (RobotRule rule : _rules) {
-            int matchLength = ruleMatches(pathWithQuery, rule._prefix);
-            if (matchLength == -1) {
-                /*
-                 * See precedence-of-rules test case for an example
-                 * 
-                 * Some webmasters expect behavior close to Google's, and this
-                 * block is equivalent to:
-                 * https://github.com/google/robotstxt/blob/
-                 * 02bc6cdfa32db50d42563180c42aeb47042b4f0c/robots.cc#L605-L618
-                 * 
-                 * There are example robots.txt in the wild that benefit from
-                 * this. As of 2/7/2022, https://venmo.com/robots.txt for
-                 * instance.
-                 * 
-                 * RFC 9309
-                 * (https://www.rfc-editor.org/rfc/rfc9309.html#name-the-allow-
-                 * and-disallow-line) requires that "The most specific match
-                 * found MUST be used. The most specific match is the match that
-                 * has the most octets."
-                 */
-                if (rule._prefix.endsWith("index.htm") || rule._prefix.endsWith("index.html")) {
-                    matchLength = ruleMatches(pathWithQuery, rule._prefix.substring(0, rule._prefix.indexOf("index.htm")) + "$");
-                    if (matchLength == -1) {
-                        continue;
-                    }
-                } else {
-                    continue;
+        if (hits == null) {
+            return matcher.isAllowed(path, start, end);
+        }
+        int rule = matcher.match(path, start, end);
+        hits.add(rule);
+        return rule == RobotRulesMatcher.NO_MATCH || matcher.isAllow(rule);
+    }
+
+    /**
+     * Get the rule which decides whether a URL is allowed, e.g. to find out
+     * why a URL is disallowed. The URL is matched the same way as by
+     * {@link #isAllowed(String)}.
+     * 
+     * @param url
+     *            URL string to be checked
+     * @return the deciding allow or disallow rule, null if no rule decides:
+     *         the rule mode allows or disallows all URLs, the URL is the
+     *         robots.txt which is always allowed, or no rule matches and the
+     *         URL is allowed by default
+     */
+    public RobotRule explain(String url) {
+        if (_mode != RobotRulesMode.ALLOW_SOME) {
+            return null;
+        }
+        PathRange path = new PathRange().set(url);
+        if (path.isRobotsTxtPath()) {
+            return null;
+        }
+        int rule = getMatcher().match(path._path, path._start, path._end);
+        return rule == RobotRulesMatcher.NO_MATCH ? null : getRobotRules().get(rule);
+    }
+
+    /**
+     * Enable counting the decisions taken by every allow/disallow rule when
+     * URLs are checked by one of the <code>isAllowed</code> methods, see
+     * {@link RobotRuleHits}. Counting is disabled by default and then does
+     * not add any cost. It should be enabled once all rules are added and
+     * sorted: adding or sorting rules disables counting.
+     * 
+     * @return the counters, the existing ones if counting is already enabled
+     */
+    public RobotRuleHits enableRuleHits() {
+        RobotRuleHits hits = _ruleHits;
+        if (hits == null) {
+            synchronized (this) {
+                hits = _ruleHits;
+                if (hits == null) {
+                    // compile the matcher first, so that both use the same rule order
+                    getMatcher();
+                    hits = new RobotRuleHits(getRobotRules());
+                    _ruleHits = hits;
                 }
             }
+        }
+        return hits;
+    }
+
+    /** Disable counting the decisions per rule */
+    public void disableRuleHits() {
+        _ruleHits = null;
+    }
 
-            if (longestRuleMatch < matchLength) {
-                longestRuleMatch = matchLength;
-                isAllowed = rule.isAllow();
-            } else if (longestRuleMatch == matchLength) {
-                isAllowed |= rule.isAllow();
+    /**
+     * @return the counters of the decisions per rule, null if counting is
+     *         disabled
+     */
+    public RobotRuleHits getRuleHits() {
+        return _ruleHits;
+    }
+
+    static boolean isRobotsTxtPath(CharSequence path, int start, int end) {
+        if ((end - start) != ROBOTS_TXT_PATH.length()) {
+            return false;
+        }
+        for (int i = 0; i < ROBOTS_TXT_PATH.length(); i++) {
+            if (path.charAt(start + i) != ROBOTS_TXT_PATH.charAt(i)) {
+                return false;
             }
-            // else we've already got a more specific rule, and this match
-            // doesn't matter
         }
+        return true;
+    }
 
-        return isAllowed;
+    /**
+     * Get the matcher compiled from the current set of rules, compile it if
+     * necessary: on first use or if the rules have been modified since the
+     * matcher was compiled.
+     */
+    RobotRulesMatcher getMatcher() {
+        RobotRulesMatcher matcher = _matcher;
+        ArrayList<RobotRule> rules = _rules;
+        if (rules == null) {
+            // frozen
+            if (matcher == null) {
+                matcher = RobotRulesMatcher.compile(_packedRules);
+                _matcher = matcher;
+            }
+            return matcher;
+        }
+        if (!(rules instanceof RuleList)) {
+            // modifications of a list set by a subclass cannot be tracked
+            return RobotRulesMatcher.compile(rules);
+        }
+        int modCount = ((RuleList) rules).getModCount();
+        if (matcher == null || _matcherModCount != modCount) {
+            matcher = RobotRulesMatcher.compile(rules);
+            _matcherModCount = modCount;
+            _matcher = matcher;
+        }
+        return matcher;
     }
 
     /**
@@ -348,7 +842,7 @@ public class SimpleRobotRules extends BaseRobotRules {
         return BasicURLNormalizer.escapePath(BasicURLNormalizer.unescapePath(urlPathQuery), additionalEncodedBytes);
     }
 
-    private String getPath(String url, boolean getWithQuery) {
+    static String getPath(String url, boolean getWithQuery) {
         try {
             URL urlObj = new URI(url).toURL();
 
@@ -382,7 +876,7 @@ public class SimpleRobotRules extends BaseRobotRules {
         }
     }
 
-    private String getPath(URL url, boolean getWithQuery) {
+    private static String getPath(URL url, boolean getWithQuery) {
         String path = url.getPath();
         if ((path == null) || (path.equals(""))) {
             path = "/";
@@ -403,94 +897,7 @@ public class SimpleRobotRules extends BaseRobotRules {
          * path matching requires that asterisk `*` and dollar `$` are
          * exceptionally percent-encoded.
          */
-        return escapePath(path, specialCharactersPathMatching);
-    }
-
-    private int ruleMatches(String text, String pattern) {
-        int patternPos = 0;
-        int textPos = 0;
-
-        int patternEnd = pattern.length();
-        int textEnd = text.length();
-
-        boolean containsEndChar = pattern.endsWith("$");
-        if (containsEndChar) {
-            patternEnd -= 1;
-        }
-
-        while ((patternPos < patternEnd) && (textPos < textEnd)) {
-            // Find next wildcard in the pattern.
-            int wildcardPos = pattern.indexOf('*', patternPos);
-            if (wildcardPos == -1) {
-                wildcardPos = patternEnd;
-            }
-
-            // If we're at a wildcard in the pattern, find the place in the text
-            // where the character(s) after the wildcard match up with what's in
-            // the text.
-            if (wildcardPos == patternPos) {
-                patternPos += 1;
-                if (patternPos >= patternEnd) {
-                    // Pattern ends with '*', we're all good.
-                    return pattern.length();
-                }
-
-                // TODO - don't worry about having two '*' in a row?
-
-                // Find the end of the pattern piece we need to match.
-                int patternPieceEnd = pattern.indexOf('*', patternPos);
-                if (patternPieceEnd == -1) {
-                    patternPieceEnd = patternEnd;
-                }
-
-                boolean matched = false;
-                int patternPieceLen = patternPieceEnd - patternPos;
-                while ((textPos + patternPieceLen <= textEnd) && !matched) {
-                    // See if patternPieceLen chars from text at textPos match
-                    // chars from pattern at patternPos
-                    matched = true;
-                    for (int i = 0; i < patternPieceLen && matched; i++) {
-                        if (text.charAt(textPos + i) != pattern.charAt(patternPos + i)) {
-                            matched = false;
-                        }
-                    }
-
-                    // If we matched, we're all set, otherwise we have to
-                    // advance textPos
-                    if (!matched) {
-                        textPos += 1;
-                    }
-                }
-
-                // If we matched, we're all set, otherwise we failed
-                if (!matched) {
-                    return -1;
-                }
-            } else {
-                // See if the pattern from patternPos to wildcardPos matches the
-                // text starting at textPos
-                while ((patternPos < wildcardPos) && (textPos < textEnd)) {
-                    if (text.charAt(textPos++) != pattern.charAt(patternPos++)) {
-                        return -1;
-                    }
-                }
-            }
-        }
-
-        // If we didn't reach the end of the pattern, make sure we're not at a
-        // wildcard, that's a 0 or more match, so then we're still OK.
-        while ((patternPos < patternEnd) && (pattern.charAt(patternPos) == '*')) {
-            patternPos += 1;
-        }
-
-        // We're at the end, so we have a match if the pattern was completely
-        // consumed, and either we consumed all the text or we didn't have to
-        // match it all (no '$' at end of the pattern)
-        if ((patternPos == patternEnd) && ((textPos == textEnd) || !containsEndChar)) {
-            return pattern.length();
-        } else {
-            return -1;
-        }
+        return RobotsPathExtractor.normalize(path);
     }
 
     /**
@@ -505,11 +912,50 @@ public class SimpleRobotRules extends BaseRobotRules {
      * <blockquote>The most specific match found MUST be used. The most specific
      * match is the match that has the most octets. Duplicate rules in a group
      * MAY be deduplicated.</blockquote>
+     * 
+     * On first use, the rules are compiled into an immutable matcher: literal
+     * patterns are held in a prefix trie so that the most specific literal
+     * rule is found in a single pass over the URL path, only patterns
+     * containing wildcards are matched one by one. The matcher is compiled
+     * again if the rules are modified, also if modified directly in the list
+     * returned by {@link #getRobotRules()}.
      */
     public void sortRules() {
-        if (_rules.size() > 1) {
-            _rules = new ArrayList<>(_rules.stream().sorted().distinct().collect(Collectors.toList()));
+        sortRules(false);
+    }
+
+    /**
+     * Sort and deduplicate robot rules, see {@link #sortRules()}. Optionally,
+     * rules which never decide the verdict for any path are removed, e.g.,
+     * <code>Disallow: /private/a</code> if there is also a rule
+     * <code>Disallow: /private/</code> and no more specific allow rule which
+     * may match paths starting with <code>/private/</code>. The verdict of
+     * {@link #isAllowed(String)} is the same for all URLs with or without
+     * the shadowed rules.
+     * 
+     * @param removeShadowedRules
+     *            whether to remove shadowed rules
+     * @return number of shadowed rules removed, not including exact
+     *         duplicates
+     */
+    public int sortRules(boolean removeShadowedRules) {
+        checkNotFrozen();
+        List<RobotRule> rules = _rules;
+        if (rules.size() > 1) {
+            rules = rules.stream().sorted().distinct().collect(Collectors.toList());
+        }
+        int removed = 0;
+        if (removeShadowedRules) {
+            int size = rules.size();
+            rules = RobotRulesMinimizer.minimize(rules);
+            removed = size - rules.size();
+        }
+        if (rules != _rules) {
+            _rules = new RuleList(rules);
         }
+        _matcher = null;
+        _ruleHits = null;
+        return removed;
     }
 
     /**
@@ -547,7 +993,7 @@ public class SimpleRobotRules extends BaseRobotRules {
         final int prime = 31;
         int result = super.hashCode();
         result = prime * result + ((_mode == null) ? 0 : _mode.hashCode());
-        result = prime * result + ((_rules == null) ? 0 : _rules.hashCode());
+        result = prime * result + getRobotRules().hashCode();
         return result;
     }
 
@@ -562,12 +1008,7 @@ public class SimpleRobotRules extends BaseRobotRules {
         SimpleRobotRules other = (SimpleRobotRules) obj;
         if (_mode != other._mode)
             return false;
-        if (_rules == null) {
-            if (other._rules != null)
-                return false;
-        } else if (!_rules.equals(other._rules))
-            return false;
-        return true;
+        return getRobotRules().equals(other.getRobotRules());
     }
 
     /*
@@ -580,7 +1021,8 @@ public class SimpleRobotRules extends BaseRobotRules {
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append(super.toString());
-        int nRules = _rules.size();
+        List<RobotRule> rules = getRobotRules();
+        int nRules = rules.size();
         if (nRules == 0) {
             sb.append(" - no rules");
             if (isAllowNone()) {
@@ -593,7 +1035,7 @@ public class SimpleRobotRules extends BaseRobotRules {
             sb.append(" - number of rules: ").append(nRules).append('\n');
             int numOfRulesToShow = Math.min(nRules, 10);
             for (int i = 0; i < numOfRulesToShow; i++) {
-                RobotRule r = _rules.get(i);
+                RobotRule r = rules.get(i);
                 sb.append(r._allow ? "   A" : "   Disa").append("llow: ").append(r._prefix).append('\n');
             }
         }
@@ -17,6 +17,7 @@
 package crawlercommons.robots;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
@@ -24,26 +25,47 @@ import java.net.URL;
 import java.net.URI;
 import java.net.URLConnection;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import crawlercommons.robots.RobotsParseStats.WarningType;
 import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
 
 /**
@@ -96,7 +118,15 @@ import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
  * 
  * <p>
  * The parser always parses the entire file to select all matching rule groups,
- * and also to collect all of the sitemap directives.
+ * and also to collect all of the sitemap directives. Only if a parsing limit is
+ * configured via {@link #setMaxContentLength(int)}, content beyond the limit is
+ * ignored.
+ * </p>
+ * 
+ * <p>
+ * The content is processed as UTF-8 encoded bytes without decoding it into a
+ * string first. Only the values of directives which are used, e.g., the rules
+ * of matching groups, are decoded.
  * </p>
  * 
  * <p>
@@ -133,7 +163,7 @@ import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
  * It must be implemented in the calling code, including the following of
  * &quot;at least five consecutive redirects&quot; as required by
  * <a href="https://www.rfc-editor.org/rfc/rfc9309.html#name-redirects">RFC
- * 9309, section 2.3.1.2</a>.
+ * 9309, section 2.3.1.2</a>, or using {@link RobotsFetcher}.
  * </p>
  */
 @SuppressWarnings("serial")
@@ -236,6 +266,18 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
          */
         private int _numWarnings;
 
+        /*
+         * Whether to log warnings. If the robots.txt file is parsed for
+         * multiple sets of robot names, warnings are logged only once.
+         */
+        private boolean _logWarnings = true;
+
+        /*
+         * Statistics counting warnings by category, null if no statistics are
+         * collected.
+         */
+        private RobotsParseStats _stats;
+
         private String _url;
         private Collection<String> _targetNames;
 
@@ -389,35 +431,80 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
 
     }
 
+    /**
+     * Directive and data of a robots.txt line. The data is kept as a range of
+     * the UTF-8 encoded robots.txt content and only decoded into a string if
+     * it is needed, e.g., the rules of non-matching groups are never decoded.
+     * To avoid allocations, a single token is reused for all lines of a
+     * robots.txt file.
+     */
     private static class RobotToken {
         private RobotDirective _directive;
         private String _data;
+        /** data normalized as allow/disallow path */
+        private String _path;
+        /**
+         * normalized path before it was degraded by the rule complexity
+         * limits, null if the path was not degraded
+         */
+        private String _undegradedPath;
+        private byte[] _bytes;
+        private int _start;
+        private int _end;
+
+        public RobotToken() {
+        }
 
         public RobotToken(RobotDirective directive, String data) {
             _directive = directive;
             _data = data;
         }
 
+        public void set(RobotDirective directive, byte[] bytes, int start, int end) {
+            _directive = directive;
+            _data = null;
+            _path = null;
+            _undegradedPath = null;
+            _bytes = bytes;
+            _start = start;
+            _end = end;
+        }
+
         public RobotDirective getDirective() {
             return _directive;
         }
 
         public String getData() {
+            if (_data == null) {
+                _data = new String(_bytes, _start, _end - _start, StandardCharsets.UTF_8);
+            }
             return _data;
         }
     }
 
+    /**
+     * Scratch objects reused across robots.txt files parsed by the same
+     * worker thread in bulk mode, see
+     * {@link SimpleRobotRulesParser#parseAll(Stream, Collection, Executor, boolean, BiConsumer)}.
+     */
+    private static class ParseBuffers {
+        private final RobotToken _token = new RobotToken();
+        private byte[] _lineBuffer;
+    }
+
     private static Map<String, RobotDirective> DIRECTIVE_PREFIX = new HashMap<String, RobotDirective>();
 
     /**
-     * Node of the directive-prefix trie used by {@link #tokenize(String)} to
-     * look up the directive at the start of a robots.txt line without scanning
-     * every known prefix. Each node represents the prefix spelled out by the
-     * path from the root; {@link #directive} is non-{@code null} if a known
-     * directive prefix ends at this node.
+     * Node of the directive-prefix trie used by
+     * {@link #tokenize(byte[], int, int, RobotToken)} to look up the directive
+     * at the start of a robots.txt line without scanning every known prefix.
+     * Each node represents the prefix spelled out by the path from the root;
+     * {@link #directive} is non-{@code null} if a known directive prefix ends
+     * at this node. All prefixes are lower-case ASCII, the children are
+     * indexed by the ASCII code of the next character.
      */
     private static final class DirectiveTrieNode {
-        private final Map<Character, DirectiveTrieNode> children = new HashMap<>();
+        private final DirectiveTrieNode[] children = new DirectiveTrieNode[128];
         private RobotDirective directive;
     }
 
@@ -465,7 +552,11 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
             String prefix = entry.getKey();
             DirectiveTrieNode node = DIRECTIVE_TRIE;
             for (int i = 0; i < prefix.length(); i++) {
-                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new DirectiveTrieNode());
+                char c = prefix.charAt(i);
+                if (node.children[c] == null) {
+                    node.children[c] = new DirectiveTrieNode();
+                }
+                node = node.children[c];
             }
             node.directive = entry.getValue();
         }
@@ -473,93 +564,246 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
 
     // separator is either one or more spaces/tabs, or a colon
     private static final Pattern COLON_DIRECTIVE_DELIMITER = Pattern.compile("[ \t]*:[ \t]*(.*)");
-    private static final Pattern BLANK_DIRECTIVE_DELIMITER = Pattern.compile("[ \t]+(.*)");
-
-    // match the rest of the directive, up until whitespace or colon
-    private static final Pattern DIRECTIVE_SUFFIX_PATTERN = Pattern.compile("[^: \t]+(.*)");
 
     // split pattern for robot names
     private static final Pattern ROBOT_NAMES_SPLIT = Pattern.compile("\\s*,\\s*|\\s+");
 
     /**
-     * Figure out directive on line of text from robots.txt file. We assume the
-     * line has been lower-cased
+     * Figure out directive on line of text from robots.txt file. The line is
+     * expected to be trimmed and free of comments.
      * 
      * @param line
-     * @return robot command found on line
+     *            UTF-8 encoded robots.txt content
+     * @param start
+     *            start offset of the line
+     * @param end
+     *            end offset (exclusive) of the line
+     * @param token
+     *            token to be filled with the robot command found on the line
      */
-    private static RobotToken tokenize(String line) {
-        String lowerLine = line.toLowerCase(Locale.ROOT);
-
+    private static void tokenize(byte[] line, int start, int end, RobotToken token) {
         /*
-         * Walk the directive-prefix trie along the characters of the line. For
-         * every known directive prefix ending on the path, check whether the
-         * remainder of the line forms a valid directive (correct separator).
-         * The prefixes are visited in order of increasing length; at most one
-         * of them can be followed by a valid separator, so the first match is
-         * returned. This avoids scanning every known prefix for each line.
+         * Walk the directive-prefix trie along the (ASCII lower-cased) bytes of
+         * the line. For every known directive prefix ending on the path, check
+         * whether the remainder of the line forms a valid directive (correct
+         * separator). The prefixes are visited in order of increasing length;
+         * at most one of them can be followed by a valid separator, so the
+         * first match is returned. This avoids scanning every known prefix for
+         * each line.
          */
         DirectiveTrieNode node = DIRECTIVE_TRIE;
-        for (int i = 0; i < lowerLine.length(); i++) {
-            node = node.children.get(lowerLine.charAt(i));
+        for (int i = start; i < end; i++) {
+            int b = line[i];
+            if (b < 0) {
+                // non-ASCII, not part of any directive
+                break;
+            }
+            node = node.children[toLowerCaseAscii(b)];
             if (node == null) {
                 break;
             }
-            if (node.directive != null) {
-                RobotToken token = matchDirective(line, node.directive, i + 1);
-                if (token != null) {
-                    return token;
-                }
+            if (node.directive != null && matchDirective(line, i + 1, end, node.directive, token)) {
+                return;
             }
         }
 
-        Matcher m = COLON_DIRECTIVE_DELIMITER.matcher(lowerLine);
-        if (m.matches()) {
-            return new RobotToken(RobotDirective.UNKNOWN, line);
+        if (line[start] == ':') {
+            token.set(RobotDirective.UNKNOWN, line, start, end);
         } else {
-            return new RobotToken(RobotDirective.MISSING, line);
+            token.set(RobotDirective.MISSING, line, start, end);
         }
     }
 
     /**
      * Check whether a directive prefix found at the start of a line is followed
-     * by a valid separator and, if so, build the corresponding
-     * {@link RobotToken}.
+     * by a valid separator (a colon and/or white space) and, if so, fill the
+     * {@link RobotToken} with directive and data.
      *
      * @param line
-     *            the original (not lower-cased) robots.txt line
+     *            UTF-8 encoded robots.txt content
+     * @param pos
+     *            offset following the matched prefix
+     * @param end
+     *            end offset (exclusive) of the line
      * @param directive
      *            the directive whose prefix matched the start of the line
-     * @param prefixLength
-     *            the length of the matched prefix
-     * @return the parsed token, or {@code null} if the prefix is not followed by
-     *         a valid separator (e.g. the prefix is only part of a longer word)
+     * @param token
+     *            token to be filled
+     * @return {@code false} if the prefix is not followed by a valid separator
+     *         (e.g. the prefix is only part of a longer word)
      */
-    private static RobotToken matchDirective(String line, RobotDirective directive, int prefixLength) {
-        String dataPortion = line.substring(prefixLength);
-
+    private static boolean matchDirective(byte[] line, int pos, int end, RobotDirective directive, RobotToken token) {
         if (directive.isPrefix()) {
-            Matcher m = DIRECTIVE_SUFFIX_PATTERN.matcher(dataPortion);
-            if (m.matches()) {
-                dataPortion = m.group(1);
-            } else {
-                return null;
+            // skip the rest of the directive, up until whitespace or colon
+            int suffixStart = pos;
+            while (pos < end && line[pos] != ':' && !isBlank(line[pos])) {
+                pos++;
+            }
+            if (pos == suffixStart) {
+                return false;
             }
         }
 
-        Matcher m = COLON_DIRECTIVE_DELIMITER.matcher(dataPortion);
-        if (!m.matches()) {
-            m = BLANK_DIRECTIVE_DELIMITER.matcher(dataPortion);
+        int separatorStart = pos;
+        while (pos < end && isBlank(line[pos])) {
+            pos++;
+        }
+        if (pos < end && line[pos] == ':') {
+            pos++;
+        } else if (pos == separatorStart) {
+            return false;
         }
 
-        if (m.matches()) {
-            return new RobotToken(directive, m.group(1).trim());
+        // trim the value
+        while (pos < end && isWhitespaceOrControl(line[pos])) {
+            pos++;
+        }
+        while (end > pos && isWhitespaceOrControl(line[end - 1])) {
+            end--;
         }
-        return null;
+        token.set(directive, line, pos, end);
+        return true;
     }
 
-    private static final Pattern SIMPLE_HTML_PATTERN = Pattern.compile("(?is)<(html|head|body)\\s*>");
-    private static final Pattern USER_AGENT_PATTERN = Pattern.compile("(?i)user-agent:");
+    /** Space or tab */
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    /** Characters removed by {@link String#trim()} */
+    private static boolean isWhitespaceOrControl(byte b) {
+        return (b & 0xFF) <= ' ';
+    }
+
+    private static int toLowerCaseAscii(int b) {
+        if ('A' <= b && b <= 'Z') {
+            return b + ('a' - 'A');
+        }
+        return b;
+    }
+
+    /**
+     * Get the length of the line terminator at a given position. Lines are
+     * broken at anything which might be used as a line ending: carriage return
+     * and line feed, and the UTF-8 encoded Unicode characters NEXT LINE
+     * (U+0085), LINE SEPARATOR (U+2028) and PARAGRAPH SEPARATOR (U+2029).
+     * 
+     * @return length of the line terminator in bytes, 0 if there is no line
+     *         terminator at position <i>pos</i>
+     */
+    private static int lineTerminatorLength(byte[] content, int pos, int end) {
+        byte b = content[pos];
+        if (b == '\n' || b == '\r') {
+            return 1;
+        } else if (b == (byte) 0xC2) {
+            if ((pos + 1) < end && content[pos + 1] == (byte) 0x85) {
+                return 2;
+            }
+        } else if (b == (byte) 0xE2) {
+            if ((pos + 2) < end && content[pos + 1] == (byte) 0x80 && (content[pos + 2] == (byte) 0xA8 || content[pos + 2] == (byte) 0xA9)) {
+                return 3;
+            }
+        }
+        return 0;
+    }
+
+    /** Lower-case HTML tags which indicate that the content is HTML */
+    private static final byte[][] SIMPLE_HTML_TAGS = { "html".getBytes(StandardCharsets.US_ASCII), "head".getBytes(StandardCharsets.US_ASCII),
+                    "body".getBytes(StandardCharsets.US_ASCII) };
+
+    private static final byte[] USER_AGENT_DIRECTIVE = "user-agent:".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Check whether the content contains one of the HTML tags
+     * <code>&lt;html&gt;</code>, <code>&lt;head&gt;</code> or
+     * <code>&lt;body&gt;</code> (case-insensitive, white space allowed before
+     * the closing bracket).
+     */
+    private static boolean containsSimpleHtml(byte[] content, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (content[i] != '<') {
+                continue;
+            }
+            for (byte[] tag : SIMPLE_HTML_TAGS) {
+                if (regionMatchesIgnoreCase(content, i + 1, end, tag)) {
+                    int pos = i + 1 + tag.length;
+                    while (pos < end && isRegexWhitespace(content[pos])) {
+                        pos++;
+                    }
+                    if (pos < end && content[pos] == '>') {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /** White space as matched by <code>\s</code> in regular expressions */
+    private static boolean isRegexWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+    }
+
+    /**
+     * ASCII case-insensitive search for a lower-case string in the content
+     */
+    static boolean containsIgnoreCase(byte[] content, int start, int end, byte[] lowerCaseString) {
+        for (int i = start; i <= (end - lowerCaseString.length); i++) {
+            if (regionMatchesIgnoreCase(content, i, end, lowerCaseString)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatchesIgnoreCase(byte[] content, int pos, int end, byte[] lowerCaseString) {
+        if ((end - pos) < lowerCaseString.length) {
+            return false;
+        }
+        for (int i = 0; i < lowerCaseString.length; i++) {
+            if (toLowerCaseAscii(content[pos + i]) != lowerCaseString[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove HTML markup (everything between angle brackets) from a line.
+     * 
+     * @param line
+     *            UTF-8 encoded robots.txt content
+     * @param start
+     *            start offset of the line
+     * @param end
+     *            end offset (exclusive) of the line
+     * @param dest
+     *            buffer receiving the line without markup, must be at least
+     *            as long as the line
+     * @return length of the line without markup
+     */
+    private static int stripHtmlTags(byte[] line, int start, int end, byte[] dest) {
+        int length = 0;
+        int tagEnd = -1;
+        for (int i = start; i < end; i++) {
+            if (line[i] == '<' && tagEnd < end) {
+                if (tagEnd <= i) {
+                    // find closing bracket
+                    tagEnd = i + 1;
+                    while (tagEnd < end && line[tagEnd] != '>') {
+                        tagEnd++;
+                    }
+                }
+                if (tagEnd < end && tagEnd > (i + 1)) {
+                    // skip tag (at least one character between the brackets)
+                    i = tagEnd;
+                    continue;
+                }
+            }
+            dest[length++] = line[i];
+        }
+        return length;
+    }
 
     /**
      * Pattern to match a valid user-agent product tokens as defined in
@@ -580,12 +824,45 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
      */
     public static final long DEFAULT_MAX_CRAWL_DELAY = 300000;
 
+    /**
+     * Parsing limit required by <a href=
+     * "https://www.rfc-editor.org/rfc/rfc9309.html#name-limits">RFC 9309,
+     * section 2.5</a>: &quot;The parsing limit MUST be at least 500 kibibytes
+     * [KiB].&quot; See {@link #setMaxContentLength(int)}.
+     */
+    public static final int RFC9309_MIN_PARSING_LIMIT = 500 * 1024;
+
+    /**
+     * Default max. length of the robots.txt content in bytes: no limit, see
+     * {@link #setMaxContentLength(int)}
+     */
+    public static final int DEFAULT_MAX_CONTENT_LENGTH = Integer.MAX_VALUE;
+
+    /**
+     * Default max. length of an allow/disallow rule pattern: not limited, see
+     * {@link #setMaxRuleLength(int)}
+     */
+    public static final int DEFAULT_MAX_RULE_LENGTH = Integer.MAX_VALUE;
+
+    /**
+     * Default max. number of wildcards in an allow/disallow rule pattern: not
+     * limited, see {@link #setMaxRuleWildcards(int)}
+     */
+    public static final int DEFAULT_MAX_RULE_WILDCARDS = Integer.MAX_VALUE;
+
     // number of warnings found in the latest processed robots.txt file
     private ThreadLocal<Integer> _numWarningsDuringLastParse = ThreadLocal.withInitial(() -> 0);
 
     private int _maxWarnings;
     private long _maxCrawlDelay;
+    private int _maxContentLength = DEFAULT_MAX_CONTENT_LENGTH;
+    private int _maxRuleLength = DEFAULT_MAX_RULE_LENGTH;
+    private int _maxRuleWildcards = DEFAULT_MAX_RULE_WILDCARDS;
+    private final AtomicLong _numDegradedRules = new AtomicLong();
+    private final AtomicLong _numShadowedRules = new AtomicLong();
+    private boolean _removeShadowedRules = false;
     private boolean _exactUserAgentMatching;
+    private boolean _lazyGroupParsing = false;
     private volatile Set<RobotsExtension> _enabledExtensions = Collections.emptySet();
     private volatile Map<String, RobotsExtension> _extensionDirectiveLookup = Collections.emptyMap();
 
@@ -605,6 +882,22 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
         DIRECTIVE_TO_EXTENSION.put(RobotDirective.COMMENT, RobotsExtension.COMMENT);
     }
 
+    /**
+     * First characters (lower-case ASCII) of directives which are processed
+     * regardless of the user-agent group: user-agent, sitemap and extension
+     * directives. Used to skip over groups not addressed to the robot, see
+     * {@link #setLazyGroupParsing(boolean)}.
+     */
+    private static final boolean[] GROUP_INDEPENDENT_DIRECTIVE_START = new boolean[128];
+    static {
+        for (Map.Entry<String, RobotDirective> entry : DIRECTIVE_PREFIX.entrySet()) {
+            RobotDirective directive = entry.getValue();
+            if (directive == RobotDirective.USER_AGENT || directive == RobotDirective.SITEMAP || directive == RobotDirective.HTTP || DIRECTIVE_TO_EXTENSION.containsKey(directive)) {
+                GROUP_INDEPENDENT_DIRECTIVE_START[entry.getKey().charAt(0)] = true;
+            }
+        }
+    }
+
     public SimpleRobotRulesParser() {
         this(DEFAULT_MAX_CRAWL_DELAY, DEFAULT_MAX_WARNINGS);
     }
@@ -646,6 +939,8 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
      * the response content needs to be parsed</li>
      * <li>"Unavailable" Status (HTTP 400-499): allow all</li>
      * <li>"Unreachable" Status (HTTP 500-599): disallow all</li>
+     * <li>HTTP 429 &quot;Too Many Requests&quot;: disallow all and defer
+     * visits, same as a server error</li>
      * <li>every other HTTP status code is treated as "allow all", but further
      * visits on the server are deferred (see
      * {@link SimpleRobotRules#setDeferVisits(boolean)})</li>
@@ -662,6 +957,11 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
             // our follow limit), so treat it as a temporary failure.
             result = new SimpleRobotRules(RobotRulesMode.ALLOW_NONE);
             result.setDeferVisits(true);
+        } else if (httpStatusCode == 429) {
+            // Too Many Requests: the server is overloaded, treat as a temporary
+            // failure like a server error.
+            result = new SimpleRobotRules(RobotRulesMode.ALLOW_NONE);
+            result.setDeferVisits(true);
         } else if ((httpStatusCode >= 400) && (httpStatusCode < 500)) {
             // Some sites return 410 (gone) instead of 404 (not found), so treat
             // as the same. Actually treat all (including forbidden) as "no
@@ -686,7 +986,8 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
     @Deprecated
     @Override
     public SimpleRobotRules parseContent(String url, byte[] content, String contentType, String robotNames) {
-        return parseContent(url, content, contentType, new LinkedHashSet<>(Arrays.asList(splitRobotNames(robotNames))), false);
+        int length = (content == null) ? 0 : content.length;
+        return parseContent(url, content, 0, length, contentType, new LinkedHashSet<>(Arrays.asList(splitRobotNames(robotNames))), false);
     }
 
     /**
@@ -780,6 +1081,387 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
      */
     @Override
     public SimpleRobotRules parseContent(String url, byte[] content, String contentType, Collection<String> robotNames) {
+        checkRobotNames(robotNames);
+        int length = (content == null) ? 0 : content.length;
+        return parseContent(url, content, 0, length, contentType, robotNames, isExactUserAgentMatching());
+    }
+
+    /**
+     * Parse the robots.txt file in <i>content</i>, and return rules
+     * appropriate for processing paths by <i>userAgent</i>, see
+     * {@link #parseContent(String, byte[], String, Collection)}. Statistics
+     * about the parsing (size, lines, groups, rules, warnings and time spent)
+     * are recorded in <i>stats</i>.
+     * 
+     * <p>
+     * In difference to {@link #getNumWarnings()}, the statistics are not held
+     * in thread-local state and are reliable also if the parser is shared
+     * between threads.
+     * </p>
+     * 
+     * @param url
+     *            URL of the robots.txt file
+     * @param content
+     *            content of the robots.txt file
+     * @param contentType
+     *            content type (MIME type) of the robots.txt file
+     * @param robotNames
+     *            crawler (user-agent) name(s), see
+     *            {@link #parseContent(String, byte[], String, Collection)}
+     * @param stats
+     *            statistics object, reset and filled during parsing
+     * @return robot rules
+     */
+    public SimpleRobotRules parseContent(String url, byte[] content, String contentType, Collection<String> robotNames, RobotsParseStats stats) {
+        checkRobotNames(robotNames);
+        return parseContent(url, content, contentType, List.of(robotNames), stats, null);
+    }
+
+    SimpleRobotRules parseContent(String url, byte[] content, String contentType, List<Collection<String>> robotNames, RobotsParseStats stats,
+                    ParseBuffers buffers) {
+        int length = (content == null) ? 0 : content.length;
+        stats.reset();
+        stats.setBytes(length);
+        long start = System.nanoTime();
+        SimpleRobotRules rules = parseContent(url, content, 0, length, contentType, robotNames, isExactUserAgentMatching(), stats, buffers)[0];
+        stats.setRulesKept(rules.getRobotRules().size());
+        stats.setNanos(System.nanoTime() - start);
+        return rules;
+    }
+
+    /**
+     * Parse the robots.txt content held in a byte buffer, see
+     * {@link #parseContent(String, byte[], String, Collection)}. The content is
+     * read from the buffer's position up to its limit. Array-backed buffers
+     * are parsed in place, without copying the content. The position of the
+     * buffer is not modified.
+     * 
+     * @param url
+     *            URL of the robots.txt file
+     * @param content
+     *            raw bytes of the robots.txt file
+     * @param contentType
+     *            HTTP response header (mime-type)
+     * @param robotNames
+     *            crawler (user-agent) name(s), see
+     *            {@link #parseContent(String, byte[], String, Collection)}
+     * @return robot rules
+     */
+    public SimpleRobotRules parseContent(String url, ByteBuffer content, String contentType, Collection<String> robotNames) {
+        checkRobotNames(robotNames);
+        return parseContentUnchecked(url, content, contentType, robotNames);
+    }
+
+    /** Parse content held in a byte buffer, robot names are not checked */
+    SimpleRobotRules parseContentUnchecked(String url, ByteBuffer content, String contentType, Collection<String> robotNames) {
+        if (content.hasArray()) {
+            return parseContent(url, content.array(), content.arrayOffset() + content.position(), content.remaining(), contentType, robotNames, isExactUserAgentMatching());
+        }
+        byte[] bytes = new byte[(int) Math.min(content.remaining(), _maxContentLength + 1L)];
+        content.duplicate().get(bytes);
+        return parseContent(url, bytes, 0, bytes.length, contentType, robotNames, isExactUserAgentMatching());
+    }
+
+    /**
+     * Parse the robots.txt content read from an input stream, see
+     * {@link #parseContent(String, byte[], String, Collection)}. No more than
+     * the configured max. content length ({@link #setMaxContentLength(int)})
+     * is read from the stream. The stream is not closed.
+     * 
+     * @param url
+     *            URL of the robots.txt file
+     * @param content
+     *            stream to read the robots.txt content from
+     * @param contentType
+     *            HTTP response header (mime-type)
+     * @param robotNames
+     *            crawler (user-agent) name(s), see
+     *            {@link #parseContent(String, byte[], String, Collection)}
+     * @return robot rules
+     * @throws IOException
+     *             if reading from the stream fails
+     */
+    public SimpleRobotRules parseContent(String url, InputStream content, String contentType, Collection<String> robotNames) throws IOException {
+        checkRobotNames(robotNames);
+        // read one more byte to detect whether the content is truncated
+        byte[] bytes = content.readNBytes((int) Math.min(_maxContentLength + 1L, Integer.MAX_VALUE - 8));
+        return parseContent(url, bytes, 0, bytes.length, contentType, robotNames, isExactUserAgentMatching());
+    }
+
+    /**
+     * Parse the robots.txt content for several crawler identities in a single
+     * pass. The content is decoded and tokenized only once, the matching of
+     * user-agent groups is tracked separately for every identity. The result
+     * is the same as calling
+     * {@link #parseContent(String, byte[], String, Collection)} once per
+     * identity.
+     * 
+     * <pre>
+     * Map&lt;String, SimpleRobotRules&gt; rules = parser.parseContentForAgents(url, content, contentType,
+     *                 Map.of("search", List.of("searchbot"), "ads", List.of("adsbot"), "preview", List.of("previewbot")));
+     * rules.get("ads").isAllowed(url);
+     * </pre>
+     * 
+     * @param url
+     *            URL of the robots.txt file
+     * @param content
+     *            raw bytes of the robots.txt file
+     * @param contentType
+     *            HTTP response header (mime-type)
+     * @param agentsById
+     *            crawler (user-agent) name(s) of every identity, see
+     *            {@link #parseContent(String, byte[], String, Collection)}
+     * @return robot rules by identity, in the iteration order of
+     *         <code>agentsById</code>
+     * @throws IllegalArgumentException
+     *             if the robot names of an identity are not valid, see
+     *             {@link #parseContent(String, byte[], String, Collection)}
+     */
+    public Map<String, SimpleRobotRules> parseContentForAgents(String url, byte[] content, String contentType, Map<String, Collection<String>> agentsById) {
+        List<Collection<String>> robotNames = new ArrayList<>(agentsById.size());
+        for (Collection<String> names : agentsById.values()) {
+            checkRobotNames(names);
+            robotNames.add(names);
+        }
+        Map<String, SimpleRobotRules> result = new LinkedHashMap<>();
+        if (robotNames.isEmpty()) {
+            return result;
+        }
+        int length = (content == null) ? 0 : content.length;
+        SimpleRobotRules[] rules = parseContent(url, content, 0, length, contentType, robotNames, isExactUserAgentMatching(), null, null);
+        int i = 0;
+        for (String id : agentsById.keySet()) {
+            result.put(id, rules[i++]);
+        }
+        return result;
+    }
+
+    /**
+     * Parse many robots.txt files in parallel, e.g., to reprocess the
+     * robots.txt files of a web archive or crawl corpus. Every document is
+     * parsed the same way as by
+     * {@link #parseContent(String, byte[], String, Collection)}.
+     * 
+     * <p>
+     * The documents are read from the stream on the calling thread and handed
+     * over to the executor in batches of 64 documents. The
+     * documents of a batch are parsed sequentially, reusing the scratch
+     * buffers of the tokenizer. The number of batches in flight is limited to
+     * twice the number of available processors, so that the stream is
+     * consumed no faster than the documents are parsed. Results are passed to
+     * the consumer on the calling thread, either in the order of the stream
+     * (<i>ordered</i>) or as soon as a batch is done.
+     * </p>
+     * 
+     * <p>
+     * If a document fails to parse with an unexpected
+     * {@link RuntimeException}, the failure is logged and counted, and the
+     * consumer is not called for the document. In bulk mode the number of
+     * warnings is not recorded for {@link #getNumWarnings()}, use the returned
+     * statistics instead.
+     * </p>
+     * 
+     * <pre>
+     * RobotsBulkParseStats stats = parser.parseAll(documents, List.of("mybot"), ForkJoinPool.commonPool(), false, (doc, rules) -&gt; {
+     *     store(doc.getUrl(), rules);
+     * });
+     * </pre>
+     * 
+     * @param documents
+     *            robots.txt files to parse. The stream is consumed but not
+     *            closed.
+     * @param robotNames
+     *            crawler (user-agent) name(s), see
+     *            {@link #parseContent(String, byte[], String, Collection)}
+     * @param executor
+     *            executor to parse the documents, if null the documents are
+     *            parsed sequentially on the calling thread
+     * @param ordered
+     *            whether the results are passed to the consumer in the order
+     *            of the stream
+     * @param consumer
+     *            called with every document and its robot rules
+     * @return aggregated parse statistics of all documents
+     * @throws IllegalArgumentException
+     *             if the robot names are not valid, see
+     *             {@link #parseContent(String, byte[], String, Collection)}
+     */
+    public RobotsBulkParseStats parseAll(Stream<RobotsDocument> documents, Collection<String> robotNames, Executor executor, boolean ordered,
+                    BiConsumer<RobotsDocument, SimpleRobotRules> consumer) {
+        checkRobotNames(robotNames);
+        List<Collection<String>> names = List.of(compileRobotNames(robotNames));
+        RobotsBulkParseStats bulkStats = new RobotsBulkParseStats();
+        long start = System.nanoTime();
+        Iterator<RobotsDocument> it = documents.iterator();
+
+        if (executor == null) {
+            ParseBuffers buffers = new ParseBuffers();
+            RobotsParseStats stats = new RobotsParseStats();
+            while (it.hasNext()) {
+                RobotsDocument doc = it.next();
+                SimpleRobotRules rules = parseDocument(doc, names, stats, buffers, bulkStats);
+                if (rules != null) {
+                    consumer.accept(doc, rules);
+                }
+            }
+            bulkStats.setElapsedNanos(System.nanoTime() - start);
+            return bulkStats;
+        }
+
+        int maxPending = 2 * Runtime.getRuntime().availableProcessors();
+        Deque<Future<ParsedBatch>> pending = new ArrayDeque<>();
+        CompletionService<ParsedBatch> completionService = ordered ? null : new ExecutorCompletionService<>(executor);
+        try {
+            while (it.hasNext()) {
+                List<RobotsDocument> batch = new ArrayList<>(BULK_BATCH_SIZE);
+                while (batch.size() < BULK_BATCH_SIZE && it.hasNext()) {
+                    batch.add(it.next());
+                }
+                Callable<ParsedBatch> task = () -> parseBatch(batch, names, bulkStats);
+                if (ordered) {
+                    FutureTask<ParsedBatch> future = new FutureTask<>(task);
+                    executor.execute(future);
+                    pending.addLast(future);
+                } else {
+                    pending.addLast(completionService.submit(task));
+                }
+                if (pending.size() >= maxPending) {
+                    deliverBatch(pending, completionService, consumer);
+                }
+            }
+            while (!pending.isEmpty()) {
+                deliverBatch(pending, completionService, consumer);
+            }
+        } finally {
+            for (Future<ParsedBatch> future : pending) {
+                future.cancel(false);
+            }
+        }
+        bulkStats.setElapsedNanos(System.nanoTime() - start);
+        return bulkStats;
+    }
+
+    /** Number of documents parsed in one task by {@link #parseAll(Stream, Collection, Executor, boolean, BiConsumer)} */
+    private static final int BULK_BATCH_SIZE = 64;
+
+    /** Documents and their robot rules (null if parsing failed) */
+    private static class ParsedBatch {
+        private final List<RobotsDocument> _documents;
+        private final SimpleRobotRules[] _rules;
+
+        private ParsedBatch(List<RobotsDocument> documents, SimpleRobotRules[] rules) {
+            _documents = documents;
+            _rules = rules;
+        }
+    }
+
+    private ParsedBatch parseBatch(List<RobotsDocument> documents, List<Collection<String>> robotNames, RobotsBulkParseStats bulkStats) {
+        ParseBuffers buffers = new ParseBuffers();
+        RobotsParseStats stats = new RobotsParseStats();
+        SimpleRobotRules[] rules = new SimpleRobotRules[documents.size()];
+        for (int i = 0; i < rules.length; i++) {
+            rules[i] = parseDocument(documents.get(i), robotNames, stats, buffers, bulkStats);
+        }
+        return new ParsedBatch(documents, rules);
+    }
+
+    private SimpleRobotRules parseDocument(RobotsDocument doc, List<Collection<String>> robotNames, RobotsParseStats stats, ParseBuffers buffers,
+                    RobotsBulkParseStats bulkStats) {
+        try {
+            SimpleRobotRules rules = parseContent(doc.getUrl(), doc.getContent(), doc.getContentType(), robotNames, stats, buffers);
+            bulkStats.add(stats);
+            return rules;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to parse robots.txt {}: {}", doc.getUrl(), e.toString());
+            bulkStats.addFailure();
+            return null;
+        }
+    }
+
+    /**
+     * Wait for the next batch (the oldest one if ordered, otherwise the first
+     * one done) and pass its results to the consumer.
+     */
+    private static void deliverBatch(Deque<Future<ParsedBatch>> pending, CompletionService<ParsedBatch> completionService,
+                    BiConsumer<RobotsDocument, SimpleRobotRules> consumer) {
+        ParsedBatch batch;
+        try {
+            if (completionService == null) {
+                batch = pending.peekFirst().get();
+                pending.removeFirst();
+            } else {
+                Future<ParsedBatch> future = completionService.take();
+                pending.remove(future);
+                batch = future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parsing robots.txt files", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to parse robots.txt files", e.getCause());
+        }
+        for (int i = 0; i < batch._rules.length; i++) {
+            if (batch._rules[i] != null) {
+                consumer.accept(batch._documents.get(i), batch._rules[i]);
+            }
+        }
+    }
+
+    /**
+     * Prepare the parser for parsing robots.txt files for a fixed set of robot
+     * names. The names are checked once, as done by
+     * {@link #parseContent(String, byte[], String, Collection)}, and compiled
+     * into a trie, so that the user-agent lines of the robots.txt files are
+     * matched against all names in a single pass, without creating new
+     * strings or evaluating regular expressions. The prepared parser shares
+     * the configuration of this parser and is thread-safe if the
+     * configuration is not changed while parsing.
+     * 
+     * <p>
+     * The names are only compiled for exact user-agent matching (see
+     * {@link #setExactUserAgentMatching(boolean)}) and if
+     * {@link #userAgentProductTokenPartialMatch(String, Collection)} is not
+     * overridden. Otherwise, the prepared parser matches the names as usual.
+     * </p>
+     * 
+     * @param robotNames
+     *            crawler (user-agent) name(s), see
+     *            {@link #parseContent(String, byte[], String, Collection)}
+     * @return the prepared parser
+     * @throws IllegalArgumentException
+     *             if the parameter {@code robotNames} contains the wildcard
+     *             user-agent or a user-agent token not in lower-case and exact
+     *             user-agent matching is configured
+     */
+    public PreparedRobotsParser prepare(Collection<String> robotNames) {
+        checkRobotNames(robotNames);
+        return new PreparedRobotsParser(this, compileRobotNames(robotNames));
+    }
+
+    /**
+     * Compile checked robot names into a {@link AgentNameMatcher}, if the
+     * matcher yields the same results as the configured user-agent matching.
+     */
+    private Collection<String> compileRobotNames(Collection<String> robotNames) {
+        if (!isExactUserAgentMatching() || isPartialMatchOverridden()) {
+            return List.copyOf(new LinkedHashSet<>(robotNames));
+        }
+        return new AgentNameMatcher(robotNames);
+    }
+
+    private boolean isPartialMatchOverridden() {
+        for (Class<?> c = getClass(); c != SimpleRobotRulesParser.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("userAgentProductTokenPartialMatch", String.class, Collection.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not overridden by this class
+            }
+        }
+        return false;
+    }
+
+    private void checkRobotNames(Collection<String> robotNames) {
         if (isExactUserAgentMatching()) {
             for (String robotName : robotNames) {
                 if (!isValidUserAgentToObey(robotName)) {
@@ -793,18 +1475,37 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
                 }
             }
         }
-        return parseContent(url, content, contentType, robotNames, isExactUserAgentMatching());
     }
 
-    private SimpleRobotRules parseContent(String url, byte[] content, String contentType, Collection<String> robotNames, boolean exactUserAgentMatching) {
+    SimpleRobotRules parseContent(String url, byte[] content, int contentOffset, int contentLength, String contentType, Collection<String> robotNames,
+                    boolean exactUserAgentMatching) {
+        return parseContent(url, content, contentOffset, contentLength, contentType, List.of(robotNames), exactUserAgentMatching, null, null)[0];
+    }
+
+    /**
+     * Parse the robots.txt content in a single pass for one or more sets of
+     * robot names.
+     * 
+     * @param stats
+     *            statistics filled during parsing (only the number of bytes,
+     *            rules kept and time spent are left to the caller), may be
+     *            null. Warnings are counted for the first set of robot names.
+     * @param buffers
+     *            scratch objects reused in bulk mode, may be null. If not
+     *            null, the number of warnings is not recorded in the
+     *            thread-local state read by {@link #getNumWarnings()}.
+     * @return the robot rules, one per element of the list of robot names
+     */
+    private SimpleRobotRules[] parseContent(String url, byte[] content, int contentOffset, int contentLength, String contentType, List<Collection<String>> robotNames,
+                    boolean exactUserAgentMatching, RobotsParseStats stats, ParseBuffers buffers) {
 
         // If there's nothing there, treat it like we have no restrictions.
-        if ((content == null) || (content.length == 0)) {
-            return new SimpleRobotRules(RobotRulesMode.ALLOW_ALL);
+        if ((content == null) || (contentLength == 0)) {
+            return newRobotRules(robotNames.size(), RobotRulesMode.ALLOW_ALL);
         }
 
-        int bytesLen = content.length;
-        int offset = 0;
+        int bytesLen = contentLength;
+        int offset = contentOffset;
 
         /*
          * RFC 9309 requires that is "UTF-8 encoded" (<a href=
@@ -818,26 +1519,46 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
         Charset encoding = StandardCharsets.UTF_8;
 
         // Check for a UTF-8 BOM at the beginning (EF BB BF)
-        if ((bytesLen >= 3) && (content[0] == (byte) 0xEF) && (content[1] == (byte) 0xBB) && (content[2] == (byte) 0xBF)) {
-            offset = 3;
+        if ((bytesLen >= 3) && (content[offset] == (byte) 0xEF) && (content[offset + 1] == (byte) 0xBB) && (content[offset + 2] == (byte) 0xBF)) {
+            offset += 3;
             bytesLen -= 3;
             encoding = StandardCharsets.UTF_8;
         }
         // Check for UTF-16LE BOM at the beginning (FF FE)
-        else if ((bytesLen >= 2) && (content[0] == (byte) 0xFF) && (content[1] == (byte) 0xFE)) {
-            offset = 2;
+        else if ((bytesLen >= 2) && (content[offset] == (byte) 0xFF) && (content[offset + 1] == (byte) 0xFE)) {
+            offset += 2;
             bytesLen -= 2;
             encoding = StandardCharsets.UTF_16LE;
         }
         // Check for UTF-16BE BOM at the beginning (FE FF)
-        else if ((bytesLen >= 2) && (content[0] == (byte) 0xFE) && (content[1] == (byte) 0xFF)) {
-            offset = 2;
+        else if ((bytesLen >= 2) && (content[offset] == (byte) 0xFE) && (content[offset + 1] == (byte) 0xFF)) {
+            offset += 2;
             bytesLen -= 2;
             encoding = StandardCharsets.UTF_16BE;
         }
 
-        String contentAsStr;
-        contentAsStr = new String(content, offset, bytesLen, encoding);
+        /*
+         * The content is processed as UTF-8 bytes: all characters with special
+         * meaning in robots.txt files are ASCII characters which never occur
+         * inside a multi-byte UTF-8 sequence. Only the (rare) UTF-16 content
+         * needs to be converted.
+         */
+        if (encoding != StandardCharsets.UTF_8) {
+            content = new String(content, offset, bytesLen, encoding).getBytes(StandardCharsets.UTF_8);
+            offset = 0;
+            bytesLen = content.length;
+        }
+
+        boolean truncated = false;
+        if (bytesLen > _maxContentLength) {
+            bytesLen = truncateContent(content, offset, _maxContentLength);
+            truncated = true;
+        }
+        int contentEnd = offset + bytesLen;
+        if (stats != null) {
+            stats.setParsedBytes(bytesLen);
+            stats.setTruncated(truncated);
+        }
 
         // Decide if we need to do special HTML processing.
         boolean isHtmlType = ((contentType != null) && contentType.toLowerCase(Locale.ROOT).startsWith("text/html"));
@@ -848,10 +1569,13 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
          * random HTML page instead of a robots.txt file.
          */
         boolean hasHTML = false;
-        if (isHtmlType || SIMPLE_HTML_PATTERN.matcher(contentAsStr).find()) {
-            if (!USER_AGENT_PATTERN.matcher(contentAsStr).find()) {
+        if (isHtmlType || containsSimpleHtml(content, offset, contentEnd)) {
+            if (stats != null) {
+                stats.setHtml(true);
+            }
+            if (!containsIgnoreCase(content, offset, contentEnd, USER_AGENT_DIRECTIVE)) {
                 LOGGER.trace("Found non-robots.txt HTML file: {}", url);
-                return new SimpleRobotRules(RobotRulesMode.ALLOW_ALL);
+                return newRobotRules(robotNames.size(), RobotRulesMode.ALLOW_ALL);
             } else {
                 // We'll try to strip out HTML tags below.
                 if (isHtmlType) {
@@ -864,14 +1588,67 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
             }
         }
 
-        // Break on anything that might be used as a line ending. Since
-        // tokenizer doesn't return empty tokens, a \r\n sequence still
-        // works since it looks like an empty string between the \r and \n.
-        StringTokenizer lineParser = new StringTokenizer(contentAsStr, "\n\r\u0085\u2028\u2029");
-        ParseState parseState = new ParseState(url, robotNames);
+        ParseState[] parseStates = new ParseState[robotNames.size()];
+        for (int i = 0; i < parseStates.length; i++) {
+            parseStates[i] = new ParseState(url, robotNames.get(i));
+            // log warnings about the robots.txt file only once
+            parseStates[i]._logWarnings = (i == 0);
+            if (i == 0) {
+                parseStates[i]._stats = stats;
+            }
+            if (truncated) {
+                reportWarning(parseStates[i], WarningType.CONTENT_TRUNCATED, "Content exceeds max. length of {} bytes, parsing only the first {} bytes", _maxContentLength, bytesLen);
+            }
+        }
+
+        RobotToken token = (buffers == null) ? new RobotToken() : buffers._token;
+        byte[] lineBuffer = (buffers == null) ? null : buffers._lineBuffer;
+        boolean[] groupIndependentDirectiveStart = null;
+        if (_lazyGroupParsing && !hasHTML) {
+            groupIndependentDirectiveStart = getGroupIndependentDirectiveStart();
+        }
+        RobotDirective prevDirective = null;
+        boolean groupMatched = false;
+        int pos = offset;
+        while (pos < contentEnd) {
+            // Break on anything that might be used as a line ending, skip
+            // empty lines.
+            int lineStart = pos;
+            int terminatorLength = 0;
+            while (pos < contentEnd && (terminatorLength = lineTerminatorLength(content, pos, contentEnd)) == 0) {
+                pos++;
+            }
+            int lineEnd = pos;
+            pos += terminatorLength;
+            if (lineStart == lineEnd) {
+                continue;
+            }
 
-        while (lineParser.hasMoreTokens()) {
-            String line = lineParser.nextToken();
+            if (groupIndependentDirectiveStart != null && isSkippingGroup(parseStates)) {
+                /*
+                 * Inside a group not addressed to us: look only at the first
+                 * character to skip all lines which cannot hold a user-agent,
+                 * sitemap or extension directive, without tokenizing them.
+                 */
+                int i = lineStart;
+                while (i < lineEnd && isWhitespaceOrControl(content[i])) {
+                    i++;
+                }
+                if (i == lineEnd) {
+                    continue;
+                }
+                if (content[i] < 0 || !groupIndependentDirectiveStart[toLowerCaseAscii(content[i])]) {
+                    if (stats != null) {
+                        stats.incrementLines();
+                        stats.incrementSkippedLines();
+                    }
+                    // a skipped line never holds a user-agent directive
+                    prevDirective = null;
+                    continue;
+                }
+            }
+
+            byte[] line = content;
 
             /*
              * Get rid of HTML markup, in case some brain-dead webmaster has
@@ -880,82 +1657,192 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
              * that's a very tiny percentage of all robots.txt files.
              */
             if (hasHTML) {
-                line = line.replaceAll("<[^>]+>", "");
+                if (lineBuffer == null || lineBuffer.length < (lineEnd - lineStart)) {
+                    lineBuffer = new byte[Math.max(256, lineEnd - lineStart)];
+                    if (buffers != null) {
+                        buffers._lineBuffer = lineBuffer;
+                    }
+                }
+                lineEnd = stripHtmlTags(content, lineStart, lineEnd, lineBuffer);
+                lineStart = 0;
+                line = lineBuffer;
             }
 
             // trim out comments and whitespace
-            int hashPos = line.indexOf("#");
-            if (hashPos >= 0) {
-                line = line.substring(0, hashPos);
+            for (int i = lineStart; i < lineEnd; i++) {
+                if (line[i] == '#') {
+                    lineEnd = i;
+                    break;
+                }
             }
-
-            line = line.trim();
-            if (line.length() == 0) {
+            while (lineStart < lineEnd && isWhitespaceOrControl(line[lineStart])) {
+                lineStart++;
+            }
+            while (lineEnd > lineStart && isWhitespaceOrControl(line[lineEnd - 1])) {
+                lineEnd--;
+            }
+            if (lineStart == lineEnd) {
                 continue;
             }
 
-            RobotToken token = tokenize(line);
-            switch (token.getDirective()) {
-                case USER_AGENT:
-                handleUserAgent(parseState, token);
-                    break;
+            tokenize(line, lineStart, lineEnd, token);
+            for (ParseState parseState : parseStates) {
+                handleDirective(parseState, token, contentLength);
+            }
 
-                case DISALLOW:
-                parseState.setFinishedAgentFields(true);
-                handleDisallow(parseState, token);
-                    break;
+            if (stats != null) {
+                RobotDirective directive = token.getDirective();
+                stats.incrementLines();
+                if (directive == RobotDirective.USER_AGENT) {
+                    if (prevDirective != RobotDirective.USER_AGENT) {
+                        stats.incrementGroups();
+                        groupMatched = false;
+                    }
+                    if (!groupMatched && parseStates[0].isAddingRules()) {
+                        stats.incrementMatchedGroups();
+                        groupMatched = true;
+                    }
+                } else if (directive == RobotDirective.ALLOW || directive == RobotDirective.DISALLOW) {
+                    stats.incrementRuleDirectives();
+                }
+                prevDirective = directive;
+            }
+        }
 
-                case ALLOW:
-                parseState.setFinishedAgentFields(true);
-                handleAllow(parseState, token);
-                    break;
+        int numWarnings = 0;
+        SimpleRobotRules[] results = new SimpleRobotRules[parseStates.length];
+        for (int i = 0; i < parseStates.length; i++) {
+            numWarnings = Math.max(numWarnings, parseStates[i]._numWarnings);
+            SimpleRobotRules result = parseStates[i].getRobotRules();
+            if (result.getCrawlDelay() > _maxCrawlDelay) {
+                // Some evil sites use a value like 3600 (seconds) for the crawl
+                // delay, which would cause lots of problems for us.
+                LOGGER.debug("Crawl delay exceeds max value - so disallowing all URLs: {}", url);
+                results[i] = new SimpleRobotRules(RobotRulesMode.ALLOW_NONE);
+            } else {
+                result.resolveContentSignals();
+                int shadowed = result.sortRules(_removeShadowedRules);
+                if (shadowed > 0) {
+                    _numShadowedRules.addAndGet(shadowed);
+                    if (parseStates[i]._stats != null) {
+                        parseStates[i]._stats.setRulesShadowed(shadowed);
+                    }
+                }
+                results[i] = result;
+            }
+        }
+        if (buffers == null) {
+            this._numWarningsDuringLastParse.set(numWarnings);
+        }
+        return results;
+    }
 
-                case CRAWL_DELAY:
-                handleCrawlDelay(parseState, token);
-                parseState.setAddingCrawlDelay(false);
-                    break;
+    private static SimpleRobotRules[] newRobotRules(int count, RobotRulesMode mode) {
+        SimpleRobotRules[] rules = new SimpleRobotRules[count];
+        for (int i = 0; i < count; i++) {
+            rules[i] = new SimpleRobotRules(mode);
+        }
+        return rules;
+    }
 
-                case SITEMAP:
-                handleSitemap(parseState, token);
-                    break;
+    /**
+     * @return true if none of the parse states is inside of a group addressed
+     *         to its robot names
+     */
+    private static boolean isSkippingGroup(ParseState[] parseStates) {
+        for (ParseState parseState : parseStates) {
+            if (parseState.isAddingRules() || parseState.isAddingCrawlDelay()) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-                case HTTP:
-                handleHttp(parseState, token);
-                    break;
+    /**
+     * Handle a robots.txt line
+     * 
+     * @param parseState
+     *            current parsing state
+     * @param token
+     *            directive and data of the line
+     * @param contentLength
+     *            length of the robots.txt content (reported in warnings)
+     */
+    private void handleDirective(ParseState parseState, RobotToken token, int contentLength) {
+        switch (token.getDirective()) {
+            case USER_AGENT:
+            handleUserAgent(parseState, token);
+                break;
 
-                case UNKNOWN:
-                if (!handlePossibleExtension(parseState, line)) {
-                    reportWarning(parseState, "Unknown directive in robots.txt file: {}", line);
-                }
-                    break;
+            case DISALLOW:
+            parseState.setFinishedAgentFields(true);
+            handleDisallow(parseState, token);
+                break;
 
-                case MISSING:
-                if (!handlePossibleExtension(parseState, line)) {
-                    reportWarning(parseState, "Unknown line in robots.txt file (size {}): {}", content.length, line);
-                }
-                    break;
+            case ALLOW:
+            parseState.setFinishedAgentFields(true);
+            handleAllow(parseState, token);
+                break;
 
-                default:
-                    handleKnownDirectiveExtension(parseState, token);
-                    break;
+            case CRAWL_DELAY:
+            handleCrawlDelay(parseState, token);
+            parseState.setAddingCrawlDelay(false);
+                break;
+
+            case SITEMAP:
+            handleSitemap(parseState, token);
+                break;
+
+            case HTTP:
+            handleHttp(parseState, token);
+                break;
+
+            case UNKNOWN:
+            if (!handlePossibleExtension(parseState, token.getData())) {
+                reportWarning(parseState, WarningType.UNKNOWN_DIRECTIVE, "Unknown directive in robots.txt file: {}", token.getData());
             }
+                break;
+
+            case MISSING:
+            if (!handlePossibleExtension(parseState, token.getData())) {
+                reportWarning(parseState, WarningType.UNKNOWN_LINE, "Unknown line in robots.txt file (size {}): {}", contentLength, token.getData());
+            }
+                break;
+
+            default:
+                handleKnownDirectiveExtension(parseState, token);
+                break;
         }
+    }
 
-        this._numWarningsDuringLastParse.set(parseState._numWarnings);
-        SimpleRobotRules result = parseState.getRobotRules();
-        if (result.getCrawlDelay() > _maxCrawlDelay) {
-            // Some evil sites use a value like 3600 (seconds) for the crawl
-            // delay, which would cause lots of problems for us.
-            LOGGER.debug("Crawl delay exceeds max value - so disallowing all URLs: {}", url);
-            return new SimpleRobotRules(RobotRulesMode.ALLOW_NONE);
-        } else {
-            result.sortRules();
-            return result;
+    /**
+     * Truncate the content to the max. content length, cutting after the last
+     * complete line.
+     * 
+     * @return the length of the truncated content
+     */
+    private static int truncateContent(byte[] content, int offset, int maxLength) {
+        int pos = offset + maxLength;
+        // content[offset + maxLength] exists because the content is longer
+        while (pos > offset && content[pos] != '\n' && content[pos] != '\r') {
+            pos--;
+        }
+        if (pos == offset && content[pos] != '\n' && content[pos] != '\r') {
+            // no line break: cut within the first line
+            return maxLength;
         }
+        return pos - offset;
     }
 
-    private void reportWarning(ParseState state, String msg, Object... args) {
+    private void reportWarning(ParseState state, WarningType type, String msg, Object... args) {
         state._numWarnings += 1;
+        if (state._stats != null) {
+            state._stats.addWarning(type);
+        }
+
+        if (!state._logWarnings) {
+            return;
+        }
 
         if (state._numWarnings == 1) {
             LOGGER.warn("Problem processing robots.txt for {}", state._url);
@@ -998,6 +1885,22 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
         return m.lookingAt() && targetTokens.contains(m.group());
     }
 
+    /**
+     * Get the first characters of all directives which need to be processed
+     * in lazy group mode, including those of enabled extension directives
+     * which are not bound to a user-agent group.
+     */
+    private boolean[] getGroupIndependentDirectiveStart() {
+        boolean[] start = GROUP_INDEPENDENT_DIRECTIVE_START.clone();
+        for (Map.Entry<String, RobotsExtension> entry : _extensionDirectiveLookup.entrySet()) {
+            char c = entry.getKey().charAt(0);
+            if (c < 128 && !entry.getValue().isPerGroup()) {
+                start[c] = true;
+            }
+        }
+        return start;
+    }
+
     /**
      * Handle the user-agent: directive
      * 
@@ -1023,14 +1926,28 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
         Collection<String> targetNames = state.getTargetNames();
 
         if (isExactUserAgentMatching()) {
-            String agentName = token.getData().trim().toLowerCase(Locale.ROOT);
-            if (agentName.isEmpty()) {
+            int match = AgentNameMatcher.UNDECIDED;
+            if (targetNames instanceof AgentNameMatcher) {
+                // prepared robot names, see prepare(Collection)
+                match = ((AgentNameMatcher) targetNames).match(token.getData());
+            }
+            if (match == AgentNameMatcher.UNDECIDED) {
+                String agentName = token.getData().trim().toLowerCase(Locale.ROOT);
+                if (agentName.isEmpty()) {
+                    match = AgentNameMatcher.EMPTY;
+                } else if (agentName.equals("*")) {
+                    match = AgentNameMatcher.WILDCARD;
+                } else if (targetNames.contains(agentName) || (!isValidUserAgentToObey(agentName) && userAgentProductTokenPartialMatch(agentName, targetNames))) {
+                    match = AgentNameMatcher.MATCH;
+                }
+            }
+            if (match == AgentNameMatcher.EMPTY) {
                 // Ignore empty names
-            } else if (agentName.equals("*") && !state.isMatchedRealName()) {
+            } else if (match == AgentNameMatcher.WILDCARD && !state.isMatchedRealName()) {
                 state.setMatchedWildcard(true);
                 state.setAddingRules(true);
                 state.setAddingCrawlDelay(true);
-            } else if (targetNames.contains(agentName) || (!isValidUserAgentToObey(agentName) && userAgentProductTokenPartialMatch(agentName, targetNames))) {
+            } else if (match == AgentNameMatcher.MATCH) {
                 if (state.isMatchedWildcard()) {
                     // Clear rules, Crawl-delay and per-group extensions of the
                     // wildcard user-agent found before the non-wildcard
@@ -1115,6 +2032,87 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
         return SimpleRobotRules.escapePath(path.trim(), null);
     }
 
+    /**
+     * Get the normalized path of an allow/disallow directive. The path is
+     * kept in the token, so that it is normalized only once if the
+     * robots.txt is parsed for multiple sets of robot names. A degraded rule
+     * is reported for every set of robot names.
+     * 
+     * <p>
+     * Disallow rules exceeding the rule complexity limits are shortened, see
+     * {@link #limitRuleComplexity(String)}. The shortened rule disallows more
+     * URLs than the original one. A shortened allow rule would allow URLs
+     * the site never allowed, instead allow rules exceeding the limits are
+     * dropped: the empty path returned is ignored.
+     * </p>
+     */
+    private String getPath(ParseState state, RobotToken token) {
+        if (token._path == null) {
+            String path = normalizePathDirective(token.getData());
+            String limited = limitRuleComplexity(path);
+            if (limited != path) {
+                token._undegradedPath = path;
+                if (token.getDirective() == RobotDirective.ALLOW) {
+                    limited = "";
+                } else if (limited.isEmpty()) {
+                    // cut before a leading wildcard: disallow all
+                    limited = "/";
+                }
+            }
+            token._path = limited;
+        }
+        if (token._undegradedPath != null) {
+            _numDegradedRules.incrementAndGet();
+            if (token._path.isEmpty()) {
+                reportWarning(state, WarningType.RULE_DEGRADED, "Allow rule exceeds max. length ({}) or max. number of wildcards ({}), ignored: {}", _maxRuleLength, _maxRuleWildcards,
+                                token._undegradedPath);
+            } else {
+                reportWarning(state, WarningType.RULE_DEGRADED, "Rule exceeds max. length ({}) or max. number of wildcards ({}), shortened to {} characters: {}", _maxRuleLength,
+                                _maxRuleWildcards, token._path.length(), token._undegradedPath);
+            }
+        }
+        return token._path;
+    }
+
+    /**
+     * Degrade rule patterns exceeding the max. length or the max. number of
+     * wildcards: the pattern is cut at the limit, the remainder including a
+     * trailing <code>$</code> is dropped. The cut is moved before a
+     * percent-encoded character which would be split. The shortened pattern
+     * matches a superset of the URLs matched by the original pattern.
+     * 
+     * @param path
+     *            normalized, percent-encoded path
+     * @return the path, or the shortened path if it was degraded
+     */
+    private String limitRuleComplexity(String path) {
+        int cut = -1;
+        if (path.length() > _maxRuleLength) {
+            cut = _maxRuleLength;
+            if (cut > 0 && path.charAt(cut - 1) == '%') {
+                cut -= 1;
+            } else if (cut > 1 && path.charAt(cut - 2) == '%') {
+                cut -= 2;
+            }
+        }
+        int wildcards = 0;
+        int limit = (cut == -1) ? path.length() : cut;
+        for (int i = 0; i < limit; i++) {
+            if (path.charAt(i) == '*' && ++wildcards > _maxRuleWildcards) {
+                cut = i;
+                break;
+            }
+        }
+        if (cut == -1) {
+            return path;
+        }
+        String degraded = path.substring(0, cut);
+        if (degraded.endsWith("$")) {
+            degraded = degraded.substring(0, degraded.length() - 1);
+        }
+        return degraded;
+    }
+
     /**
      * Handle the disallow: directive
      * 
@@ -1128,7 +2126,7 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
             return;
         }
 
-        String path = normalizePathDirective(token.getData());
+        String path = getPath(state, token);
         if (path.length() == 0) {
             /*
              * "Disallow: <nothing>" meant "allow all" in the 1996 REP RFC draft
@@ -1162,7 +2160,7 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
             return;
         }
 
-        String path = normalizePathDirective(token.getData());
+        String path = getPath(state, token);
         if (path.length() == 0) {
             /*
              * Allow: <nothing> => allow all.
@@ -1200,7 +2198,7 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
                     state.setCrawlDelay(delayValue);
                 }
             } catch (Exception e) {
-                reportWarning(state, "Error parsing robots rules - can't decode crawl delay: {}", delayString);
+                reportWarning(state, WarningType.INVALID_CRAWL_DELAY, "Error parsing robots rules - can't decode crawl delay: {}", delayString);
             }
         }
 
@@ -1236,7 +2234,7 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
                 state.addSitemap(sitemapUrl.toExternalForm());
             }
         } catch (Exception e) {
-            reportWarning(state, "Invalid URL with sitemap directive:  {}", sitemap);
+            reportWarning(state, WarningType.INVALID_SITEMAP, "Invalid URL with sitemap directive:  {}", sitemap);
         }
     }
 
@@ -1255,7 +2253,7 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
             RobotToken fixedToken = new RobotToken(RobotDirective.SITEMAP, "http:" + token.getData());
             handleSitemap(state, fixedToken);
         } else {
-            reportWarning(state, "Found raw non-sitemap URL: http:{}", urlFragment);
+            reportWarning(state, WarningType.RAW_URL, "Found raw non-sitemap URL: http:{}", urlFragment);
         }
     }
 
@@ -1336,7 +2334,11 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
      * robots.txt happened in a different than the current thread.
      * 
      * @return number of warnings
+     * @deprecated the count is held in thread-local state, use
+     *             {@link #parseContent(String, byte[], String, Collection, RobotsParseStats)}
+     *             and {@link RobotsParseStats#getNumWarnings()} instead
      */
+    @Deprecated
     public int getNumWarnings() {
         return _numWarningsDuringLastParse.get();
     }
@@ -1375,6 +2377,147 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
         _maxCrawlDelay = maxCrawlDelay;
     }
 
+    /**
+     * Get configured max. content length.
+     *
+     * @return the max. number of bytes of the robots.txt content parsed, see
+     *         {@link #setMaxContentLength(int)}
+     */
+    public int getMaxContentLength() {
+        return _maxContentLength;
+    }
+
+    /**
+     * Set the max. number of bytes of the robots.txt content which are parsed.
+     * Longer content is truncated after the last complete line within the
+     * limit, the remaining content is ignored. By default, the content is
+     * not limited. Following <a href=
+     * "https://www.rfc-editor.org/rfc/rfc9309.html#name-limits">RFC 9309,
+     * section 2.5</a>, the limit should be set to at least
+     * {@link #RFC9309_MIN_PARSING_LIMIT} (500 KiB).
+     * 
+     * @param maxContentLength
+     *            max. content length in bytes
+     */
+    public void setMaxContentLength(int maxContentLength) {
+        if (maxContentLength < 0) {
+            throw new IllegalArgumentException("Max. content length must not be negative");
+        }
+        _maxContentLength = maxContentLength;
+    }
+
+    /**
+     * Get configured max. length of rule patterns.
+     *
+     * @return the max. length of allow/disallow rule patterns, see
+     *         {@link #setMaxRuleLength(int)}
+     */
+    public int getMaxRuleLength() {
+        return _maxRuleLength;
+    }
+
+    /**
+     * Set the max. length (in characters, after normalization) of
+     * allow/disallow rule patterns. Longer disallow patterns are shortened to
+     * the max. length, and the rule then disallows all URLs starting with the
+     * shortened pattern. Longer allow rules are ignored, because a shortened
+     * allow rule would allow URLs not allowed by the original rule. Matching a URL against a rule takes time linear to the length
+     * of the URL and the rule pattern, limiting the length of rule patterns
+     * bounds the time required to check a URL against the rules of any
+     * robots.txt file.
+     * 
+     * @param maxRuleLength
+     *            max. rule pattern length, default:
+     *            {@link #DEFAULT_MAX_RULE_LENGTH}
+     */
+    public void setMaxRuleLength(int maxRuleLength) {
+        if (maxRuleLength < 1) {
+            throw new IllegalArgumentException("Max. rule length must be positive");
+        }
+        _maxRuleLength = maxRuleLength;
+    }
+
+    /**
+     * Get configured max. number of wildcards in rule patterns.
+     *
+     * @return the max. number of wildcards in allow/disallow rule patterns,
+     *         see {@link #setMaxRuleWildcards(int)}
+     */
+    public int getMaxRuleWildcards() {
+        return _maxRuleWildcards;
+    }
+
+    /**
+     * Set the max. number of wildcards (<code>*</code>) in allow/disallow rule
+     * patterns. Disallow patterns with more wildcards are cut before the first
+     * wildcard exceeding the limit, and the rule then disallows all URLs
+     * starting with the shortened pattern. Allow rules with more wildcards are
+     * ignored.
+     * 
+     * @param maxRuleWildcards
+     *            max. number of wildcards, default:
+     *            {@link #DEFAULT_MAX_RULE_WILDCARDS}
+     */
+    public void setMaxRuleWildcards(int maxRuleWildcards) {
+        if (maxRuleWildcards < 0) {
+            throw new IllegalArgumentException("Max. number of wildcards must not be negative");
+        }
+        _maxRuleWildcards = maxRuleWildcards;
+    }
+
+    /**
+     * @return number of rules shortened (disallow rules) or ignored (allow
+     *         rules) because they exceeded the max. length or the max.
+     *         number of wildcards, counted over all robots.txt
+     *         files parsed by this parser
+     */
+    public long getNumDegradedRules() {
+        return _numDegradedRules.get();
+    }
+
+    /**
+     * Enable or disable the removal of shadowed rules: rules which never
+     * decide the verdict for any path because they are always overridden by
+     * an equally or more specific rule or lead to the same verdict as the
+     * less specific rule covering them, e.g.
+     * 
+     * <pre>
+     * Disallow: /private/
+     * Disallow: /private/a
+     * </pre>
+     * 
+     * <p>
+     * Whether a URL is allowed is not affected, but the rules are matched
+     * faster and require less memory. Large, generated robots.txt files often
+     * contain many redundant rules. The removed rules are no longer contained
+     * in {@link SimpleRobotRules#getRobotRules()}. By default, shadowed rules
+     * are kept. See {@link SimpleRobotRules#sortRules(boolean)}.
+     * </p>
+     * 
+     * @param removeShadowedRules
+     *            whether to remove shadowed rules
+     */
+    public void setRemoveShadowedRules(boolean removeShadowedRules) {
+        _removeShadowedRules = removeShadowedRules;
+    }
+
+    /**
+     * @return whether shadowed rules are removed, see
+     *         {@link #setRemoveShadowedRules(boolean)}
+     */
+    public boolean isRemoveShadowedRules() {
+        return _removeShadowedRules;
+    }
+
+    /**
+     * @return number of shadowed rules removed, counted over all robots.txt
+     *         files parsed by this parser, see
+     *         {@link #setRemoveShadowedRules(boolean)}
+     */
+    public long getNumShadowedRules() {
+        return _numShadowedRules.get();
+    }
+
     /**
      * Set how the user-agent names in the robots.txt (<code>User-agent:</code>
      * lines) are matched with the provided robot names:
@@ -1424,6 +2567,37 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
         return _exactUserAgentMatching;
     }
 
+    /**
+     * Enable or disable lazy parsing of user-agent groups. If enabled, lines
+     * of user-agent groups which do not apply to the robot are skipped by
+     * looking only at the first character of every line: allow and disallow
+     * rules, crawl delays and per-group extension directives are neither
+     * tokenized nor normalized. User-agent lines, sitemaps and extension
+     * directives not bound to a group (e.g., <code>Host</code>) are still
+     * processed everywhere in the robots.txt file.
+     * 
+     * <p>
+     * The resulting robot rules are the same, but no warnings are reported
+     * for invalid lines in skipped groups, see {@link #getNumWarnings()}. Lazy
+     * parsing does not apply to robots.txt content which looks like HTML.
+     * By default, lazy group parsing is disabled.
+     * </p>
+     * 
+     * @param lazyGroupParsing
+     *            whether to skip over groups not addressed to the robot
+     */
+    public void setLazyGroupParsing(boolean lazyGroupParsing) {
+        _lazyGroupParsing = lazyGroupParsing;
+    }
+
+    /**
+     * @return whether lazy group parsing is enabled, see
+     *         {@link #setLazyGroupParsing(boolean)}
+     */
+    public boolean isLazyGroupParsing() {
+        return _lazyGroupParsing;
+    }
+
     /**
      * Enable a single robots.txt extension directive. When enabled, the
      * parser will capture the directive's value(s) in the returned
@@ -1482,8 +2656,13 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
     }
 
     public static void main(String[] args) throws IOException, URISyntaxException {
+        if (args.length >= 2 && args[0].equals("--all")) {
+            parseAll(args);
+            return;
+        }
         if (args.length < 1) {
             System.err.println("SimpleRobotRulesParser <robots.txt> [[<agentname>] <URL>...]");
+            System.err.println("SimpleRobotRulesParser --all <directory>|<file list> [<agentname>]");
             System.err.println();
             System.err.println("Parse a robots.txt file");
             System.err.println("  <robots.txt>\tURL pointing to robots.txt file.");
@@ -1495,6 +2674,12 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
             System.err.println("              \tIf not defined check with '*'");
             System.err.println("  <URL>       \tcheck URL whether allowed or forbidden.");
             System.err.println("              \tIf no URL is given show the robots.txt rules.");
+            System.err.println();
+            System.err.println("Parse many robots.txt files in parallel");
+            System.err.println("  <directory> \tparse all files in the directory and its subdirectories");
+            System.err.println("  <file list> \tparse the files listed (one path per line)");
+            System.err.println("              \tFor every file the rule mode, the number of rules and");
+            System.err.println("              \tthe crawl-delay are shown, followed by the parse statistics.");
             System.exit(1);
         }
 
@@ -1584,4 +2769,39 @@ public class SimpleRobotRulesParser extends BaseRobotsParser {
         }
     }
 
+    private static void parseAll(String[] args) throws IOException {
+        Path input = Paths.get(args[1]);
+        Collection<String> agentNames = Set.of();
+        if (args.length >= 3) {
+            agentNames = Set.of(args[2].trim().toLowerCase(Locale.ROOT));
+        }
+
+        List<Path> files;
+        if (Files.isDirectory(input)) {
+            try (Stream<Path> paths = Files.walk(input)) {
+                files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+        } else {
+            try (Stream<String> lines = Files.lines(input)) {
+                files = lines.map(String::trim).filter(l -> !l.isEmpty()).map(Paths::get).collect(Collectors.toList());
+            }
+        }
+
+        Stream<RobotsDocument> documents = files.stream().map(file -> {
+            try {
+                return new RobotsDocument(file.toUri().toString(), Files.readAllBytes(file), "text/plain");
+            } catch (IOException e) {
+                System.out.println("Failed to read " + file + ": " + e.getMessage());
+                return null;
+            }
+        }).filter(doc -> doc != null);
+
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        RobotsBulkParseStats stats = parser.parseAll(documents, agentNames, ForkJoinPool.commonPool(), true, (doc, rules) -> {
+            long crawlDelay = rules.getCrawlDelay();
+            System.out.println(doc.getUrl() + "\t" + rules._mode + "\t" + rules.getRobotRules().size() + "\t" + (crawlDelay == BaseRobotRules.UNSET_CRAWL_DELAY ? "-" : crawlDelay));
+        });
+        System.out.println(stats);
+    }
+
 }
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class CleanParamRuleTest {
+
+    private static final CleanParamRule RULE = CleanParamRule.compile(List.of( //
+                    "utm_source&utm_medium", //
+                    "sid&sort /forum/*.php", //
+                    "ref /articles/"));
+
+    @ParameterizedTest
+    @CsvSource({ //
+                    "https://www.example.com/, https://www.example.com/", //
+                    "https://www.example.com/?a=1&b=2, https://www.example.com/?a=1&b=2", //
+                    "https://www.example.com/?utm_source=x, https://www.example.com/", //
+                    "https://www.example.com?utm_source=x&a=1, https://www.example.com?a=1", //
+                    "https://www.example.com/page?b=2&utm_medium=y&a=1&utm_source=x, https://www.example.com/page?b=2&a=1", //
+                    "https://www.example.com/page?utm_source=x#top, https://www.example.com/page#top", //
+                    "https://www.example.com/page#frag?utm_source=x, https://www.example.com/page#frag?utm_source=x", //
+                    "https://www.example.com/forum/showthread.php?sid=abc&t=42, https://www.example.com/forum/showthread.php?t=42", //
+                    "https://www.example.com/forum/sub/index.php?sort=asc&sid=abc, https://www.example.com/forum/sub/index.php", //
+                    "https://www.example.com/forum/index.html?sid=abc, https://www.example.com/forum/index.html?sid=abc", //
+                    "https://www.example.com/other/index.php?sid=abc, https://www.example.com/other/index.php?sid=abc", //
+                    "https://www.example.com/index.php?next=/forum/a.php&sid=abc, https://www.example.com/index.php?next=/forum/a.php&sid=abc", //
+                    "https://www.example.com/articles/1?ref=home&id=1, https://www.example.com/articles/1?id=1", //
+                    "https://www.example.com/Articles/1?ref=home, https://www.example.com/Articles/1?ref=home", //
+                    "https://www.example.com/?REF=home&sid, https://www.example.com/?REF=home&sid", //
+                    "/forum/a.php?sid=1&x, /forum/a.php?x", //
+                    // kept parameters are not rewritten
+                    "https://www.example.com/?x=&utm_source=1&y, https://www.example.com/?x=&y", //
+                    "https://www.example.com/?a=1&&utm_source=1&b=%7e+c, https://www.example.com/?a=1&&b=%7e+c", //
+                    "https://www.example.com/?utm_source=1&, https://www.example.com/", //
+    })
+    void testFilter(String url, String expected) {
+        assertEquals(expected, RULE.filter(url));
+    }
+
+    @Test
+    void testUnmodified() {
+        String url = "https://www.example.com/forum/a.php?t=1&&x=2";
+        assertSame(url, RULE.filter(url));
+        assertEquals(null, RULE.filter((String) null));
+    }
+
+    @Test
+    void testCompile() {
+        assertSame(CleanParamRule.EMPTY, CleanParamRule.compile(List.of()));
+        assertSame(CleanParamRule.EMPTY, CleanParamRule.compile(List.of("", "  ", "&&")));
+        assertTrue(CleanParamRule.EMPTY.isEmpty());
+
+        // path prefixes matching all URLs
+        CleanParamRule rule = CleanParamRule.compile(List.of("a /", "b /*", "c&d"));
+        assertEquals(Set.of("a", "b", "c", "d"), rule.getGlobalParams());
+
+        // overlong path prefix
+        rule = CleanParamRule.compile(List.of("sid /" + "x".repeat(CleanParamRule.MAX_PATH_PREFIX_LENGTH)));
+        assertTrue(rule.isEmpty());
+    }
+
+    @Test
+    void testFromRules() {
+        String robotsTxt = "User-agent: *\n" //
+                        + "Disallow: /private/\n" //
+                        + "Clean-param: sid /forum/\n" //
+                        + "Clean-param: utm_campaign\n";
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        SimpleRobotRules rules = parser.parseContent("https://www.example.com/robots.txt", robotsTxt.getBytes(StandardCharsets.UTF_8), "text/plain", List.of("mybot"));
+        assertSame(CleanParamRule.EMPTY, CleanParamRule.fromRules(rules));
+
+        parser.enableExtension(RobotsExtension.CLEAN_PARAM);
+        rules = parser.parseContent("https://www.example.com/robots.txt", robotsTxt.getBytes(StandardCharsets.UTF_8), "text/plain", List.of("mybot"));
+        CleanParamRule rule = CleanParamRule.fromRules(rules);
+        assertEquals("https://www.example.com/forum/t?id=1", rule.filter("https://www.example.com/forum/t?sid=1&id=1&utm_campaign=x"));
+        assertEquals("https://www.example.com/t?sid=1&id=1", rule.filter("https://www.example.com/t?sid=1&id=1&utm_campaign=x"));
+    }
+}
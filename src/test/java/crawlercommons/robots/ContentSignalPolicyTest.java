@@ -0,0 +1,175 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import crawlercommons.robots.ContentSignalPolicy.Signal;
+
+public class ContentSignalPolicyTest {
+
+    @Test
+    public void testSignals() {
+        ContentSignalPolicy policy = ContentSignalPolicy.parse(RobotsExtension.CONTENT_SIGNALS, List.of("search=yes, AI-Train=No, ai-crawl=maybe, ai-input=perhaps"));
+        assertTrue(policy.allows(Signal.SEARCH));
+        assertTrue(policy.isGranted(Signal.SEARCH));
+        assertFalse(policy.allows(Signal.AI_TRAIN));
+        assertTrue(policy.isDenied(Signal.AI_TRAIN));
+        // invalid value: not set
+        assertTrue(policy.allows(Signal.AI_INPUT));
+        assertFalse(policy.isGranted(Signal.AI_INPUT));
+        assertFalse(policy.isDenied(Signal.AI_INPUT));
+        assertEquals(Map.of("ai-crawl", "maybe"), policy.getUnknownSignals());
+        assertFalse(policy.isEmpty());
+
+        assertTrue(ContentSignalPolicy.EMPTY.isEmpty());
+        for (Signal signal : Signal.values()) {
+            assertTrue(ContentSignalPolicy.EMPTY.allows(signal));
+            assertSame(signal, Signal.forName(signal.getName().toUpperCase()));
+        }
+    }
+
+    @Test
+    public void testConflictingSignals() {
+        ContentSignalPolicy policy = ContentSignalPolicy.parse(RobotsExtension.CONTENT_SIGNALS, List.of("ai-train=yes", "ai-train=no, search=yes"));
+        assertFalse(policy.allows(Signal.AI_TRAIN));
+        assertFalse(policy.isGranted(Signal.AI_TRAIN));
+        assertTrue(policy.isGranted(Signal.SEARCH));
+    }
+
+    @Test
+    public void testPathScope() {
+        ContentSignalPolicy policy = ContentSignalPolicy.parse(RobotsExtension.CONTENT_SIGNALS, List.of( //
+                        "ai-train=no", //
+                        "/blog/ ai-train=yes, ai-input=no", //
+                        "/blog/private/ ai-train=no", //
+                        "/ search=yes"));
+        assertFalse(policy.allows(Signal.AI_TRAIN));
+        assertFalse(policy.allows(Signal.AI_TRAIN, "/about/"));
+        assertTrue(policy.allows(Signal.AI_TRAIN, "/blog/post.html"));
+        assertFalse(policy.allows(Signal.AI_TRAIN, "/blog/private/post.html"));
+        assertFalse(policy.allows(Signal.AI_INPUT, "/blog/private/post.html"));
+        assertTrue(policy.allows(Signal.AI_INPUT, "/about/"));
+        assertTrue(policy.allows(Signal.AI_INPUT));
+        assertTrue(policy.isGranted(Signal.SEARCH));
+        assertTrue(policy.allows(Signal.SEARCH, "/blog/"));
+    }
+
+    @Test
+    public void testReferences() {
+        ContentSignalPolicy policy = ContentSignalPolicy.parse(RobotsExtension.LLM_POLICY, List.of("/llms.txt", "https://www.example.com/ai-policy.txt"));
+        assertEquals(List.of("/llms.txt", "https://www.example.com/ai-policy.txt"), policy.getReferences());
+        assertEquals(policy.getReferences(), policy.getValues());
+        assertTrue(policy.isEmpty());
+        assertTrue(policy.allows(Signal.AI_TRAIN));
+    }
+
+    @Test
+    public void testParsedRules() throws Exception {
+        String robotsTxt = "Content-Signal: search=yes, ai-train=no\n" //
+                        + "LLM-Policy: /llms.txt\n" //
+                        + "User-agent: *\n" //
+                        + "Disallow: /private/\n" //
+                        + "Content-Signal: /docs/ ai-input=no\n";
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        parser.enableAllExtensions();
+        SimpleRobotRules rules = parser.parseContent("https://www.example.com/robots.txt", robotsTxt.getBytes(StandardCharsets.UTF_8), "text/plain",
+                        Set.of("mybot"));
+
+        RobotsExtensionData data = rules.getExtensionData(RobotsExtension.CONTENT_SIGNALS);
+        ContentSignalPolicy policy = assertInstanceOf(ContentSignalPolicy.class, data);
+        assertSame(policy, ContentSignalPolicy.fromRules(rules));
+        assertEquals(List.of("search=yes, ai-train=no", "/docs/ ai-input=no"), policy.getValues());
+        assertFalse(policy.allows(Signal.AI_TRAIN));
+        assertFalse(policy.allows(Signal.AI_INPUT, "/docs/index.html"));
+        ContentSignalPolicy llmPolicy = assertInstanceOf(ContentSignalPolicy.class, rules.getExtensionData(RobotsExtension.LLM_POLICY));
+        assertEquals(List.of("/llms.txt"), llmPolicy.getReferences());
+
+        // typed policy retained by freezing and the binary format
+        rules.freeze();
+        assertSame(policy, ContentSignalPolicy.fromRules(rules));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        rules.writeTo(new DataOutputStream(bytes));
+        SimpleRobotRules read = SimpleRobotRules.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(policy, ContentSignalPolicy.fromRules(read));
+        assertFalse(ContentSignalPolicy.fromRules(read).allows(Signal.AI_TRAIN));
+
+        // extension not enabled
+        assertSame(ContentSignalPolicy.EMPTY, ContentSignalPolicy.fromRules(new SimpleRobotRulesParser().parseContent("https://www.example.com/robots.txt",
+                        robotsTxt.getBytes(StandardCharsets.UTF_8), "text/plain", Set.of("mybot"))));
+    }
+
+    @Test
+    public void testResolvedOnce() {
+        // resolved when parsing is finished, the getters return the same policy
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        parser.enableAllExtensions();
+        SimpleRobotRules rules = parser.parseContent("https://www.example.com/robots.txt",
+                        "Content-Signal: ai-train=no\n".getBytes(StandardCharsets.UTF_8), "text/plain", Set.of("mybot"));
+        ContentSignalPolicy policy = assertInstanceOf(ContentSignalPolicy.class, rules.getExtensionData(RobotsExtension.CONTENT_SIGNALS));
+        assertSame(policy, rules.getExtensionData(RobotsExtension.CONTENT_SIGNALS));
+        assertSame(policy, rules.getExtensions().get(RobotsExtension.CONTENT_SIGNALS));
+
+        // values added later are parsed on access, without modifying the rules
+        rules.addExtensionValue(RobotsExtension.CONTENT_SIGNALS, "search=yes");
+        ContentSignalPolicy updated = assertInstanceOf(ContentSignalPolicy.class, rules.getExtensionData(RobotsExtension.CONTENT_SIGNALS));
+        assertEquals(List.of("ai-train=no", "search=yes"), updated.getValues());
+        assertEquals(updated, rules.getExtensions().get(RobotsExtension.CONTENT_SIGNALS));
+        assertTrue(rules.getExtensionData(RobotsExtension.CONTENT_SIGNALS) != updated);
+        rules.freeze();
+        updated = assertInstanceOf(ContentSignalPolicy.class, rules.getExtensionData(RobotsExtension.CONTENT_SIGNALS));
+        assertSame(updated, rules.getExtensionData(RobotsExtension.CONTENT_SIGNALS));
+        assertTrue(updated.allows(Signal.SEARCH));
+    }
+
+    @Test
+    public void testManyDirectives() {
+        StringBuilder robotsTxt = new StringBuilder("User-agent: *\nDisallow: /private/\n");
+        int n = 20000;
+        for (int i = 0; i < n; i++) {
+            robotsTxt.append("Content-Signal: /path").append(i).append("/ ai-train=no\n");
+        }
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        parser.enableAllExtensions();
+        parser.setMaxContentLength(robotsTxt.length() + 1);
+        byte[] content = robotsTxt.toString().getBytes(StandardCharsets.UTF_8);
+        // values are parsed once, not again for every directive
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            SimpleRobotRules rules = parser.parseContent("https://www.example.com/robots.txt", content, "text/plain", Set.of("mybot"));
+            ContentSignalPolicy policy = ContentSignalPolicy.fromRules(rules);
+            assertEquals(n, policy.getValues().size());
+            assertFalse(policy.allows(Signal.AI_TRAIN, "/path" + (n - 1) + "/index.html"));
+        });
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import crawlercommons.robots.PolitenessScheduler.RequestRate;
+
+public class PolitenessSchedulerTest {
+
+    private static SimpleRobotRules parse(String robotsTxt) {
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        parser.enableExtension(RobotsExtension.REQUEST_RATE);
+        return parser.parseContent("http://www.example.com/robots.txt", robotsTxt.getBytes(StandardCharsets.UTF_8), "text/plain", List.of("mybot"));
+    }
+
+    @Test
+    public void testRequestRate() {
+        assertEquals(10000, RequestRate.parse("1/10s").getInterval());
+        assertEquals(5000, RequestRate.parse("1/5").getInterval());
+        assertEquals(20000, RequestRate.parse("3/1m").getInterval());
+        assertEquals(TimeUnit.HOURS.toMillis(1), RequestRate.parse("24/1d").getInterval());
+        assertNull(RequestRate.parse("0/10s"));
+        assertNull(RequestRate.parse("fast"));
+        assertNull(RequestRate.parse("1/10s 2500-2600"));
+
+        long midnight = TimeUnit.DAYS.toMillis(20000);
+        RequestRate rate = RequestRate.parse("1/10s 1800-1900");
+        assertTrue(rate.hasTimeWindow());
+        assertTrue(rate.appliesAt(midnight + TimeUnit.MINUTES.toMillis(18 * 60 + 30)));
+        assertFalse(rate.appliesAt(midnight + TimeUnit.HOURS.toMillis(19)));
+        assertFalse(rate.appliesAt(midnight));
+
+        // window wrapping around midnight
+        rate = RequestRate.parse("1/1m 22:00-06:00");
+        assertTrue(rate.appliesAt(midnight));
+        assertTrue(rate.appliesAt(midnight + TimeUnit.HOURS.toMillis(23)));
+        assertFalse(rate.appliesAt(midnight + TimeUnit.HOURS.toMillis(12)));
+        assertTrue(RequestRate.parse("1/10s").appliesAt(midnight));
+    }
+
+    @Test
+    public void testDelay() {
+        ManualClock clock = new ManualClock();
+        long midnight = clock.millis();
+        PolitenessScheduler scheduler = new PolitenessScheduler(1000, clock);
+        assertEquals(1000, scheduler.getDelay("unknown.example.com", midnight));
+
+        scheduler.setRules("a.example.com", parse("User-agent: *\nCrawl-delay: 5\n"));
+        assertEquals(5000, scheduler.getDelay("a.example.com", midnight));
+
+        scheduler.setRules("b.example.com", parse("User-agent: *\nRequest-rate: 1/10s\nRequest-rate: 1/1m 0000-0600\n"));
+        assertEquals(60000, scheduler.getDelay("b.example.com", midnight));
+        assertEquals(10000, scheduler.getDelay("b.example.com", midnight + TimeUnit.HOURS.toMillis(12)));
+
+        // the longer of crawl-delay and request interval
+        scheduler.setRules("c.example.com", parse("User-agent: *\nCrawl-delay: 20\nRequest-rate: 1/10s\n"));
+        assertEquals(20000, scheduler.getDelay("c.example.com", midnight));
+
+        // capped by the max. delay
+        SimpleRobotRules rules = new SimpleRobotRules();
+        rules.setCrawlDelay(TimeUnit.HOURS.toMillis(1));
+        scheduler.setRules("d.example.com", rules);
+        assertEquals(PolitenessScheduler.DEFAULT_MAX_DELAY, scheduler.getDelay("d.example.com", midnight));
+        scheduler.setMaxDelay(30000);
+        assertEquals(30000, scheduler.getDelay("d.example.com", midnight));
+
+        scheduler.setRules("e.example.com", null);
+        assertEquals(1000, scheduler.getDelay("e.example.com", midnight));
+    }
+
+    @Test
+    public void testSchedule() {
+        ManualClock clock = new ManualClock();
+        PolitenessScheduler scheduler = new PolitenessScheduler(1000, clock);
+        scheduler.setRules("slow.example.com", parse("User-agent: *\nCrawl-delay: 10\n"));
+        assertNull(scheduler.poll());
+        assertEquals(-1, scheduler.getNextDueTime());
+
+        scheduler.schedule("slow.example.com");
+        scheduler.schedule("fast.example.com");
+        scheduler.schedule("fast.example.com");
+        assertEquals(2, scheduler.size());
+
+        Set<String> polled = new HashSet<>();
+        polled.add(scheduler.poll());
+        polled.add(scheduler.poll());
+        assertEquals(Set.of("slow.example.com", "fast.example.com"), polled);
+        assertNull(scheduler.poll());
+
+        long start = clock.millis();
+        scheduler.release("slow.example.com", true);
+        scheduler.release("fast.example.com", true);
+        assertEquals(start + 1000, scheduler.getNextDueTime());
+        assertEquals(start + 10000, scheduler.getNextFetchTime("slow.example.com"));
+        assertNull(scheduler.poll());
+
+        clock.advance(1000);
+        assertEquals("fast.example.com", scheduler.poll());
+        assertNull(scheduler.poll());
+        scheduler.release("fast.example.com", false);
+        assertEquals(1, scheduler.size());
+
+        clock.advance(9000);
+        assertEquals("slow.example.com", scheduler.poll());
+        assertEquals(0, scheduler.size());
+        assertEquals(2, scheduler.getNumHosts());
+
+        scheduler.schedule("fast.example.com");
+        scheduler.remove("fast.example.com");
+        assertEquals(0, scheduler.size());
+        assertEquals(1, scheduler.getNumHosts());
+    }
+
+    @Test
+    public void testScheduleWhileLeased() {
+        ManualClock clock = new ManualClock();
+        PolitenessScheduler scheduler = new PolitenessScheduler(1000, clock);
+        scheduler.schedule("a.example.com");
+        assertEquals("a.example.com", scheduler.poll());
+
+        // more URLs of the host are found while it is fetched
+        scheduler.schedule("a.example.com");
+        assertEquals(0, scheduler.size());
+        assertNull(scheduler.poll());
+
+        // queued again on release, even if not requested by the caller
+        long start = clock.millis();
+        scheduler.release("a.example.com", false);
+        assertEquals(1, scheduler.size());
+        assertEquals(start + 1000, scheduler.getNextDueTime());
+        assertNull(scheduler.poll());
+        clock.advance(1000);
+        assertEquals("a.example.com", scheduler.poll());
+
+        // not queued again if not scheduled while leased
+        scheduler.release("a.example.com", false);
+        assertEquals(0, scheduler.size());
+        clock.advance(1000);
+        assertNull(scheduler.poll());
+    }
+
+    @Test
+    public void testReleaseQueuedWithShorterDelay() {
+        ManualClock clock = new ManualClock();
+        PolitenessScheduler scheduler = new PolitenessScheduler(1000, clock);
+        SimpleRobotRules slow = new SimpleRobotRules();
+        slow.setCrawlDelay(100000);
+        scheduler.setRules("slow.example.com", slow);
+        for (int i = 0; i < 10; i++) {
+            String host = "host" + i + ".example.com";
+            SimpleRobotRules rules = new SimpleRobotRules();
+            rules.setCrawlDelay(10000 + 1000 * i);
+            scheduler.setRules(host, rules);
+            scheduler.schedule(host);
+            scheduler.poll();
+            scheduler.release(host, true);
+        }
+        scheduler.schedule("slow.example.com");
+        scheduler.poll();
+        scheduler.release("slow.example.com", true);
+        assertEquals(11, scheduler.size());
+
+        // the crawl-delay is lowered and the queued host is released again
+        scheduler.setRules("slow.example.com", null);
+        scheduler.release("slow.example.com", true);
+        assertEquals(11, scheduler.size());
+        assertEquals(clock.millis() + 1000, scheduler.getNextDueTime());
+        clock.advance(1000);
+        assertEquals("slow.example.com", scheduler.poll());
+    }
+
+    @Test
+    public void testManyHosts() {
+        ManualClock clock = new ManualClock();
+        PolitenessScheduler scheduler = new PolitenessScheduler(0, clock);
+        Random random = new Random(42);
+        int numHosts = 10000;
+        for (int i = 0; i < numHosts; i++) {
+            String host = "host" + i + ".example.com";
+            SimpleRobotRules rules = new SimpleRobotRules();
+            rules.setCrawlDelay(random.nextInt(100000));
+            scheduler.setRules(host, rules);
+            scheduler.schedule(host);
+            scheduler.poll();
+            scheduler.release(host, true);
+        }
+        assertEquals(numHosts, scheduler.size());
+
+        // hosts are polled in the order of their next fetch time
+        clock.advance(100000);
+        long previous = Long.MIN_VALUE;
+        String host;
+        int polled = 0;
+        while ((host = scheduler.poll()) != null) {
+            long nextFetchTime = scheduler.getNextFetchTime(host);
+            assertTrue(nextFetchTime >= previous);
+            previous = nextFetchTime;
+            polled++;
+        }
+        assertEquals(numHosts, polled);
+    }
+}
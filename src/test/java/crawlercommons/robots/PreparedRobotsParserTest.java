@@ -0,0 +1,176 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+public class PreparedRobotsParserTest {
+
+    private static final String ROBOTS_URL = "https://www.example.com/robots.txt";
+
+    private static List<Path> getRobotsFiles() throws Exception {
+        Path dir = Paths.get(PreparedRobotsParserTest.class.getResource("/robots").toURI());
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testAgentNameMatcher() {
+        AgentNameMatcher matcher = new AgentNameMatcher(List.of("mybot", "my-bot", "otherbot"));
+        assertEquals(AgentNameMatcher.MATCH, matcher.match("mybot"));
+        assertEquals(AgentNameMatcher.MATCH, matcher.match(" MyBot\t"));
+        assertEquals(AgentNameMatcher.MATCH, matcher.match("MyBot/1.0"));
+        assertEquals(AgentNameMatcher.MATCH, matcher.match("my-bot (+https://www.example.com/bot.html)"));
+        assertEquals(AgentNameMatcher.MATCH, matcher.match("OtherBot"));
+        assertEquals(AgentNameMatcher.NO_MATCH, matcher.match("mybot-x"));
+        assertEquals(AgentNameMatcher.NO_MATCH, matcher.match("mybo"));
+        assertEquals(AgentNameMatcher.NO_MATCH, matcher.match("my"));
+        assertEquals(AgentNameMatcher.NO_MATCH, matcher.match("/mybot"));
+        assertEquals(AgentNameMatcher.NO_MATCH, matcher.match("yourbot/1.0"));
+        assertEquals(AgentNameMatcher.WILDCARD, matcher.match(" * "));
+        assertEquals(AgentNameMatcher.NO_MATCH, matcher.match("*bot"));
+        assertEquals(AgentNameMatcher.EMPTY, matcher.match(""));
+        assertEquals(AgentNameMatcher.EMPTY, matcher.match(" \t"));
+        assertEquals(AgentNameMatcher.UNDECIDED, matcher.match("mybøt"));
+
+        assertEquals(3, matcher.size());
+        assertTrue(matcher.contains("my-bot"));
+        assertFalse(matcher.contains("MyBot"));
+        assertEquals(List.of("mybot", "my-bot", "otherbot"), new ArrayList<>(matcher));
+    }
+
+    @Test
+    public void testSameRulesAsParser() throws Exception {
+        List<Collection<String>> robotNames = List.of(Set.of("mybot"), Set.of("googlebot"), List.of("bingbot", "msnbot"), Set.of("yourbot"), Set.of("google"),
+                        Set.of("seznambot", "twiceler"), Set.of("bot"));
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        for (Collection<String> names : robotNames) {
+            PreparedRobotsParser prepared = parser.prepare(names);
+            assertInstanceOf(AgentNameMatcher.class, prepared.getRobotNames());
+            for (Path file : getRobotsFiles()) {
+                byte[] content = Files.readAllBytes(file);
+                SimpleRobotRules expected = parser.parseContent(ROBOTS_URL, content, "text/plain", names);
+                String msg = file.getFileName() + " " + names;
+                assertEquals(expected, prepared.parseContent(ROBOTS_URL, content, "text/plain"), msg);
+                assertEquals(expected, prepared.parseContent(ROBOTS_URL, ByteBuffer.wrap(content), "text/plain"), msg);
+                RobotsParseStats stats = new RobotsParseStats();
+                assertEquals(expected, prepared.parseContent(ROBOTS_URL, content, "text/plain", stats), msg);
+                assertEquals(content.length, stats.getBytes());
+            }
+        }
+    }
+
+    @Test
+    public void testUserAgentLines() {
+        String robotsTxt = "User-agent: *\n" //
+                        + "Disallow: /\n" //
+                        + "\n" //
+                        + "User-agent: MyBot/2.1 (compatible)\n" //
+                        + "Disallow: /mybot/\n" //
+                        + "\n" //
+                        + "User-agent: Mybøt\n" //
+                        + "Disallow: /other/\n";
+        PreparedRobotsParser parser = new SimpleRobotRulesParser().prepare(Set.of("mybot"));
+        SimpleRobotRules rules = parser.parseContent(ROBOTS_URL, robotsTxt.getBytes(StandardCharsets.UTF_8), "text/plain");
+        assertTrue(rules.isAllowed("https://www.example.com/"));
+        assertFalse(rules.isAllowed("https://www.example.com/mybot/"));
+        assertTrue(rules.isAllowed("https://www.example.com/other/"));
+    }
+
+    @Test
+    public void testInvalidRobotNames() {
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        assertThrows(IllegalArgumentException.class, () -> parser.prepare(Set.of("*")));
+        assertThrows(IllegalArgumentException.class, () -> parser.prepare(Set.of("MyBot")));
+    }
+
+    @Test
+    public void testConfigurationChanged() {
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        PreparedRobotsParser prepared = parser.prepare(Set.of("mybot"));
+        parser.setExactUserAgentMatching(false);
+        assertThrows(IllegalStateException.class, () -> prepared.parseContent(ROBOTS_URL, new byte[0], "text/plain"));
+
+        // names are not compiled for prefix matching
+        PreparedRobotsParser prefix = parser.prepare(Set.of("mybot"));
+        assertFalse(prefix.getRobotNames() instanceof AgentNameMatcher);
+        byte[] robotsTxt = "User-agent: MyBot\nDisallow: /\n".getBytes(StandardCharsets.UTF_8);
+        SimpleRobotRules rules = prefix.parseContent(ROBOTS_URL, robotsTxt, "text/plain");
+        assertFalse(rules.isAllowed("https://www.example.com/"));
+        assertEquals(parser.parseContent(ROBOTS_URL, robotsTxt, "text/plain", Set.of("mybot")), rules);
+    }
+
+    @Test
+    public void testPartialMatchOverridden() {
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser() {
+            @Override
+            protected boolean userAgentProductTokenPartialMatch(String agentName, Collection<String> targetTokens) {
+                return false;
+            }
+        };
+        PreparedRobotsParser prepared = parser.prepare(Set.of("mybot"));
+        assertFalse(prepared.getRobotNames() instanceof AgentNameMatcher);
+        String robotsTxt = "User-agent: mybot/1.0\nDisallow: /\n";
+        SimpleRobotRules rules = prepared.parseContent(ROBOTS_URL, robotsTxt.getBytes(StandardCharsets.UTF_8), "text/plain");
+        assertTrue(rules.isAllowed("https://www.example.com/"));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        PreparedRobotsParser prepared = parser.prepare(Set.of("mybot"));
+        List<Path> files = getRobotsFiles();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<SimpleRobotRules>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                for (Path file : files) {
+                    byte[] content = Files.readAllBytes(file);
+                    futures.add(executor.submit(() -> prepared.parseContent(ROBOTS_URL, content, "text/plain")));
+                }
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                byte[] content = Files.readAllBytes(files.get(i % files.size()));
+                assertEquals(parser.parseContent(ROBOTS_URL, content, "text/plain", Set.of("mybot")), futures.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
+
+public class RobotRulesCacheTest {
+
+    private static URL url(String url) throws MalformedURLException {
+        return URI.create(url).toURL();
+    }
+
+    private static SimpleRobotRules rules(String... disallowed) {
+        SimpleRobotRules rules = new SimpleRobotRules();
+        for (String path : disallowed) {
+            rules.addRule(path, false);
+        }
+        rules.sortRules();
+        return rules;
+    }
+
+    @Test
+    public void testGetRobotsUrl() throws Exception {
+        assertEquals("http://www.example.com:80/robots.txt", RobotRulesCache.getRobotsUrl(url("http://WWW.Example.COM/foo?bar")));
+        assertEquals("https://www.example.com:443/robots.txt", RobotRulesCache.getRobotsUrl(url("HTTPS://www.example.com")));
+        assertEquals("http://www.example.com:8080/robots.txt", RobotRulesCache.getRobotsUrl(url("http://www.example.com:8080/")));
+    }
+
+    @Test
+    public void testLoadOncePerHost() throws Exception {
+        RobotRulesCache cache = new RobotRulesCache(100, Long.MAX_VALUE);
+        List<String> loaded = new ArrayList<>();
+        RobotRulesCache.Loader loader = robotsUrl -> {
+            loaded.add(robotsUrl);
+            return rules("/private");
+        };
+        BaseRobotRules r1 = cache.get("http://www.example.com/a", loader);
+        BaseRobotRules r2 = cache.get("http://www.example.com:80/b", loader);
+        BaseRobotRules r3 = cache.get("https://www.example.com/a", loader);
+        assertSame(r1, r2);
+        assertEquals(List.of("http://www.example.com:80/robots.txt", "https://www.example.com:443/robots.txt"), loaded);
+        assertTrue(r3.isAllowed("https://www.example.com/a"));
+        assertEquals(2, cache.size());
+
+        cache.invalidate(url("http://www.example.com/"));
+        assertNull(cache.getIfPresent(url("http://www.example.com/")));
+        assertNotNull(cache.getIfPresent(url("https://www.example.com/")));
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+
+        assertThrows(MalformedURLException.class, () -> cache.get("no URL", loader));
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        ManualClock clock = new ManualClock();
+        RobotRulesCache cache = new RobotRulesCache(100, Long.MAX_VALUE, clock);
+        URL ok = url("http://ok.example.com/");
+        URL unavailable = url("http://unavailable.example.com/");
+        URL unreachable = url("http://unreachable.example.com/");
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        cache.put(ok, rules("/private"));
+        cache.put(unavailable, parser.failedFetch(404));
+        cache.put(unreachable, parser.failedFetch(503));
+
+        clock.advance(RobotRulesCache.DEFAULT_DEFER_VISITS_TTL - 1);
+        assertNotNull(cache.getIfPresent(unreachable));
+        clock.advance(1);
+        assertNull(cache.getIfPresent(unreachable));
+        assertNotNull(cache.getIfPresent(ok));
+        assertNotNull(cache.getIfPresent(unavailable));
+
+        clock.advance(RobotRulesCache.DEFAULT_TTL);
+        assertNull(cache.getIfPresent(ok));
+        assertNull(cache.getIfPresent(unavailable));
+
+        // expired rules are reloaded
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(ok, u -> {
+            loads.incrementAndGet();
+            return new SimpleRobotRules(RobotRulesMode.ALLOW_ALL);
+        });
+        assertEquals(1, loads.get());
+        assertTrue(cache.getIfPresent(ok).isAllowAll());
+    }
+
+    @Test
+    public void testBounds() throws Exception {
+        ManualClock clock = new ManualClock();
+        RobotRulesCache cache = new RobotRulesCache(10, Long.MAX_VALUE, clock);
+        for (int i = 0; i < 10; i++) {
+            cache.put(url("http://host" + i + ".example.com/"), rules());
+            clock.advance(1);
+        }
+        assertEquals(10, cache.size());
+        // access host0 so that it is not evicted as least recently used
+        assertNotNull(cache.getIfPresent(url("http://host0.example.com/")));
+        clock.advance(1);
+        cache.put(url("http://host10.example.com/"), rules());
+        assertTrue(cache.size() <= 9);
+        assertNotNull(cache.getIfPresent(url("http://host0.example.com/")));
+        assertNotNull(cache.getIfPresent(url("http://host10.example.com/")));
+        assertNull(cache.getIfPresent(url("http://host1.example.com/")));
+
+        SimpleRobotRules large = rules("/a", "/b", "/c", "/d");
+        SimpleRobotRules small = rules();
+        RobotRulesCache weightBounded = new RobotRulesCache(100, 2 * new RobotRulesCache(1, 1).weigh(large), clock);
+        weightBounded.put(url("http://a.example.com/"), large);
+        clock.advance(1);
+        weightBounded.put(url("http://b.example.com/"), large);
+        assertEquals(2, weightBounded.size());
+        clock.advance(1);
+        weightBounded.put(url("http://c.example.com/"), small);
+        assertEquals(2, weightBounded.size());
+        assertNull(weightBounded.getIfPresent(url("http://a.example.com/")));
+        assertTrue(weightBounded.getWeight() <= 2 * weightBounded.weigh(large));
+    }
+
+    @Test
+    public void testWeightIncludesMatcher() {
+        SimpleRobotRules rules = rules("/a", "/b/c", "/b/d", "/*.pdf$");
+        long ruleWeight = 64 + 4 * 48 + 2 * "/a/b/c/b/d/*.pdf$".length();
+        long matcherWeight = rules.getMatcher().estimateSize(false);
+        assertTrue(matcherWeight > 0);
+        assertEquals(ruleWeight + matcherWeight, RobotRulesCache.estimateSize(rules));
+
+        // frozen rules share the pattern characters with the matcher
+        rules.freeze();
+        long packedWeight = ((PackedRuleList) rules.getRobotRules()).estimateSize();
+        assertEquals(64 + packedWeight + rules.getMatcher().estimateSize(true), RobotRulesCache.estimateSize(rules));
+        assertTrue(rules.getMatcher().estimateSize(true) < matcherWeight);
+
+        // the matcher is not used if all or no URLs are allowed
+        assertEquals(64, RobotRulesCache.estimateSize(new SimpleRobotRules(RobotRulesMode.ALLOW_NONE)));
+    }
+
+    @Test
+    public void testConcurrentLoad() throws Exception {
+        RobotRulesCache cache = new RobotRulesCache(100, Long.MAX_VALUE);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RobotRulesCache.Loader loader = robotsUrl -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return rules("/private");
+        };
+
+        int numThreads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<BaseRobotRules>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("http://www.example.com/", loader)));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < numThreads; i++) {
+                results.add(executor.submit(() -> cache.get("http://www.example.com/" + Thread.currentThread().getName(), loader)));
+            }
+            release.countDown();
+            BaseRobotRules first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<BaseRobotRules> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLoadFailure() throws Exception {
+        RobotRulesCache cache = new RobotRulesCache(100, Long.MAX_VALUE);
+        IOException e = assertThrows(IOException.class, () -> cache.get("http://www.example.com/", u -> {
+            throw new IOException("connection refused");
+        }));
+        assertEquals("connection refused", e.getMessage());
+        assertEquals(0, cache.size());
+        BaseRobotRules rules = cache.get("http://www.example.com/", u -> rules("/private"));
+        assertTrue(rules.isAllowed("http://www.example.com/public"));
+    }
+}
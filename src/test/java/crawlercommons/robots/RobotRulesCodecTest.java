@@ -0,0 +1,175 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRule;
+import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
+
+public class RobotRulesCodecTest {
+
+    private static final String[] AGENT_NAMES = { "anybot", "googlebot", "bingbot", "twitterbot", "foobot", "examplebot" };
+
+    private static byte[] write(SimpleRobotRules rules) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            rules.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static SimpleRobotRules read(byte[] bytes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return SimpleRobotRules.readFrom(in);
+        }
+    }
+
+    private static SimpleRobotRules roundTrip(SimpleRobotRules rules) throws IOException {
+        SimpleRobotRules actual = read(write(rules));
+        assertEquals(rules, actual);
+        assertEquals(rules.isMatchedWildcard(), actual.isMatchedWildcard());
+        assertEquals(rules.getExtensions().keySet(), actual.getExtensions().keySet());
+        for (Map.Entry<RobotsExtension, RobotsExtensionData> e : rules.getExtensions().entrySet()) {
+            assertEquals(e.getValue().getValues(), actual.getExtensions().get(e.getKey()).getValues());
+        }
+        return actual;
+    }
+
+    private static int javaSerializedSize(SimpleRobotRules rules) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(rules);
+        }
+        return bytes.size();
+    }
+
+    @Test
+    void testRoundTripRobotsTxtFiles() throws IOException, URISyntaxException {
+        Path dir = Paths.get(RobotRulesCodecTest.class.getResource("/robots").toURI());
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        assertFalse(files.isEmpty());
+
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        SimpleRobotRulesParser extensionsParser = new SimpleRobotRulesParser();
+        extensionsParser.enableAllExtensions();
+        for (Path file : files) {
+            byte[] content = Files.readAllBytes(file);
+            for (String agentName : AGENT_NAMES) {
+                for (SimpleRobotRulesParser p : Arrays.asList(parser, extensionsParser)) {
+                    SimpleRobotRules rules = p.parseContent("https://www.example.com/robots.txt", content, "text/plain", List.of(agentName));
+                    SimpleRobotRules actual = roundTrip(rules);
+                    for (RobotRule rule : rules.getRobotRules()) {
+                        String url = "https://www.example.com" + rule.getPrefix().replace("*", "x").replace("$", "");
+                        assertEquals(rules.isAllowed(url), actual.isAllowed(url), () -> "URL " + url + " in " + file);
+                    }
+                    if (rules.getRobotRules().size() > 2) {
+                        assertTrue(write(rules).length < javaSerializedSize(rules), () -> "Encoding of rules in " + file + " not compact");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        roundTrip(new SimpleRobotRules(RobotRulesMode.ALLOW_ALL));
+        roundTrip(new SimpleRobotRules(RobotRulesMode.ALLOW_NONE));
+
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        SimpleRobotRules rules = parser.failedFetch(503);
+        assertTrue(roundTrip(rules).isDeferVisits());
+
+        rules = new SimpleRobotRules();
+        rules.setCrawlDelay(2500);
+        rules.addRule("/wp-admin/", false);
+        rules.addRule("/wp-admin/admin-ajax.php", true);
+        rules.addRule("/wp-includes/", false);
+        rules.addRule("/*.php$", false);
+        // characters outside the Basic Multilingual Plane sharing the high
+        // surrogate
+        rules.addRule("/😀", false);
+        rules.addRule("/😁", false);
+        rules.addRule("/ä/ö", true);
+        rules.addSitemap("https://www.example.com/sitemap.xml");
+        rules.addExtensionValue(RobotsExtension.HOST, "www.example.com");
+        rules.addExtensionValue(RobotsExtension.CLEAN_PARAM, "ref /articles/");
+        rules.addExtensionValue(RobotsExtension.CLEAN_PARAM, "sid");
+        rules.setMatchedWildcard(true);
+        rules.sortRules();
+        SimpleRobotRules actual = roundTrip(rules);
+        assertEquals(2500, actual.getCrawlDelay());
+        assertFalse(actual.isAllowed("https://www.example.com/wp-admin/"));
+        assertTrue(actual.isAllowed("https://www.example.com/wp-admin/admin-ajax.php"));
+        assertFalse(actual.isAllowed("https://www.example.com/index.php"));
+        assertTrue(actual.getRobotRules().contains(new RobotRule("/😁", false)));
+
+        // negative crawl delays are stored as well
+        rules = new SimpleRobotRules();
+        rules.setCrawlDelay(-1000);
+        assertEquals(-1000, roundTrip(rules).getCrawlDelay());
+    }
+
+    @Test
+    void testCorruptData() throws IOException {
+        SimpleRobotRules rules = new SimpleRobotRules();
+        rules.addRule("/private/", false);
+        rules.addRule("/public/", true);
+        byte[] bytes = write(rules);
+
+        byte[] corrupt = bytes.clone();
+        corrupt[0] = (byte) (RobotRulesCodec.FORMAT_VERSION + 1);
+        assertThrows(IOException.class, () -> read(corrupt));
+
+        byte[] badMode = bytes.clone();
+        badMode[1] = 7;
+        assertThrows(IOException.class, () -> read(badMode));
+
+        assertThrows(EOFException.class, () -> read(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(EOFException.class, () -> read(new byte[0]));
+
+        // varint with continuation bits only
+        byte[] malformed = Arrays.copyOf(bytes, 3 + 16);
+        Arrays.fill(malformed, 3, malformed.length, (byte) 0x80);
+        assertThrows(IOException.class, () -> read(malformed));
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRule;
+import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
+
+public class RobotRulesDiffTest {
+
+    private static SimpleRobotRules parse(String robotsTxt) {
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        return parser.parseContent("http://www.example.com/robots.txt", robotsTxt.getBytes(StandardCharsets.UTF_8), "text/plain", List.of("mybot"));
+    }
+
+    @Test
+    public void testCompare() {
+        SimpleRobotRules oldRules = parse("User-agent: *\n" //
+                        + "Disallow: /private/\n" //
+                        + "Disallow: /search\n" //
+                        + "Allow: /public/\n" //
+                        + "Disallow: /tmp/\n");
+        SimpleRobotRules newRules = parse("User-agent: *\n" //
+                        + "Disallow: /private/\n" //
+                        + "Allow: /search\n" //
+                        + "Disallow: /public/*.php$\n" //
+                        + "Disallow: /tmp/\n" //
+                        + "Crawl-delay: 10\n");
+        RobotRulesDiff diff = RobotRulesDiff.compare(oldRules, newRules);
+        assertFalse(diff.isUnchanged());
+        assertFalse(diff.isModeChanged());
+        assertEquals(List.of(new RobotRule("/public/*.php$", false)), diff.getAddedRules());
+        assertEquals(List.of(new RobotRule("/public/", true)), diff.getRemovedRules());
+        assertEquals(List.of("/search"), diff.getFlippedPatterns());
+
+        assertTrue(diff.isAffected("/search?q=a"));
+        assertTrue(diff.isAffected("/public/index.html"));
+        assertFalse(diff.isAffected("/private/a"));
+        assertFalse(diff.isAffected("/"));
+
+        List<String> paths = List.of("/", "/a", "/private/a", "/public/", "/public/a.php", "/search", "/search/x", "/tmp/a", "/z");
+        List<String> affected = new ArrayList<>();
+        diff.affectedPaths(paths.iterator()).forEachRemaining(affected::add);
+        assertEquals(List.of("/public/", "/public/a.php", "/search", "/search/x"), affected);
+        assertEquals(affected, diff.affectedPaths(paths.stream()).collect(Collectors.toList()));
+
+        // unchanged rules, only the crawl-delay differs
+        diff = RobotRulesDiff.compare(oldRules, parse("User-agent: *\n" //
+                        + "Disallow: /tmp/\n" //
+                        + "Allow: /public/\n" //
+                        + "Disallow: /search\n" //
+                        + "Disallow: /private/\n" //
+                        + "Crawl-delay: 5\n"));
+        assertTrue(diff.isUnchanged());
+        assertFalse(diff.affectedPaths(paths.iterator()).hasNext());
+    }
+
+    @Test
+    public void testModeChanged() {
+        SimpleRobotRules oldRules = parse("User-agent: *\nDisallow: /private/\n");
+        RobotRulesDiff diff = RobotRulesDiff.compare(oldRules, new SimpleRobotRulesParser().failedFetch(503));
+        assertTrue(diff.isModeChanged());
+        assertTrue(diff.isAffected("/"));
+        assertEquals(List.of("/", "/a"), diff.affectedPaths(List.of("/", "/a").stream()).collect(Collectors.toList()));
+
+        diff = RobotRulesDiff.compare(new SimpleRobotRules(RobotRulesMode.ALLOW_ALL), new SimpleRobotRules(RobotRulesMode.ALLOW_ALL));
+        assertTrue(diff.isUnchanged());
+    }
+
+    @Test
+    public void testIndexHtmlAndWildcards() {
+        SimpleRobotRules oldRules = parse("User-agent: *\nDisallow: /\n");
+        SimpleRobotRules newRules = parse("User-agent: *\nDisallow: /\nAllow: /dir/index.html\nAllow: /*.css$\n");
+        RobotRulesDiff diff = RobotRulesDiff.compare(oldRules, newRules);
+        List<String> paths = List.of("/a", "/dir/", "/dir/a", "/dir/index.html", "/style.css", "/z");
+        assertEquals(List.of("/dir/", "/dir/index.html", "/style.css"), diff.affectedPaths(paths.stream()).collect(Collectors.toList()));
+    }
+
+    /**
+     * All paths with a changed verdict must be included in the affected paths
+     */
+    @Test
+    public void testRandomChanges() {
+        String[] patterns = { "/", "/a", "/a/", "/ab", "/a/b", "/b", "/b*", "/*b", "/a*b$", "/a$", "/b/index.htm", "/c/d", "*c", "" };
+        Random random = new Random(7);
+        TreeSet<String> pathSet = new TreeSet<>();
+        String chars = "ab/cd";
+        for (int i = 0; i < 500; i++) {
+            StringBuilder sb = new StringBuilder("/");
+            int len = random.nextInt(6);
+            for (int j = 0; j < len; j++) {
+                sb.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            pathSet.add(sb.toString());
+        }
+        pathSet.add("/b/");
+        List<String> paths = new ArrayList<>(pathSet);
+        for (int n = 0; n < 300; n++) {
+            SimpleRobotRules oldRules = randomRules(random, patterns);
+            SimpleRobotRules newRules = randomRules(random, patterns);
+            RobotRulesDiff diff = RobotRulesDiff.compare(oldRules, newRules);
+            Set<String> affected = diff.affectedPaths(paths.stream()).collect(Collectors.toSet());
+            for (String path : paths) {
+                String url = "http://www.example.com" + path;
+                if (oldRules.isAllowed(url) != newRules.isAllowed(url)) {
+                    assertTrue(affected.contains(path), () -> "Path " + path + " not affected: " + oldRules + newRules);
+                }
+                assertEquals(diff.isAffected(path), affected.contains(path), path);
+            }
+        }
+    }
+
+    private static SimpleRobotRules randomRules(Random random, String[] patterns) {
+        SimpleRobotRules rules = new SimpleRobotRules();
+        for (String pattern : patterns) {
+            if (random.nextInt(3) == 0) {
+                rules.addRule(pattern, random.nextBoolean());
+            }
+        }
+        rules.sortRules();
+        return rules;
+    }
+}
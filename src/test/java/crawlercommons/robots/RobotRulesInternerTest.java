@@ -0,0 +1,135 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class RobotRulesInternerTest {
+
+    private static final String ROBOTS_TXT = "User-agent: *\r\n" //
+                    + "Disallow: /wp-admin/\r\n" //
+                    + "Allow: /wp-admin/admin-ajax.php\r\n";
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testIdenticalContent() {
+        RobotRulesInterner interner = new RobotRulesInterner(new SimpleRobotRulesParser(), 100);
+        SimpleRobotRules r1 = interner.parseContent("http://a.example.com/robots.txt", bytes(ROBOTS_TXT), "text/plain", List.of("mybot"));
+        SimpleRobotRules r2 = interner.parseContent("http://b.example.com/robots.txt", bytes(ROBOTS_TXT), "text/plain", List.of("mybot"));
+        assertSame(r1, r2);
+        assertTrue(r1.isFrozen());
+        assertFalse(r1.isAllowed("http://a.example.com/wp-admin/"));
+        assertTrue(r2.isAllowed("http://b.example.com/wp-admin/admin-ajax.php"));
+        assertEquals(new SimpleRobotRulesParser().parseContent("http://a.example.com/robots.txt", bytes(ROBOTS_TXT), "text/plain", List.of("mybot")), r1);
+
+        // other robot names or content are not shared
+        SimpleRobotRules r3 = interner.parseContent("http://a.example.com/robots.txt", bytes(ROBOTS_TXT), "text/plain", List.of("otherbot"));
+        assertNotSame(r1, r3);
+        SimpleRobotRules r4 = interner.parseContent("http://a.example.com/robots.txt", bytes(ROBOTS_TXT + "Disallow: /tmp/\r\n"), "text/plain", List.of("mybot"));
+        assertNotSame(r1, r4);
+
+        assertEquals(4, interner.getRequestCount());
+        assertEquals(1, interner.getHitCount());
+        assertEquals(0.25, interner.getHitRate());
+        assertEquals(RobotRulesCache.estimateSize(r1), interner.getMemorySaved());
+        assertEquals(3, interner.size());
+    }
+
+    @Test
+    public void testFrozen() {
+        RobotRulesInterner interner = new RobotRulesInterner(new SimpleRobotRulesParser(), 100);
+        SimpleRobotRules rules = interner.parseContent("http://a.example.com/robots.txt", bytes(ROBOTS_TXT), "text/plain", List.of("mybot"));
+        assertThrows(UnsupportedOperationException.class, () -> rules.addRule("/", false));
+        assertThrows(UnsupportedOperationException.class, () -> rules.clearRules());
+        assertThrows(UnsupportedOperationException.class, () -> rules.sortRules());
+        assertThrows(UnsupportedOperationException.class, () -> rules.getRobotRules().clear());
+        assertThrows(UnsupportedOperationException.class, () -> rules.setCrawlDelay(1000));
+        assertThrows(UnsupportedOperationException.class, () -> rules.addSitemap("http://a.example.com/sitemap.xml"));
+        assertThrows(UnsupportedOperationException.class, () -> rules.addExtensionValue(RobotsExtension.HOST, "a.example.com"));
+        assertEquals(2, rules.getRobotRules().size());
+    }
+
+    @Test
+    public void testSingletons() {
+        RobotRulesInterner interner = new RobotRulesInterner(new SimpleRobotRulesParser(), 100);
+        SimpleRobotRules allowAll = interner.parseContent("http://a.example.com/robots.txt", new byte[0], "text/plain", List.of("mybot"));
+        assertTrue(allowAll.isAllowAll());
+        assertSame(allowAll, interner.failedFetch(404));
+
+        SimpleRobotRules deferVisits = interner.failedFetch(503);
+        assertTrue(deferVisits.isAllowNone());
+        assertTrue(deferVisits.isDeferVisits());
+        assertSame(deferVisits, interner.failedFetch(500));
+
+        SimpleRobotRules allowNone = interner.parseContent("http://c.example.com/robots.txt", bytes("User-agent: *\nDisallow: /\n"), "text/plain", List.of("mybot"));
+        assertFalse(allowNone.isAllowed("http://c.example.com/"));
+        assertTrue(interner.getMemorySaved() > 0);
+    }
+
+    @Test
+    public void testRelativeSitemaps() {
+        RobotRulesInterner interner = new RobotRulesInterner(new SimpleRobotRulesParser(), 100);
+        String content = ROBOTS_TXT + "Sitemap: /sitemap.xml\r\n";
+        SimpleRobotRules r1 = interner.parseContent("http://a.example.com/robots.txt", bytes(content), "text/plain", List.of("mybot"));
+        SimpleRobotRules r2 = interner.parseContent("http://b.example.com/robots.txt", bytes(content), "text/plain", List.of("mybot"));
+        assertNotSame(r1, r2);
+        assertEquals(List.of("http://a.example.com/sitemap.xml"), r1.getSitemaps());
+        assertEquals(List.of("http://b.example.com/sitemap.xml"), r2.getSitemaps());
+        assertSame(r2, interner.parseContent("http://b.example.com/robots.txt", bytes(content), "text/plain", List.of("mybot")));
+    }
+
+    @Test
+    public void testRelativeSitemapsUtf16() {
+        RobotRulesInterner interner = new RobotRulesInterner(new SimpleRobotRulesParser(), 100);
+        String content = "\uFEFF" + ROBOTS_TXT + "Sitemap: /sitemap.xml\r\n";
+        for (Charset charset : List.of(StandardCharsets.UTF_16LE, StandardCharsets.UTF_16BE)) {
+            byte[] utf16 = content.getBytes(charset);
+            SimpleRobotRules r1 = interner.parseContent("http://a.example.com/robots.txt", utf16, "text/plain", List.of("mybot"));
+            SimpleRobotRules r2 = interner.parseContent("http://b.example.com/robots.txt", utf16, "text/plain", List.of("mybot"));
+            assertNotSame(r1, r2);
+            assertEquals(List.of("http://a.example.com/sitemap.xml"), r1.getSitemaps(), charset.name());
+            assertEquals(List.of("http://b.example.com/sitemap.xml"), r2.getSitemaps(), charset.name());
+            assertSame(r1, interner.parseContent("http://a.example.com/robots.txt", utf16, "text/plain", List.of("mybot")));
+        }
+        assertEquals(4, interner.size());
+    }
+
+    @Test
+    public void testBounded() {
+        RobotRulesInterner interner = new RobotRulesInterner(new SimpleRobotRulesParser(), 2);
+        for (int i = 0; i < 5; i++) {
+            interner.parseContent("http://a.example.com/robots.txt", bytes(ROBOTS_TXT + "Disallow: /" + i + "\n"), "text/plain", List.of("mybot"));
+        }
+        assertEquals(2, interner.size());
+        interner.clear();
+        assertEquals(0, interner.size());
+    }
+}
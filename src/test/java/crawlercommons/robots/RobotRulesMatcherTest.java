@@ -0,0 +1,257 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRule;
+
+/**
+ * Verify that the compiled {@link RobotRulesMatcher} decides exactly as a loop
+ * over all rules matching every rule by a regular expression.
+ */
+public class RobotRulesMatcherTest {
+
+    private static final String[] AGENT_NAMES = { "anybot", "googlebot", "bingbot", "twitterbot", "foobot", "examplebot" };
+
+    private static final String[] PATH_SUFFIXES = { "", "/", "x", "index.html", "?a=1", "/index.htm", ".php" };
+
+    /** Regular expressions of the reference implementation per pattern */
+    private static final Map<String, Pattern> REFERENCE_PATTERNS = new HashMap<>();
+
+    /**
+     * Reference implementation: check every rule, the longest match wins, on
+     * equal length allow wins.
+     */
+    private static boolean referenceIsAllowed(List<RobotRule> rules, String path) {
+        boolean isAllowed = true;
+        int longestRuleMatch = Integer.MIN_VALUE;
+        for (RobotRule rule : rules) {
+            int matchLength = referenceRuleMatches(path, rule._prefix);
+            if (matchLength == -1) {
+                if (rule._prefix.endsWith("index.htm") || rule._prefix.endsWith("index.html")) {
+                    matchLength = referenceRuleMatches(path, rule._prefix.substring(0, rule._prefix.indexOf("index.htm")) + "$");
+                    if (matchLength == -1) {
+                        continue;
+                    }
+                } else {
+                    continue;
+                }
+            }
+
+            if (longestRuleMatch < matchLength) {
+                longestRuleMatch = matchLength;
+                isAllowed = rule.isAllow();
+            } else if (longestRuleMatch == matchLength) {
+                isAllowed |= rule.isAllow();
+            }
+        }
+        return isAllowed;
+    }
+
+    /**
+     * Reference implementation of pattern matching using a regular
+     * expression: the wildcard <code>*</code> matches any sequence of
+     * characters, a trailing <code>$</code> anchors the pattern at the end of
+     * the path.
+     */
+    private static int referenceRuleMatches(String text, String pattern) {
+        boolean anchoredEnd = pattern.endsWith("$");
+        Matcher m = REFERENCE_PATTERNS.computeIfAbsent(pattern, p -> {
+            String body = anchoredEnd ? p.substring(0, p.length() - 1) : p;
+            String regex = Stream.of(body.split("\\*", -1)).map(Pattern::quote).collect(Collectors.joining(".*"));
+            return Pattern.compile(regex, Pattern.DOTALL);
+        }).matcher(text);
+        boolean matches = anchoredEnd ? m.matches() : m.lookingAt();
+        return matches ? pattern.length() : -1;
+    }
+
+    /** Derive paths which are likely to hit the boundaries of the rules. */
+    private static Set<String> pathsForRules(List<RobotRule> rules) {
+        Set<String> paths = new LinkedHashSet<>();
+        paths.add("/");
+        for (RobotRule rule : rules) {
+            String pattern = rule.getPrefix();
+            if (pattern.endsWith("$")) {
+                pattern = pattern.substring(0, pattern.length() - 1);
+            }
+            for (String wildcard : new String[] { "", "x", "a/b" }) {
+                String base = pattern.replace("*", wildcard);
+                for (int cut = Math.max(0, base.length() - 2); cut <= base.length(); cut++) {
+                    for (String suffix : PATH_SUFFIXES) {
+                        String path = base.substring(0, cut) + suffix;
+                        if (!path.startsWith("/")) {
+                            path = "/" + path;
+                        }
+                        paths.add(path);
+                    }
+                }
+            }
+        }
+        return paths;
+    }
+
+    private static void assertEquivalent(List<RobotRule> rules, Iterable<String> paths) {
+        RobotRulesMatcher matcher = RobotRulesMatcher.compile(rules);
+        for (String path : paths) {
+            assertEquals(referenceIsAllowed(rules, path), matcher.isAllowed(path, 0, path.length()), () -> "Path " + path + " with rules " + rules);
+        }
+    }
+
+    @Test
+    void testEquivalenceRobotsTxtFiles() throws IOException, URISyntaxException {
+        Path dir = Paths.get(RobotRulesMatcherTest.class.getResource("/robots").toURI());
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        assertFalse(files.isEmpty());
+
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        for (Path file : files) {
+            byte[] content = Files.readAllBytes(file);
+            for (String agentName : AGENT_NAMES) {
+                SimpleRobotRules rules = parser.parseContent("https://www.example.com/robots.txt", content, "text/plain", List.of(agentName));
+                assertEquivalent(rules.getRobotRules(), pathsForRules(rules.getRobotRules()));
+            }
+        }
+    }
+
+    @Test
+    void testEquivalenceRandomRules() {
+        Random random = new Random(42);
+        char[] patternChars = { '/', 'a', 'b', '*', '.', '$' };
+        char[] pathChars = { '/', 'a', 'b', '.' };
+        for (int round = 0; round < 500; round++) {
+            List<RobotRule> rules = new ArrayList<>();
+            int numRules = 1 + random.nextInt(8);
+            for (int i = 0; i < numRules; i++) {
+                StringBuilder sb = new StringBuilder("/");
+                int len = random.nextInt(6);
+                for (int j = 0; j < len; j++) {
+                    sb.append(patternChars[random.nextInt(patternChars.length)]);
+                }
+                if (random.nextInt(10) == 0) {
+                    sb.append("index.htm");
+                }
+                rules.add(new RobotRule(sb.toString(), random.nextBoolean()));
+            }
+            Set<String> paths = pathsForRules(rules);
+            for (int i = 0; i < 20; i++) {
+                StringBuilder sb = new StringBuilder("/");
+                int len = random.nextInt(8);
+                for (int j = 0; j < len; j++) {
+                    sb.append(pathChars[random.nextInt(pathChars.length)]);
+                }
+                paths.add(sb.toString());
+            }
+            assertEquivalent(rules, paths);
+        }
+    }
+
+    @Test
+    void testLongestMatch() {
+        List<RobotRule> rules = List.of(new RobotRule("/", true), //
+                        new RobotRule("/foo", false), //
+                        new RobotRule("/foo/bar", true), //
+                        new RobotRule("/foo/bar/baz$", false), //
+                        new RobotRule("/*.pdf", false));
+        RobotRulesMatcher matcher = RobotRulesMatcher.compile(rules);
+        assertEquals(0, matcher.match("/", 0, 1));
+        assertEquals(1, matcher.match("/foo", 0, 4));
+        assertEquals(2, matcher.match("/foo/bar/", 0, 9));
+        assertEquals(3, matcher.match("/foo/bar/baz", 0, 12));
+        assertEquals(2, matcher.match("/foo/bar/baz/", 0, 13));
+        assertEquals(4, matcher.match("/x.pdf", 0, 6));
+        assertEquals(2, matcher.match("/foo/bar/x.pdf", 0, 14));
+        // match a range of a longer character sequence
+        assertEquals(1, matcher.match("https://example.com/foo", 19, 23));
+    }
+
+    @Test
+    void testAllowPrecedenceOnEqualLength() {
+        List<RobotRule> rules = List.of(new RobotRule("/page", false), new RobotRule("/*age", true));
+        RobotRulesMatcher matcher = RobotRulesMatcher.compile(rules);
+        assertTrue(matcher.isAllowed("/page", 0, 5));
+        rules = List.of(new RobotRule("/folder/", false), new RobotRule("/folder/", true));
+        matcher = RobotRulesMatcher.compile(rules);
+        assertEquals(1, matcher.match("/folder/page", 0, 12));
+        assertTrue(matcher.isAllowed("/folder/page", 0, 12));
+    }
+
+    @Test
+    void testWildcardAnchoredAtEnd() {
+        RobotRulesMatcher matcher = RobotRulesMatcher.compile(List.of(new RobotRule("/*.php$", false)));
+        assertFalse(matcher.isAllowed("/a.php", 0, 6));
+        // the last piece is matched at the end of the path, not at its first
+        // occurrence
+        assertFalse(matcher.isAllowed("/a.php.php", 0, 10));
+        assertTrue(matcher.isAllowed("/a.php?x", 0, 8));
+        matcher = RobotRulesMatcher.compile(List.of(new RobotRule("/a*ba$", false)));
+        assertFalse(matcher.isAllowed("/aba", 0, 4));
+        assertTrue(matcher.isAllowed("/ab", 0, 3));
+        // pieces must not overlap
+        assertTrue(matcher.isAllowed("/aa", 0, 3));
+    }
+
+    @Test
+    void testWildcardLinearTime() {
+        String pattern = "/*a*a*a*a*a*a*a*a*b";
+        StringBuilder sb = new StringBuilder("/?q=");
+        for (int i = 0; i < 200_000; i++) {
+            sb.append('a');
+        }
+        String path = sb.toString();
+        RobotRulesMatcher matcher = RobotRulesMatcher.compile(List.of(new RobotRule(pattern, false), new RobotRule(pattern + "$", false)));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < 100; i++) {
+                assertTrue(matcher.isAllowed(path, 0, path.length()));
+            }
+        });
+        assertFalse(matcher.isAllowed(path + "b", 0, path.length() + 1));
+    }
+
+    @Test
+    void testNoRules() {
+        RobotRulesMatcher matcher = RobotRulesMatcher.compile(List.of());
+        assertEquals(RobotRulesMatcher.NO_MATCH, matcher.match("/", 0, 1));
+        assertTrue(matcher.isAllowed("/", 0, 1));
+    }
+}
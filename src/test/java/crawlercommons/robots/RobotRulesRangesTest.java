@@ -0,0 +1,153 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRule;
+import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
+
+public class RobotRulesRangesTest {
+
+    private static SimpleRobotRules parse(String robotsTxt) {
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        return parser.parseContent("http://www.example.com/robots.txt", robotsTxt.getBytes(StandardCharsets.UTF_8), "text/plain", List.of("mybot"));
+    }
+
+    private static List<String> collect(Iterator<String> paths) {
+        List<String> result = new ArrayList<>();
+        paths.forEachRemaining(result::add);
+        return result;
+    }
+
+    @Test
+    public void testLiteralRules() {
+        SimpleRobotRules rules = parse("User-agent: *\n" //
+                        + "Disallow: /search/\n" //
+                        + "Allow: /search/about\n" //
+                        + "Disallow: /tmp\n");
+        RobotRulesRanges ranges = RobotRulesRanges.compile(rules);
+        // no rule needs to be matched path by path
+        assertFalse(ranges.toString().contains("match"), ranges.toString());
+
+        List<String> paths = List.of("/", "/a", "/search", "/search/", "/search/about", "/search/about/us", "/search/q?x=1", "/search0", "/tmp", "/tmp/a",
+                        "/tmq", "/z");
+        assertEquals(List.of("/search/", "/search/q?x=1", "/tmp", "/tmp/a"), collect(ranges.disallowedPaths(paths.iterator())));
+        assertEquals(List.of("/", "/a", "/search", "/search/about", "/search/about/us", "/search0", "/tmq", "/z"), collect(ranges.allowedPaths(paths.iterator())));
+
+        BitSet allowed = ranges.isAllowed(paths.toArray(new String[0]));
+        for (int i = 0; i < paths.size(); i++) {
+            assertEquals(rules.isAllowed("http://www.example.com" + paths.get(i)), allowed.get(i), paths.get(i));
+            assertEquals(allowed.get(i), ranges.isAllowed(paths.get(i)), paths.get(i));
+        }
+    }
+
+    @Test
+    public void testWildcardRules() {
+        SimpleRobotRules rules = parse("User-agent: *\n" //
+                        + "Disallow: /search/\n" //
+                        + "Allow: /*.css$\n" //
+                        + "Disallow: /*.pdf$\n" //
+                        + "Allow: /docs/index.html\n" //
+                        + "Disallow: /docs/\n");
+        RobotRulesRanges ranges = RobotRulesRanges.compile(rules);
+        List<String> paths = List.of("/", "/a.css", "/a.pdf", "/docs/", "/docs/a", "/docs/index.html", "/robots.txt", "/search/", "/search/a.css",
+                        "/search/a.pdf", "/search/longer/path.css");
+        // the literal rule /search/ is more specific than the wildcard rules
+        assertEquals(List.of("/a.pdf", "/docs/a", "/search/", "/search/a.css", "/search/a.pdf", "/search/longer/path.css"),
+                        collect(ranges.disallowedPaths(paths.iterator())));
+        BitSet allowed = ranges.isAllowed(paths.toArray(new String[0]));
+        for (int i = 0; i < paths.size(); i++) {
+            assertEquals(rules.isAllowed("http://www.example.com" + paths.get(i)), allowed.get(i), paths.get(i));
+        }
+    }
+
+    @Test
+    public void testRuleModes() {
+        String[] paths = { "/", "/a", "/robots.txt" };
+        RobotRulesRanges ranges = RobotRulesRanges.compile(new SimpleRobotRules(RobotRulesMode.ALLOW_ALL));
+        assertEquals(3, ranges.isAllowed(paths).cardinality());
+        assertTrue(collect(ranges.disallowedPaths(List.of(paths).iterator())).isEmpty());
+        ranges = RobotRulesRanges.compile(new SimpleRobotRules(RobotRulesMode.ALLOW_NONE));
+        assertEquals(0, ranges.isAllowed(paths).cardinality());
+        assertEquals(List.of(paths), collect(ranges.disallowedPaths(List.of(paths).iterator())));
+
+        // robots.txt is always allowed
+        ranges = RobotRulesRanges.compile(parse("User-agent: *\nDisallow: /\n"));
+        assertEquals(List.of("/", "/a", "/robots.txt0"), collect(ranges.disallowedPaths(List.of("/", "/a", "/robots.txt", "/robots.txt0").iterator())));
+    }
+
+    @Test
+    public void testSameAsRules() throws Exception {
+        Path dir = Paths.get(RobotRulesRangesTest.class.getResource("/robots").toURI());
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        for (Path file : files) {
+            SimpleRobotRules rules = parser.parseContent("https://www.example.com/robots.txt", Files.readAllBytes(file), "text/plain", List.of("mybot"));
+            // paths derived from the rule patterns and around the bounds
+            TreeSet<String> pathSet = new TreeSet<>(List.of("/", "/robots.txt", "/robots.txt1", "/index.html", "/a"));
+            for (RobotRule rule : rules.getRobotRules()) {
+                String path = rule.getPrefix().replace("*", "x").replace("$", "");
+                if (path.isEmpty() || path.charAt(0) != '/') {
+                    path = "/" + path;
+                }
+                pathSet.add(path);
+                pathSet.add(path + "a");
+                pathSet.add(path + "/index.html");
+                pathSet.add(path + ".pdf");
+                pathSet.add(path.substring(0, path.length() - 1));
+                pathSet.add(path.substring(0, path.length() - 1) + '~');
+            }
+            String[] paths = pathSet.stream().filter(p -> p.startsWith("/")).toArray(String[]::new);
+            RobotRulesRanges ranges = RobotRulesRanges.compile(rules);
+            BitSet allowed = ranges.isAllowed(paths);
+            List<String> disallowed = new ArrayList<>();
+            for (int i = 0; i < paths.length; i++) {
+                boolean expected = rules.getMatcher().isAllowed(paths[i], 0, paths[i].length()) || paths[i].equals("/robots.txt");
+                if (rules.isAllowNone()) {
+                    expected = false;
+                } else if (rules.isAllowAll()) {
+                    expected = true;
+                }
+                assertEquals(expected, allowed.get(i), file.getFileName() + " " + paths[i]);
+                if (!expected) {
+                    disallowed.add(paths[i]);
+                }
+            }
+            assertEquals(disallowed, collect(ranges.disallowedPaths(List.of(paths).iterator())), file.getFileName().toString());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class RobotsAvailabilityTrackerTest {
+
+    private static final String HOST = "http://www.example.com:80/robots.txt";
+
+    @Test
+    public void testExponentialBackoff() {
+        ManualClock clock = new ManualClock();
+        RobotsAvailabilityTracker tracker = new RobotsAvailabilityTracker(clock);
+        tracker.setJitter(0.0);
+        tracker.setBackoff(1000, 10000);
+        assertFalse(tracker.isDeferred(HOST));
+        assertEquals(0, tracker.getNextAttemptTime(HOST));
+
+        long start = clock.millis();
+        long[] expected = { 1000, 2000, 4000, 8000, 10000, 10000 };
+        for (int i = 0; i < expected.length; i++) {
+            long now = clock.millis();
+            assertEquals(now + expected[i], tracker.recordFailure(HOST, -1));
+            assertEquals(i + 1, tracker.getFailures(HOST));
+            assertEquals(start, tracker.getFailingSince(HOST));
+            assertTrue(tracker.isDeferred(HOST));
+            clock.advance(expected[i] - 1);
+            assertTrue(tracker.isDeferred(HOST));
+            clock.advance(1);
+            assertFalse(tracker.isDeferred(HOST));
+        }
+
+        tracker.recordSuccess(HOST);
+        assertEquals(0, tracker.getFailures(HOST));
+        assertEquals(-1, tracker.getFailingSince(HOST));
+        assertEquals(0, tracker.getNumHosts());
+        assertEquals(clock.millis() + 1000, tracker.recordFailure(HOST, -1));
+
+        // Retry-After is respected if longer, also beyond the max. backoff,
+        // but capped by the unreachable period
+        tracker.recordSuccess(HOST);
+        assertEquals(clock.millis() + 5000, tracker.recordFailure(HOST, 5000));
+        assertEquals(clock.millis() + 20000, tracker.recordFailure(HOST, 20000));
+        tracker.setUnreachablePeriod(30000);
+        assertEquals(clock.millis() + 30000, tracker.recordFailure(HOST, 60000));
+    }
+
+    @Test
+    public void testJitter() {
+        ManualClock clock = new ManualClock();
+        RobotsAvailabilityTracker tracker = new RobotsAvailabilityTracker(clock);
+        tracker.setBackoff(10000, 10000);
+        tracker.setJitter(0.5);
+        for (int i = 0; i < 100; i++) {
+            long backoff = tracker.recordFailure("host" + i, -1) - clock.millis();
+            assertTrue(backoff > 5000 && backoff <= 10000, "Backoff with jitter: " + backoff);
+        }
+        assertEquals(100, tracker.getNumHosts());
+
+        assertThrows(IllegalArgumentException.class, () -> tracker.setJitter(1.5));
+        assertThrows(IllegalArgumentException.class, () -> tracker.setBackoff(0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> tracker.setBackoff(2000, 1000));
+        assertThrows(IllegalArgumentException.class, () -> tracker.setUnreachablePeriod(0));
+    }
+
+    @Test
+    public void testFallbackRules() {
+        ManualClock clock = new ManualClock();
+        RobotsAvailabilityTracker tracker = new RobotsAvailabilityTracker(clock);
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        BaseRobotRules lastKnown = parser.parseContent(HOST, "User-agent: *\nDisallow: /private/\n".getBytes(StandardCharsets.UTF_8), "text/plain",
+                        List.of("mybot"));
+        SimpleRobotRules unreachable = parser.failedFetch(503);
+
+        // success
+        assertSame(lastKnown, tracker.update(HOST, lastKnown, -1, null));
+        assertEquals(0, tracker.getNumHosts());
+
+        // failing: fall back to the last known rules, or disallow all
+        assertSame(lastKnown, tracker.update(HOST, unreachable, -1, lastKnown));
+        assertSame(unreachable, tracker.update(HOST, unreachable, -1, null));
+        assertEquals(2, tracker.getFailures(HOST));
+        assertFalse(tracker.isUnavailable(HOST));
+
+        // unreachable for 30 days: allow all, unless the last known rules are
+        // available
+        clock.advance(TimeUnit.DAYS.toMillis(30));
+        assertTrue(tracker.isUnavailable(HOST));
+        BaseRobotRules rules = tracker.update(HOST, unreachable, -1, null);
+        assertTrue(rules.isAllowAll());
+        assertFalse(rules.isDeferVisits());
+        assertSame(lastKnown, tracker.update(HOST, unreachable, -1, lastKnown));
+
+        // 4xx: no robots.txt, resets the state
+        assertTrue(tracker.update(HOST, parser.failedFetch(404), -1, lastKnown).isAllowAll());
+        assertEquals(0, tracker.getFailures(HOST));
+        assertFalse(tracker.isUnavailable(HOST));
+    }
+}
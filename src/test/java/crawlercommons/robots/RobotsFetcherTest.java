@@ -0,0 +1,268 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import crawlercommons.robots.RobotsFetcher.Response;
+import crawlercommons.robots.RobotsFetcher.Result;
+import crawlercommons.robots.RobotsFetcher.Transport;
+
+public class RobotsFetcherTest {
+
+    private static final String ROBOTS_TXT = "User-agent: *\nDisallow: /private/\n";
+
+    /** Local stand-in for a web server */
+    private static class StubTransport implements Transport {
+        private final Map<String, StubResponse> _responses = new HashMap<>();
+        private final List<String> _requestedUrls = Collections.synchronizedList(new ArrayList<>());
+        private final List<Map<String, String>> _requestHeaders = Collections.synchronizedList(new ArrayList<>());
+
+        StubTransport add(String url, int statusCode, String content, String... headers) {
+            StubResponse response = new StubResponse(statusCode, content);
+            for (int i = 0; i < headers.length; i += 2) {
+                response._headers.put(headers[i].toLowerCase(), headers[i + 1]);
+            }
+            _responses.put(url, response);
+            return this;
+        }
+
+        @Override
+        public Response fetch(String url, Map<String, String> requestHeaders) throws IOException {
+            _requestedUrls.add(url);
+            _requestHeaders.add(requestHeaders);
+            StubResponse response = _responses.get(url);
+            if (response == null) {
+                throw new ConnectException("Connection refused: " + url);
+            }
+            String etag = response._headers.get("etag");
+            if (etag != null && etag.equals(requestHeaders.get("If-None-Match"))) {
+                return new StubResponse(304, "");
+            }
+            return response;
+        }
+    }
+
+    private static class StubResponse implements Response {
+        private final int _statusCode;
+        private final byte[] _content;
+        private final Map<String, String> _headers = new HashMap<>();
+
+        StubResponse(int statusCode, String content) {
+            _statusCode = statusCode;
+            _content = content.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int getStatusCode() {
+            return _statusCode;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return _headers.get(name.toLowerCase());
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(_content);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static RobotsFetcher fetcher(Transport transport) {
+        return new RobotsFetcher(new SimpleRobotRulesParser(), transport, "mybot/1.0", List.of("mybot"));
+    }
+
+    @Test
+    public void testSuccess() throws Exception {
+        StubTransport transport = new StubTransport().add("http://www.example.com/robots.txt", 200, ROBOTS_TXT, "Content-Type", "text/plain");
+        Result result = fetcher(transport).fetch("http://www.example.com/robots.txt");
+        assertEquals(200, result.getStatusCode());
+        assertFalse(result.isNotModified());
+        assertFalse(result.getRules().isAllowed("http://www.example.com/private/a"));
+        assertTrue(result.getRules().isAllowed("http://www.example.com/public"));
+        assertEquals("mybot/1.0", transport._requestHeaders.get(0).get("User-Agent"));
+    }
+
+    @Test
+    public void testStatusCodes() throws Exception {
+        StubTransport transport = new StubTransport() //
+                        .add("http://a.example.com/robots.txt", 404, "Not found") //
+                        .add("http://b.example.com/robots.txt", 403, "Forbidden") //
+                        .add("http://c.example.com/robots.txt", 503, "Unavailable", "Retry-After", "120") //
+                        .add("http://d.example.com/robots.txt", 429, "Too many requests", "Retry-After", "Wed, 21 Oct 2026 07:28:00 GMT") //
+                        .add("http://e.example.com/robots.txt", 500, "Error");
+        RobotsFetcher fetcher = fetcher(transport);
+
+        for (String host : new String[] { "a", "b" }) {
+            Result result = fetcher.fetch("http://" + host + ".example.com/robots.txt");
+            assertTrue(result.getRules().isAllowAll());
+            assertFalse(result.getRules().isDeferVisits());
+        }
+        for (String host : new String[] { "c", "d", "e" }) {
+            Result result = fetcher.fetch("http://" + host + ".example.com/robots.txt");
+            assertTrue(result.getRules().isAllowNone());
+            assertTrue(result.getRules().isDeferVisits());
+        }
+        assertEquals(120000, fetcher.fetch("http://c.example.com/robots.txt").getRetryAfter());
+        assertEquals(-1, fetcher.fetch("http://d.example.com/robots.txt").getRetryAfter());
+
+        // not reachable
+        assertThrows(ConnectException.class, () -> fetcher.fetch("http://f.example.com/robots.txt"));
+        // loader interface
+        assertTrue(fetcher.load("http://a.example.com/robots.txt").isAllowAll());
+    }
+
+    @Test
+    public void testRedirects() throws Exception {
+        StubTransport transport = new StubTransport();
+        for (int i = 0; i < 5; i++) {
+            transport.add("http://r" + i + ".example.com/robots.txt", 301, "", "Location", "http://r" + (i + 1) + ".example.com/robots.txt");
+        }
+        transport.add("http://r5.example.com/robots.txt", 302, "", "Location", "/other/robots.txt");
+        transport.add("http://r5.example.com/other/robots.txt", 200, ROBOTS_TXT);
+        RobotsFetcher fetcher = fetcher(transport);
+
+        // five redirects are followed
+        Result result = fetcher.fetch("http://r1.example.com/robots.txt");
+        assertEquals("http://r5.example.com/other/robots.txt", result.getUrl());
+        assertEquals(200, result.getStatusCode());
+        assertFalse(result.getRules().isAllowed("http://r1.example.com/private/"));
+
+        // but not six
+        result = fetcher.fetch("http://r0.example.com/robots.txt");
+        assertEquals(302, result.getStatusCode());
+        assertTrue(result.getRules().isDeferVisits());
+
+        // redirect without location
+        transport.add("http://x.example.com/robots.txt", 307, "");
+        assertTrue(fetcher.fetch("http://x.example.com/robots.txt").getRules().isDeferVisits());
+    }
+
+    @Test
+    public void testConditionalRequest() throws Exception {
+        StubTransport transport = new StubTransport().add("http://www.example.com/robots.txt", 200, ROBOTS_TXT, "ETag", "\"v1\"", "Last-Modified",
+                        "Tue, 01 Sep 2026 10:00:00 GMT");
+        RobotsFetcher fetcher = fetcher(transport);
+        Result first = fetcher.fetch("http://www.example.com/robots.txt");
+        assertEquals("\"v1\"", first.getETag());
+        assertNull(transport._requestHeaders.get(0).get("If-None-Match"));
+
+        Result second = fetcher.fetch("http://www.example.com/robots.txt", first);
+        assertTrue(second.isNotModified());
+        assertSame(first.getRules(), second.getRules());
+        assertEquals("\"v1\"", second.getETag());
+        assertEquals("Tue, 01 Sep 2026 10:00:00 GMT", second.getLastModified());
+        assertEquals("\"v1\"", transport._requestHeaders.get(1).get("If-None-Match"));
+        assertEquals("Tue, 01 Sep 2026 10:00:00 GMT", transport._requestHeaders.get(1).get("If-Modified-Since"));
+
+        // validated again using the not-modified result
+        assertSame(first.getRules(), fetcher.fetch("http://www.example.com/robots.txt", second).getRules());
+
+        // modified
+        transport.add("http://www.example.com/robots.txt", 200, "User-agent: *\nDisallow: /\n", "ETag", "\"v2\"");
+        Result third = fetcher.fetch("http://www.example.com/robots.txt", second);
+        assertFalse(third.isNotModified());
+        assertFalse(third.getRules().isAllowed("http://www.example.com/public"));
+    }
+
+    @Test
+    public void testMaxContentLength() throws Exception {
+        String content = ROBOTS_TXT + "Disallow: /tmp/\n";
+        StubTransport transport = new StubTransport().add("http://www.example.com/robots.txt", 200, content);
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        parser.setMaxContentLength(ROBOTS_TXT.length());
+        RobotsFetcher fetcher = new RobotsFetcher(parser, transport, null, List.of("mybot"));
+        Result result = fetcher.fetch("http://www.example.com/robots.txt");
+        assertTrue(result.getRules().isAllowed("http://www.example.com/tmp/"));
+        assertFalse(transport._requestHeaders.get(0).containsKey("User-Agent"));
+    }
+
+    @Test
+    public void testMaxConcurrentFetchesPerHost() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Transport transport = (url, headers) -> {
+            int n = running.incrementAndGet();
+            maxRunning.accumulateAndGet(n, Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return new StubResponse(200, ROBOTS_TXT);
+        };
+        RobotsFetcher fetcher = fetcher(transport);
+        assertEquals(1, fetcher.getMaxConcurrentFetchesPerHost());
+        fetcher.setMaxConcurrentFetchesPerHost(2);
+        assertThrows(IllegalArgumentException.class, () -> fetcher.setMaxConcurrentFetchesPerHost(0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> fetcher.fetch("http://www.example.com/robots.txt")));
+            }
+            for (Future<Result> future : futures) {
+                assertEquals(200, future.get().getStatusCode());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(maxRunning.get() <= 2, "Max. concurrent fetches: " + maxRunning.get());
+    }
+
+    @Test
+    public void testUrlConnectionTransport(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("robots.txt");
+        Files.write(file, ROBOTS_TXT.getBytes(StandardCharsets.UTF_8));
+        RobotsFetcher fetcher = fetcher(new RobotsFetcher.UrlConnectionTransport(1000, 1000));
+        Result result = fetcher.fetch(file.toUri().toString());
+        assertEquals(200, result.getStatusCode());
+        assertFalse(result.getRules().isAllowed("http://www.example.com/private/"));
+    }
+}
@@ -0,0 +1,268 @@
+/**
+ * Copyright 2026 Crawler-Commons
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package crawlercommons.robots;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import crawlercommons.robots.SimpleRobotRules.RobotRulesMode;
+
+public class RobotsRuleStoreTest {
+
+    /** Small regions to test records padded at region boundaries */
+    private static final int REGION_BITS = 12;
+
+    private static final String[] PATHS = { "/", "", "/index.html", "/robots.txt", "/a", "/a/", "/a/index.htm", "/a/b?c=d", "/%7Euser/", "/~user/",
+                    "/a%2fb", "/a%2Fb/", "/a*b$c", "/a%2ab%24c", "/p%C3%A4th", "/päth", "/wp-admin/admin-ajax.php", "/wp-admin/", "/cgi-bin/x.pdf",
+                    "/private/page.html?x=1", "/search?q=robots", "/de/", "/foo/bar/baz.php", "/tmp", "/tmp/", "/Product/", "/product/" };
+
+    private static Map<String, SimpleRobotRules> parseTestFiles() throws Exception {
+        Path dir = Paths.get(RobotsRuleStoreTest.class.getResource("/robots").toURI());
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        Map<String, SimpleRobotRules> rules = new LinkedHashMap<>();
+        for (Path file : files) {
+            String host = "https://" + file.getFileName().toString().toLowerCase().replace('.', '-') + ".example.com:443/robots.txt";
+            rules.put(host, parser.parseContent(host, Files.readAllBytes(file), "text/plain", List.of("mybot")));
+        }
+        return rules;
+    }
+
+    private static void assertSameVerdicts(RobotsRuleStore store, String host, SimpleRobotRules rules) {
+        String base = host.substring(0, host.length() - "/robots.txt".length());
+        for (String path : PATHS) {
+            String url = base + path;
+            int expected = rules.isAllowed(url) ? RobotsRuleStore.ALLOWED : RobotsRuleStore.DISALLOWED;
+            assertEquals(expected, store.isAllowed(host, url), url);
+        }
+    }
+
+    @Test
+    public void testLookup(@TempDir Path dir) throws Exception {
+        Map<String, SimpleRobotRules> rules = parseTestFiles();
+        SimpleRobotRules allowNone = new SimpleRobotRules(RobotRulesMode.ALLOW_NONE);
+        allowNone.setDeferVisits(true);
+        rules.put("http://unavailable.example.com:80/robots.txt", allowNone);
+        rules.put("http://none.example.com:80/robots.txt", new SimpleRobotRules(RobotRulesMode.ALLOW_ALL));
+        rules.put("http://bücher.example.com:80/robots.txt", rules.values().iterator().next());
+
+        RobotsRuleStore store = new RobotsRuleStore(dir, REGION_BITS);
+        assertEquals(0, store.size());
+        assertEquals(RobotsRuleStore.UNKNOWN_HOST, store.isAllowed("http://www.example.com:80/robots.txt", "http://www.example.com/"));
+        store.update(rules, Set.of());
+        assertEquals(rules.size(), store.size());
+        assertEquals(1, store.getGeneration());
+
+        for (Map.Entry<String, SimpleRobotRules> e : rules.entrySet()) {
+            String host = e.getKey();
+            SimpleRobotRules expected = e.getValue();
+            assertTrue(store.contains(host));
+            assertSameVerdicts(store, host, expected);
+
+            SimpleRobotRules materialized = store.get(host);
+            assertEquals(expected.isAllowAll(), materialized.isAllowAll());
+            assertEquals(expected.isAllowNone(), materialized.isAllowNone());
+            assertEquals(expected.isDeferVisits(), materialized.isDeferVisits());
+            assertEquals(expected.getCrawlDelay(), materialized.getCrawlDelay());
+            assertEquals(expected.getSitemaps(), materialized.getSitemaps());
+            assertEquals(expected.getExtensions(), materialized.getExtensions());
+            assertEquals(new ArrayList<>(expected.getRobotRules()), new ArrayList<>(materialized.getRobotRules()), host);
+        }
+        assertFalse(store.contains("http://www.example.com:80/robots.txt"));
+        assertNull(store.get("http://www.example.com:80/robots.txt"));
+    }
+
+    @Test
+    public void testRandomRules(@TempDir Path dir) throws Exception {
+        Random random = new Random(42);
+        String alphabet = "/ab*$";
+        Map<String, SimpleRobotRules> rules = new HashMap<>();
+        for (int h = 0; h < 200; h++) {
+            SimpleRobotRules r = new SimpleRobotRules();
+            int numRules = random.nextInt(8);
+            for (int i = 0; i < numRules; i++) {
+                StringBuilder pattern = new StringBuilder("/");
+                int length = random.nextInt(6);
+                for (int j = 0; j < length; j++) {
+                    pattern.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                if (random.nextInt(8) == 0) {
+                    pattern.append("index.html");
+                }
+                r.addRule(pattern.toString(), random.nextBoolean());
+            }
+            r.sortRules();
+            rules.put("http://host" + h + ".example.com:80/robots.txt", r);
+        }
+
+        RobotsRuleStore store = new RobotsRuleStore(dir, REGION_BITS);
+        store.rebuild(rules.entrySet().iterator());
+        assertEquals(rules.size(), store.size());
+        for (Map.Entry<String, SimpleRobotRules> e : rules.entrySet()) {
+            String base = e.getKey().substring(0, e.getKey().length() - "/robots.txt".length());
+            for (int i = 0; i < 50; i++) {
+                StringBuilder path = new StringBuilder("/");
+                int length = random.nextInt(8);
+                for (int j = 0; j < length; j++) {
+                    path.append("ab/".charAt(random.nextInt(3)));
+                }
+                if (random.nextInt(8) == 0) {
+                    path.append("index.html");
+                }
+                String url = base + path;
+                int expected = e.getValue().isAllowed(url) ? RobotsRuleStore.ALLOWED : RobotsRuleStore.DISALLOWED;
+                assertEquals(expected, store.isAllowed(e.getKey(), url), url + " " + e.getValue().getRobotRules());
+            }
+        }
+    }
+
+    @Test
+    public void testUpdate(@TempDir Path dir) throws Exception {
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        String hostA = "http://a.example.com:80/robots.txt";
+        String hostB = "http://b.example.com:80/robots.txt";
+        String hostC = "http://c.example.com:80/robots.txt";
+        SimpleRobotRules disallowPrivate = parser.parseContent(hostA, "User-agent: *\nDisallow: /private/\n".getBytes(StandardCharsets.UTF_8), "text/plain",
+                        List.of("mybot"));
+        SimpleRobotRules disallowAll = parser.parseContent(hostA, "User-agent: *\nDisallow: /\n".getBytes(StandardCharsets.UTF_8), "text/plain", List.of("mybot"));
+
+        RobotsRuleStore store = new RobotsRuleStore(dir, REGION_BITS);
+        store.update(Map.of(hostA, disallowPrivate, hostB, disallowPrivate), Set.of());
+        assertEquals(RobotsRuleStore.DISALLOWED, store.isAllowed(hostA, "http://a.example.com/private/x"));
+        assertEquals(RobotsRuleStore.ALLOWED, store.isAllowed(hostB, "http://b.example.com/public"));
+
+        // update a, remove b, add c
+        store.update(Map.of(hostA, disallowAll, hostC, disallowPrivate), Set.of(hostB));
+        assertEquals(2, store.getGeneration());
+        assertEquals(2, store.size());
+        assertEquals(RobotsRuleStore.DISALLOWED, store.isAllowed(hostA, "http://a.example.com/public"));
+        assertEquals(RobotsRuleStore.UNKNOWN_HOST, store.isAllowed(hostB, "http://b.example.com/public"));
+        assertEquals(RobotsRuleStore.DISALLOWED, store.isAllowed(hostC, "http://c.example.com/private/"));
+
+        // only the current generation is kept
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of("robots-rules-2.store"), files.map(p -> p.getFileName().toString()).collect(Collectors.toList()));
+        }
+
+        // reopen, left-overs of an interrupted update are removed
+        Files.write(dir.resolve("robots-rules-3.tmp"), new byte[10]);
+        RobotsRuleStore reopened = new RobotsRuleStore(dir, REGION_BITS);
+        assertEquals(2, reopened.getGeneration());
+        assertEquals(2, reopened.size());
+        assertEquals(RobotsRuleStore.DISALLOWED, reopened.isAllowed(hostC, "http://c.example.com/private/"));
+        assertFalse(Files.exists(dir.resolve("robots-rules-3.tmp")));
+
+        // rebuild: the rules seen last win
+        List<Map.Entry<String, SimpleRobotRules>> entries = List.of(new AbstractMap.SimpleEntry<>(hostA, disallowAll),
+                        new AbstractMap.SimpleEntry<>(hostA, disallowPrivate));
+        reopened.rebuild(entries.iterator());
+        assertEquals(1, reopened.size());
+        assertEquals(RobotsRuleStore.ALLOWED, reopened.isAllowed(hostA, "http://a.example.com/public"));
+    }
+
+    @Test
+    public void testConcurrentLookupsDuringUpdate(@TempDir Path dir) throws Exception {
+        Map<String, SimpleRobotRules> rules = parseTestFiles();
+        RobotsRuleStore store = new RobotsRuleStore(dir, REGION_BITS);
+        store.update(rules, Set.of());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean stop = new AtomicBoolean();
+        try {
+            List<CompletableFuture<Void>> readers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                readers.add(CompletableFuture.runAsync(() -> {
+                    while (!stop.get()) {
+                        for (Map.Entry<String, SimpleRobotRules> e : rules.entrySet()) {
+                            assertSameVerdicts(store, e.getKey(), e.getValue());
+                        }
+                    }
+                }, executor));
+            }
+            for (int i = 0; i < 5; i++) {
+                store.updateAsync(rules, Set.of(), executor).get();
+            }
+            stop.set(true);
+            for (CompletableFuture<Void> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            stop.set(true);
+            executor.shutdown();
+        }
+        assertEquals(6, store.getGeneration());
+    }
+
+    @Test
+    public void testRecordTooLarge(@TempDir Path dir) throws Exception {
+        SimpleRobotRules rules = new SimpleRobotRules();
+        for (int i = 0; i < 1000; i++) {
+            rules.addRule("/path/number/" + i, false);
+        }
+        RobotsRuleStore store = new RobotsRuleStore(dir, REGION_BITS);
+        assertThrows(IllegalArgumentException.class, () -> store.update(Map.of("http://www.example.com:80/robots.txt", rules), Set.of()));
+        // the store is unchanged
+        assertEquals(0, store.getGeneration());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void testFinishFailed(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("segment.tmp");
+        RobotsRuleSegment.Writer writer = new RobotsRuleSegment.Writer(file, REGION_BITS);
+        writer.add("http://www.example.com:80/robots.txt", new SimpleRobotRules(RobotRulesMode.ALLOW_ALL));
+        // fail to build the slot table
+        Files.delete(file.resolveSibling(file.getFileName() + ".slots"));
+        assertThrows(IOException.class, writer::finish);
+        writer.close();
+        // the partial segment file is removed
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -20,16 +20,29 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -876,6 +889,11 @@ public class SimpleRobotRulesParserTest {
         assertTrue(rules.isDeferVisits());
         assertFalse(rules.isAllowed("http://www.domain.com/index.html"));
 
+        // 429 Too Many Requests is handled like a server error
+        rules = robotParser.failedFetch(429);
+        assertTrue(rules.isDeferVisits());
+        assertFalse(rules.isAllowed("http://www.domain.com/index.html"));
+
         // All 4xx status codes should result in open access (ala Google)
         // SC_FORBIDDEN
         // SC_NOT_FOUND
@@ -1829,6 +1847,411 @@ public class SimpleRobotRulesParserTest {
         assertEquals(0, robotParser.getNumWarnings());
     }
 
+    @Test
+    void testMaxContentLength() {
+        String robotsTxt = "User-agent: *" + CRLF //
+                        + "Disallow: /a" + CRLF //
+                        + "Disallow: /bcdefghijklmnopqrstuvwxyz" + CRLF //
+                        + "Disallow: /c" + CRLF;
+        SimpleRobotRulesParser robotParser = new SimpleRobotRulesParser();
+        assertEquals(SimpleRobotRulesParser.DEFAULT_MAX_CONTENT_LENGTH, robotParser.getMaxContentLength());
+        SimpleRobotRules rules = robotParser.parseContent(FAKE_ROBOTS_URL, robotsTxt.getBytes(UTF_8), "text/plain", Set.of());
+        assertEquals(3, rules.getRobotRules().size());
+
+        // limit within the third line: the truncated line is skipped
+        robotParser.setMaxContentLength(robotsTxt.indexOf("/bcdef") + 3);
+        rules = robotParser.parseContent(FAKE_ROBOTS_URL, robotsTxt.getBytes(UTF_8), "text/plain", Set.of());
+        assertEquals(1, rules.getRobotRules().size());
+        assertFalse(rules.isAllowed("http://www.domain.com/a"));
+        assertTrue(rules.isAllowed("http://www.domain.com/b"));
+        assertTrue(rules.isAllowed("http://www.domain.com/c"));
+        assertEquals(1, robotParser.getNumWarnings());
+
+        // limit at the end of the third line
+        robotParser.setMaxContentLength(robotsTxt.indexOf("Disallow: /c"));
+        rules = robotParser.parseContent(FAKE_ROBOTS_URL, robotsTxt.getBytes(UTF_8), "text/plain", Set.of());
+        assertEquals(2, rules.getRobotRules().size());
+        assertFalse(rules.isAllowed("http://www.domain.com/bcdefghijklmnopqrstuvwxyz"));
+
+        assertThrows(IllegalArgumentException.class, () -> robotParser.setMaxContentLength(-1));
+    }
+
+    @Test
+    void testParseInputStreamAndByteBuffer() throws Exception {
+        byte[] content = readFile("/robots/merge-rules.txt");
+        SimpleRobotRulesParser robotParser = new SimpleRobotRulesParser();
+        SimpleRobotRules expected = robotParser.parseContent(FAKE_ROBOTS_URL, content, "text/plain", Set.of("foobot"));
+
+        SimpleRobotRules rules = robotParser.parseContent(FAKE_ROBOTS_URL, new ByteArrayInputStream(content), "text/plain", Set.of("foobot"));
+        assertEquals(expected, rules);
+
+        // array-backed buffer with offset
+        byte[] padded = new byte[content.length + 10];
+        System.arraycopy(content, 0, padded, 5, content.length);
+        ByteBuffer buffer = ByteBuffer.wrap(padded, 5, content.length).slice();
+        rules = robotParser.parseContent(FAKE_ROBOTS_URL, buffer, "text/plain", Set.of("foobot"));
+        assertEquals(expected, rules);
+        assertEquals(0, buffer.position());
+
+        // direct buffer
+        buffer = ByteBuffer.allocateDirect(content.length);
+        buffer.put(content).flip();
+        rules = robotParser.parseContent(FAKE_ROBOTS_URL, buffer, "text/plain", Set.of("foobot"));
+        assertEquals(expected, rules);
+        assertEquals(0, buffer.position());
+
+        // only the max. content length is read from the stream
+        robotParser.setMaxContentLength(10);
+        InputStream is = new ByteArrayInputStream(content);
+        robotParser.parseContent(FAKE_ROBOTS_URL, is, "text/plain", Set.of("foobot"));
+        assertEquals(content.length - 11, is.available());
+    }
+
+    @Test
+    void testUnicodeLineSeparators() {
+        String robotsTxt = "User-agent: *\u0085Disallow: /a\u2028Disallow: /b\u2029Disallow: /c # comment\u2028Allow: /c/ä";
+        BaseRobotRules rules = createRobotRules("anybot", robotsTxt);
+        assertFalse(rules.isAllowed("http://www.domain.com/a"));
+        assertFalse(rules.isAllowed("http://www.domain.com/b"));
+        assertFalse(rules.isAllowed("http://www.domain.com/c"));
+        assertTrue(rules.isAllowed("http://www.domain.com/c/%C3%A4"));
+        assertTrue(rules.isAllowed("http://www.domain.com/d"));
+    }
+
+    @Test
+    void testLazyGroupParsing() throws Exception {
+        String robotsTxt = "User-agent: otherbot" + LF //
+                        + "Disallow: /other/" + LF //
+                        + "Crawl-delay: 10" + LF //
+                        + "Sitemap: http://www.domain.com/sitemap.xml" + LF //
+                        + "Host: www.domain.com" + LF //
+                        + "Request-rate: 1/10s" + LF //
+                        + "Invalid line" + LF //
+                        + LF //
+                        + "User-agent: thirdbot" + LF //
+                        + "  User-agent: mybot" + LF //
+                        + "Disallow: /private/" + LF //
+                        + "Request-rate: 1/5s" + LF //
+                        + LF //
+                        + "User-agent: *" + LF //
+                        + "Disallow: /" + LF;
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        parser.enableAllExtensions();
+        SimpleRobotRules expected = parser.parseContent(FAKE_ROBOTS_URL, robotsTxt.getBytes(UTF_8), "text/plain", Set.of("mybot"));
+        assertEquals(1, parser.getNumWarnings());
+
+        parser.setLazyGroupParsing(true);
+        assertTrue(parser.isLazyGroupParsing());
+        SimpleRobotRules rules = parser.parseContent(FAKE_ROBOTS_URL, robotsTxt.getBytes(UTF_8), "text/plain", Set.of("mybot"));
+        assertEquals(expected, rules);
+        assertEquals(0, parser.getNumWarnings());
+        assertFalse(rules.isAllowed("http://www.domain.com/private/"));
+        assertTrue(rules.isAllowed("http://www.domain.com/other/"));
+        assertEquals(List.of("http://www.domain.com/sitemap.xml"), rules.getSitemaps());
+        assertEquals(List.of("www.domain.com"), rules.getExtensionData(RobotsExtension.HOST).getValues());
+        assertEquals(List.of("1/5s"), rules.getExtensionData(RobotsExtension.REQUEST_RATE).getValues());
+        assertEquals(BaseRobotRules.UNSET_CRAWL_DELAY, rules.getCrawlDelay());
+
+        // same results for all test robots.txt files
+        Path dir = Paths.get(SimpleRobotRulesParserTest.class.getResource("/robots").toURI());
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        SimpleRobotRulesParser eagerParser = new SimpleRobotRulesParser();
+        eagerParser.enableAllExtensions();
+        for (Path file : files) {
+            byte[] content = Files.readAllBytes(file);
+            for (String agentName : new String[] { "anybot", "googlebot", "bingbot", "twitterbot", "foobot", "examplebot" }) {
+                expected = eagerParser.parseContent(FAKE_ROBOTS_URL, content, "text/plain", Set.of(agentName));
+                rules = parser.parseContent(FAKE_ROBOTS_URL, content, "text/plain", Set.of(agentName));
+                assertEquals(expected, rules, () -> "Rules for " + agentName + " from " + file);
+                assertEquals(expected.isMatchedWildcard(), rules.isMatchedWildcard());
+            }
+        }
+    }
+
+    @Test
+    void testParseContentForAgents() throws Exception {
+        Map<String, Collection<String>> agentsById = new LinkedHashMap<>();
+        agentsById.put("search", List.of("googlebot"));
+        agentsById.put("ads", List.of("adsbot-google", "bingbot"));
+        agentsById.put("preview", List.of("twitterbot"));
+        agentsById.put("other", List.of("foobot"));
+
+        Path dir = Paths.get(SimpleRobotRulesParserTest.class.getResource("/robots").toURI());
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        parser.enableAllExtensions();
+        for (boolean lazy : new boolean[] { false, true }) {
+            parser.setLazyGroupParsing(lazy);
+            for (Path file : files) {
+                byte[] content = Files.readAllBytes(file);
+                Map<String, SimpleRobotRules> rulesById = parser.parseContentForAgents(FAKE_ROBOTS_URL, content, "text/plain", agentsById);
+                assertEquals(List.copyOf(agentsById.keySet()), List.copyOf(rulesById.keySet()));
+                for (Entry<String, Collection<String>> agents : agentsById.entrySet()) {
+                    SimpleRobotRules expected = parser.parseContent(FAKE_ROBOTS_URL, content, "text/plain", agents.getValue());
+                    SimpleRobotRules rules = rulesById.get(agents.getKey());
+                    assertEquals(expected, rules, () -> "Rules for " + agents.getKey() + " from " + file);
+                    assertEquals(expected.isMatchedWildcard(), rules.isMatchedWildcard());
+                }
+            }
+        }
+
+        // rules are not shared between identities
+        Map<String, SimpleRobotRules> rulesById = parser.parseContentForAgents(FAKE_ROBOTS_URL, new byte[0], "text/plain", agentsById);
+        assertNotSame(rulesById.get("search"), rulesById.get("ads"));
+        assertTrue(rulesById.get("search").isAllowAll());
+
+        assertTrue(parser.parseContentForAgents(FAKE_ROBOTS_URL, new byte[0], "text/plain", Map.of()).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> parser.parseContentForAgents(FAKE_ROBOTS_URL, new byte[0], "text/plain", Map.of("all", List.of("*"))));
+    }
+
+    @Test
+    void testParseAll() throws Exception {
+        Path dir = Paths.get(SimpleRobotRulesParserTest.class.getResource("/robots").toURI());
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        // enough documents to fill several batches
+        List<RobotsDocument> documents = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            for (Path file : files) {
+                documents.add(new RobotsDocument("http://www" + i + ".example.com/robots.txt?" + file.getFileName(), Files.readAllBytes(file), "text/plain"));
+            }
+        }
+
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        parser.enableAllExtensions();
+        Set<String> agentNames = Set.of("googlebot");
+        List<SimpleRobotRules> expected = new ArrayList<>();
+        long expectedLines = 0;
+        long expectedWarnings = 0;
+        RobotsParseStats stats = new RobotsParseStats();
+        for (RobotsDocument doc : documents) {
+            expected.add(parser.parseContent(doc.getUrl(), doc.getContent(), doc.getContentType(), agentNames, stats));
+            expectedLines += stats.getLines();
+            expectedWarnings += stats.getNumWarnings();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (Executor exec : new Executor[] { null, executor }) {
+                for (boolean ordered : new boolean[] { true, false }) {
+                    List<RobotsDocument> parsedDocs = new ArrayList<>();
+                    Map<String, SimpleRobotRules> rulesByUrl = new HashMap<>();
+                    RobotsBulkParseStats bulkStats = parser.parseAll(documents.stream(), agentNames, exec, ordered, (doc, rules) -> {
+                        parsedDocs.add(doc);
+                        rulesByUrl.put(doc.getUrl(), rules);
+                    });
+                    if (ordered) {
+                        assertEquals(documents, parsedDocs);
+                    }
+                    assertEquals(documents.size(), rulesByUrl.size());
+                    for (int i = 0; i < documents.size(); i++) {
+                        assertEquals(expected.get(i), rulesByUrl.get(documents.get(i).getUrl()), documents.get(i).getUrl());
+                    }
+                    assertEquals(documents.size(), bulkStats.getDocuments());
+                    assertEquals(0, bulkStats.getFailures());
+                    assertEquals(documents.stream().mapToLong(d -> d.getContent().length).sum(), bulkStats.getBytes());
+                    assertEquals(expectedLines, bulkStats.getLines());
+                    assertEquals(expectedWarnings, bulkStats.getNumWarnings());
+                    assertEquals(expected.stream().mapToLong(r -> r.getRobotRules().size()).sum(), bulkStats.getRulesKept());
+                    assertTrue(bulkStats.getElapsedNanos() > 0);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> parser.parseAll(documents.stream(), List.of("*"), null, true, (doc, rules) -> {
+        }));
+    }
+
+    @Test
+    void testRemoveShadowedRules() {
+        String robotsTxt = "User-agent: *" + CRLF //
+                        + "Disallow: /private/" + CRLF //
+                        + "Disallow: /private/a" + CRLF //
+                        + "Disallow: /private/b" + CRLF //
+                        + "Allow: /private/b/public" + CRLF //
+                        + "Disallow: /tmp" + CRLF //
+                        + "Allow: /tmp" + CRLF;
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        assertFalse(parser.isRemoveShadowedRules());
+        RobotsParseStats stats = new RobotsParseStats();
+        SimpleRobotRules expected = parser.parseContent(FAKE_ROBOTS_URL, robotsTxt.getBytes(UTF_8), "text/plain", Set.of("anybot"), stats);
+        assertEquals(6, expected.getRobotRules().size());
+        assertEquals(0, stats.getRulesShadowed());
+
+        parser.setRemoveShadowedRules(true);
+        SimpleRobotRules rules = parser.parseContent(FAKE_ROBOTS_URL, robotsTxt.getBytes(UTF_8), "text/plain", Set.of("anybot"), stats);
+        assertEquals(2, rules.getRobotRules().size());
+        assertEquals(4, stats.getRulesShadowed());
+        assertEquals(4, stats.getRulesDropped());
+        assertEquals(4, parser.getNumShadowedRules());
+        for (String path : new String[] { "/private/", "/private/a", "/private/b", "/private/b/public", "/tmp", "/" }) {
+            assertEquals(expected.isAllowed(FAKE_ROBOTS_URL + path), rules.isAllowed(FAKE_ROBOTS_URL + path), path);
+        }
+    }
+
+    @Test
+    void testRuleComplexityLimitsForAgents() {
+        String robotsTxt = "User-agent: abot" + CRLF //
+                        + "User-agent: bbot" + CRLF //
+                        + "Disallow: /*a*a*a*b" + CRLF //
+                        + CRLF //
+                        + "User-agent: cbot" + CRLF //
+                        + "Disallow: /*a*a*a*c" + CRLF;
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        parser.setMaxRuleWildcards(2);
+        Map<String, Collection<String>> agentsById = new LinkedHashMap<>();
+        agentsById.put("a", List.of("abot"));
+        agentsById.put("b", List.of("bbot"));
+        agentsById.put("c", List.of("cbot"));
+        Map<String, SimpleRobotRules> rulesById = parser.parseContentForAgents(FAKE_ROBOTS_URL, robotsTxt.getBytes(UTF_8), "text/plain", agentsById);
+        // the degraded rule is reported for every identity, as if parsed separately
+        assertEquals(3, parser.getNumDegradedRules());
+        assertEquals(1, parser.getNumWarnings());
+        for (Entry<String, Collection<String>> agents : agentsById.entrySet()) {
+            assertEquals(parser.parseContent(FAKE_ROBOTS_URL, robotsTxt.getBytes(UTF_8), "text/plain", agents.getValue()), rulesById.get(agents.getKey()));
+            assertEquals(1, parser.getNumWarnings());
+        }
+        assertEquals(6, parser.getNumDegradedRules());
+    }
+
+    @Test
+    void testRuleComplexityLimits() {
+        String robotsTxt = "User-agent: *" + CRLF //
+                        + "Disallow: /*a*a*a*b" + CRLF //
+                        + "Disallow: /long/path/*.php$" + CRLF //
+                        + "Allow: /*.html$" + CRLF;
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        assertEquals(SimpleRobotRulesParser.DEFAULT_MAX_RULE_LENGTH, parser.getMaxRuleLength());
+        assertEquals(SimpleRobotRulesParser.DEFAULT_MAX_RULE_WILDCARDS, parser.getMaxRuleWildcards());
+        parser.setMaxRuleWildcards(2);
+        parser.setMaxRuleLength(12);
+        SimpleRobotRules rules = parser.parseContent(FAKE_ROBOTS_URL, robotsTxt.getBytes(UTF_8), "text/plain", Set.of("anybot"));
+        assertEquals(2, parser.getNumDegradedRules());
+        assertEquals(2, parser.getNumWarnings());
+        List<String> patterns = rules.getRobotRules().stream().map(SimpleRobotRules.RobotRule::getPrefix).collect(Collectors.toList());
+        assertTrue(patterns.contains("/*a*a"));
+        assertTrue(patterns.contains("/long/path/*"));
+        assertTrue(patterns.contains("/*.html$"));
+        // degraded rules match a superset of URLs
+        assertFalse(rules.isAllowed("http://www.domain.com/xaxa"));
+        assertFalse(rules.isAllowed("http://www.domain.com/long/path/index.jsp"));
+        assertTrue(rules.isAllowed("http://www.domain.com/long/index.php"));
+
+        assertThrows(IllegalArgumentException.class, () -> parser.setMaxRuleLength(0));
+        assertThrows(IllegalArgumentException.class, () -> parser.setMaxRuleWildcards(-1));
+    }
+
+    @Test
+    void testRuleComplexityLimitsNotWidened() {
+        String robotsTxt = "User-agent: *" + CRLF //
+                        + "Disallow: /a" + CRLF //
+                        + "Allow: /a/specific-page.html" + CRLF //
+                        + "Allow: /b*c*d*e" + CRLF //
+                        + "Disallow: /b/" + CRLF;
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        parser.setMaxRuleLength(6);
+        parser.setMaxRuleWildcards(2);
+        SimpleRobotRules rules = parser.parseContent(FAKE_ROBOTS_URL, robotsTxt.getBytes(UTF_8), "text/plain", Set.of("anybot"));
+        assertEquals(2, parser.getNumDegradedRules());
+        // allow rules exceeding the limits are dropped, not shortened
+        List<String> patterns = rules.getRobotRules().stream().map(SimpleRobotRules.RobotRule::getPrefix).collect(Collectors.toList());
+        assertEquals(List.of("/b/", "/a"), patterns);
+        assertFalse(rules.isAllowed("http://www.domain.com/a/spe-other"));
+        assertFalse(rules.isAllowed("http://www.domain.com/b/xcxdxe"));
+
+        // percent-encoded characters are not split
+        parser.setMaxRuleLength(4);
+        rules = parser.parseContent(FAKE_ROBOTS_URL, "User-agent: *\nDisallow: /a%C3%A4\n".getBytes(UTF_8), "text/plain", Set.of("anybot"));
+        assertEquals("/a", rules.getRobotRules().get(0).getPrefix());
+        parser.setMaxRuleLength(3);
+        rules = parser.parseContent(FAKE_ROBOTS_URL, "User-agent: *\nDisallow: /a%C3%A4\n".getBytes(UTF_8), "text/plain", Set.of("anybot"));
+        assertEquals("/a", rules.getRobotRules().get(0).getPrefix());
+        parser.setMaxRuleLength(5);
+        rules = parser.parseContent(FAKE_ROBOTS_URL, "User-agent: *\nDisallow: /a%C3%A4\n".getBytes(UTF_8), "text/plain", Set.of("anybot"));
+        assertEquals("/a%C3", rules.getRobotRules().get(0).getPrefix());
+
+        // a disallow rule cut before a leading wildcard disallows all
+        parser.setMaxRuleWildcards(0);
+        rules = parser.parseContent(FAKE_ROBOTS_URL, "User-agent: *\nDisallow: *.pdf\n".getBytes(UTF_8), "text/plain", Set.of("anybot"));
+        assertEquals("/", rules.getRobotRules().get(0).getPrefix());
+        assertFalse(rules.isAllowed("http://www.domain.com/index.html"));
+    }
+
+    @Test
+    void testParseStats() {
+        String robotsTxt = "User-agent: otherbot" + CRLF //
+                        + "Disallow: /other/" + CRLF //
+                        + "Disallow: /tmp/" + CRLF //
+                        + CRLF //
+                        + "User-agent: mybot" + CRLF //
+                        + "User-agent: thirdbot" + CRLF //
+                        + "Disallow: /private/ # comment" + CRLF //
+                        + "Allow: /private/public/" + CRLF //
+                        + "Disallow: /private/" + CRLF //
+                        + "Crawl-delay: soon" + CRLF //
+                        + "Unknown-directive: value" + CRLF //
+                        + "# comment only" + CRLF //
+                        + CRLF //
+                        + "User-agent: *" + CRLF //
+                        + "Disallow: /" + CRLF;
+        byte[] content = robotsTxt.getBytes(UTF_8);
+        SimpleRobotRulesParser parser = new SimpleRobotRulesParser();
+        RobotsParseStats stats = new RobotsParseStats();
+        SimpleRobotRules rules = parser.parseContent(FAKE_ROBOTS_URL, content, "text/plain", Set.of("mybot"), stats);
+        assertEquals(parser.parseContent(FAKE_ROBOTS_URL, content, "text/plain", Set.of("mybot")), rules);
+
+        assertEquals(content.length, stats.getBytes());
+        assertEquals(content.length, stats.getParsedBytes());
+        assertEquals(12, stats.getLines());
+        assertEquals(0, stats.getSkippedLines());
+        assertEquals(3, stats.getGroups());
+        assertEquals(1, stats.getMatchedGroups());
+        assertEquals(6, stats.getRuleDirectives());
+        assertEquals(2, stats.getRulesKept());
+        assertEquals(4, stats.getRulesDropped());
+        assertEquals(2, stats.getNumWarnings());
+        assertEquals(1, stats.getNumWarnings(RobotsParseStats.WarningType.INVALID_CRAWL_DELAY));
+        assertEquals(1, stats.getNumWarnings(RobotsParseStats.WarningType.UNKNOWN_LINE));
+        assertEquals(0, stats.getNumWarnings(RobotsParseStats.WarningType.RAW_URL));
+        assertFalse(stats.isHtml());
+        assertFalse(stats.isTruncated());
+        assertTrue(stats.getNanos() > 0);
+
+        // the statistics object is reset for every parse
+        parser.setLazyGroupParsing(true);
+        parser.setMaxContentLength(robotsTxt.indexOf("User-agent: *"));
+        parser.parseContent(FAKE_ROBOTS_URL, content, "text/plain", Set.of("anybot"), stats);
+        assertEquals(content.length, stats.getBytes());
+        assertTrue(stats.getParsedBytes() < content.length);
+        assertTrue(stats.isTruncated());
+        assertEquals(2, stats.getGroups());
+        assertEquals(0, stats.getMatchedGroups());
+        assertEquals(0, stats.getRuleDirectives());
+        assertEquals(6, stats.getSkippedLines());
+        // the unknown line starts with the same character as user-agent and
+        // is not skipped
+        assertEquals(2, stats.getNumWarnings());
+        assertEquals(1, stats.getNumWarnings(RobotsParseStats.WarningType.CONTENT_TRUNCATED));
+        assertEquals(1, stats.getNumWarnings(RobotsParseStats.WarningType.UNKNOWN_LINE));
+
+        // HTML
+        parser = new SimpleRobotRulesParser();
+        rules = parser.parseContent(FAKE_ROBOTS_URL, "<html><body>Not found</body></html>".getBytes(UTF_8), "text/html", Set.of("mybot"), stats);
+        assertTrue(rules.isAllowAll());
+        assertTrue(stats.isHtml());
+        assertEquals(0, stats.getLines());
+    }
+
     private byte[] readFile(String filename) throws Exception {
         byte[] bigBuffer = new byte[100000];
         InputStream is = SimpleRobotRulesParserTest.class.getResourceAsStream(filename);